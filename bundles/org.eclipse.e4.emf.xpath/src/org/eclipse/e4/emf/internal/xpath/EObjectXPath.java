@@ -0,0 +1,480 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.e4.emf.internal.xpath;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.jxpath.JXPathNotFoundException;
+import org.apache.commons.jxpath.ri.InfoSetUtil;
+import org.apache.commons.jxpath.util.TypeUtils;
+import org.eclipse.e4.emf.xpath.CompiledXPath;
+import org.eclipse.e4.emf.xpath.XPathContext;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+
+/**
+ * Compiled xpath evaluated directly on the EMF model, for the xpaths made of
+ * child and descendant steps with predicates comparing features or the name of
+ * the EClass to literals. The descendant steps and <code>*</code> walk the
+ * containment tree in order, and each object is found once.
+ * <p>
+ * The xpaths evaluated in a context whose bean isn't an {@link EObject}, and
+ * those whose last step selects a feature without predicates, are evaluated
+ * with JXPath.
+ * </p>
+ */
+final class EObjectXPath implements CompiledXPath {
+
+	private static final String SELF = "."; //$NON-NLS-1$
+
+	private static final String CONTENTS = "*"; //$NON-NLS-1$
+
+	private static final String ECLASS_NAME = "ecore:eClassName(.)"; //$NON-NLS-1$
+
+	/**
+	 * A step of the path: the feature it selects, {@link #SELF} or
+	 * {@link #CONTENTS}, from the objects found so far or from all their
+	 * descendants, and the predicates the selected objects have to match.
+	 */
+	private static final class Step {
+		final boolean descendants;
+
+		final String name;
+
+		final List<Comparison[][]> predicates = new ArrayList<>();
+
+		Step(boolean descendants, String name) {
+			this.descendants = descendants;
+			this.name = name;
+		}
+
+		void select(Object object, List<Object> result, Map<Object, Object> found) {
+			if (SELF.equals(name)) {
+				add(object, result, found);
+			} else if (object instanceof EObject) {
+				EObject eObject = (EObject) object;
+				if (CONTENTS.equals(name)) {
+					for (EObject child : eObject.eContents()) {
+						add(child, result, found);
+					}
+				} else {
+					EStructuralFeature feature = eObject.eClass().getEStructuralFeature(name);
+					if (feature != null) {
+						Object value = eObject.eGet(feature);
+						if (feature.isMany()) {
+							for (Object element : (List<?>) value) {
+								add(element, result, found);
+							}
+						} else if (value != null) {
+							add(value, result, found);
+						}
+					}
+				}
+			}
+		}
+
+		void add(Object object, List<Object> result, Map<Object, Object> found) {
+			if (matches(object) && found.put(object, object) == null) {
+				result.add(object);
+			}
+		}
+
+		private boolean matches(Object object) {
+			for (Comparison[][] predicate : predicates) {
+				if (!matches(predicate, object)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/*
+		 * The predicate is a disjunction of conjunctions.
+		 */
+		private static boolean matches(Comparison[][] predicate, Object object) {
+			for (Comparison[] conjunction : predicate) {
+				boolean matches = true;
+				for (Comparison comparison : conjunction) {
+					if (!comparison.matches(object)) {
+						matches = false;
+						break;
+					}
+				}
+				if (matches) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * The comparison of a feature of the object, or of the name of its EClass
+	 * if there's no feature, with a literal.
+	 */
+	private static final class Comparison {
+		final String feature;
+
+		final String literal;
+
+		Comparison(String feature, String literal) {
+			this.feature = feature;
+			this.literal = literal;
+		}
+
+		boolean matches(Object object) {
+			if (!(object instanceof EObject)) {
+				return false;
+			}
+			EObject eObject = (EObject) object;
+			if (feature == null) {
+				return equal(eObject.eClass().getName());
+			}
+			EStructuralFeature eFeature = eObject.eClass().getEStructuralFeature(feature);
+			if (eFeature == null) {
+				return false;
+			}
+			Object value = eObject.eGet(eFeature);
+			if (eFeature.isMany()) {
+				for (Object element : (List<?>) value) {
+					if (equal(element)) {
+						return true;
+					}
+				}
+				return false;
+			}
+			return equal(value);
+		}
+
+		/*
+		 * Compares the value like JXPath does.
+		 */
+		private boolean equal(Object value) {
+			if (value instanceof Boolean) {
+				return InfoSetUtil.booleanValue(value) == InfoSetUtil.booleanValue(literal);
+			}
+			if (value instanceof Number) {
+				double number = InfoSetUtil.doubleValue(value);
+				double other = InfoSetUtil.doubleValue(literal);
+				return !Double.isNaN(number) && !Double.isNaN(other) && number == other;
+			}
+			return InfoSetUtil.stringValue(value).equals(literal);
+		}
+	}
+
+	/**
+	 * Parses the xpaths that can be evaluated directly on the model.
+	 */
+	private static final class Parser {
+		private final String xpath;
+
+		private int position;
+
+		Parser(String xpath) {
+			this.xpath = xpath;
+		}
+
+		List<Step> parsePath() {
+			List<Step> steps = new ArrayList<>();
+			boolean descendants = false;
+			if (xpath.startsWith("//")) { //$NON-NLS-1$
+				descendants = true;
+				position = 2;
+			} else if (xpath.startsWith("/")) { //$NON-NLS-1$
+				position = 1;
+				if (xpath.length() == 1) {
+					return steps;
+				}
+			}
+			while (true) {
+				steps.add(parseStep(descendants));
+				if (position == xpath.length()) {
+					return steps;
+				}
+				if (xpath.startsWith("//", position)) { //$NON-NLS-1$
+					descendants = true;
+					position += 2;
+				} else if (xpath.charAt(position) == '/') {
+					descendants = false;
+					position++;
+				} else {
+					throw new IllegalArgumentException();
+				}
+			}
+		}
+
+		private Step parseStep(boolean descendants) {
+			Step step;
+			if (xpath.startsWith("..", position)) { //$NON-NLS-1$
+				throw new IllegalArgumentException();
+			} else if (xpath.startsWith(SELF, position)) {
+				position++;
+				step = new Step(descendants, SELF);
+			} else if (xpath.startsWith(CONTENTS, position)) {
+				position++;
+				step = new Step(descendants, CONTENTS);
+			} else {
+				step = new Step(descendants, parseName());
+			}
+			while (position < xpath.length() && xpath.charAt(position) == '[') {
+				position++;
+				step.predicates.add(parsePredicate());
+				skipSpaces();
+				expect(']');
+			}
+			return step;
+		}
+
+		private Comparison[][] parsePredicate() {
+			List<Comparison[]> disjunction = new ArrayList<>();
+			do {
+				List<Comparison> conjunction = new ArrayList<>();
+				do {
+					conjunction.add(parseComparison());
+				} while (parseKeyword("and")); //$NON-NLS-1$
+				disjunction.add(conjunction.toArray(new Comparison[conjunction.size()]));
+			} while (parseKeyword("or")); //$NON-NLS-1$
+			return disjunction.toArray(new Comparison[disjunction.size()][]);
+		}
+
+		private Comparison parseComparison() {
+			skipSpaces();
+			if (position < xpath.length() && (xpath.charAt(position) == '\'' || xpath.charAt(position) == '"')) {
+				String literal = parseLiteral();
+				skipSpaces();
+				expect('=');
+				skipSpaces();
+				return new Comparison(parseOperand(), literal);
+			}
+			String feature = parseOperand();
+			skipSpaces();
+			expect('=');
+			skipSpaces();
+			return new Comparison(feature, parseLiteral());
+		}
+
+		/*
+		 * Returns the name of the feature, or null for the name of the EClass.
+		 */
+		private String parseOperand() {
+			if (xpath.startsWith(ECLASS_NAME, position)) {
+				position += ECLASS_NAME.length();
+				return null;
+			}
+			expect('@');
+			return parseName();
+		}
+
+		private String parseName() {
+			int start = position;
+			if (position < xpath.length() && Character.isJavaIdentifierStart(xpath.charAt(position))
+					&& xpath.charAt(position) != '$') {
+				position++;
+				while (position < xpath.length() && Character.isJavaIdentifierPart(xpath.charAt(position))
+						&& xpath.charAt(position) != '$') {
+					position++;
+				}
+			}
+			// prefixes, axes and functions are left to JXPath
+			if (position == start
+					|| (position < xpath.length() && (xpath.charAt(position) == ':' || xpath.charAt(position) == '('))) {
+				throw new IllegalArgumentException();
+			}
+			return xpath.substring(start, position);
+		}
+
+		private String parseLiteral() {
+			if (position == xpath.length()) {
+				throw new IllegalArgumentException();
+			}
+			char quote = xpath.charAt(position);
+			int end = xpath.indexOf(quote, position + 1);
+			if ((quote != '\'' && quote != '"') || end == -1) {
+				throw new IllegalArgumentException();
+			}
+			String literal = xpath.substring(position + 1, end);
+			position = end + 1;
+			return literal;
+		}
+
+		private boolean parseKeyword(String keyword) {
+			skipSpaces();
+			int end = position + keyword.length();
+			if (xpath.startsWith(keyword, position) && end < xpath.length()
+					&& !Character.isJavaIdentifierPart(xpath.charAt(end)) && xpath.charAt(end) != '-'
+					&& xpath.charAt(end) != '.') {
+				position = end;
+				return true;
+			}
+			return false;
+		}
+
+		private void skipSpaces() {
+			while (position < xpath.length() && Character.isWhitespace(xpath.charAt(position))) {
+				position++;
+			}
+		}
+
+		private void expect(char c) {
+			if (position == xpath.length() || xpath.charAt(position) != c) {
+				throw new IllegalArgumentException();
+			}
+			position++;
+		}
+	}
+
+	private final String xpath;
+
+	private final List<Step> steps;
+
+	private JXPathCompiledXPath jxpath;
+
+	private EObjectXPath(String xpath, List<Step> steps) {
+		this.xpath = xpath;
+		this.steps = steps;
+	}
+
+	/**
+	 * Compiles the xpath to be evaluated directly on the model.
+	 *
+	 * @param xpath
+	 *            the xpath to compile
+	 * @return the compiled xpath, or <code>null</code> if the xpath can't be
+	 *         evaluated directly on the model
+	 */
+	static EObjectXPath compile(String xpath) {
+		try {
+			return new EObjectXPath(xpath, new Parser(xpath).parsePath());
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	@Override
+	public Object getValue(XPathContext context) {
+		EObject root = getRoot(context);
+		if (root == null || selectsFeatureValue()) {
+			return getJXPath().getValue(context);
+		}
+		List<Object> result = evaluate(root);
+		if (result.isEmpty()) {
+			throw new JXPathNotFoundException("No value for xpath: " + xpath); //$NON-NLS-1$
+		}
+		return result.get(0);
+	}
+
+	@Override
+	public Object getValue(XPathContext context, Class<?> requiredType) {
+		if (getRoot(context) == null || selectsFeatureValue()) {
+			return getJXPath().getValue(context, requiredType);
+		}
+		return TypeUtils.convert(getValue(context), requiredType);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <O> Iterator<O> iterate(XPathContext context) {
+		EObject root = getRoot(context);
+		if (root == null || selectsFeatureValue()) {
+			return getJXPath().iterate(context);
+		}
+		return (Iterator<O>) evaluate(root).iterator();
+	}
+
+	private static EObject getRoot(XPathContext context) {
+		if (context instanceof JXPathContextImpl) {
+			Object bean = ((JXPathContextImpl) context).getJXPathContext().getContextBean();
+			if (bean instanceof EObject) {
+				return (EObject) bean;
+			}
+		}
+		return null;
+	}
+
+	private boolean selectsFeatureValue() {
+		if (steps.isEmpty()) {
+			return false;
+		}
+		Step last = steps.get(steps.size() - 1);
+		return last.predicates.isEmpty() && !SELF.equals(last.name) && !CONTENTS.equals(last.name);
+	}
+
+	private synchronized JXPathCompiledXPath getJXPath() {
+		if (jxpath == null) {
+			jxpath = new JXPathCompiledXPath(xpath);
+		}
+		return jxpath;
+	}
+
+	private List<Object> evaluate(EObject root) {
+		List<Object> objects = new ArrayList<>(1);
+		objects.add(root);
+		for (Step step : steps) {
+			List<Object> result = new ArrayList<>();
+			Map<Object, Object> found = new IdentityHashMap<>();
+			for (Object object : objects) {
+				if (!step.descendants || !(object instanceof EObject)) {
+					step.select(object, result, found);
+				} else if (CONTENTS.equals(step.name)) {
+					// keep the order of the tree
+					for (TreeIterator<EObject> i = ((EObject) object).eAllContents(); i.hasNext();) {
+						step.add(i.next(), result, found);
+					}
+				} else {
+					List<Object> selected = new ArrayList<>();
+					step.select(object, selected, found);
+					for (TreeIterator<EObject> i = ((EObject) object).eAllContents(); i.hasNext();) {
+						step.select(i.next(), selected, found);
+					}
+					addInTreeOrder((EObject) object, selected, result);
+				}
+			}
+			objects = result;
+		}
+		return objects;
+	}
+
+	/*
+	 * The objects selected from the descendants aren't found in the order of
+	 * the tree, as the values of a feature are found before the objects they
+	 * contain.
+	 */
+	private static void addInTreeOrder(EObject root, List<Object> selected, List<Object> result) {
+		if (selected.size() < 2) {
+			result.addAll(selected);
+			return;
+		}
+		Map<Object, Object> remaining = new IdentityHashMap<>();
+		for (Object object : selected) {
+			remaining.put(object, object);
+		}
+		if (remaining.remove(root) != null) {
+			result.add(root);
+		}
+		for (TreeIterator<EObject> i = root.eAllContents(); i.hasNext() && !remaining.isEmpty();) {
+			EObject object = i.next();
+			if (remaining.remove(object) != null) {
+				result.add(object);
+			}
+		}
+		// the values which aren't contained, in the order they were found
+		for (Object object : selected) {
+			if (remaining.containsKey(object)) {
+				result.add(object);
+			}
+		}
+	}
+}
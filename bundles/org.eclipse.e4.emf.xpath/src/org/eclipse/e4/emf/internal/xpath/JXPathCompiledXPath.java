@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.e4.emf.internal.xpath;
+
+import java.util.Iterator;
+
+import org.apache.commons.jxpath.CompiledExpression;
+import org.apache.commons.jxpath.JXPathContext;
+import org.eclipse.e4.emf.xpath.CompiledXPath;
+import org.eclipse.e4.emf.xpath.XPathContext;
+
+/**
+ * Compiled xpath which uses JXPath to evaluate the expression
+ */
+final class JXPathCompiledXPath implements CompiledXPath {
+
+	private final String xpath;
+
+	private final CompiledExpression expression;
+
+	/**
+	 * Compile the xpath
+	 *
+	 * @param xpath
+	 *            the xpath to compile
+	 */
+	JXPathCompiledXPath(String xpath) {
+		this.xpath = xpath;
+		this.expression = JXPathContext.compile(xpath);
+	}
+
+	@Override
+	public Object getValue(XPathContext context) {
+		if (context instanceof JXPathContextImpl) {
+			return expression.getValue(((JXPathContextImpl) context).getJXPathContext());
+		}
+		return context.getValue(xpath);
+	}
+
+	@Override
+	public Object getValue(XPathContext context, Class<?> requiredType) {
+		if (context instanceof JXPathContextImpl) {
+			return expression.getValue(((JXPathContextImpl) context).getJXPathContext(), requiredType);
+		}
+		return context.getValue(xpath, requiredType);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <O> Iterator<O> iterate(XPathContext context) {
+		if (context instanceof JXPathContextImpl) {
+			return expression.iterate(((JXPathContextImpl) context).getJXPathContext());
+		}
+		return context.iterate(xpath);
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2015 BestSolution.at and others.
+ * Copyright (c) 2010, 2018 BestSolution.at and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,6 +10,10 @@
  ******************************************************************************/
 package org.eclipse.e4.emf.internal.xpath;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.e4.emf.xpath.CompiledXPath;
 import org.eclipse.e4.emf.xpath.XPathContext;
 import org.eclipse.e4.emf.xpath.XPathContextFactory;
 
@@ -22,6 +26,21 @@ import org.eclipse.e4.emf.xpath.XPathContextFactory;
  */
 public class JXPathContextFactoryImpl<Type> extends XPathContextFactory<Type> {
 
+	private static final int MAX_COMPILED = 256;
+
+	/**
+	 * The xpaths compiled lately, shared by all the factories
+	 */
+	private static final Map<String, CompiledXPath> compiled = new LinkedHashMap<String, CompiledXPath>(16, 0.75f,
+			true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, CompiledXPath> eldest) {
+			return size() > MAX_COMPILED;
+		}
+	};
+
 	@Override
 	public XPathContext newContext(XPathContext parentContext, Object contextBean) {
 		return new JXPathContextImpl(parentContext, contextBean);
@@ -32,4 +51,19 @@ public class JXPathContextFactoryImpl<Type> extends XPathContextFactory<Type> {
 		return new JXPathContextImpl(contextBean);
 	}
 
+	@Override
+	public CompiledXPath compile(String xpath) {
+		synchronized (compiled) {
+			CompiledXPath compiledXPath = compiled.get(xpath);
+			if (compiledXPath == null) {
+				compiledXPath = EObjectXPath.compile(xpath);
+				if (compiledXPath == null) {
+					compiledXPath = new JXPathCompiledXPath(xpath);
+				}
+				compiled.put(xpath, compiledXPath);
+			}
+			return compiledXPath;
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2015 BestSolution.at and others.
+ * Copyright (c) 2010, 2018 BestSolution.at and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -90,7 +90,7 @@ public final class JXPathContextImpl implements XPathContext {
 		return context.iterate(xpath);
 	}
 
-	private JXPathContext getJXPathContext() {
+	JXPathContext getJXPathContext() {
 		return context;
 	}
 
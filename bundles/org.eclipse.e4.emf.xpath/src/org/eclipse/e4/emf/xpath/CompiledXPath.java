@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.e4.emf.xpath;
+
+import java.util.Iterator;
+
+/**
+ * An xpath parsed once, which can be evaluated in many contexts without being
+ * parsed again.
+ * <p>
+ * The xpaths made of child and descendant steps selecting features,
+ * <code>*</code> or <code>.</code>, with predicates comparing features or
+ * <code>ecore:eClassName(.)</code> to string literals, combined with
+ * <code>and</code> and <code>or</code>, are evaluated directly on the EMF
+ * model. In these xpaths <code>*</code> and the descendant steps only select
+ * contained objects, a feature name selects the values of the feature, and
+ * each object is found once, in the order of the containment tree. For example
+ * <code>//*[@elementId='app.menu.primary' or @elementId='app.menu.secondary']</code>
+ * finds the objects with either id among the contents of the context object.
+ * The other xpaths are evaluated like {@link XPathContext} evaluates them.
+ * </p>
+ *
+ * @see XPathContextFactory#compile(String)
+ * @since 0.3
+ */
+public interface CompiledXPath {
+
+	/**
+	 * Evaluates the xpath in the context and returns the resulting object.
+	 * Primitive types are wrapped into objects.
+	 *
+	 * @param context
+	 *            the context in which the xpath is evaluated
+	 * @return Object found
+	 */
+	Object getValue(XPathContext context);
+
+	/**
+	 * Evaluates the xpath in the context, converts the result to the specified
+	 * class and returns the resulting object.
+	 *
+	 * @param context
+	 *            the context in which the xpath is evaluated
+	 * @param requiredType
+	 *            required type
+	 * @return Object found
+	 */
+	Object getValue(XPathContext context, Class<?> requiredType);
+
+	/**
+	 * Traverses the xpath in the context and returns an Iterator of all results
+	 * found for the path. If the xpath matches no properties in the graph, the
+	 * Iterator will be empty, but not null.
+	 *
+	 * @param <O>
+	 *            the expected object type
+	 *
+	 * @param context
+	 *            the context in which the xpath is evaluated
+	 * @return Iterator<Object>
+	 */
+	<O> Iterator<O> iterate(XPathContext context);
+}
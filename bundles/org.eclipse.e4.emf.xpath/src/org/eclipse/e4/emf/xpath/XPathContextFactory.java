@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2015 BestSolution.at and others.
+ * Copyright (c) 2010, 2018 BestSolution.at and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,6 +10,8 @@
  ******************************************************************************/
 package org.eclipse.e4.emf.xpath;
 
+import java.util.Iterator;
+
 import org.eclipse.e4.emf.internal.xpath.JXPathContextFactoryImpl;
 
 /**
@@ -42,6 +44,36 @@ public abstract class XPathContextFactory<Type extends Object> {
 	 */
 	public abstract XPathContext newContext(XPathContext parentContext, Type contextBean);
 
+	/**
+	 * Compiles the xpath to be evaluated in the contexts created by this
+	 * factory. The default implementation doesn't parse the xpath, and
+	 * evaluates it with the context each time.
+	 *
+	 * @param xpath
+	 *            the xpath to compile
+	 * @return the compiled xpath
+	 * @since 0.3
+	 */
+	public CompiledXPath compile(final String xpath) {
+		return new CompiledXPath() {
+
+			@Override
+			public Object getValue(XPathContext context) {
+				return context.getValue(xpath);
+			}
+
+			@Override
+			public Object getValue(XPathContext context, Class<?> requiredType) {
+				return context.getValue(xpath, requiredType);
+			}
+
+			@Override
+			public <O> Iterator<O> iterate(XPathContext context) {
+				return context.iterate(xpath);
+			}
+		};
+	}
+
 	/**
 	 * @param <Type>
 	 *            the object type the xpath is created for
@@ -0,0 +1,623 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.css.core.impl.dom;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.e4.ui.css.core.dom.CSSProperty;
+import org.eclipse.e4.ui.css.core.dom.CSSPropertyList;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSSelectorListImpl;
+import org.w3c.css.sac.AttributeCondition;
+import org.w3c.css.sac.CombinatorCondition;
+import org.w3c.css.sac.Condition;
+import org.w3c.css.sac.ConditionFactory;
+import org.w3c.css.sac.ConditionalSelector;
+import org.w3c.css.sac.DescendantSelector;
+import org.w3c.css.sac.ElementSelector;
+import org.w3c.css.sac.LangCondition;
+import org.w3c.css.sac.LexicalUnit;
+import org.w3c.css.sac.SACMediaList;
+import org.w3c.css.sac.Selector;
+import org.w3c.css.sac.SelectorFactory;
+import org.w3c.css.sac.SelectorList;
+import org.w3c.css.sac.SiblingSelector;
+import org.w3c.css.sac.SimpleSelector;
+import org.w3c.dom.css.CSSImportRule;
+import org.w3c.dom.css.CSSPrimitiveValue;
+import org.w3c.dom.css.CSSRule;
+import org.w3c.dom.css.CSSRuleList;
+import org.w3c.dom.css.CSSStyleSheet;
+import org.w3c.dom.css.CSSValue;
+import org.w3c.dom.css.RGBColor;
+import org.w3c.dom.stylesheets.MediaList;
+
+/**
+ * Converts the rule list of a parsed {@link CSSStyleSheet} to and from a
+ * compact binary form, so that style sheets can be restored without going
+ * through the SAC parser again.
+ * <p>
+ * Only the constructs produced by {@link CSSStyleSheetImpl} parsing are
+ * supported (style, import and unknown rules, {@link Measure},
+ * {@link RGBColorImpl} and {@link CSSValueListImpl} values). Anything else
+ * makes {@link #serialize(CSSStyleSheet)} fail with an {@link IOException},
+ * in which case the style sheet simply has to be parsed every time.
+ * </p>
+ */
+public final class CSSStyleSheetSerializer {
+
+	/**
+	 * Version of the binary format, to be incremented with each incompatible
+	 * change.
+	 */
+	public static final int FORMAT_VERSION = 1;
+
+	private static final byte STYLE_RULE = 1;
+	private static final byte IMPORT_RULE = 2;
+	private static final byte UNKNOWN_RULE = 3;
+
+	private static final byte MEASURE = 1;
+	private static final byte RGB_COLOR = 2;
+	private static final byte VALUE_LIST = 3;
+
+	private CSSStyleSheetSerializer() {
+		// prevent instantiation
+	}
+
+	/**
+	 * Serializes the rules of the given style sheet.
+	 *
+	 * @param styleSheet
+	 *            the style sheet as returned by the parser
+	 * @return the binary form of the rule list
+	 * @throws IOException
+	 *             if the style sheet contains constructs which cannot be
+	 *             serialized
+	 */
+	public static byte[] serialize(CSSStyleSheet styleSheet) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		Writer writer = new Writer(new DataOutputStream(bytes));
+		writer.writeRules(styleSheet.getCssRules());
+		writer.out.flush();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Restores a style sheet from the binary form created by
+	 * {@link #serialize(CSSStyleSheet)}.
+	 *
+	 * @param data
+	 *            the binary form of the rule list
+	 * @param selectorFactory
+	 *            the factory used to recreate the selectors
+	 * @param conditionFactory
+	 *            the factory used to recreate the selector conditions
+	 * @return a new style sheet
+	 * @throws IOException
+	 *             if the data is corrupt
+	 */
+	public static CSSStyleSheet deserialize(byte[] data, SelectorFactory selectorFactory,
+			ConditionFactory conditionFactory) throws IOException {
+		Reader reader = new Reader(new DataInputStream(new ByteArrayInputStream(data)), selectorFactory,
+				conditionFactory);
+		try {
+			return reader.readStyleSheet();
+		} catch (RuntimeException e) {
+			throw new IOException("Corrupt style sheet data", e); //$NON-NLS-1$
+		}
+	}
+
+	private static final class Writer {
+
+		final DataOutputStream out;
+		private final Map<String, Integer> strings = new HashMap<>();
+
+		Writer(DataOutputStream out) {
+			this.out = out;
+		}
+
+		void writeRules(CSSRuleList rules) throws IOException {
+			int length = rules.getLength();
+			writeCount(length);
+			for (int i = 0; i < length; i++) {
+				CSSRule rule = rules.item(i);
+				switch (rule.getType()) {
+				case CSSRule.STYLE_RULE:
+					if (!(rule instanceof CSSStyleRuleImpl)
+							|| !(((CSSStyleRuleImpl) rule).getStyle() instanceof CSSStyleDeclarationImpl)) {
+						throw unsupported(rule);
+					}
+					CSSStyleRuleImpl styleRule = (CSSStyleRuleImpl) rule;
+					out.writeByte(STYLE_RULE);
+					writeSelectors(styleRule.getSelectorList());
+					writeStyle((CSSStyleDeclarationImpl) styleRule.getStyle());
+					break;
+				case CSSRule.IMPORT_RULE:
+					CSSImportRule importRule = (CSSImportRule) rule;
+					out.writeByte(IMPORT_RULE);
+					writeString(importRule.getHref());
+					MediaList media = importRule.getMedia();
+					int mediaLength = media == null ? 0 : media.getLength();
+					writeCount(mediaLength);
+					for (int j = 0; j < mediaLength; j++) {
+						writeString(media.item(j));
+					}
+					break;
+				case CSSRule.UNKNOWN_RULE:
+					out.writeByte(UNKNOWN_RULE);
+					break;
+				default:
+					throw unsupported(rule);
+				}
+			}
+		}
+
+		private void writeSelectors(SelectorList selectors) throws IOException {
+			int length = selectors.getLength();
+			writeCount(length);
+			for (int i = 0; i < length; i++) {
+				writeSelector(selectors.item(i));
+			}
+		}
+
+		private void writeSelector(Selector selector) throws IOException {
+			short type = selector.getSelectorType();
+			out.writeByte(type);
+			switch (type) {
+			case Selector.SAC_CONDITIONAL_SELECTOR:
+				ConditionalSelector conditional = (ConditionalSelector) selector;
+				writeSelector(conditional.getSimpleSelector());
+				writeCondition(conditional.getCondition());
+				break;
+			case Selector.SAC_ELEMENT_NODE_SELECTOR:
+			case Selector.SAC_PSEUDO_ELEMENT_SELECTOR:
+				ElementSelector element = (ElementSelector) selector;
+				writeString(element.getNamespaceURI());
+				writeString(element.getLocalName());
+				break;
+			case Selector.SAC_DESCENDANT_SELECTOR:
+			case Selector.SAC_CHILD_SELECTOR:
+				DescendantSelector descendant = (DescendantSelector) selector;
+				writeSelector(descendant.getAncestorSelector());
+				writeSelector(descendant.getSimpleSelector());
+				break;
+			case Selector.SAC_DIRECT_ADJACENT_SELECTOR:
+				SiblingSelector sibling = (SiblingSelector) selector;
+				out.writeByte(sibling.getNodeType());
+				writeSelector(sibling.getSelector());
+				writeSelector(sibling.getSiblingSelector());
+				break;
+			default:
+				throw unsupported(selector);
+			}
+		}
+
+		private void writeCondition(Condition condition) throws IOException {
+			short type = condition.getConditionType();
+			out.writeByte(type);
+			switch (type) {
+			case Condition.SAC_AND_CONDITION:
+				CombinatorCondition combinator = (CombinatorCondition) condition;
+				writeCondition(combinator.getFirstCondition());
+				writeCondition(combinator.getSecondCondition());
+				break;
+			case Condition.SAC_ATTRIBUTE_CONDITION:
+			case Condition.SAC_ONE_OF_ATTRIBUTE_CONDITION:
+			case Condition.SAC_BEGIN_HYPHEN_ATTRIBUTE_CONDITION:
+			case Condition.SAC_CLASS_CONDITION:
+			case Condition.SAC_ID_CONDITION:
+			case Condition.SAC_PSEUDO_CLASS_CONDITION:
+				AttributeCondition attribute = (AttributeCondition) condition;
+				writeString(attribute.getLocalName());
+				writeString(attribute.getNamespaceURI());
+				out.writeBoolean(attribute.getSpecified());
+				writeString(attribute.getValue());
+				break;
+			case Condition.SAC_LANG_CONDITION:
+				writeString(((LangCondition) condition).getLang());
+				break;
+			default:
+				throw unsupported(condition);
+			}
+		}
+
+		private void writeStyle(CSSStyleDeclarationImpl style) throws IOException {
+			CSSPropertyList properties = style.getCSSPropertyList();
+			int length = properties.getLength();
+			writeCount(length);
+			for (int i = 0; i < length; i++) {
+				CSSProperty property = properties.item(i);
+				writeString(property.getName());
+				out.writeBoolean(property.isImportant());
+				writeValue(property.getValue());
+			}
+		}
+
+		private void writeValue(CSSValue value) throws IOException {
+			if (value instanceof Measure) {
+				out.writeByte(MEASURE);
+				writeLexicalUnit(((Measure) value).value);
+			} else if (value instanceof RGBColorImpl) {
+				RGBColor color = (RGBColor) value;
+				out.writeByte(RGB_COLOR);
+				writeValue(color.getRed());
+				writeValue(color.getGreen());
+				writeValue(color.getBlue());
+			} else if (value instanceof CSSValueListImpl) {
+				List<CSSValue> values = ((CSSValueListImpl) value).values;
+				out.writeByte(VALUE_LIST);
+				writeCount(values.size());
+				for (CSSValue item : values) {
+					writeValue(item);
+				}
+			} else {
+				throw unsupported(value);
+			}
+		}
+
+		/*
+		 * Writes a single unit including its parameters and sub values, but
+		 * not the units following it: values only ever look at their own unit.
+		 */
+		private void writeLexicalUnit(LexicalUnit unit) throws IOException {
+			short type = unit.getLexicalUnitType();
+			out.writeByte(type);
+			switch (type) {
+			case LexicalUnit.SAC_INTEGER:
+				out.writeInt(unit.getIntegerValue());
+				break;
+			case LexicalUnit.SAC_REAL:
+			case LexicalUnit.SAC_EM:
+			case LexicalUnit.SAC_EX:
+			case LexicalUnit.SAC_PIXEL:
+			case LexicalUnit.SAC_INCH:
+			case LexicalUnit.SAC_CENTIMETER:
+			case LexicalUnit.SAC_MILLIMETER:
+			case LexicalUnit.SAC_POINT:
+			case LexicalUnit.SAC_PICA:
+			case LexicalUnit.SAC_PERCENTAGE:
+			case LexicalUnit.SAC_DEGREE:
+			case LexicalUnit.SAC_GRADIAN:
+			case LexicalUnit.SAC_RADIAN:
+			case LexicalUnit.SAC_MILLISECOND:
+			case LexicalUnit.SAC_SECOND:
+			case LexicalUnit.SAC_HERTZ:
+			case LexicalUnit.SAC_KILOHERTZ:
+			case LexicalUnit.SAC_DIMENSION:
+				out.writeFloat(unit.getFloatValue());
+				writeString(unit.getDimensionUnitText());
+				break;
+			case LexicalUnit.SAC_URI:
+			case LexicalUnit.SAC_IDENT:
+			case LexicalUnit.SAC_STRING_VALUE:
+			case LexicalUnit.SAC_ATTR:
+			case LexicalUnit.SAC_UNICODERANGE:
+				writeString(unit.getStringValue());
+				break;
+			case LexicalUnit.SAC_COUNTER_FUNCTION:
+			case LexicalUnit.SAC_COUNTERS_FUNCTION:
+			case LexicalUnit.SAC_RGBCOLOR:
+			case LexicalUnit.SAC_RECT_FUNCTION:
+			case LexicalUnit.SAC_FUNCTION:
+				writeString(unit.getFunctionName());
+				writeLexicalUnits(unit.getParameters());
+				break;
+			case LexicalUnit.SAC_SUB_EXPRESSION:
+				writeLexicalUnits(unit.getSubValues());
+				break;
+			default:
+				// operators and inherit carry no value
+				break;
+			}
+		}
+
+		private void writeLexicalUnits(LexicalUnit first) throws IOException {
+			int length = 0;
+			for (LexicalUnit unit = first; unit != null; unit = unit.getNextLexicalUnit()) {
+				length++;
+			}
+			writeCount(length);
+			for (LexicalUnit unit = first; unit != null; unit = unit.getNextLexicalUnit()) {
+				writeLexicalUnit(unit);
+			}
+		}
+
+		/*
+		 * Strings are written once and referenced by index afterwards, 0
+		 * stands for null.
+		 */
+		private void writeString(String value) throws IOException {
+			if (value == null) {
+				writeCount(0);
+				return;
+			}
+			Integer index = strings.get(value);
+			if (index != null) {
+				writeCount(index.intValue() + 1);
+				return;
+			}
+			int newIndex = strings.size();
+			strings.put(value, newIndex);
+			writeCount(newIndex + 1);
+			out.writeUTF(value);
+		}
+
+		/*
+		 * Non-negative numbers are written with 7 bits per byte, as almost all
+		 * of them are small.
+		 */
+		private void writeCount(int value) throws IOException {
+			while ((value & ~0x7F) != 0) {
+				out.writeByte((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			out.writeByte(value);
+		}
+
+		private static IOException unsupported(Object construct) {
+			return new IOException("Cannot serialize " + construct.getClass().getName()); //$NON-NLS-1$
+		}
+	}
+
+	private static final class Reader {
+
+		private final DataInputStream in;
+		private final SelectorFactory selectorFactory;
+		private final ConditionFactory conditionFactory;
+		private final List<String> strings = new ArrayList<>();
+
+		Reader(DataInputStream in, SelectorFactory selectorFactory, ConditionFactory conditionFactory) {
+			this.in = in;
+			this.selectorFactory = selectorFactory;
+			this.conditionFactory = conditionFactory;
+		}
+
+		CSSStyleSheet readStyleSheet() throws IOException {
+			CSSStyleSheetImpl styleSheet = new CSSStyleSheetImpl();
+			CSSRuleListImpl rules = new CSSRuleListImpl();
+			styleSheet.setRuleList(rules);
+			int length = readCount();
+			for (int i = 0; i < length; i++) {
+				byte kind = in.readByte();
+				switch (kind) {
+				case STYLE_RULE:
+					CSSStyleRuleImpl rule = new CSSStyleRuleImpl(styleSheet, null, readSelectors());
+					rule.setStyle(readStyle(rule));
+					rules.add(rule);
+					break;
+				case IMPORT_RULE:
+					String href = readString();
+					final List<String> media = new ArrayList<>();
+					int mediaLength = readCount();
+					for (int j = 0; j < mediaLength; j++) {
+						media.add(readString());
+					}
+					rules.add(new CSSImportRuleImpl(styleSheet, null, href, new MediaListImpl(new SACMediaList() {
+						@Override
+						public int getLength() {
+							return media.size();
+						}
+
+						@Override
+						public String item(int index) {
+							return media.get(index);
+						}
+					})));
+					break;
+				case UNKNOWN_RULE:
+					rules.add(new CSSUnknownRuleImpl(styleSheet, null, null));
+					break;
+				default:
+					throw new IOException("Unknown rule kind " + kind); //$NON-NLS-1$
+				}
+			}
+			return styleSheet;
+		}
+
+		private SelectorList readSelectors() throws IOException {
+			CSSSelectorListImpl selectors = new CSSSelectorListImpl();
+			int length = readCount();
+			for (int i = 0; i < length; i++) {
+				selectors.append(readSelector());
+			}
+			return selectors;
+		}
+
+		private Selector readSelector() throws IOException {
+			short type = in.readByte();
+			switch (type) {
+			case Selector.SAC_CONDITIONAL_SELECTOR:
+				SimpleSelector simple = (SimpleSelector) readSelector();
+				return selectorFactory.createConditionalSelector(simple, readCondition());
+			case Selector.SAC_ELEMENT_NODE_SELECTOR:
+				return selectorFactory.createElementSelector(readString(), readString());
+			case Selector.SAC_PSEUDO_ELEMENT_SELECTOR:
+				return selectorFactory.createPseudoElementSelector(readString(), readString());
+			case Selector.SAC_DESCENDANT_SELECTOR:
+				Selector ancestor = readSelector();
+				return selectorFactory.createDescendantSelector(ancestor, (SimpleSelector) readSelector());
+			case Selector.SAC_CHILD_SELECTOR:
+				Selector parent = readSelector();
+				return selectorFactory.createChildSelector(parent, (SimpleSelector) readSelector());
+			case Selector.SAC_DIRECT_ADJACENT_SELECTOR:
+				short nodeType = in.readByte();
+				Selector child = readSelector();
+				return selectorFactory.createDirectAdjacentSelector(nodeType, child,
+						(SimpleSelector) readSelector());
+			default:
+				throw new IOException("Unknown selector type " + type); //$NON-NLS-1$
+			}
+		}
+
+		private Condition readCondition() throws IOException {
+			short type = in.readByte();
+			switch (type) {
+			case Condition.SAC_AND_CONDITION:
+				Condition first = readCondition();
+				return conditionFactory.createAndCondition(first, readCondition());
+			case Condition.SAC_LANG_CONDITION:
+				return conditionFactory.createLangCondition(readString());
+			default:
+				break;
+			}
+			String localName = readString();
+			String namespaceURI = readString();
+			boolean specified = in.readBoolean();
+			String value = readString();
+			switch (type) {
+			case Condition.SAC_ATTRIBUTE_CONDITION:
+				return conditionFactory.createAttributeCondition(localName, namespaceURI, specified, value);
+			case Condition.SAC_ONE_OF_ATTRIBUTE_CONDITION:
+				return conditionFactory.createOneOfAttributeCondition(localName, namespaceURI, specified, value);
+			case Condition.SAC_BEGIN_HYPHEN_ATTRIBUTE_CONDITION:
+				return conditionFactory.createBeginHyphenAttributeCondition(localName, namespaceURI, specified,
+						value);
+			case Condition.SAC_CLASS_CONDITION:
+				return conditionFactory.createClassCondition(namespaceURI, value);
+			case Condition.SAC_ID_CONDITION:
+				return conditionFactory.createIdCondition(value);
+			case Condition.SAC_PSEUDO_CLASS_CONDITION:
+				return conditionFactory.createPseudoClassCondition(namespaceURI, value);
+			default:
+				throw new IOException("Unknown condition type " + type); //$NON-NLS-1$
+			}
+		}
+
+		private CSSStyleDeclarationImpl readStyle(CSSRule rule) throws IOException {
+			CSSStyleDeclarationImpl style = new CSSStyleDeclarationImpl(rule);
+			int length = readCount();
+			for (int i = 0; i < length; i++) {
+				String name = readString();
+				boolean important = in.readBoolean();
+				style.addProperty(new CSSPropertyImpl(name, readValue(), important));
+			}
+			return style;
+		}
+
+		private CSSValue readValue() throws IOException {
+			byte kind = in.readByte();
+			switch (kind) {
+			case MEASURE:
+				return new Measure(readLexicalUnit());
+			case RGB_COLOR:
+				CSSPrimitiveValue red = (CSSPrimitiveValue) readValue();
+				CSSPrimitiveValue green = (CSSPrimitiveValue) readValue();
+				return new RGBColorImpl(red, green, (CSSPrimitiveValue) readValue());
+			case VALUE_LIST:
+				int length = readCount();
+				List<CSSValue> values = new ArrayList<>(length);
+				for (int i = 0; i < length; i++) {
+					values.add(readValue());
+				}
+				return new CSSValueListImpl(values);
+			default:
+				throw new IOException("Unknown value kind " + kind); //$NON-NLS-1$
+			}
+		}
+
+		private LexicalUnitImpl readLexicalUnit() throws IOException {
+			short type = in.readByte();
+			LexicalUnitImpl unit = new LexicalUnitImpl(type);
+			switch (type) {
+			case LexicalUnit.SAC_INTEGER:
+				unit.integerValue = in.readInt();
+				break;
+			case LexicalUnit.SAC_REAL:
+			case LexicalUnit.SAC_EM:
+			case LexicalUnit.SAC_EX:
+			case LexicalUnit.SAC_PIXEL:
+			case LexicalUnit.SAC_INCH:
+			case LexicalUnit.SAC_CENTIMETER:
+			case LexicalUnit.SAC_MILLIMETER:
+			case LexicalUnit.SAC_POINT:
+			case LexicalUnit.SAC_PICA:
+			case LexicalUnit.SAC_PERCENTAGE:
+			case LexicalUnit.SAC_DEGREE:
+			case LexicalUnit.SAC_GRADIAN:
+			case LexicalUnit.SAC_RADIAN:
+			case LexicalUnit.SAC_MILLISECOND:
+			case LexicalUnit.SAC_SECOND:
+			case LexicalUnit.SAC_HERTZ:
+			case LexicalUnit.SAC_KILOHERTZ:
+			case LexicalUnit.SAC_DIMENSION:
+				unit.floatValue = in.readFloat();
+				unit.dimensionUnitText = readString();
+				break;
+			case LexicalUnit.SAC_URI:
+			case LexicalUnit.SAC_IDENT:
+			case LexicalUnit.SAC_STRING_VALUE:
+			case LexicalUnit.SAC_ATTR:
+			case LexicalUnit.SAC_UNICODERANGE:
+				unit.stringValue = readString();
+				break;
+			case LexicalUnit.SAC_COUNTER_FUNCTION:
+			case LexicalUnit.SAC_COUNTERS_FUNCTION:
+			case LexicalUnit.SAC_RGBCOLOR:
+			case LexicalUnit.SAC_RECT_FUNCTION:
+			case LexicalUnit.SAC_FUNCTION:
+				unit.functionName = readString();
+				unit.parameters = readLexicalUnits();
+				break;
+			case LexicalUnit.SAC_SUB_EXPRESSION:
+				unit.subValues = readLexicalUnits();
+				break;
+			default:
+				break;
+			}
+			return unit;
+		}
+
+		private LexicalUnitImpl readLexicalUnits() throws IOException {
+			int length = readCount();
+			LexicalUnitImpl first = null;
+			LexicalUnitImpl last = null;
+			for (int i = 0; i < length; i++) {
+				LexicalUnitImpl unit = readLexicalUnit();
+				if (last == null) {
+					first = unit;
+				} else {
+					last.setNextLexicalUnit(unit);
+				}
+				last = unit;
+			}
+			return first;
+		}
+
+		private String readString() throws IOException {
+			int index = readCount() - 1;
+			if (index == -1) {
+				return null;
+			}
+			if (index == strings.size()) {
+				strings.add(in.readUTF());
+			}
+			return strings.get(index);
+		}
+
+		private int readCount() throws IOException {
+			int value = 0;
+			for (int shift = 0; shift < 32; shift += 7) {
+				int b = in.readUnsignedByte();
+				value |= (b & 0x7F) << shift;
+				if ((b & 0x80) == 0) {
+					return value;
+				}
+			}
+			throw new IOException("Malformed count"); //$NON-NLS-1$
+		}
+	}
+}
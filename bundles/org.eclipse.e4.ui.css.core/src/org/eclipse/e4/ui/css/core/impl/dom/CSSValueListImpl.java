@@ -32,6 +32,10 @@ public class CSSValueListImpl extends AbstractCSSNode implements CSSValueList {
 		}
 	}
 
+	CSSValueListImpl(List<CSSValue> values) {
+		this.values = values;
+	}
+
 	@Override
 	public int getLength() {
 		return values.size();
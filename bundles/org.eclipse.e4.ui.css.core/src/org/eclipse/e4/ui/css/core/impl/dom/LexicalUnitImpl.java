@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.css.core.impl.dom;
+
+import org.w3c.css.sac.LexicalUnit;
+
+/**
+ * Plain {@link LexicalUnit} holding the values read back by
+ * {@link CSSStyleSheetSerializer}.
+ */
+class LexicalUnitImpl implements LexicalUnit {
+
+	private final short type;
+	int integerValue;
+	float floatValue;
+	String dimensionUnitText;
+	String stringValue;
+	String functionName;
+	LexicalUnitImpl parameters;
+	LexicalUnitImpl subValues;
+	private LexicalUnitImpl next;
+	private LexicalUnitImpl previous;
+
+	LexicalUnitImpl(short type) {
+		this.type = type;
+	}
+
+	void setNextLexicalUnit(LexicalUnitImpl next) {
+		this.next = next;
+		if (next != null) {
+			next.previous = this;
+		}
+	}
+
+	@Override
+	public short getLexicalUnitType() {
+		return type;
+	}
+
+	@Override
+	public LexicalUnit getNextLexicalUnit() {
+		return next;
+	}
+
+	@Override
+	public LexicalUnit getPreviousLexicalUnit() {
+		return previous;
+	}
+
+	@Override
+	public int getIntegerValue() {
+		return integerValue;
+	}
+
+	@Override
+	public float getFloatValue() {
+		return floatValue;
+	}
+
+	@Override
+	public String getDimensionUnitText() {
+		return dimensionUnitText;
+	}
+
+	@Override
+	public String getFunctionName() {
+		return functionName;
+	}
+
+	@Override
+	public LexicalUnit getParameters() {
+		return parameters;
+	}
+
+	@Override
+	public String getStringValue() {
+		return stringValue;
+	}
+
+	@Override
+	public LexicalUnit getSubValues() {
+		return subValues;
+	}
+}
@@ -18,6 +18,8 @@
  *******************************************************************************/
 package org.eclipse.e4.ui.css.core.impl.engine;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -52,6 +54,7 @@ import org.eclipse.e4.ui.css.core.engine.CSSErrorHandler;
 import org.eclipse.e4.ui.css.core.exceptions.UnsupportedPropertyException;
 import org.eclipse.e4.ui.css.core.impl.dom.CSSRuleListImpl;
 import org.eclipse.e4.ui.css.core.impl.dom.CSSStyleSheetImpl;
+import org.eclipse.e4.ui.css.core.impl.dom.CSSStyleSheetSerializer;
 import org.eclipse.e4.ui.css.core.impl.dom.DocumentCSSImpl;
 import org.eclipse.e4.ui.css.core.impl.dom.ViewCSSImpl;
 import org.eclipse.e4.ui.css.core.impl.sac.ExtendedSelector;
@@ -150,6 +153,8 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 
 	private ResourceRegistryKeyFactory keyFactory;
 
+	private CSSStyleSheetCache styleSheetCache;
+
 	public AbstractCSSEngine() {
 		this(new DocumentCSSImpl());
 	}
@@ -181,7 +186,7 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 		// Check that CharacterStream or ByteStream is not null
 		checkInputSource(source);
 		CSSParser parser = makeCSSParser();
-		CSSStyleSheet styleSheet = parser.parseStyleSheet(source);
+		CSSStyleSheet styleSheet = parseStyleSheet(parser, source);
 
 		CSSRuleList rules = styleSheet.getCssRules();
 		int length = rules.getLength();
@@ -250,6 +255,57 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 		return s;
 	}
 
+	/**
+	 * Parse the given source, or restore it from the {@link CSSStyleSheetCache}
+	 * when one is set and holds an entry for the same URI and content. Imports
+	 * are not resolved here, so that imported style sheets get cached on their
+	 * own.
+	 */
+	private CSSStyleSheet parseStyleSheet(CSSParser parser, InputSource source) throws IOException {
+		CSSStyleSheetCache cache = styleSheetCache;
+		String uri = source.getURI();
+		InputStream stream = source.getByteStream();
+		if (cache == null || uri == null || stream == null || source.getCharacterStream() != null
+				|| parser.getSelectorFactory() == null || parser.getConditionFactory() == null) {
+			return parser.parseStyleSheet(source);
+		}
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int read;
+		while ((read = stream.read(buffer)) != -1) {
+			content.write(buffer, 0, read);
+		}
+		byte[] bytes = content.toByteArray();
+		byte[] data = cache.get(uri, bytes);
+		if (data != null) {
+			try {
+				return CSSStyleSheetSerializer.deserialize(data, parser.getSelectorFactory(),
+						parser.getConditionFactory());
+			} catch (IOException e) {
+				cache.remove(uri);
+			}
+		}
+		source.setByteStream(new ByteArrayInputStream(bytes));
+		CSSStyleSheet styleSheet = parser.parseStyleSheet(source);
+		try {
+			cache.put(uri, bytes, CSSStyleSheetSerializer.serialize(styleSheet));
+		} catch (IOException e) {
+			// contains constructs the cache does not support, parse it each time
+		}
+		return styleSheet;
+	}
+
+	/**
+	 * Set the cache used to skip parsing of style sheets which have been parsed
+	 * before, possibly by another engine sharing the same cache.
+	 *
+	 * @param styleSheetCache
+	 *            the cache, or <code>null</code> to always parse
+	 */
+	public void setStyleSheetCache(CSSStyleSheetCache styleSheetCache) {
+		this.styleSheetCache = styleSheetCache;
+	}
+
 	/**
 	 * Return true if <code>source</code> is valid and false otherwise.
 	 *
@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.css.core.impl.engine;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.eclipse.e4.ui.css.core.impl.dom.CSSStyleSheetSerializer;
+
+/**
+ * Cache of parsed style sheets in the binary form produced by
+ * {@link CSSStyleSheetSerializer}, keyed by style sheet URI and content hash.
+ * <p>
+ * One instance is meant to be shared by all the {@link AbstractCSSEngine}s
+ * which parse the same style sheets, so that each style sheet is parsed at
+ * most once. When created with a directory, entries are also persisted there
+ * and reused by later sessions, as long as the content of the style sheet and
+ * the version stamp given by the creator (typically the version of the bundle
+ * providing the parser) are unchanged.
+ * </p>
+ */
+public class CSSStyleSheetCache {
+
+	private static final int MAGIC = 0xE4C55CAC;
+
+	private static final String FILE_EXTENSION = ".bin"; //$NON-NLS-1$
+
+	private static class Entry {
+		final byte[] digest;
+		final byte[] data;
+
+		Entry(byte[] digest, byte[] data) {
+			this.digest = digest;
+			this.data = data;
+		}
+	}
+
+	private final Map<String, Entry> entries = new HashMap<>();
+
+	private final File directory;
+
+	private final String stamp;
+
+	/**
+	 * Creates a cache which is only kept in memory.
+	 */
+	public CSSStyleSheetCache() {
+		this(null, ""); //$NON-NLS-1$
+	}
+
+	/**
+	 * Creates a cache which persists its entries in the given directory.
+	 *
+	 * @param directory
+	 *            the directory to store the entries in, or <code>null</code>
+	 *            to only keep them in memory
+	 * @param version
+	 *            a version stamp; persisted entries written with a different
+	 *            stamp are ignored
+	 */
+	public CSSStyleSheetCache(File directory, String version) {
+		this.directory = directory;
+		this.stamp = CSSStyleSheetSerializer.FORMAT_VERSION + "/" + version; //$NON-NLS-1$
+	}
+
+	/**
+	 * Returns the cached binary form of the style sheet with the given URI and
+	 * content.
+	 *
+	 * @param uri
+	 *            the URI of the style sheet
+	 * @param content
+	 *            the raw content of the style sheet
+	 * @return the binary form or <code>null</code> if none is cached for this
+	 *         content
+	 */
+	public synchronized byte[] get(String uri, byte[] content) {
+		byte[] digest = digest(content);
+		Entry entry = entries.get(uri);
+		if (entry == null) {
+			entry = load(uri);
+			if (entry != null) {
+				entries.put(uri, entry);
+			}
+		}
+		if (entry == null || !Arrays.equals(entry.digest, digest)) {
+			return null;
+		}
+		return entry.data;
+	}
+
+	/**
+	 * Stores the binary form of the style sheet with the given URI and content.
+	 *
+	 * @param uri
+	 *            the URI of the style sheet
+	 * @param content
+	 *            the raw content of the style sheet
+	 * @param data
+	 *            the binary form of the parsed style sheet
+	 */
+	public synchronized void put(String uri, byte[] content, byte[] data) {
+		Entry entry = new Entry(digest(content), data);
+		entries.put(uri, entry);
+		store(uri, entry);
+	}
+
+	/**
+	 * Forgets the entry for the given URI, for instance because it could not
+	 * be read back.
+	 *
+	 * @param uri
+	 *            the URI of the style sheet
+	 */
+	public synchronized void remove(String uri) {
+		entries.remove(uri);
+		File file = getFile(uri);
+		if (file != null) {
+			file.delete();
+		}
+	}
+
+	private Entry load(String uri) {
+		File file = getFile(uri);
+		if (file == null || !file.isFile()) {
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC || !stamp.equals(in.readUTF()) || !uri.equals(in.readUTF())) {
+				return null;
+			}
+			byte[] digest = new byte[in.readInt()];
+			in.readFully(digest);
+			byte[] data = new byte[in.readInt()];
+			in.readFully(data);
+			return new Entry(digest, data);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	private void store(String uri, Entry entry) {
+		File file = getFile(uri);
+		if (file == null) {
+			return;
+		}
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			return;
+		}
+		File tempFile = new File(directory, file.getName() + ".tmp"); //$NON-NLS-1$
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+			out.writeInt(MAGIC);
+			out.writeUTF(stamp);
+			out.writeUTF(uri);
+			out.writeInt(entry.digest.length);
+			out.write(entry.digest);
+			out.writeInt(entry.data.length);
+			out.write(entry.data);
+		} catch (IOException e) {
+			tempFile.delete();
+			return;
+		}
+		file.delete();
+		if (!tempFile.renameTo(file)) {
+			tempFile.delete();
+		}
+	}
+
+	private File getFile(String uri) {
+		if (directory == null) {
+			return null;
+		}
+		StringBuilder name = new StringBuilder();
+		for (byte b : digest(uri.getBytes(StandardCharsets.UTF_8))) {
+			name.append(Character.forDigit((b >> 4) & 0xF, 16));
+			name.append(Character.forDigit(b & 0xF, 16));
+		}
+		return new File(directory, name.append(FILE_EXTENSION).toString());
+	}
+
+	private static byte[] digest(byte[] content) {
+		try {
+			return MessageDigest.getInstance("SHA-1").digest(content); //$NON-NLS-1$
+		} catch (NoSuchAlgorithmException e) {
+			// every Java platform is required to support SHA-1
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.css.core.impl.sac;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.w3c.css.sac.Selector;
+import org.w3c.css.sac.SelectorList;
+
+/**
+ * This class provides a simple implementation of the
+ * {@link org.w3c.css.sac.SelectorList} interface, used for selectors which
+ * were not produced by the SAC parser.
+ */
+public class CSSSelectorListImpl implements SelectorList {
+
+	private final List<Selector> selectors = new ArrayList<>();
+
+	public void append(Selector selector) {
+		selectors.add(selector);
+	}
+
+	@Override
+	public int getLength() {
+		return selectors.size();
+	}
+
+	@Override
+	public Selector item(int index) {
+		if (index < 0 || index >= selectors.size()) {
+			return null;
+		}
+		return selectors.get(index);
+	}
+}
@@ -42,6 +42,8 @@ import org.eclipse.core.runtime.preferences.IEclipsePreferences;
 import org.eclipse.core.runtime.preferences.InstanceScope;
 import org.eclipse.e4.ui.css.core.engine.CSSElementContext;
 import org.eclipse.e4.ui.css.core.engine.CSSEngine;
+import org.eclipse.e4.ui.css.core.impl.engine.AbstractCSSEngine;
+import org.eclipse.e4.ui.css.core.impl.engine.CSSStyleSheetCache;
 import org.eclipse.e4.ui.css.core.util.impl.resources.FileResourcesLocatorImpl;
 import org.eclipse.e4.ui.css.core.util.impl.resources.OSGiResourceLocator;
 import org.eclipse.e4.ui.css.core.util.resources.IResourceLocator;
@@ -78,8 +80,13 @@ public class ThemeEngine implements IThemeEngine {
 	private HashMap<String, List<String>> modifiedStylesheets = new HashMap<>();
 	private HashMap<String, List<IResourceLocator>> sourceLocators = new HashMap<>();
 
+	// parsed style sheets, shared by all engines and across sessions
+	private CSSStyleSheetCache styleSheetCache;
+
 	private static final String THEMEID_KEY = "themeid";
 
+	private static final String STYLESHEET_CACHE_DIR = "parsed"; //$NON-NLS-1$
+
 	public static final String THEME_PLUGIN_ID = "org.eclipse.e4.ui.css.swt.theme";
 
 	public ThemeEngine(Display display) {
@@ -104,6 +111,9 @@ public class ThemeEngine implements IThemeEngine {
 		if (!modDir.exists()) {
 			modDir.mkdirs();
 		}
+		Bundle cssBundle = FrameworkUtil.getBundle(CSSEngine.class);
+		styleSheetCache = new CSSStyleSheetCache(new File(modDir, STYLESHEET_CACHE_DIR),
+				cssBundle == null ? "" : cssBundle.getVersion().toString()); //$NON-NLS-1$
 
 		//Check for old css files
 		File oldModDir= new File(
@@ -633,6 +643,9 @@ public class ThemeEngine implements IThemeEngine {
 
 	@Override
 	public void addCSSEngine(CSSEngine cssEngine) {
+		if (cssEngine instanceof AbstractCSSEngine) {
+			((AbstractCSSEngine) cssEngine).setStyleSheetCache(styleSheetCache);
+		}
 		cssEngines.add(cssEngine);
 		resetCurrentTheme();
 	}
@@ -643,6 +656,8 @@ public class ThemeEngine implements IThemeEngine {
 
 	@Override
 	public void removeCSSEngine(CSSEngine cssEngine) {
-		cssEngines.remove(cssEngine);
+		if (cssEngines.remove(cssEngine) && cssEngine instanceof AbstractCSSEngine) {
+			((AbstractCSSEngine) cssEngine).setStyleSheetCache(null);
+		}
 	}
 }
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2010, 2015 BestSolution.at and others.
+ * Copyright (c) 2010, 2018 BestSolution.at and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -330,7 +330,7 @@ public class StringModelFragmentImpl extends ModelFragmentImpl implements MStrin
 
 		XPathContextFactory<EObject> f = EcoreXPathContextFactory.newInstance();
 		XPathContext xpathContext = f.newContext((EObject) application);
-		Iterator<Object> i = xpathContext.iterate(xPath);
+		Iterator<Object> i = f.compile(xPath).iterate(xpathContext);
 
 		List<MApplicationElement> targetElements = new ArrayList<MApplicationElement>();
 		try {
@@ -0,0 +1,219 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.e4.ui.internal.services;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.eclipse.e4.ui.di.UISynchronize;
+import org.eclipse.e4.ui.services.EUIScheduler;
+
+/**
+ * Runs the scheduled work in frames posted with
+ * {@link UISynchronize#asyncExec(Runnable)}, so that the events waiting in
+ * the event loop are dispatched between two frames.
+ */
+public class UIScheduler implements EUIScheduler {
+
+	/**
+	 * The time, in nanoseconds from the start of a frame, until which the work
+	 * of each priority is run
+	 */
+	private static final long[] FRAME_BUDGETS = { 50_000_000L, 16_000_000L, 8_000_000L };
+
+	private static final Priority[] PRIORITIES = Priority.values();
+
+	private static class Task {
+		final Priority priority;
+		final Object key;
+		final long scheduled;
+		Runnable runnable;
+
+		Task(Priority priority, Object key, Runnable runnable) {
+			this.priority = priority;
+			this.key = key;
+			this.runnable = runnable;
+			this.scheduled = System.nanoTime();
+		}
+	}
+
+	private final UISynchronize sync;
+
+	private final List<Deque<Task>> queues = new ArrayList<>();
+
+	private final Map<Object, Task> pending = new HashMap<>();
+
+	private boolean frameScheduled;
+
+	private final long[] runCounts = new long[PRIORITIES.length];
+
+	private final long[] totalLatencies = new long[PRIORITIES.length];
+
+	private final long[] maxLatencies = new long[PRIORITIES.length];
+
+	// only accessed in the UI thread
+	private long frameStart;
+
+	private Priority running;
+
+	public UIScheduler(UISynchronize sync) {
+		this.sync = sync;
+		for (int i = 0; i < PRIORITIES.length; i++) {
+			queues.add(new ArrayDeque<>());
+		}
+	}
+
+	@Override
+	public void schedule(Priority priority, Runnable runnable) {
+		Objects.requireNonNull(priority);
+		Objects.requireNonNull(runnable);
+		boolean post;
+		synchronized (this) {
+			post = add(new Task(priority, null, runnable));
+		}
+		if (post) {
+			sync.asyncExec(this::runFrame);
+		}
+	}
+
+	@Override
+	public void schedule(Priority priority, Object key, Runnable runnable) {
+		Objects.requireNonNull(priority);
+		Objects.requireNonNull(key);
+		Objects.requireNonNull(runnable);
+		boolean post;
+		synchronized (this) {
+			Task task = pending.get(key);
+			if (task != null) {
+				if (task.priority == priority) {
+					task.runnable = runnable;
+					return;
+				}
+				queues.get(task.priority.ordinal()).remove(task);
+			}
+			post = add(new Task(priority, key, runnable));
+		}
+		if (post) {
+			sync.asyncExec(this::runFrame);
+		}
+	}
+
+	/**
+	 * Queues the task and returns whether a frame must be posted to run it.
+	 */
+	private boolean add(Task task) {
+		queues.get(task.priority.ordinal()).add(task);
+		if (task.key != null) {
+			pending.put(task.key, task);
+		}
+		if (frameScheduled) {
+			return false;
+		}
+		frameScheduled = true;
+		return true;
+	}
+
+	private void runFrame() {
+		synchronized (this) {
+			// a runnable may spin a nested event loop, which must be able to
+			// run the work scheduled meanwhile
+			frameScheduled = false;
+		}
+		long outerFrameStart = frameStart;
+		Priority outerRunning = running;
+		frameStart = System.nanoTime();
+		try {
+			Task task;
+			while ((task = next()) != null) {
+				running = task.priority;
+				task.runnable.run();
+			}
+		} finally {
+			frameStart = outerFrameStart;
+			running = outerRunning;
+			boolean post = false;
+			synchronized (this) {
+				if (!frameScheduled) {
+					for (Deque<Task> queue : queues) {
+						post |= !queue.isEmpty();
+					}
+					frameScheduled = post;
+				}
+			}
+			if (post) {
+				sync.asyncExec(this::runFrame);
+			}
+		}
+	}
+
+	/**
+	 * Returns the next task to run in the current frame, or <code>null</code>
+	 * when the budget of the most urgent waiting task is spent.
+	 */
+	private synchronized Task next() {
+		long now = System.nanoTime();
+		for (Priority priority : PRIORITIES) {
+			Task task = queues.get(priority.ordinal()).poll();
+			if (task == null) {
+				continue;
+			}
+			if (now - frameStart >= FRAME_BUDGETS[priority.ordinal()]) {
+				queues.get(priority.ordinal()).addFirst(task);
+				return null;
+			}
+			if (task.key != null) {
+				pending.remove(task.key, task);
+			}
+			int i = priority.ordinal();
+			long latency = now - task.scheduled;
+			runCounts[i]++;
+			totalLatencies[i] += latency;
+			maxLatencies[i] = Math.max(maxLatencies[i], latency);
+			return task;
+		}
+		return null;
+	}
+
+	@Override
+	public boolean shouldYield() {
+		Priority current = running;
+		int waiting = current == null ? Priority.INPUT.ordinal() + 1 : current.ordinal();
+		synchronized (this) {
+			for (int i = 0; i < waiting; i++) {
+				if (!queues.get(i).isEmpty()) {
+					return true;
+				}
+			}
+		}
+		return current != null && System.nanoTime() - frameStart >= FRAME_BUDGETS[current.ordinal()];
+	}
+
+	@Override
+	public synchronized int getQueueDepth(Priority priority) {
+		return queues.get(priority.ordinal()).size();
+	}
+
+	@Override
+	public synchronized double getAverageLatency(Priority priority) {
+		int i = priority.ordinal();
+		return runCounts[i] == 0 ? 0 : totalLatencies[i] / (runCounts[i] * 1e6);
+	}
+
+	@Override
+	public synchronized double getMaxLatency(Priority priority) {
+		return maxLatencies[priority.ordinal()] / 1e6;
+	}
+}
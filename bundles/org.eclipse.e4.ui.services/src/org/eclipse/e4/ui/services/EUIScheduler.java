@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.services;
+
+/**
+ * Schedules work on the UI thread by priority. The pending work is run in
+ * frames: each frame runs the work of the highest priority first, until the
+ * time budget of the priority being run is spent, and leaves the remaining
+ * work to the next frame so that the user input is handled in between.
+ * <p>
+ * Long running work should check {@link #shouldYield()} and reschedule what
+ * remains when it answers <code>true</code>.
+ * </p>
+ *
+ * @noimplement This interface is not intended to be implemented by clients.
+ * @since 1.4
+ */
+public interface EUIScheduler {
+
+	/**
+	 * The priorities of the scheduled work, from the most to the least
+	 * urgent.
+	 */
+	public enum Priority {
+		/**
+		 * Work the user is waiting for after an input, like the update of
+		 * menus or of the active part.
+		 */
+		INPUT,
+		/**
+		 * Work updating what is shown, like the refresh of a viewer.
+		 */
+		RENDER,
+		/**
+		 * Work nobody waits for, like the update of decorations.
+		 */
+		BACKGROUND
+	}
+
+	/**
+	 * Schedules the runnable on the UI thread. This method can be called from
+	 * any thread.
+	 *
+	 * @param priority
+	 *            the priority of the runnable, cannot be <code>null</code>
+	 * @param runnable
+	 *            the runnable to execute, cannot be <code>null</code>
+	 */
+	public void schedule(Priority priority, Runnable runnable);
+
+	/**
+	 * Schedules the runnable on the UI thread, replacing the runnable still
+	 * waiting for the same key if any. The replaced runnable is not run and,
+	 * if the priority did not change, the new one takes its place in the
+	 * queue. This method can be called from any thread.
+	 *
+	 * @param priority
+	 *            the priority of the runnable, cannot be <code>null</code>
+	 * @param key
+	 *            the key coalescing the runnables, cannot be <code>null</code>
+	 * @param runnable
+	 *            the runnable to execute, cannot be <code>null</code>
+	 */
+	public void schedule(Priority priority, Object key, Runnable runnable);
+
+	/**
+	 * Returns whether the work currently running on the UI thread should stop
+	 * and reschedule what remains, either because more urgent work is waiting
+	 * or because the time budget of the current frame is spent.
+	 *
+	 * @return <code>true</code> if the current work should yield
+	 */
+	public boolean shouldYield();
+
+	/**
+	 * Returns the number of runnables waiting with the given priority.
+	 *
+	 * @param priority
+	 *            the priority, cannot be <code>null</code>
+	 * @return the number of waiting runnables
+	 */
+	public int getQueueDepth(Priority priority);
+
+	/**
+	 * Returns the average time, in milliseconds, the runnables of the given
+	 * priority waited before being run.
+	 *
+	 * @param priority
+	 *            the priority, cannot be <code>null</code>
+	 * @return the average latency in milliseconds
+	 */
+	public double getAverageLatency(Priority priority);
+
+	/**
+	 * Returns the longest time, in milliseconds, a runnable of the given
+	 * priority waited before being run.
+	 *
+	 * @param priority
+	 *            the priority, cannot be <code>null</code>
+	 * @return the maximum latency in milliseconds
+	 */
+	public double getMaxLatency(Priority priority);
+}
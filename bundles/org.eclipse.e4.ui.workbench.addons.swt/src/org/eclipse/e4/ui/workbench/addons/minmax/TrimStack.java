@@ -145,6 +145,9 @@ public class TrimStack {
 	@Inject
 	protected IEventBroker eventBroker;
 
+	@Inject
+	IPresentationEngine presentationEngine;
+
 	// Listens to ESC and closes the active fast view
 	private Listener escapeListener = event -> {
 		if (event.character == SWT.ESC) {
@@ -914,6 +917,10 @@ public class TrimStack {
 	 */
 	public void showStack(boolean show) {
 		Control ctrl = (Control) minimizedElement.getWidget();
+		if (ctrl == null && show) {
+			// The rendering of hidden stacks may have been deferred
+			ctrl = (Control) presentationEngine.createGui(minimizedElement);
+		}
 		if (ctrl == null) {
 			return;
 		}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2016 IBM Corporation and others.
+ * Copyright (c) 2010, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,8 +13,13 @@
 package org.eclipse.e4.ui.workbench.renderers.swt;
 
 import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.inject.Inject;
 import org.eclipse.e4.ui.internal.css.swt.ICTabRendering;
+import org.eclipse.jface.resource.JFaceResources;
+import org.eclipse.jface.resource.LocalResourceManager;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.CTabFolder;
 import org.eclipse.swt.custom.CTabFolderRenderer;
@@ -78,8 +83,16 @@ public class CTabRendering extends CTabFolderRenderer implements ICTabRendering
 	static final String E4_TOOLBAR_ACTIVE_IMAGE = "org.eclipse.e4.renderer.toolbar_background_active_image"; //$NON-NLS-1$
 	static final String E4_TOOLBAR_INACTIVE_IMAGE = "org.eclipse.e4.renderer.toolbar_background_inactive_image"; //$NON-NLS-1$
 
+	static final RGB HOT_TAB_BORDER = new RGB(182, 188, 204);
+
+	// the arcs drawn by drawCircle around the origin, by radius and part
+	private static final Map<Integer, int[]> circleArcs = new ConcurrentHashMap<>();
+
 	int[] shape;
 
+	// the parameters the shape was computed from
+	private int[] shapeKey;
+
 	Image shadowImage, toolbarActiveImage, toolbarInactiveImage;
 
 	int cornerSize = 14;
@@ -107,6 +120,45 @@ public class CTabRendering extends CTabFolderRenderer implements ICTabRendering
 
 	private Color hotUnselectedTabsColorBackground;
 
+	private LocalResourceManager resources;
+
+	private RGB gradientLineTopRGB;
+
+	private Color gradientLineTop, hotTabBorder;
+
+	private final GradientPattern selectedTabBackground = new GradientPattern();
+
+	private final GradientPattern selectedTabForeground = new GradientPattern();
+
+	/*
+	 * A vertical gradient pattern, kept for as long as it is drawn with the
+	 * same height and colors.
+	 */
+	private static final class GradientPattern {
+		private Pattern pattern;
+		private int height;
+		private Color top, bottom;
+
+		Pattern get(GC gc, int height, Color top, Color bottom) {
+			if (pattern == null || this.height != height || this.top != top || this.bottom != bottom) {
+				dispose();
+				pattern = new Pattern(gc.getDevice(), 0, 0, 0, height, top, bottom);
+				this.height = height;
+				this.top = top;
+				this.bottom = bottom;
+			}
+			return pattern;
+		}
+
+		void dispose() {
+			if (pattern != null) {
+				pattern.dispose();
+				pattern = null;
+			}
+			top = bottom = null;
+		}
+	}
+
 	@Inject
 	public CTabRendering(CTabFolder parent) {
 		super(parent);
@@ -207,6 +259,14 @@ public class CTabRendering extends CTabFolderRenderer implements ICTabRendering
 			shadowImage.dispose();
 			shadowImage = null;
 		}
+		selectedTabBackground.dispose();
+		selectedTabForeground.dispose();
+		if (resources != null) {
+			resources.dispose();
+			resources = null;
+		}
+		gradientLineTop = hotTabBorder = null;
+		gradientLineTopRGB = null;
 		super.dispose();
 	}
 
@@ -295,18 +355,6 @@ public class CTabRendering extends CTabFolderRenderer implements ICTabRendering
 		// parent.getTabHeight() + 1);
 
 		boolean onBottom = parent.getTabPosition() == SWT.BOTTOM;
-		int[] points = new int[1024];
-		int index = 0;
-		int radius = cornerSize / 2;
-		int marginWidth = parent.marginWidth;
-		int marginHeight = parent.marginHeight;
-		int delta = INNER_KEYLINE + OUTER_KEYLINE + 2 * (shadowEnabled ? SIDE_DROP_WIDTH : 0) + 2 * marginWidth;
-		int width = bounds.width - delta;
-		int height = bounds.height - INNER_KEYLINE - OUTER_KEYLINE - 2 * marginHeight
-				- (shadowEnabled ? BOTTOM_DROP_WIDTH : 0);
-		int circX = bounds.x + delta / 2 + radius;
-		int circY = bounds.y + radius;
-
 		int header = shadowEnabled ? onBottom ? 6 : 3 : 1; // TODO: this
 															// needs
 		// to be added to
@@ -323,28 +371,7 @@ public class CTabRendering extends CTabFolderRenderer implements ICTabRendering
 		trim.y = onBottom ? bounds.height - parent.getTabHeight() - 1 - header : -trim.y;
 		draw(PART_BACKGROUND, SWT.NONE, trim, gc);
 
-		int[] ltt = drawCircle(circX + 1, circY + 1, radius, CirclePart.LEFT_TOP);
-		System.arraycopy(ltt, 0, points, index, ltt.length);
-		index += ltt.length;
-
-		int[] lbb = drawCircle(circX + 1, circY + height - (radius * 2) - 2, radius, CirclePart.LEFT_BOTTOM);
-		System.arraycopy(lbb, 0, points, index, lbb.length);
-		index += lbb.length;
-
-		int[] rb = drawCircle(circX + width - (radius * 2) - 2, circY + height - (radius * 2) - 2, radius,
-				CirclePart.RIGHT_BOTTOM);
-		System.arraycopy(rb, 0, points, index, rb.length);
-		index += rb.length;
-
-		int[] rt = drawCircle(circX + width - (radius * 2) - 2, circY + 1, radius, CirclePart.RIGHT_TOP);
-		System.arraycopy(rt, 0, points, index, rt.length);
-		index += rt.length;
-		points[index++] = points[0];
-		points[index++] = points[1];
-
-		int[] tempPoints = new int[index];
-		System.arraycopy(points, 0, tempPoints, 0, index);
-
+		// the outline is the shape of the body, see drawTabBody
 		if (outerKeyline == null)
 			outerKeyline = gc.getDevice().getSystemColor(SWT.COLOR_BLACK);
 		gc.setForeground(outerKeyline);
@@ -352,8 +379,6 @@ public class CTabRendering extends CTabFolderRenderer implements ICTabRendering
 	}
 
 	void drawTabBody(GC gc, Rectangle bounds) {
-		int[] points = new int[1024];
-		int index = 0;
 		int radius = cornerSize / 2;
 		int marginWidth = parent.marginWidth;
 		int marginHeight = parent.marginHeight;
@@ -367,8 +392,28 @@ public class CTabRendering extends CTabFolderRenderer implements ICTabRendering
 		int circX = bounds.x + delta / 2 + radius;
 		int circY = bounds.y + radius;
 
-		// Body
-		index = 0;
+		// The body is drawn on every paint, but its shape only changes with
+		// the size of the folder
+		int[] key = { circX, circY, width, height, radius };
+		int[] bodyShape = shape != null && Arrays.equals(key, shapeKey) ? shape
+				: computeBodyShape(circX, circY, width, height, radius);
+		gc.fillPolygon(bodyShape);
+
+		// Fill in parent background for non-rectangular shape
+		Display display = parent.getDisplay();
+
+		// Shadow
+		if (shadowEnabled)
+			drawShadow(display, bounds, gc);
+
+		// Remember for use in header drawing
+		shape = bodyShape;
+		shapeKey = key;
+	}
+
+	private static int[] computeBodyShape(int circX, int circY, int width, int height, int radius) {
+		int[] points = new int[1024];
+		int index = 0;
 		int[] ltt = drawCircle(circX, circY, radius, CirclePart.LEFT_TOP);
 		System.arraycopy(ltt, 0, points, index, ltt.length);
 		index += ltt.length;
@@ -390,17 +435,7 @@ public class CTabRendering extends CTabFolderRenderer implements ICTabRendering
 
 		int[] tempPoints = new int[index];
 		System.arraycopy(points, 0, tempPoints, 0, index);
-		gc.fillPolygon(tempPoints);
-
-		// Fill in parent background for non-rectangular shape
-		Display display = parent.getDisplay();
-
-		// Shadow
-		if (shadowEnabled)
-			drawShadow(display, bounds, gc);
-
-		// Remember for use in header drawing
-		shape = tempPoints;
+		return tempPoints;
 	}
 
 	void drawSelectedTab(int itemIndex, GC gc, Rectangle bounds) {
@@ -464,7 +499,6 @@ public class CTabRendering extends CTabFolderRenderer implements ICTabRendering
 		// +
 		// 4);
 
-		Pattern backgroundPattern = null;
 		if (selectedTabFillColors == null) {
 			setSelectedTabFill(gc.getDevice().getSystemColor(SWT.COLOR_WHITE));
 		}
@@ -473,9 +507,8 @@ public class CTabRendering extends CTabFolderRenderer implements ICTabRendering
 			gc.setForeground(selectedTabFillColors[0]);
 		} else if (!onBottom && selectedTabFillColors.length == 2) {
 			// for now we support the 2-colors gradient for selected tab
-			backgroundPattern = new Pattern(gc.getDevice(), 0, 0, 0, bounds.height + 1, selectedTabFillColors[0],
-					selectedTabFillColors[1]);
-			gc.setBackgroundPattern(backgroundPattern);
+			gc.setBackgroundPattern(selectedTabBackground.get(gc, bounds.height + 1, selectedTabFillColors[0],
+					selectedTabFillColors[1]));
 			gc.setForeground(selectedTabFillColors[1]);
 		}
 
@@ -486,15 +519,12 @@ public class CTabRendering extends CTabFolderRenderer implements ICTabRendering
 		if (tabOutlineColor == null)
 			tabOutlineColor = gc.getDevice().getSystemColor(SWT.COLOR_BLACK);
 		gc.setForeground(tabOutlineColor);
-		Color gradientLineTop = null;
-		Pattern foregroundPattern = null;
 		if (!active && !onBottom) {
 			RGB blendColor = gc.getDevice().getSystemColor(SWT.COLOR_WIDGET_LIGHT_SHADOW).getRGB();
 			RGB topGradient = blend(blendColor, tabOutlineColor.getRGB(), 40);
-			gradientLineTop = new Color(gc.getDevice(), topGradient);
-			foregroundPattern = new Pattern(gc.getDevice(), 0, 0, 0, bounds.height + 1, gradientLineTop,
-					gc.getDevice().getSystemColor(SWT.COLOR_WHITE));
-			gc.setForegroundPattern(foregroundPattern);
+			Color gradientLineTop = getGradientLineTop(topGradient);
+			gc.setForegroundPattern(selectedTabForeground.get(gc, bounds.height + 1, gradientLineTop,
+					gc.getDevice().getSystemColor(SWT.COLOR_WHITE)));
 		}
 		gc.drawPolyline(tmpPoints);
 		Rectangle rect = null;
@@ -510,16 +540,35 @@ public class CTabRendering extends CTabFolderRenderer implements ICTabRendering
 				gc.drawLine(startX, 0, endX, 0);
 			}
 		}
+	}
 
-		if (backgroundPattern != null) {
-			backgroundPattern.dispose();
+	private LocalResourceManager getResources() {
+		if (resources == null) {
+			resources = new LocalResourceManager(JFaceResources.getResources(parent.getDisplay()));
 		}
-		if (gradientLineTop != null) {
-			gradientLineTop.dispose();
+		return resources;
+	}
+
+	/*
+	 * The color only changes with the theme, so the one of the previous paint
+	 * is kept until then.
+	 */
+	private Color getGradientLineTop(RGB rgb) {
+		if (gradientLineTop == null || !rgb.equals(gradientLineTopRGB)) {
+			if (gradientLineTop != null) {
+				getResources().destroyColor(gradientLineTopRGB);
+			}
+			gradientLineTop = getResources().createColor(rgb);
+			gradientLineTopRGB = rgb;
 		}
-		if (foregroundPattern != null) {
-			foregroundPattern.dispose();
+		return gradientLineTop;
+	}
+
+	private Color getHotTabBorder() {
+		if (hotTabBorder == null) {
+			hotTabBorder = getResources().createColor(HOT_TAB_BORDER);
 		}
+		return hotTabBorder;
 	}
 
 	void drawUnselectedTab(int itemIndex, GC gc, Rectangle bounds, int state) {
@@ -600,9 +649,7 @@ public class CTabRendering extends CTabFolderRenderer implements ICTabRendering
 			int[] tmpPoints = new int[index];
 			System.arraycopy(points, 0, tmpPoints, 0, index);
 			gc.fillPolygon(tmpPoints);
-			Color tempBorder = new Color(gc.getDevice(), 182, 188, 204);
-			gc.setForeground(tempBorder);
-			tempBorder.dispose();
+			gc.setForeground(getHotTabBorder());
 			if (active) {
 				gc.drawPolyline(tmpPoints);
 			} else {
@@ -632,6 +679,20 @@ public class CTabRendering extends CTabFolderRenderer implements ICTabRendering
 	}
 
 	static int[] drawCircle(int xC, int yC, int r, CirclePart circlePart) {
+		// the arcs only depend on the radius, they are computed once around
+		// the origin and moved to the center
+		int[] arc = circleArcs.computeIfAbsent(Integer.valueOf(r * 4 + circlePart.ordinal()),
+				key -> computeCircleArc(r, circlePart));
+		int[] points = new int[arc.length];
+		for (int i = 0; i < arc.length; i += 2) {
+			points[i] = arc[i] + xC;
+			points[i + 1] = arc[i + 1] + yC;
+		}
+		return points;
+	}
+
+	private static int[] computeCircleArc(int r, CirclePart circlePart) {
+		int xC = 0, yC = 0;
 		int x = 0, y = r, u = 1, v = 2 * r - 1, e = 0;
 		int[] points = new int[1024];
 		int[] pointsMirror = new int[1024];
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2016 IBM Corporation and others.
+ * Copyright (c) 2009, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -57,6 +57,7 @@ import org.eclipse.e4.ui.model.application.ui.menu.MToolBarElement;
 import org.eclipse.e4.ui.model.application.ui.menu.MToolBarSeparator;
 import org.eclipse.e4.ui.model.application.ui.menu.MToolControl;
 import org.eclipse.e4.ui.model.application.ui.menu.MToolItem;
+import org.eclipse.e4.ui.services.EUIScheduler;
 import org.eclipse.e4.ui.services.IServiceConstants;
 import org.eclipse.e4.ui.workbench.IPresentationEngine;
 import org.eclipse.e4.ui.workbench.Selector;
@@ -267,7 +268,7 @@ public class ToolBarManagerRenderer extends SWTPartRenderer {
 	@Inject
 	@Optional
 	private void subscribeTopicDirtyChanged(@UIEventTopic(UIEvents.Dirtyable.TOPIC_DIRTY) Event eventData) {
-		getUpdater().updateContributionItems(ALL_SELECTOR);
+		getUpdater().scheduleUpdate(ALL_SELECTOR, true);
 	}
 
 	@Inject
@@ -286,7 +287,7 @@ public class ToolBarManagerRenderer extends SWTPartRenderer {
 			}
 		}
 
-		getUpdater().updateContributionItems(s);
+		getUpdater().scheduleUpdate(s, s == ALL_SELECTOR);
 	}
 
 	@Inject
@@ -332,6 +333,7 @@ public class ToolBarManagerRenderer extends SWTPartRenderer {
 	@PostConstruct
 	public void init() {
 		context.set(ToolBarManagerRenderer.class, this);
+		enablementUpdater.setScheduler(context.get(EUIScheduler.class));
 
 		String[] vars = {
 				"org.eclipse.ui.internal.services.EvaluationService.evaluate", //$NON-NLS-1$
@@ -348,7 +350,7 @@ public class ToolBarManagerRenderer extends SWTPartRenderer {
 				for (String var : updateVariables) {
 					context.get(var);
 				}
-				getUpdater().updateContributionItems(ALL_SELECTOR);
+				getUpdater().scheduleUpdate(ALL_SELECTOR, true);
 				return true;
 			}
 		};
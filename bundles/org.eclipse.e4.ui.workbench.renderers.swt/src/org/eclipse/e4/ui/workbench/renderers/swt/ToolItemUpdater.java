@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2015 IBM Corporation and others.
+ * Copyright (c) 2014, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,6 +13,7 @@ package org.eclipse.e4.ui.workbench.renderers.swt;
 
 import java.util.ArrayList;
 import java.util.List;
+import org.eclipse.e4.ui.services.EUIScheduler;
 import org.eclipse.e4.ui.workbench.Selector;
 
 public class ToolItemUpdater {
@@ -20,6 +21,17 @@ public class ToolItemUpdater {
 	private List<AbstractContributionItem> itemsToCheck = new ArrayList<>();
 	private final List<AbstractContributionItem> orphanedToolItems = new ArrayList<>();
 
+	private EUIScheduler scheduler;
+
+	/** The selector of the update waiting in the scheduler, if any */
+	private Selector pendingSelector;
+
+	private boolean allSelected;
+
+	void setScheduler(EUIScheduler scheduler) {
+		this.scheduler = scheduler;
+	}
+
 	void registerItem(AbstractContributionItem item) {
 		if (!itemsToCheck.contains(item)) {
 			itemsToCheck.add(item);
@@ -30,6 +42,43 @@ public class ToolItemUpdater {
 		itemsToCheck.remove(item);
 	}
 
+	/**
+	 * Updates the enablement of the items matching the selector as input work
+	 * of the UI scheduler, if any, merging the updates requested until it
+	 * runs.
+	 *
+	 * @param selector
+	 *            the selector of the items to update
+	 * @param all
+	 *            whether the selector selects all the items
+	 */
+	void scheduleUpdate(Selector selector, boolean all) {
+		if (scheduler == null) {
+			updateContributionItems(selector);
+			return;
+		}
+		synchronized (this) {
+			Selector pending = pendingSelector;
+			if (pending == null || all) {
+				pendingSelector = selector;
+			} else if (!allSelected) {
+				pendingSelector = element -> pending.select(element) || selector.select(element);
+			}
+			allSelected |= all;
+		}
+		scheduler.schedule(EUIScheduler.Priority.INPUT, this, () -> {
+			Selector pending;
+			synchronized (this) {
+				pending = pendingSelector;
+				pendingSelector = null;
+				allSelected = false;
+			}
+			if (pending != null) {
+				updateContributionItems(pending);
+			}
+		});
+	}
+
 	public void updateContributionItems(Selector selector) {
 		for (final AbstractContributionItem ci : itemsToCheck) {
 			if (ci.getModel() != null && ci.getModel().getParent() != null) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2016 IBM Corporation and others.
+ * Copyright (c) 2009, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -47,6 +47,7 @@ import org.eclipse.e4.core.services.log.Logger;
 import org.eclipse.e4.core.services.translation.TranslationProviderFactory;
 import org.eclipse.e4.core.services.translation.TranslationService;
 import org.eclipse.e4.ui.di.UISynchronize;
+import org.eclipse.e4.ui.internal.services.UIScheduler;
 import org.eclipse.e4.ui.internal.workbench.ActiveChildLookupFunction;
 import org.eclipse.e4.ui.internal.workbench.ActivePartLookupFunction;
 import org.eclipse.e4.ui.internal.workbench.DefaultLoggerProvider;
@@ -65,6 +66,7 @@ import org.eclipse.e4.ui.model.application.MApplication;
 import org.eclipse.e4.ui.model.application.ui.basic.MWindow;
 import org.eclipse.e4.ui.model.application.ui.basic.impl.BasicPackageImpl;
 import org.eclipse.e4.ui.model.application.ui.impl.UiPackageImpl;
+import org.eclipse.e4.ui.services.EUIScheduler;
 import org.eclipse.e4.ui.services.IServiceConstants;
 import org.eclipse.e4.ui.services.IStylingEngine;
 import org.eclipse.e4.ui.workbench.IExceptionHandler;
@@ -204,7 +206,7 @@ public class E4Application implements IApplication {
 		IEclipseContext appContext = createDefaultContext();
 		appContext.set(Display.class, display);
 		appContext.set(Realm.class, DisplayRealm.getRealm(display));
-		appContext.set(UISynchronize.class, new UISynchronize() {
+		UISynchronize uiSync = new UISynchronize() {
 
 			@Override
 			public void syncExec(Runnable runnable) {
@@ -219,7 +221,9 @@ public class E4Application implements IApplication {
 					display.asyncExec(runnable);
 				}
 			}
-		});
+		};
+		appContext.set(UISynchronize.class, uiSync);
+		appContext.set(EUIScheduler.class, new UIScheduler(uiSync));
 		appContext.set(IApplicationContext.class, applicationContext);
 
 		// This context will be used by the injector for its
@@ -302,6 +306,10 @@ public class E4Application implements IApplication {
 		Optional<String> presentationURI = getArgValue(IWorkbench.PRESENTATION_URI_ARG, applicationContext, false);
 		appContext.set(IWorkbench.PRESENTATION_URI_ARG, presentationURI.orElse(PartRenderingEngine.engineURI));
 
+		Boolean deferredRendering = getArgValue(PartRenderingEngine.DEFERRED_RENDERING, applicationContext, false)
+				.map(value -> Boolean.parseBoolean(value)).orElse(Boolean.FALSE);
+		appContext.set(PartRenderingEngine.DEFERRED_RENDERING, deferredRendering);
+
 		// Instantiate the Workbench (which is responsible for
 		// 'running' the UI (if any)...
 		return workbench = new E4Workbench(appModel, appContext);
@@ -367,6 +375,15 @@ public class E4Application implements IApplication {
 				.map(value -> Boolean.parseBoolean(value)).orElse(Boolean.FALSE);
 		eclipseContext.set(IWorkbench.CLEAR_PERSISTED_STATE, clearPersistedState);
 
+		// Binary persisted state
+		Boolean binaryModel = getArgValue(E4Workbench.BINARY_MODEL, appContext, false)
+				.map(value -> Boolean.parseBoolean(value)).orElse(Boolean.FALSE);
+		eclipseContext.set(E4Workbench.BINARY_MODEL, binaryModel);
+
+		Boolean modelJournal = getArgValue(E4Workbench.MODEL_JOURNAL, appContext, false)
+				.map(value -> Boolean.parseBoolean(value)).orElse(Boolean.FALSE);
+		eclipseContext.set(E4Workbench.MODEL_JOURNAL, modelJournal);
+
 		String resourceHandler = getArgValue(IWorkbench.MODEL_RESOURCE_HANDLER, appContext, false)
 				.orElse("bundleclass://org.eclipse.e4.ui.workbench/" + ResourceHandler.class.getName());
 
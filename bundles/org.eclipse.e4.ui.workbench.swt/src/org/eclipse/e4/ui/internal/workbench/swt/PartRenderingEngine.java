@@ -21,6 +21,7 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -116,6 +117,19 @@ public class PartRenderingEngine implements IPresentationEngine {
 
 	public static final String ENABLED_THEME_KEY = "themeEnabled";
 
+	/**
+	 * Context key of a Boolean telling whether the non-visible elements met
+	 * while rendering the initial UI are queued and rendered when the event
+	 * loop is idle, rather than being rendered eagerly
+	 */
+	public static final String DEFERRED_RENDERING = "deferredRendering";
+
+	/**
+	 * The time in milliseconds spent rendering deferred elements before the
+	 * event loop gets control back
+	 */
+	private static final long DEFERRED_RENDERING_SLICE = 20;
+
 	private String factoryUrl;
 
 	IRendererFactory curFactory = null;
@@ -203,6 +217,15 @@ public class PartRenderingEngine implements IPresentationEngine {
 		// Re-parent the control based on the visible state
 		if (changedElement.isVisible()) {
 			if (changedElement.isToBeRendered()) {
+				if (deferredElements.remove(changedElement) && changedElement.getWidget() == null) {
+					// The element was deferred while hidden, render it now
+					Object w = createGui(changedElement);
+					if (w instanceof Control && !(w instanceof Shell)) {
+						fixZOrder(changedElement);
+					}
+					return;
+				}
+
 				if (changedElement.getWidget() instanceof Control) {
 					// Ensure that the control is under its 'real' parent if
 					// it's visible
@@ -393,6 +416,20 @@ public class PartRenderingEngine implements IPresentationEngine {
 
 	private MUIElement removeRoot = null;
 
+	/**
+	 * Whether non-visible elements are currently added to
+	 * {@link #deferredElements} instead of being rendered
+	 */
+	private boolean deferRendering = false;
+
+	private Set<MUIElement> deferredElements = new LinkedHashSet<>();
+
+	private int deferredRenderCount;
+
+	private int deferredRenderSlices;
+
+	private long deferredRenderTime;
+
 	@Inject
 	@Optional
 	IEventBroker eventBroker;
@@ -741,6 +778,15 @@ public class PartRenderingEngine implements IPresentationEngine {
 		MUIElement parentME = element.getParent();
 		if (parentME == null)
 			parentME = (MUIElement) ((EObject) element).eContainer();
+		if (deferRendering && parentME != null && !element.isVisible() && element.getWidget() == null
+				&& !(element instanceof MWindow)) {
+			// Hidden elements are rendered once the initial UI is shown or
+			// as soon as they become visible
+			if (element.isToBeRendered()) {
+				deferredElements.add(element);
+			}
+			return null;
+		}
 		if (parentME != null) {
 			AbstractPartRenderer renderer = getRendererFor(parentME);
 			if (renderer != null) {
@@ -810,6 +856,55 @@ public class PartRenderingEngine implements IPresentationEngine {
 		}
 	}
 
+	/**
+	 * Render the deferred elements while the event loop is idle, a time slice
+	 * at a time so that the user input is handled in between.
+	 *
+	 * @param display
+	 *            the display to render the elements on
+	 */
+	private void scheduleDeferredRendering(final Display display) {
+		if (deferredElements.isEmpty() || display.isDisposed()) {
+			return;
+		}
+		display.asyncExec(() -> {
+			long start = System.currentTimeMillis();
+			long elapsed = 0;
+			while (!deferredElements.isEmpty() && elapsed < DEFERRED_RENDERING_SLICE) {
+				MUIElement element = deferredElements.iterator().next();
+				deferredElements.remove(element);
+				renderDeferredElement(element);
+				elapsed = System.currentTimeMillis() - start;
+			}
+			deferredRenderSlices++;
+			deferredRenderTime += elapsed;
+
+			if (!deferredElements.isEmpty()) {
+				scheduleDeferredRendering(display);
+			} else if (Policy.DEBUG_RENDERER) {
+				WorkbenchSWTActivator.trace(Policy.DEBUG_RENDERER_FLAG,
+						NLS.bind("Rendered {0} deferred elements in {1} ms over {2} slices", //$NON-NLS-1$
+								new Object[] { deferredRenderCount, deferredRenderTime, deferredRenderSlices }),
+						null);
+			}
+		});
+	}
+
+	private void renderDeferredElement(MUIElement element) {
+		// Skip the elements rendered or removed in the meantime
+		if (element.getWidget() != null || !element.isToBeRendered()) {
+			return;
+		}
+		MUIElement parent = element.getParent();
+		if (parent == null) {
+			parent = (MUIElement) ((EObject) element).eContainer();
+		}
+		if (parent != null && parent.getWidget() != null) {
+			createGui(element);
+			deferredRenderCount++;
+		}
+	}
+
 	private Shell getLimboShell() {
 		if (limbo == null) {
 			limbo = new Shell(Display.getCurrent(), SWT.NONE);
@@ -1065,19 +1160,18 @@ public class PartRenderingEngine implements IPresentationEngine {
 				testShell = null;
 				theApp = null;
 				boolean spinOnce = true;
+				deferRendering = Boolean.TRUE.equals(runContext.get(DEFERRED_RENDERING));
+				long startTime = System.currentTimeMillis();
 				if (uiRoot instanceof MApplication) {
 					ShellActivationListener shellDialogListener = new ShellActivationListener((MApplication) uiRoot);
 					display.addFilter(SWT.Activate, shellDialogListener);
 					display.addFilter(SWT.Deactivate, shellDialogListener);
 					spinOnce = false; // loop until the app closes
 					theApp = (MApplication) uiRoot;
-					// long startTime = System.currentTimeMillis();
 					for (MWindow window : theApp.getChildren()) {
 						createGui(window);
 					}
 
-					// long endTime = System.currentTimeMillis();
-					// System.out.println("Render: " + (endTime - startTime));
 					// tell the app context we are starting so the splash is
 					// torn down
 					IApplicationContext ac = appContext.get(IApplicationContext.class);
@@ -1098,6 +1192,7 @@ public class PartRenderingEngine implements IPresentationEngine {
 						createGui((MUIElement) uiRoot, testShell, null);
 					}
 				}
+				endInitialRendering(display, startTime);
 
 				// allow any early startup extensions to run
 				Runnable earlyStartup = (Runnable) runContext.get(EARLY_STARTUP_HOOK);
@@ -1184,6 +1279,17 @@ public class PartRenderingEngine implements IPresentationEngine {
 		return IApplication.EXIT_OK;
 	}
 
+	private void endInitialRendering(Display display, long startTime) {
+		deferRendering = false;
+		if (Policy.DEBUG_RENDERER) {
+			WorkbenchSWTActivator.trace(Policy.DEBUG_RENDERER_FLAG,
+					NLS.bind("Rendered the initial UI in {0} ms, {1} hidden elements deferred", //$NON-NLS-1$
+							System.currentTimeMillis() - startTime, deferredElements.size()),
+					null);
+		}
+		scheduleDeferredRendering(display);
+	}
+
 	protected boolean someAreVisible(List<MWindow> windows) {
 		// This method is called from the event dispatch loop, so the
 		// following optimization is in order...
@@ -1214,6 +1320,7 @@ public class PartRenderingEngine implements IPresentationEngine {
 	public void stop() {
 		// FIXME Without this call the test-suite fails
 		cleanUp();
+		deferredElements.clear();
 		if (theApp != null) {
 			for (MWindow window : theApp.getChildren()) {
 				if (window.getWidget() != null) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2017 IBM Corporation and others.
+ * Copyright (c) 2010, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,15 +16,22 @@ package org.eclipse.e4.ui.internal.workbench;
 
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import org.eclipse.core.expressions.EvaluationResult;
 import org.eclipse.core.expressions.Expression;
 import org.eclipse.core.expressions.ExpressionInfo;
 import org.eclipse.core.internal.expressions.ReferenceExpression;
+import org.eclipse.core.runtime.IExtension;
+import org.eclipse.core.runtime.IExtensionPoint;
+import org.eclipse.core.runtime.IExtensionRegistry;
+import org.eclipse.core.runtime.IRegistryEventListener;
+import org.eclipse.core.runtime.RegistryFactory;
 import org.eclipse.e4.core.commands.ExpressionContext;
 import org.eclipse.e4.core.contexts.ContextInjectionFactory;
 import org.eclipse.e4.core.contexts.IEclipseContext;
@@ -74,6 +81,162 @@ public final class ContributionsAnalyzer {
 		trace(msg + ": " + menu + ": " + menuModel, null); //$NON-NLS-1$ //$NON-NLS-2$
 	}
 
+	private static final String CACHED_VISIBILITY = "ContributionsAnalyzer.cachedVisibility"; //$NON-NLS-1$
+
+	private static int visibilityCacheHits;
+
+	private static int visibilityCacheMisses;
+
+	private static final String EP_DEFINITIONS = "org.eclipse.core.expressions.definitions"; //$NON-NLS-1$
+
+	/**
+	 * Incremented whenever expression definitions are added or removed, which
+	 * invalidates all the cached visibilities: a reference may now resolve to
+	 * another expression, accessing other variables.
+	 */
+	private static volatile int definitionsGeneration;
+
+	private static boolean definitionsListenerAdded;
+
+	private static final class DefinitionsListener implements IRegistryEventListener {
+		@Override
+		public void added(IExtension[] extensions) {
+			definitionsGeneration++;
+		}
+
+		@Override
+		public void removed(IExtension[] extensions) {
+			definitionsGeneration++;
+		}
+
+		@Override
+		public void added(IExtensionPoint[] extensionPoints) {
+			definitionsGeneration++;
+		}
+
+		@Override
+		public void removed(IExtensionPoint[] extensionPoints) {
+			definitionsGeneration++;
+		}
+	}
+
+	/**
+	 * The result of the last evaluation of a core expression, with the values
+	 * of the variables it was evaluated against. The result can be reused as
+	 * long as these values and the expression definitions don't change,
+	 * provided the expression depends on nothing else: expressions testing
+	 * properties or system properties, or with types that don't report what
+	 * they access, are always evaluated.
+	 */
+	private static final class CachedVisibility {
+		final Expression expression;
+
+		final int generation = definitionsGeneration;
+
+		final String[] variableNames;
+
+		final String[] propertyNames;
+
+		final boolean defaultVariableAccess;
+
+		final boolean cacheable;
+
+		Object[] values;
+
+		boolean visible;
+
+		CachedVisibility(Expression expression) {
+			this.expression = expression;
+			ExpressionInfo info = expression.computeExpressionInfo();
+			variableNames = info.getAccessedVariableNames();
+			propertyNames = info.getAccessedPropertyNames();
+			defaultVariableAccess = info.hasDefaultVariableAccess();
+			cacheable = propertyNames.length == 0 && !info.hasSystemPropertyAccess()
+					&& info.getMisbehavingExpressionTypes() == null;
+		}
+
+		Object[] getValues(ExpressionContext eContext) {
+			Object[] result = new Object[variableNames.length + 1];
+			for (int i = 0; i < variableNames.length; i++) {
+				result[i] = snapshot(eContext.getVariable(variableNames[i]));
+			}
+			if (defaultVariableAccess) {
+				result[variableNames.length] = snapshot(eContext.getDefaultVariable());
+			}
+			return result;
+		}
+
+		boolean matches(Object[] currentValues) {
+			if (values == null) {
+				return false;
+			}
+			for (int i = 0; i < values.length; i++) {
+				Object value = values[i];
+				Object currentValue = currentValues[i];
+				if (value != currentValue && !(value instanceof Collection && value.equals(currentValue))) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/*
+		 * Collections, such as the active contexts, may be changed in place or
+		 * rebuilt on every access, so they are compared by content. Any other
+		 * value is compared by identity.
+		 */
+		private static Object snapshot(Object value) {
+			if (value instanceof Set) {
+				return new HashSet<>((Set<?>) value);
+			}
+			if (value instanceof List) {
+				return new ArrayList<>((List<?>) value);
+			}
+			return value;
+		}
+	}
+
+	private static CachedVisibility getCachedVisibility(MCoreExpression coreExpression, Expression ref) {
+		addDefinitionsListener();
+		Object cached = coreExpression.getTransientData().get(CACHED_VISIBILITY);
+		if (cached instanceof CachedVisibility && ((CachedVisibility) cached).expression == ref
+				&& ((CachedVisibility) cached).generation == definitionsGeneration) {
+			return (CachedVisibility) cached;
+		}
+		CachedVisibility cachedVisibility = new CachedVisibility(ref);
+		coreExpression.getTransientData().put(CACHED_VISIBILITY, cachedVisibility);
+		return cachedVisibility;
+	}
+
+	private static synchronized void addDefinitionsListener() {
+		if (definitionsListenerAdded) {
+			return;
+		}
+		definitionsListenerAdded = true;
+		IExtensionRegistry registry = RegistryFactory.getRegistry();
+		if (registry != null) {
+			// lives as long as the application, like the cached visibilities
+			registry.addListener(new DefinitionsListener(), EP_DEFINITIONS);
+		}
+	}
+
+	/**
+	 * Traces how many visibility expressions were evaluated, and how many
+	 * results were reused, since the last call, then resets the counts.
+	 *
+	 * @param menu
+	 *            the menu whose visibility was updated
+	 */
+	public static void traceVisibilityCache(Object menu) {
+		if (DEBUG) {
+			int total = visibilityCacheHits + visibilityCacheMisses;
+			trace("visibility cache: " + visibilityCacheHits + " of " + total //$NON-NLS-1$ //$NON-NLS-2$
+					+ " cacheable expressions reused: " + menu, null); //$NON-NLS-1$
+		}
+		visibilityCacheHits = 0;
+		visibilityCacheMisses = 0;
+	}
+
 	public static void gatherTrimContributions(MTrimBar trimModel,
 			List<MTrimContribution> trimContributions, String elementId,
 			ArrayList<MTrimContribution> toContribute, ExpressionContext eContext) {
@@ -273,18 +436,35 @@ public final class ContributionsAnalyzer {
 			ref = new ReferenceExpression(coreExpression.getCoreExpressionId());
 			coreExpression.setCoreExpression(ref);
 		}
+		CachedVisibility cachedVisibility = getCachedVisibility(coreExpression, ref);
 		// Creates dependency on a predefined value that can be "poked" by
 		// the evaluation
 		// service
-		ExpressionInfo info = ref.computeExpressionInfo();
-		String[] names = info.getAccessedPropertyNames();
-		for (String name : names) {
+		for (String name : cachedVisibility.propertyNames) {
 			eContext.getVariable(name + ".evaluationServiceLink"); //$NON-NLS-1$
 		}
+		// Getting the values also keeps the dependencies on the variables of
+		// a tracking context when the result is reused
+		Object[] values = null;
+		if (cachedVisibility.cacheable) {
+			values = cachedVisibility.getValues(eContext);
+			if (cachedVisibility.matches(values)) {
+				visibilityCacheHits++;
+				return cachedVisibility.visible;
+			}
+			visibilityCacheMisses++;
+		}
 		boolean ret = false;
 		try {
-			ret = ref.evaluate(eContext) != EvaluationResult.FALSE;
+			EvaluationResult result = ref.evaluate(eContext);
+			ret = result != EvaluationResult.FALSE;
+			// a result depending on a bundle not yet loaded can change
+			cachedVisibility.values = result == EvaluationResult.NOT_LOADED ? null : values;
+			cachedVisibility.visible = ret;
 		} catch (Exception e) {
+			// forget the expression, for instance a reference to a definition
+			// which was missing and may be added later
+			coreExpression.getTransientData().remove(CACHED_VISIBILITY);
 			if (DEBUG) {
 				trace("isVisible exception", e); //$NON-NLS-1$
 			}
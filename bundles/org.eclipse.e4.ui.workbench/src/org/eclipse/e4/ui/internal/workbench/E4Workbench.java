@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2016 BestSolution.at and others.
+ * Copyright (c) 2008, 2018 BestSolution.at and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -83,6 +83,21 @@ public class E4Workbench implements IWorkbench {
 	 * Value is: <code>forcedShowLocation</code>
 	 */
 	public static final String FORCED_SHOW_LOCATION = "forcedShowLocation"; //$NON-NLS-1$
+	/**
+	 * The argument for whether to persist the workbench model in the EMF binary
+	 * format, which is faster to load and save than XMI<br>
+	 * <br>
+	 * Value is: <code>binaryModel</code>
+	 */
+	public static final String BINARY_MODEL = "binaryModel"; //$NON-NLS-1$
+	/**
+	 * The argument for whether the auto-save appends the changes of the
+	 * workbench model to a journal, rather than saving the whole model every
+	 * time<br>
+	 * <br>
+	 * Value is: <code>modelJournal</code>
+	 */
+	public static final String MODEL_JOURNAL = "modelJournal"; //$NON-NLS-1$
 
 	private final String id;
 	private ServiceRegistration<?> osgiRegistration;
@@ -122,6 +137,7 @@ public class E4Workbench implements IWorkbench {
 		}
 
 		uiEventPublisher = new UIEventPublisher(appContext);
+		uiEventPublisher.setModelJournal(appContext.get(ModelJournal.class));
 		appContext.set(UIEventPublisher.class, uiEventPublisher);
 		((Notifier) uiRoot).eAdapters().add(uiEventPublisher);
 		Hashtable<String, Object> properties = new Hashtable<>();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2015 IBM Corporation and others.
+ * Copyright (c) 2009, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,8 +12,13 @@
 
 package org.eclipse.e4.ui.internal.workbench;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -26,6 +31,8 @@ import org.eclipse.emf.ecore.EClassifier;
 import org.eclipse.emf.ecore.EFactory;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl.EObjectInputStream;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl.EObjectOutputStream;
 import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.emf.ecore.xmi.XMLHelper;
 import org.eclipse.emf.ecore.xmi.impl.XMIHelperImpl;
@@ -33,6 +40,16 @@ import org.eclipse.emf.ecore.xmi.impl.XMIResourceImpl;
 
 public class E4XMIResource extends XMIResourceImpl {
 
+	/**
+	 * Load and save option to read and write the contents in the EMF binary
+	 * format rather than as XMI. The ids of the objects are kept, so that the
+	 * resource can be saved as XMI again with the same <code>xmi:id</code>s.
+	 * <br>
+	 * <br>
+	 * Value is: {@link Boolean#TRUE} to use the binary format
+	 */
+	public static final String OPTION_BINARY_FORMAT = "org.eclipse.e4.ui.workbench.binaryFormat"; //$NON-NLS-1$
+
 	private Map<EObject, String> objectMap = new WeakHashMap<>();
 	private Set<String> knownIds = new HashSet<>();
 
@@ -104,6 +121,63 @@ public class E4XMIResource extends XMIResourceImpl {
 		return id;
 	}
 
+	@Override
+	public void doLoad(InputStream inputStream, Map<?, ?> options) throws IOException {
+		if (options != null && Boolean.TRUE.equals(options.get(OPTION_BINARY_FORMAT))) {
+			loadBinary(inputStream, options);
+		} else {
+			super.doLoad(inputStream, options);
+		}
+	}
+
+	@Override
+	public void doSave(OutputStream outputStream, Map<?, ?> options) throws IOException {
+		if (options != null && Boolean.TRUE.equals(options.get(OPTION_BINARY_FORMAT))) {
+			saveBinary(outputStream, options);
+		} else {
+			super.doSave(outputStream, options);
+		}
+	}
+
+	/*
+	 * The binary format has no ids, so they follow the contents, in the order
+	 * of the content tree.
+	 */
+	private void saveBinary(OutputStream outputStream, Map<?, ?> options) throws IOException {
+		EObjectOutputStream out = new EObjectOutputStream(outputStream, options);
+		out.saveResource(this);
+		List<EObject> objects = getAllContentsList();
+		out.writeCompressedInt(objects.size());
+		for (EObject object : objects) {
+			String id = getID(object);
+			out.writeBoolean(id != null);
+			if (id != null) {
+				out.writeString(id);
+			}
+		}
+		out.flush();
+	}
+
+	private void loadBinary(InputStream inputStream, Map<?, ?> options) throws IOException {
+		EObjectInputStream in = new EObjectInputStream(inputStream, options);
+		in.loadResource(this);
+		List<EObject> objects = getAllContentsList();
+		if (in.readCompressedInt() != objects.size()) {
+			throw new IOException("The ids don't match the contents of " + getURI()); //$NON-NLS-1$
+		}
+		for (EObject object : objects) {
+			if (in.readBoolean()) {
+				setID(object, in.readString());
+			}
+		}
+	}
+
+	private List<EObject> getAllContentsList() {
+		List<EObject> objects = new ArrayList<>();
+		getAllContents().forEachRemaining(objects::add);
+		return objects;
+	}
+
 	/**
 	 * Functional interface for creating objects
 	 */
@@ -0,0 +1,287 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.internal.workbench;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.MApplicationElement;
+import org.eclipse.e4.ui.model.application.impl.ApplicationPackageImpl;
+import org.eclipse.e4.ui.model.application.ui.MUIElement;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPlaceholder;
+import org.eclipse.e4.ui.model.application.ui.advanced.impl.AdvancedPackageImpl;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+
+/**
+ * Indexes the elements of an application by element id, by tag and by class,
+ * kept up to date as the model changes.
+ * <p>
+ * The index does not replace the search of {@link ModelServiceImpl}, whose
+ * search flags decide which parts of the model are searched and in which order
+ * the elements are found. It tells the search which elements it needs to
+ * visit: the elements that may match, their containers, and the placeholders
+ * through which they may be reached, so that the search skips the rest of the
+ * model.
+ * </p>
+ */
+final class ModelIndex extends EContentAdapter {
+
+	private final MApplication application;
+
+	private final Map<String, Set<MApplicationElement>> elementsById = new HashMap<>();
+
+	private final Map<String, Set<MApplicationElement>> elementsByTag = new HashMap<>();
+
+	private final Map<Class<?>, Set<MApplicationElement>> elementsByClass = new HashMap<>();
+
+	private final Map<MUIElement, Set<MPlaceholder>> placeholdersByRef = new HashMap<>();
+
+	/**
+	 * The elements shown by placeholders but not part of the application,
+	 * which can't be searched with the index.
+	 */
+	private final Set<MUIElement> unindexedRefs = new HashSet<>();
+
+	private int size;
+
+	/**
+	 * Creates the index of the given application, and starts keeping it up to
+	 * date.
+	 *
+	 * @param application
+	 *            the application to index
+	 */
+	ModelIndex(MApplication application) {
+		this.application = application;
+		((EObject) application).eAdapters().add(this);
+	}
+
+	/**
+	 * Stops keeping the index up to date.
+	 */
+	void dispose() {
+		((EObject) application).eAdapters().remove(this);
+	}
+
+	MApplication getApplication() {
+		return application;
+	}
+
+	/**
+	 * Returns the elements a search for the given element id, class and tags
+	 * has to visit, those not returned can't match and don't lead to an
+	 * element that matches.
+	 *
+	 * @param id
+	 *            the element id to match, or <code>null</code>
+	 * @param clazz
+	 *            the class to match, or <code>null</code>
+	 * @param tags
+	 *            the tags to match, or <code>null</code>
+	 * @return the elements to visit, or <code>null</code> if the index can't
+	 *         tell them apart from the rest of the model
+	 */
+	Set<Object> getSearchScope(String id, Class<?> clazz, List<String> tags) {
+		if (!unindexedRefs.isEmpty()) {
+			return null;
+		}
+
+		Collection<MApplicationElement> candidates = null;
+		if (id != null) {
+			candidates = elementsById.getOrDefault(id, Collections.emptySet());
+		}
+		if (tags != null) {
+			for (String tag : tags) {
+				Set<MApplicationElement> tagged = elementsByTag.getOrDefault(tag, Collections.emptySet());
+				if (candidates == null || tagged.size() < candidates.size()) {
+					candidates = tagged;
+				}
+			}
+		}
+		if (candidates == null && clazz != null) {
+			candidates = getInstances(clazz);
+		}
+		// visiting most of the model anyway, the scope would only cost more
+		if (candidates == null || candidates.size() * 2 > size) {
+			return null;
+		}
+
+		Set<Object> scope = new HashSet<>();
+		for (MApplicationElement candidate : candidates) {
+			addWithContainers(scope, (EObject) candidate);
+		}
+		return scope;
+	}
+
+	private List<MApplicationElement> getInstances(Class<?> clazz) {
+		List<MApplicationElement> instances = new ArrayList<>();
+		for (Map.Entry<Class<?>, Set<MApplicationElement>> entry : elementsByClass.entrySet()) {
+			if (clazz.isAssignableFrom(entry.getKey())) {
+				instances.addAll(entry.getValue());
+			}
+		}
+		return instances;
+	}
+
+	/*
+	 * Adds the element and its containers, and the placeholders showing any of
+	 * them, along with their own containers.
+	 */
+	private void addWithContainers(Set<Object> scope, EObject element) {
+		for (EObject container = element; container != null && scope.add(container); container = container
+				.eContainer()) {
+			Set<MPlaceholder> placeholders = placeholdersByRef.get(container);
+			if (placeholders != null) {
+				for (MPlaceholder placeholder : placeholders) {
+					addWithContainers(scope, (EObject) placeholder);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void notifyChanged(Notification notification) {
+		super.notifyChanged(notification);
+		if (notification.isTouch() || !(notification.getNotifier() instanceof MApplicationElement)) {
+			return;
+		}
+
+		MApplicationElement element = (MApplicationElement) notification.getNotifier();
+		Object feature = notification.getFeature();
+		if (feature == ApplicationPackageImpl.Literals.APPLICATION_ELEMENT__ELEMENT_ID) {
+			remove(elementsById, (String) notification.getOldValue(), element);
+			add(elementsById, (String) notification.getNewValue(), element);
+		} else if (feature == ApplicationPackageImpl.Literals.APPLICATION_ELEMENT__TAGS) {
+			tagsChanged(notification, element);
+		} else if (feature == AdvancedPackageImpl.Literals.PLACEHOLDER__REF) {
+			removeRef((MPlaceholder) element, (MUIElement) notification.getOldValue());
+			addRef((MPlaceholder) element, (MUIElement) notification.getNewValue());
+		}
+	}
+
+	private void tagsChanged(Notification notification, MApplicationElement element) {
+		switch (notification.getEventType()) {
+		case Notification.ADD:
+			add(elementsByTag, (String) notification.getNewValue(), element);
+			break;
+		case Notification.ADD_MANY:
+			for (Object tag : (Collection<?>) notification.getNewValue()) {
+				add(elementsByTag, (String) tag, element);
+			}
+			break;
+		case Notification.REMOVE:
+			removeTag((String) notification.getOldValue(), element);
+			break;
+		case Notification.REMOVE_MANY:
+			for (Object tag : (Collection<?>) notification.getOldValue()) {
+				removeTag((String) tag, element);
+			}
+			break;
+		case Notification.SET:
+			removeTag((String) notification.getOldValue(), element);
+			add(elementsByTag, (String) notification.getNewValue(), element);
+			break;
+		default:
+			break;
+		}
+	}
+
+	private void removeTag(String tag, MApplicationElement element) {
+		// the same tag may be there more than once
+		if (!element.getTags().contains(tag)) {
+			remove(elementsByTag, tag, element);
+		}
+	}
+
+	@Override
+	protected void setTarget(EObject target) {
+		super.setTarget(target);
+		if (!(target instanceof MApplicationElement)) {
+			return;
+		}
+		MApplicationElement element = (MApplicationElement) target;
+		size++;
+		add(elementsById, element.getElementId(), element);
+		for (String tag : element.getTags()) {
+			add(elementsByTag, tag, element);
+		}
+		add(elementsByClass, element.getClass(), element);
+		if (element instanceof MPlaceholder) {
+			addRef((MPlaceholder) element, ((MPlaceholder) element).getRef());
+		}
+		if (placeholdersByRef.containsKey(element)) {
+			unindexedRefs.remove(element);
+		}
+	}
+
+	@Override
+	protected void unsetTarget(EObject target) {
+		super.unsetTarget(target);
+		if (!(target instanceof MApplicationElement)) {
+			return;
+		}
+		MApplicationElement element = (MApplicationElement) target;
+		size--;
+		remove(elementsById, element.getElementId(), element);
+		for (String tag : element.getTags()) {
+			remove(elementsByTag, tag, element);
+		}
+		remove(elementsByClass, element.getClass(), element);
+		if (element instanceof MPlaceholder) {
+			removeRef((MPlaceholder) element, ((MPlaceholder) element).getRef());
+		}
+		if (placeholdersByRef.containsKey(element)) {
+			unindexedRefs.add((MUIElement) element);
+		}
+	}
+
+	private void addRef(MPlaceholder placeholder, MUIElement ref) {
+		if (ref != null) {
+			add(placeholdersByRef, ref, placeholder);
+			if (!((EObject) ref).eAdapters().contains(this)) {
+				unindexedRefs.add(ref);
+			}
+		}
+	}
+
+	private void removeRef(MPlaceholder placeholder, MUIElement ref) {
+		if (ref != null) {
+			remove(placeholdersByRef, ref, placeholder);
+			if (!placeholdersByRef.containsKey(ref)) {
+				unindexedRefs.remove(ref);
+			}
+		}
+	}
+
+	private static <K, V> void add(Map<K, Set<V>> map, K key, V value) {
+		if (key != null) {
+			map.computeIfAbsent(key, k -> new HashSet<>(2)).add(value);
+		}
+	}
+
+	private static <K, V> void remove(Map<K, Set<V>> map, K key, V value) {
+		if (key != null) {
+			Set<V> values = map.get(key);
+			if (values != null && values.remove(value) && values.isEmpty()) {
+				map.remove(key);
+			}
+		}
+	}
+}
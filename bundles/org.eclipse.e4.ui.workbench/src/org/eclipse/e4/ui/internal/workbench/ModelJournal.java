@@ -0,0 +1,754 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.internal.workbench;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+
+/**
+ * Records the changes made to the application model since it was last saved
+ * in full, so that the auto-save only has to write what changed.
+ * <p>
+ * The changed features of the model elements are collected from the model
+ * notifications, forwarded by the {@link UIEventPublisher}. A snapshot of them
+ * is taken on the UI thread, and appended to the journal file on any thread.
+ * Every so often the model is saved in full instead, see
+ * {@link #needsCompaction()}, which starts a new journal.
+ * </p>
+ * <p>
+ * The journal belongs to the model saved by the last compaction: a token is
+ * stored in the persisted state of the saved application, and in the header of
+ * the journal. On start-up the journal is replayed on top of the saved model
+ * only if the tokens match, so that a journal left behind by an interrupted
+ * compaction or by an older session is ignored. Each snapshot is checked with
+ * a CRC, and a snapshot only partially written by a crash ends the replay.
+ * </p>
+ */
+public class ModelJournal {
+
+	/**
+	 * The key of the persisted state of the application holding the token of
+	 * the journal continuing the saved model.
+	 */
+	public static final String BASELINE_KEY = "org.eclipse.e4.ui.workbench.modelJournal"; //$NON-NLS-1$
+
+	private static final int MAGIC = 0x45344A4E;
+
+	private static final int VERSION = 1;
+
+	private static final byte KIND_VALUES = 0;
+
+	private static final byte KIND_CHILDREN = 1;
+
+	private static final byte KIND_REFERENCES = 2;
+
+	private static final byte KIND_ENTRIES = 3;
+
+	/**
+	 * The size of the journal above which the model is saved in full again.
+	 */
+	private static final long COMPACTION_SIZE = 1024 * 1024;
+
+	/**
+	 * The number of snapshots after which the model is saved in full again.
+	 */
+	private static final int COMPACTION_SNAPSHOTS = 50;
+
+	private final XMLResource resource;
+
+	private final File file;
+
+	private Predicate<EObject> filter = object -> true;
+
+	private final Set<EObject> addedObjects = new LinkedHashSet<>();
+
+	private final Map<EObject, Set<EStructuralFeature>> changedFeatures = new LinkedHashMap<>();
+
+	private volatile String baseline;
+
+	private volatile long size;
+
+	private volatile int snapshotCount;
+
+	/**
+	 * @param resource
+	 *            the resource of the application model
+	 * @param file
+	 *            the journal file
+	 */
+	public ModelJournal(XMLResource resource, File file) {
+		this.resource = resource;
+		this.file = file;
+	}
+
+	/**
+	 * Sets the filter of the elements to record. The elements the filter
+	 * rejects, and their children, are left out of the journal as they are left
+	 * out of the saved model.
+	 *
+	 * @param filter
+	 *            accepts the elements to record
+	 */
+	public void setFilter(Predicate<EObject> filter) {
+		this.filter = filter;
+	}
+
+	/**
+	 * Records a change of the model. Called on the UI thread.
+	 *
+	 * @param notification
+	 *            the model notification
+	 */
+	public void notifyChanged(Notification notification) {
+		if (notification.isTouch() || !(notification.getNotifier() instanceof EObject)
+				|| !(notification.getFeature() instanceof EStructuralFeature)) {
+			return;
+		}
+		EObject object = (EObject) notification.getNotifier();
+		EStructuralFeature feature = (EStructuralFeature) notification.getFeature();
+		if (object instanceof Map.Entry) {
+			// a map value was set, the map of the container changed
+			feature = object.eContainingFeature();
+			object = object.eContainer();
+			if (object == null) {
+				return;
+			}
+		}
+		if (!isRecorded(feature)) {
+			return;
+		}
+		if (!addedObjects.contains(object)) {
+			changedFeatures.computeIfAbsent(object, o -> new HashSet<>()).add(feature);
+		}
+
+		if (feature instanceof EReference && ((EReference) feature).isContainment()) {
+			switch (notification.getEventType()) {
+			case Notification.ADD:
+			case Notification.SET:
+				if (notification.getNewValue() instanceof EObject) {
+					added((EObject) notification.getNewValue());
+				}
+				break;
+			case Notification.ADD_MANY:
+				for (Object value : (List<?>) notification.getNewValue()) {
+					if (value instanceof EObject) {
+						added((EObject) value);
+					}
+				}
+				break;
+			default:
+				break;
+			}
+		}
+	}
+
+	/*
+	 * An element new to its container is recorded entirely, with its children.
+	 */
+	private void added(EObject object) {
+		if (object instanceof Map.Entry) {
+			return;
+		}
+		addedObjects.add(object);
+		changedFeatures.remove(object);
+		for (TreeIterator<EObject> it = object.eAllContents(); it.hasNext();) {
+			EObject child = it.next();
+			if (child instanceof Map.Entry) {
+				it.prune();
+			} else {
+				addedObjects.add(child);
+				changedFeatures.remove(child);
+			}
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if the model must be saved in full rather than
+	 *         to the journal
+	 */
+	public boolean needsCompaction() {
+		return baseline == null || size > COMPACTION_SIZE || snapshotCount >= COMPACTION_SNAPSHOTS;
+	}
+
+	/**
+	 * Takes a snapshot of the elements changed since the previous snapshot.
+	 * Called on the UI thread.
+	 *
+	 * @return the snapshot to append, or <code>null</code> if nothing changed
+	 */
+	public byte[] takeSnapshot() {
+		if (addedObjects.isEmpty() && changedFeatures.isEmpty()) {
+			return null;
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			List<EObject> objects = new ArrayList<>(addedObjects.size() + changedFeatures.size());
+			for (EObject object : addedObjects) {
+				if (isRecorded(object)) {
+					objects.add(object);
+				}
+			}
+			for (EObject object : changedFeatures.keySet()) {
+				if (!addedObjects.contains(object) && isRecorded(object)) {
+					objects.add(object);
+				}
+			}
+			out.writeInt(objects.size());
+			for (EObject object : objects) {
+				Set<EStructuralFeature> features = changedFeatures.get(object);
+				writeRecord(out, object, features == null ? getRecordedFeatures(object.eClass()) : features);
+			}
+		} catch (IOException e) {
+			// not thrown when writing to memory
+			throw new IllegalStateException(e);
+		}
+		addedObjects.clear();
+		changedFeatures.clear();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Appends a snapshot to the journal. May be called on any thread, but not
+	 * concurrently with {@link #compacted(String)}.
+	 *
+	 * @param snapshot
+	 *            a snapshot returned by {@link #takeSnapshot()}
+	 * @throws IOException
+	 *             if the snapshot could not be written, in which case the
+	 *             model needs to be saved in full
+	 */
+	public void append(byte[] snapshot) throws IOException {
+		CRC32 crc = new CRC32();
+		crc.update(snapshot);
+		try (FileOutputStream stream = new FileOutputStream(file, true);
+				DataOutputStream out = new DataOutputStream(stream)) {
+			out.writeInt(snapshot.length);
+			out.write(snapshot);
+			out.writeLong(crc.getValue());
+			out.flush();
+			stream.getFD().sync();
+		} catch (IOException e) {
+			baseline = null;
+			throw e;
+		}
+		size = file.length();
+		snapshotCount++;
+	}
+
+	/**
+	 * Starts saving the model in full. Called on the UI thread, the changes
+	 * recorded so far are part of the copy.
+	 *
+	 * @param application
+	 *            the application of the resource
+	 * @return a copy of the application, with the same ids as the original
+	 *         elements, to save in full
+	 */
+	public Compaction startCompaction(MApplication application) {
+		baseline = null;
+		addedObjects.clear();
+		changedFeatures.clear();
+
+		EcoreUtil.Copier copier = new EcoreUtil.Copier();
+		EObject copy = copier.copy((EObject) application);
+		copier.copyReferences();
+		Map<EObject, String> ids = new HashMap<>(copier.size());
+		for (Map.Entry<EObject, EObject> entry : copier.entrySet()) {
+			String id = resource.getID(entry.getKey());
+			if (id != null) {
+				ids.put(entry.getValue(), id);
+			}
+		}
+		String token = UUID.randomUUID().toString();
+		((MApplication) copy).getPersistedState().put(BASELINE_KEY, token);
+		return new Compaction((MApplication) copy, ids, token);
+	}
+
+	/**
+	 * Starts a new journal once the model was saved in full. May be called on
+	 * any thread.
+	 *
+	 * @param token
+	 *            the token of the saved model
+	 * @throws IOException
+	 *             if the journal could not be started
+	 */
+	public void compacted(String token) throws IOException {
+		try (FileOutputStream stream = new FileOutputStream(file);
+				DataOutputStream out = new DataOutputStream(stream)) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			writeString(out, token);
+			out.flush();
+			stream.getFD().sync();
+		}
+		size = file.length();
+		snapshotCount = 0;
+		baseline = token;
+	}
+
+	/**
+	 * Removes the journal, once the model was saved in full at shutdown.
+	 */
+	public void delete() {
+		baseline = null;
+		file.delete();
+	}
+
+	/**
+	 * A copy of the application being saved in full.
+	 */
+	public static final class Compaction {
+
+		private final MApplication application;
+
+		private final Map<EObject, String> ids;
+
+		private final String token;
+
+		Compaction(MApplication application, Map<EObject, String> ids, String token) {
+			this.application = application;
+			this.ids = ids;
+			this.token = token;
+		}
+
+		/**
+		 * @return the copy of the application
+		 */
+		public MApplication getApplication() {
+			return application;
+		}
+
+		/**
+		 * Gives the copied elements the ids of the originals, once the copy
+		 * was added to the resource it is saved to.
+		 *
+		 * @param copyResource
+		 *            the resource of the copy
+		 */
+		public void applyIds(XMLResource copyResource) {
+			for (Map.Entry<EObject, String> entry : ids.entrySet()) {
+				copyResource.setID(entry.getKey(), entry.getValue());
+			}
+		}
+
+		/**
+		 * @return the token of the saved model
+		 */
+		public String getToken() {
+			return token;
+		}
+	}
+
+	/**
+	 * Removes the journal token from a loaded model, so that it is not saved
+	 * again with the model.
+	 *
+	 * @param application
+	 *            the loaded application
+	 * @return the token, or <code>null</code>
+	 */
+	public static String removeBaseline(MApplication application) {
+		return application.getPersistedState().remove(BASELINE_KEY);
+	}
+
+	/**
+	 * Applies the journal to the model it continues.
+	 *
+	 * @param resource
+	 *            the loaded model
+	 * @param file
+	 *            the journal file
+	 * @param token
+	 *            the token of the loaded model, see
+	 *            {@link #removeBaseline(MApplication)}
+	 * @return the number of elements restored from the journal
+	 * @throws IOException
+	 *             if the journal can't be read
+	 */
+	public static int replay(XMLResource resource, File file, String token) throws IOException {
+		if (token == null || !file.isFile()) {
+			return 0;
+		}
+		Map<String, Record> records = new LinkedHashMap<>();
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION || !token.equals(readString(in))) {
+				return 0;
+			}
+			while (true) {
+				byte[] snapshot;
+				try {
+					int length = in.readInt();
+					if (length < 0 || length > file.length()) {
+						break;
+					}
+					snapshot = new byte[length];
+					in.readFully(snapshot);
+					CRC32 crc = new CRC32();
+					crc.update(snapshot);
+					if (in.readLong() != crc.getValue()) {
+						break;
+					}
+				} catch (EOFException e) {
+					// the end of the journal, or a snapshot cut short
+					break;
+				}
+				readSnapshot(new DataInputStream(new ByteArrayInputStream(snapshot)), records);
+			}
+		} catch (EOFException e) {
+			// no complete header
+			return 0;
+		}
+		new Replay(resource).apply(records.values());
+		return records.size();
+	}
+
+	private boolean isRecorded(EObject object) {
+		if (object.eResource() != resource) {
+			return false;
+		}
+		for (EObject element = object; element != null; element = element.eContainer()) {
+			if (!filter.test(element)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isRecorded(EStructuralFeature feature) {
+		return !feature.isTransient() && !feature.isDerived() && feature.isChangeable() && !feature.isVolatile()
+				&& !(feature instanceof EReference && ((EReference) feature).isContainer());
+	}
+
+	private static Set<EStructuralFeature> getRecordedFeatures(EClass eClass) {
+		Set<EStructuralFeature> features = new LinkedHashSet<>();
+		for (EStructuralFeature feature : eClass.getEAllStructuralFeatures()) {
+			if (isRecorded(feature)) {
+				features.add(feature);
+			}
+		}
+		return features;
+	}
+
+	private void writeRecord(DataOutputStream out, EObject object, Set<EStructuralFeature> features)
+			throws IOException {
+		EClass eClass = object.eClass();
+		writeString(out, resource.getID(object));
+		writeString(out, eClass.getEPackage().getNsURI());
+		writeString(out, eClass.getName());
+		out.writeInt(features.size());
+		for (EStructuralFeature feature : features) {
+			writeString(out, feature.getName());
+			List<?> values = getValues(object, feature);
+			if (feature instanceof EAttribute) {
+				out.writeByte(KIND_VALUES);
+				out.writeInt(values.size());
+				for (Object value : values) {
+					writeString(out, EcoreUtil.convertToString(((EAttribute) feature).getEAttributeType(), value));
+				}
+			} else if (((EReference) feature).isContainment()
+					&& Map.Entry.class == ((EReference) feature).getEReferenceType().getInstanceClass()) {
+				out.writeByte(KIND_ENTRIES);
+				out.writeInt(values.size());
+				for (Object value : values) {
+					writeEntry(out, (EObject) value);
+				}
+			} else if (((EReference) feature).isContainment()) {
+				List<String> ids = new ArrayList<>(values.size());
+				for (Object value : values) {
+					if (filter.test((EObject) value)) {
+						ids.add(resource.getID((EObject) value));
+					}
+				}
+				out.writeByte(KIND_CHILDREN);
+				out.writeInt(ids.size());
+				for (String id : ids) {
+					writeString(out, id);
+				}
+			} else {
+				List<String> uris = new ArrayList<>(values.size());
+				for (Object value : values) {
+					String uri = getReferenceURI((EObject) value);
+					if (uri != null) {
+						uris.add(uri);
+					}
+				}
+				out.writeByte(KIND_REFERENCES);
+				out.writeInt(uris.size());
+				for (String uri : uris) {
+					writeString(out, uri);
+				}
+			}
+		}
+	}
+
+	private static void writeEntry(DataOutputStream out, EObject entry) throws IOException {
+		EClass eClass = entry.eClass();
+		EAttribute key = (EAttribute) eClass.getEStructuralFeature("key"); //$NON-NLS-1$
+		EAttribute value = (EAttribute) eClass.getEStructuralFeature("value"); //$NON-NLS-1$
+		writeString(out, EcoreUtil.convertToString(key.getEAttributeType(), entry.eGet(key)));
+		writeString(out, EcoreUtil.convertToString(value.getEAttributeType(), entry.eGet(value)));
+	}
+
+	private String getReferenceURI(EObject target) {
+		if (target.eResource() == resource) {
+			String id = resource.getID(target);
+			return id == null ? null : '#' + id;
+		}
+		return target.eIsProxy() || target.eResource() != null ? EcoreUtil.getURI(target).toString() : null;
+	}
+
+	private static List<?> getValues(EObject object, EStructuralFeature feature) {
+		Object value = object.eGet(feature, false);
+		if (feature.isMany()) {
+			return (List<?>) value;
+		}
+		return value == null && !(feature instanceof EAttribute) ? Collections.emptyList()
+				: Collections.singletonList(value);
+	}
+
+	private static void readSnapshot(DataInputStream in, Map<String, Record> records) throws IOException {
+		int count = in.readInt();
+		for (int i = 0; i < count; i++) {
+			String id = readString(in);
+			Record record = records.remove(id);
+			if (record == null) {
+				record = new Record(id, readString(in), readString(in));
+			} else {
+				readString(in);
+				readString(in);
+			}
+			// keep the records in the order of their last change
+			records.put(id, record);
+			int featureCount = in.readInt();
+			for (int j = 0; j < featureCount; j++) {
+				String name = readString(in);
+				byte kind = in.readByte();
+				int valueCount = in.readInt();
+				int stringCount = kind == KIND_ENTRIES ? valueCount * 2 : valueCount;
+				List<String> values = new ArrayList<>(stringCount);
+				for (int k = 0; k < stringCount; k++) {
+					values.add(readString(in));
+				}
+				record.features.put(name, new FeatureValues(kind, values));
+			}
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String string) throws IOException {
+		if (string == null) {
+			out.writeInt(-1);
+		} else {
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static final class Record {
+		final String id;
+
+		final String nsURI;
+
+		final String className;
+
+		final Map<String, FeatureValues> features = new LinkedHashMap<>();
+
+		Record(String id, String nsURI, String className) {
+			this.id = id;
+			this.nsURI = nsURI;
+			this.className = className;
+		}
+	}
+
+	private static final class FeatureValues {
+		final byte kind;
+
+		final List<String> values;
+
+		FeatureValues(byte kind, List<String> values) {
+			this.kind = kind;
+			this.values = values;
+		}
+	}
+
+	/*
+	 * Applies the last recorded state of each element: the elements first, then
+	 * their attributes, their children and last their references, so that all
+	 * the elements exist when they are added or referenced.
+	 */
+	private static final class Replay {
+
+		private final XMLResource resource;
+
+		private final Map<Record, EObject> objects = new LinkedHashMap<>();
+
+		Replay(XMLResource resource) {
+			this.resource = resource;
+		}
+
+		void apply(Iterable<Record> records) {
+			for (Record record : records) {
+				EObject object = resource.getEObject(record.id);
+				if (object == null) {
+					EClass eClass = getEClass(record);
+					if (eClass == null) {
+						continue;
+					}
+					object = EcoreUtil.create(eClass);
+					resource.setID(object, record.id);
+				}
+				objects.put(record, object);
+			}
+			for (Map.Entry<Record, EObject> entry : objects.entrySet()) {
+				apply(entry.getKey(), entry.getValue(), KIND_VALUES);
+				apply(entry.getKey(), entry.getValue(), KIND_ENTRIES);
+			}
+			for (Map.Entry<Record, EObject> entry : objects.entrySet()) {
+				apply(entry.getKey(), entry.getValue(), KIND_CHILDREN);
+			}
+			for (Map.Entry<Record, EObject> entry : objects.entrySet()) {
+				apply(entry.getKey(), entry.getValue(), KIND_REFERENCES);
+			}
+		}
+
+		private EClass getEClass(Record record) {
+			ResourceSet resourceSet = resource.getResourceSet();
+			EPackage ePackage = (resourceSet == null ? EPackage.Registry.INSTANCE
+					: resourceSet.getPackageRegistry()).getEPackage(record.nsURI);
+			if (ePackage == null) {
+				return null;
+			}
+			Object eClass = ePackage.getEClassifier(record.className);
+			return eClass instanceof EClass ? (EClass) eClass : null;
+		}
+
+		@SuppressWarnings("unchecked")
+		private void apply(Record record, EObject object, byte kind) {
+			for (Map.Entry<String, FeatureValues> entry : record.features.entrySet()) {
+				FeatureValues featureValues = entry.getValue();
+				if (featureValues.kind != kind) {
+					continue;
+				}
+				EStructuralFeature feature = object.eClass().getEStructuralFeature(entry.getKey());
+				if (feature == null || !isRecorded(feature)) {
+					continue;
+				}
+				List<Object> values = new ArrayList<>(featureValues.values.size());
+				switch (kind) {
+				case KIND_VALUES:
+					for (String value : featureValues.values) {
+						values.add(EcoreUtil.createFromString(((EAttribute) feature).getEAttributeType(), value));
+					}
+					break;
+				case KIND_ENTRIES:
+					EClass entryClass = ((EReference) feature).getEReferenceType();
+					EAttribute key = (EAttribute) entryClass.getEStructuralFeature("key"); //$NON-NLS-1$
+					EAttribute value = (EAttribute) entryClass.getEStructuralFeature("value"); //$NON-NLS-1$
+					for (int i = 0; i + 1 < featureValues.values.size(); i += 2) {
+						EObject mapEntry = EcoreUtil.create(entryClass);
+						mapEntry.eSet(key,
+								EcoreUtil.createFromString(key.getEAttributeType(), featureValues.values.get(i)));
+						mapEntry.eSet(value,
+								EcoreUtil.createFromString(value.getEAttributeType(), featureValues.values.get(i + 1)));
+						values.add(mapEntry);
+					}
+					break;
+				case KIND_CHILDREN:
+					for (String id : featureValues.values) {
+						EObject child = resource.getEObject(id);
+						if (child != null) {
+							values.add(child);
+						}
+					}
+					break;
+				default:
+					for (String uri : featureValues.values) {
+						EObject target = getTarget(uri);
+						if (target != null) {
+							values.add(target);
+						}
+					}
+					break;
+				}
+
+				if (feature.isMany()) {
+					EList<Object> list = (EList<Object>) object.eGet(feature);
+					list.clear();
+					list.addAll(values);
+				} else {
+					object.eSet(feature, values.isEmpty() ? null : values.get(0));
+				}
+			}
+		}
+
+		private EObject getTarget(String uri) {
+			if (uri.startsWith("#")) { //$NON-NLS-1$
+				return resource.getEObject(uri.substring(1));
+			}
+			ResourceSet resourceSet = resource.getResourceSet();
+			if (resourceSet == null) {
+				return null;
+			}
+			try {
+				return resourceSet.getEObject(URI.createURI(uri), false);
+			} catch (RuntimeException e) {
+				return null;
+			}
+		}
+	}
+}
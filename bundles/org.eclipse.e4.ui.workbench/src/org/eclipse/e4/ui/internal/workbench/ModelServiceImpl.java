@@ -15,9 +15,12 @@ package org.eclipse.e4.ui.internal.workbench;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Dictionary;
 import java.util.Hashtable;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import org.eclipse.core.runtime.Assert;
@@ -88,6 +91,8 @@ public class ModelServiceImpl implements EModelService {
 
 	private ServiceRegistration<?> handlerRegistration;
 
+	private ModelIndex modelIndex;
+
 	/**
 	 * This is a singleton service. One instance is used throughout the running application
 	 *
@@ -137,6 +142,10 @@ public class ModelServiceImpl implements EModelService {
 		if (handlerRegistration != null) {
 			handlerRegistration.unregister();
 		}
+		if (modelIndex != null) {
+			modelIndex.dispose();
+			modelIndex = null;
+		}
 	}
 
 	@Override
@@ -155,20 +164,39 @@ public class ModelServiceImpl implements EModelService {
 				"Unsupported model object type: " + elementType.getCanonicalName()); //$NON-NLS-1$
 	}
 
+	/**
+	 * The elements found by a search, and the elements it has to visit.
+	 */
+	private static final class SearchResult<T> {
+		final List<T> elements = new ArrayList<>();
+
+		final Set<Object> found = Collections.newSetFromMap(new IdentityHashMap<>());
+
+		/**
+		 * The elements which may match or lead to a match, <code>null</code>
+		 * to visit all the elements.
+		 */
+		final Set<Object> scope;
+
+		SearchResult(Set<Object> scope) {
+			this.scope = scope;
+		}
+	}
+
 	private <T> void findElementsRecursive(MApplicationElement searchRoot, Class<T> clazz,
-			Selector matcher, List<T> elements, int searchFlags) {
+			Selector matcher, SearchResult<T> result, int searchFlags) {
 		Assert.isLegal(searchRoot != null);
-		if (searchFlags == 0) {
+		if (searchFlags == 0 || (result.scope != null && !result.scope.contains(searchRoot))) {
 			return;
 		}
 
 		// are *we* a match ?
 		boolean classMatch = clazz == null ? true : clazz.isInstance(searchRoot);
 		if (classMatch && matcher.select(searchRoot)) {
-			if (!elements.contains(searchRoot)) {
+			if (result.found.add(searchRoot)) {
 				@SuppressWarnings("unchecked")
 				T element = (T) searchRoot;
-				elements.add(element);
+				result.elements.add(element);
 			}
 		}
 		if (searchRoot instanceof MApplication && (searchFlags == ANYWHERE)) {
@@ -195,21 +223,21 @@ public class ModelServiceImpl implements EModelService {
 			}
 
 			for (MApplicationElement child : children) {
-				findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(child, clazz, matcher, result, searchFlags);
 			}
 		}
 
 		if (searchRoot instanceof MBindingContext && (searchFlags == ANYWHERE)) {
 			MBindingContext bindingContext = (MBindingContext) searchRoot;
 			for (MBindingContext child : bindingContext.getChildren()) {
-				findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(child, clazz, matcher, result, searchFlags);
 			}
 		}
 
 		if (searchRoot instanceof MBindingTable) {
 			MBindingTable bindingTable = (MBindingTable) searchRoot;
 			for (MKeyBinding child : bindingTable.getBindings()) {
-				findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(child, clazz, matcher, result, searchFlags);
 			}
 		}
 
@@ -235,19 +263,19 @@ public class ModelServiceImpl implements EModelService {
 					MElementContainer<? extends MUIElement> container = searchContainer;
 					List<? extends MUIElement> children = container.getChildren();
 					for (MUIElement child : children) {
-						findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+						findElementsRecursive(child, clazz, matcher, result, searchFlags);
 					}
 				} else if ((searchFlags & IN_ACTIVE_PERSPECTIVE) != 0) {
 					// Only search the currently active perspective, if any
 					MPerspective active = ((MPerspectiveStack) searchContainer).getSelectedElement();
 					if (active != null) {
-						findElementsRecursive(active, clazz, matcher, elements, searchFlags);
+						findElementsRecursive(active, clazz, matcher, result, searchFlags);
 					}
 				} else if ((searchFlags & IN_SHARED_AREA) != 0) {
 					// Only recurse through the shared areas
 					List<MArea> areas = findElements(searchContainer, null, MArea.class, null);
 					for (MArea area : areas) {
-						findElementsRecursive(area, clazz, matcher, elements, searchFlags);
+						findElementsRecursive(area, clazz, matcher, result, searchFlags);
 					}
 				}
 			} else {
@@ -255,7 +283,7 @@ public class ModelServiceImpl implements EModelService {
 				MElementContainer<MUIElement> container = (MElementContainer<MUIElement>) searchRoot;
 				List<MUIElement> children = container.getChildren();
 				for (MUIElement child : children) {
-					findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+					findElementsRecursive(child, clazz, matcher, result, searchFlags);
 				}
 			}
 		}
@@ -265,7 +293,7 @@ public class ModelServiceImpl implements EModelService {
 			MTrimmedWindow tw = (MTrimmedWindow) searchRoot;
 			List<MTrimBar> bars = tw.getTrimBars();
 			for (MTrimBar bar : bars) {
-				findElementsRecursive(bar, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(bar, clazz, matcher, result, searchFlags);
 			}
 		}
 
@@ -273,17 +301,17 @@ public class ModelServiceImpl implements EModelService {
 		if (searchRoot instanceof MWindow) {
 			MWindow window = (MWindow) searchRoot;
 			for (MWindow dw : window.getWindows()) {
-				findElementsRecursive(dw, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(dw, clazz, matcher, result, searchFlags);
 			}
 
 			MMenu menu = window.getMainMenu();
 			if (menu != null && (searchFlags & IN_MAIN_MENU) != 0) {
-				findElementsRecursive(menu, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(menu, clazz, matcher, result, searchFlags);
 			}
 			// Check for Handlers
 			if (searchFlags == ANYWHERE && MHandler.class.equals(clazz)) {
 				for (MHandler child : window.getHandlers()) {
-					findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+					findElementsRecursive(child, clazz, matcher, result, searchFlags);
 				}
 			}
 		}
@@ -291,7 +319,7 @@ public class ModelServiceImpl implements EModelService {
 		if (searchRoot instanceof MPerspective) {
 			MPerspective persp = (MPerspective) searchRoot;
 			for (MWindow dw : persp.getWindows()) {
-				findElementsRecursive(dw, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(dw, clazz, matcher, result, searchFlags);
 			}
 		}
 		// Search shared elements
@@ -301,7 +329,7 @@ public class ModelServiceImpl implements EModelService {
 			// Don't search in shared areas unless the flag is set
 			if (ph.getRef() != null
 					&& (!(ph.getRef() instanceof MArea) || (searchFlags & IN_SHARED_AREA) != 0)) {
-				findElementsRecursive(ph.getRef(), clazz, matcher, elements, searchFlags);
+				findElementsRecursive(ph.getRef(), clazz, matcher, result, searchFlags);
 			}
 		}
 
@@ -309,16 +337,16 @@ public class ModelServiceImpl implements EModelService {
 			MPart part = (MPart) searchRoot;
 
 			for (MMenu menu : part.getMenus()) {
-				findElementsRecursive(menu, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(menu, clazz, matcher, result, searchFlags);
 			}
 
 			MToolBar toolBar = part.getToolbar();
 			if (toolBar != null) {
-				findElementsRecursive(toolBar, clazz, matcher, elements, searchFlags);
+				findElementsRecursive(toolBar, clazz, matcher, result, searchFlags);
 			}
 			if (MHandler.class.equals(clazz)) {
 				for (MHandler child : part.getHandlers()) {
-					findElementsRecursive(child, clazz, matcher, elements, searchFlags);
+					findElementsRecursive(child, clazz, matcher, result, searchFlags);
 				}
 			}
 		}
@@ -393,32 +421,56 @@ public class ModelServiceImpl implements EModelService {
 	@Override
 	public <T> List<T> findElements(MUIElement searchRoot, String id, Class<T> clazz,
 			List<String> tagsToMatch) {
-		ElementMatcher matcher = new ElementMatcher(id, clazz, tagsToMatch);
-		return findElements(searchRoot, clazz, ANYWHERE, matcher);
+		return findElements(searchRoot, id, clazz, tagsToMatch, ANYWHERE);
 	}
 
 	@Override
 	public <T> List<T> findElements(MUIElement searchRoot, String id, Class<T> clazz,
 			List<String> tagsToMatch, int searchFlags) {
 		ElementMatcher matcher = new ElementMatcher(id, clazz, tagsToMatch);
-		return findElements(searchRoot, clazz, searchFlags, matcher);
+		SearchResult<T> result = new SearchResult<>(getSearchScope(searchRoot, id, clazz, tagsToMatch));
+		findElementsRecursive(searchRoot, clazz, matcher, result, searchFlags);
+		return result.elements;
 	}
 
 	@Override
 	public <T> List<T> findElements(MApplicationElement searchRoot, Class<T> clazz,
 			int searchFlags, Selector matcher) {
-		List<T> elements = new ArrayList<>();
-		findElementsRecursive(searchRoot, clazz, matcher, elements, searchFlags);
-		return elements;
+		// any element may match an arbitrary selector
+		SearchResult<T> result = new SearchResult<>(null);
+		findElementsRecursive(searchRoot, clazz, matcher, result, searchFlags);
+		return result.elements;
 	}
 
 	private <T> List<T> findPerspectiveElements(MUIElement searchRoot, String id,
 			Class<T> clazz,
 			List<String> tagsToMatch) {
-		List<T> elements = new ArrayList<>();
 		ElementMatcher matcher = new ElementMatcher(id, clazz, tagsToMatch);
-		findElementsRecursive(searchRoot, clazz, matcher, elements, PRESENTATION);
-		return elements;
+		SearchResult<T> result = new SearchResult<>(getSearchScope(searchRoot, id, clazz, tagsToMatch));
+		findElementsRecursive(searchRoot, clazz, matcher, result, PRESENTATION);
+		return result.elements;
+	}
+
+	/**
+	 * Returns the elements a search from the given root has to visit, as told
+	 * by the index of the running application.
+	 *
+	 * @return the elements to visit, or <code>null</code> to visit them all
+	 */
+	private Set<Object> getSearchScope(MApplicationElement searchRoot, String id, Class<?> clazz,
+			List<String> tagsToMatch) {
+		MApplication application = appContext.get(MApplication.class);
+		if (application == null || searchRoot == null
+				|| EcoreUtil.getRootContainer((EObject) searchRoot) != application) {
+			return null;
+		}
+		if (modelIndex == null || modelIndex.getApplication() != application) {
+			if (modelIndex != null) {
+				modelIndex.dispose();
+			}
+			modelIndex = new ModelIndex(application);
+		}
+		return modelIndex.getSearchScope(id, clazz, tagsToMatch);
 	}
 
 	@Override
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2016 IBM Corporation and others.
+ * Copyright (c) 2009, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -17,10 +17,16 @@
 package org.eclipse.e4.ui.internal.workbench;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.Collections;
 import java.util.Map;
 import javax.annotation.PostConstruct;
@@ -86,6 +92,18 @@ public class ResourceHandler implements IModelResourceHandler {
 	@Named(IWorkbench.CLEAR_PERSISTED_STATE)
 	private boolean clearPersistedState;
 
+	@Inject
+	@Optional
+	@Named(E4Workbench.BINARY_MODEL)
+	private boolean binaryModel;
+
+	@Inject
+	@Optional
+	@Named(E4Workbench.MODEL_JOURNAL)
+	private boolean modelJournal;
+
+	private ModelJournal journal;
+
 	/**
 	 * Constructor.
 	 *
@@ -146,13 +164,26 @@ public class ResourceHandler implements IModelResourceHandler {
 			restoreLocation = URI.createFileURI(workbenchData.getAbsolutePath());
 		}
 
-		if (clearPersistedState && workbenchData != null && workbenchData.exists()) {
-			workbenchData.delete();
+		if (clearPersistedState && workbenchData != null) {
+			if (workbenchData.exists()) {
+				workbenchData.delete();
+			}
+			File binaryData = getBinarySaveLocation();
+			if (binaryData.exists()) {
+				binaryData.delete();
+			}
+			File journalData = getJournalLocation();
+			if (journalData.exists()) {
+				journalData.delete();
+			}
 		}
 
 		// last stored time-stamp
 		long restoreLastModified = restoreLocation == null ? 0L : new File(
 				restoreLocation.toFileString()).lastModified();
+		if (restoreLocation != null && binaryModel) {
+			restoreLastModified = Math.max(restoreLastModified, getBinarySaveLocation().lastModified());
+		}
 
 		// See bug 380663, bug 381219
 		// long lastApplicationModification = getLastApplicationModification();
@@ -162,7 +193,13 @@ public class ResourceHandler implements IModelResourceHandler {
 
 		resource = null;
 		if (restore && saveAndRestore) {
-			resource = loadResource(restoreLocation);
+			if (binaryModel) {
+				resource = loadBinaryResource(restoreLocation);
+			}
+			if (resource == null) {
+				resource = loadResource(restoreLocation);
+				replayJournal();
+			}
 			// If the saved model does not have any top-level windows, Eclipse will exit
 			// immediately, so throw out the persisted state and reinitialize with the defaults.
 			if (!hasTopLevelWindows(resource)) {
@@ -182,6 +219,10 @@ public class ResourceHandler implements IModelResourceHandler {
 		} else {
 			initialModel = false;
 		}
+		if (modelJournal && saveAndRestore && resource instanceof E4XMIResource) {
+			journal = new ModelJournal((E4XMIResource) resource, getJournalLocation());
+			context.set(ModelJournal.class, journal);
+		}
 
 		// Add model items described in the model extension point
 		// This has to be done before commands are put into the context
@@ -207,8 +248,84 @@ public class ResourceHandler implements IModelResourceHandler {
 
 	@Override
 	public void save() throws IOException {
-		if (saveAndRestore)
+		if (saveAndRestore) {
+			if (binaryModel && resource instanceof E4XMIResource) {
+				try {
+					saveBinaryResource();
+					deleteJournal();
+					return;
+				} catch (IOException e) {
+					logger.error(e, "Unable to save the model in the binary format, saving it as XMI"); //$NON-NLS-1$
+				}
+			}
 			resource.save(null);
+			deleteJournal();
+		}
+	}
+
+	private void deleteJournal() {
+		if (journal != null) {
+			journal.delete();
+		}
+	}
+
+	/*
+	 * Brings the model saved by the last auto-save up to date with the changes
+	 * journaled after it. The journal token is removed in any case, the model
+	 * is saved without it.
+	 */
+	private void replayJournal() {
+		if (resource == null || resource.getContents().isEmpty()
+				|| !(resource.getContents().get(0) instanceof MApplication)) {
+			return;
+		}
+		String token = ModelJournal.removeBaseline((MApplication) resource.getContents().get(0));
+		if (modelJournal && token != null && resource instanceof E4XMIResource) {
+			try {
+				ModelJournal.replay((E4XMIResource) resource, getJournalLocation(), token);
+			} catch (IOException | RuntimeException e) {
+				logger.error(e, "Unable to restore the changes journaled after the last save of the model"); //$NON-NLS-1$
+			}
+		}
+	}
+
+	/*
+	 * Writes the model next to the XMI file, through a temporary file so that
+	 * a failed save leaves the previous state in place.
+	 */
+	private void saveBinaryResource() throws IOException {
+		File binaryData = getBinarySaveLocation();
+		binaryData.getParentFile().mkdirs();
+		File tempData = new File(binaryData.getParentFile(), binaryData.getName() + ".tmp"); //$NON-NLS-1$
+		try (OutputStream out = new FileOutputStream(tempData)) {
+			resource.save(out, Collections.singletonMap(E4XMIResource.OPTION_BINARY_FORMAT, Boolean.TRUE));
+		}
+		Files.move(tempData.toPath(), binaryData.toPath(), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	/*
+	 * Loads the binary model, unless it is older than the XMI one, which
+	 * happens when the model was last saved as XMI, for instance by the
+	 * auto-save or with the binary format turned off. Returns null when the
+	 * XMI model must be loaded instead.
+	 */
+	private Resource loadBinaryResource(URI restoreLocation) {
+		File binaryData = getBinarySaveLocation();
+		if (!binaryData.isFile()
+				|| binaryData.lastModified() < new File(restoreLocation.toFileString()).lastModified()) {
+			return null;
+		}
+		Resource binaryResource = resourceSet.createResource(restoreLocation);
+		try (InputStream in = new FileInputStream(binaryData)) {
+			binaryResource.load(in, Collections.singletonMap(E4XMIResource.OPTION_BINARY_FORMAT, Boolean.TRUE));
+		} catch (IOException | RuntimeException e) {
+			logger.error(e, "Unable to load the binary model " + binaryData + ", loading the XMI model"); //$NON-NLS-1$ //$NON-NLS-2$
+			binaryResource.unload();
+			resourceSet.getResources().remove(binaryResource);
+			return null;
+		}
+		setContributorURI(restoreLocation, binaryResource);
+		return binaryResource;
 	}
 
 	/**
@@ -238,6 +355,14 @@ public class ResourceHandler implements IModelResourceHandler {
 		return workbenchData;
 	}
 
+	private File getBinarySaveLocation() {
+		return new File(getBaseLocation(), "workbench.bin"); //$NON-NLS-1$
+	}
+
+	private File getJournalLocation() {
+		return new File(getBaseLocation(), "workbench.journal"); //$NON-NLS-1$
+	}
+
 	private File getBaseLocation() {
 		File baseLocation;
 		try {
@@ -262,6 +387,11 @@ public class ResourceHandler implements IModelResourceHandler {
 			return null;
 		}
 
+		setContributorURI(uri, resource);
+		return resource;
+	}
+
+	private static void setContributorURI(URI uri, Resource resource) {
 		// TODO once we switch from deltas, we only need this once on the default model?
 		String contributorURI = URIHelper.EMFtoPlatform(uri);
 		if (contributorURI != null) {
@@ -273,7 +403,6 @@ public class ResourceHandler implements IModelResourceHandler {
 				}
 			}
 		}
-		return resource;
 	}
 
 	private Resource getResource(URI uri) throws Exception {
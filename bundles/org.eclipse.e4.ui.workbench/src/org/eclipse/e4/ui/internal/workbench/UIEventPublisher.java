@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2015 IBM Corporation and others.
+ * Copyright (c) 2009, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -35,6 +35,8 @@ public class UIEventPublisher extends EContentAdapter {
 
 	private IEclipseContext context;
 
+	private ModelJournal journal;
+
 	/**
 	 * @param e4Context
 	 */
@@ -42,6 +44,16 @@ public class UIEventPublisher extends EContentAdapter {
 		this.context = e4Context;
 	}
 
+	/**
+	 * Sets the journal to tell about the model changes.
+	 *
+	 * @param journal
+	 *            the journal, or <code>null</code>
+	 */
+	public void setModelJournal(ModelJournal journal) {
+		this.journal = journal;
+	}
+
 	@Override
 	public void notifyChanged(Notification notification) {
 		super.notifyChanged(notification);
@@ -50,6 +62,10 @@ public class UIEventPublisher extends EContentAdapter {
 		if (notification.isTouch())
 			return;
 
+		if (journal != null) {
+			journal.notifyChanged(notification);
+		}
+
 		// Format the EMF event as an E4 UIEvent
 		Map<String, Object> argMap = new HashMap<>();
 
@@ -31,16 +31,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 /**
  * Concrete implementation of a dialog settings (<code>IDialogSettings</code>)
@@ -96,6 +90,10 @@ public class DialogSettings implements IDialogSettings {
 
     private static final String TAG_ITEM = "item";//$NON-NLS-1$
 
+	// shared by all the settings, creating a factory looks up its
+	// implementation every time
+	private static XMLInputFactory inputFactory;
+
     /**
      * Create an empty dialog settings which loads and saves its
      * content to a file.
@@ -252,30 +250,55 @@ public class DialogSettings implements IDialogSettings {
         return result;
     }
 
-    @Override
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The document is read as a stream, without building a DOM. Nothing is
+	 * loaded if the document can't be read or isn't well-formed.
+	 * </p>
+	 */
+	@Override
 	public void load(Reader r) {
-        Document document = null;
-        try {
-            DocumentBuilder parser = DocumentBuilderFactory.newInstance()
-                    .newDocumentBuilder();
-            //		parser.setProcessNamespace(true);
-            document = parser.parse(new InputSource(r));
-
-            //Strip out any comments first
-            Node root = document.getFirstChild();
-            while (root.getNodeType() == Node.COMMENT_NODE) {
-                document.removeChild(root);
-                root = document.getFirstChild();
-            }
-            load(document, (Element) root);
-        } catch (ParserConfigurationException e) {
-            // ignore
-        } catch (IOException e) {
-            // ignore
-        } catch (SAXException e) {
-            // ignore
-        }
-    }
+		DialogSettings loaded = new DialogSettings("NoName");//$NON-NLS-1$
+		try {
+			XMLStreamReader reader = createStreamReader(r);
+			try {
+				boolean rootLoaded = false;
+				while (reader.hasNext()) {
+					// read up to the end, so that errors after the root
+					// element are found as well
+					if (reader.next() == XMLStreamConstants.START_ELEMENT && !rootLoaded) {
+						loaded.load(reader);
+						rootLoaded = true;
+					}
+				}
+				if (!rootLoaded) {
+					return;
+				}
+			} finally {
+				reader.close();
+			}
+		} catch (XMLStreamException e) {
+			// ignore
+			return;
+		}
+
+		name = loaded.name;
+		items.putAll(loaded.items);
+		arrayItems.putAll(loaded.arrayItems);
+		for (IDialogSettings section : loaded.sections.values()) {
+			addSection(section);
+		}
+	}
+
+	private static XMLStreamReader createStreamReader(Reader r) throws XMLStreamException {
+		synchronized (DialogSettings.class) {
+			if (inputFactory == null) {
+				inputFactory = XMLInputFactory.newInstance();
+			}
+			return inputFactory.createXMLStreamReader(r);
+		}
+	}
 
     @Override
 	public void load(String fileName) throws IOException {
@@ -286,46 +309,63 @@ public class DialogSettings implements IDialogSettings {
         reader.close();
     }
 
-    private void load(Document document, Element root) {
-        name = root.getAttribute(TAG_NAME);
-        NodeList l = root.getElementsByTagName(TAG_ITEM);
-        for (int i = 0; i < l.getLength(); i++) {
-            Node n = l.item(i);
-            if (root == n.getParentNode()) {
-                String key = ((Element) l.item(i)).getAttribute(TAG_KEY);
-                String value = ((Element) l.item(i)).getAttribute(TAG_VALUE);
-                items.put(key, value);
-            }
-        }
-        l = root.getElementsByTagName(TAG_LIST);
-        for (int i = 0; i < l.getLength(); i++) {
-            Node n = l.item(i);
-            if (root == n.getParentNode()) {
-                Element child = (Element) l.item(i);
-                String key = child.getAttribute(TAG_KEY);
-                NodeList list = child.getElementsByTagName(TAG_ITEM);
-                List<String> valueList = new ArrayList<>();
-                for (int j = 0; j < list.getLength(); j++) {
-                    Element node = (Element) list.item(j);
-                    if (child == node.getParentNode()) {
-                        valueList.add(node.getAttribute(TAG_VALUE));
-                    }
-                }
-                String[] value = new String[valueList.size()];
-                valueList.toArray(value);
-                arrayItems.put(key, value);
-            }
-        }
-        l = root.getElementsByTagName(TAG_SECTION);
-        for (int i = 0; i < l.getLength(); i++) {
-            Node n = l.item(i);
-            if (root == n.getParentNode()) {
-                DialogSettings s = new DialogSettings("NoName");//$NON-NLS-1$
-                s.load(document, (Element) n);
-                addSection(s);
-            }
-        }
-    }
+	/*
+	 * Loads the element the reader is on, up to its end tag. Only the items,
+	 * lists and sections directly inside of it are considered.
+	 */
+	private void load(XMLStreamReader reader) throws XMLStreamException {
+		name = getAttribute(reader, TAG_NAME);
+		while (reader.next() != XMLStreamConstants.END_ELEMENT) {
+			if (reader.getEventType() != XMLStreamConstants.START_ELEMENT) {
+				continue;
+			}
+			String tag = reader.getLocalName();
+			if (TAG_ITEM.equals(tag)) {
+				items.put(getAttribute(reader, TAG_KEY), getAttribute(reader, TAG_VALUE));
+				skipElement(reader);
+			} else if (TAG_LIST.equals(tag)) {
+				String key = getAttribute(reader, TAG_KEY);
+				List<String> valueList = new ArrayList<>();
+				while (reader.next() != XMLStreamConstants.END_ELEMENT) {
+					if (reader.getEventType() == XMLStreamConstants.START_ELEMENT) {
+						if (TAG_ITEM.equals(reader.getLocalName())) {
+							valueList.add(getAttribute(reader, TAG_VALUE));
+						}
+						skipElement(reader);
+					}
+				}
+				String[] value = new String[valueList.size()];
+				valueList.toArray(value);
+				arrayItems.put(key, value);
+			} else if (TAG_SECTION.equals(tag)) {
+				DialogSettings s = new DialogSettings("NoName");//$NON-NLS-1$
+				s.load(reader);
+				addSection(s);
+			} else {
+				skipElement(reader);
+			}
+		}
+	}
+
+	/*
+	 * Moves the reader from a start tag to the matching end tag.
+	 */
+	private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+		int depth = 1;
+		while (depth > 0) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+	}
+
+	private static String getAttribute(XMLStreamReader reader, String attributeName) {
+		String value = reader.getAttributeValue(null, attributeName);
+		return value == null ? "" : value; //$NON-NLS-1$
+	}
 
     @Override
 	public void put(String key, String[] value) {
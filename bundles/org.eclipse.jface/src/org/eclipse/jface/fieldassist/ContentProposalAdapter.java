@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2016 IBM Corporation and others.
+ * Copyright (c) 2005, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,16 +12,30 @@
 package org.eclipse.jface.fieldassist;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.ListenerList;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.jface.bindings.keys.KeyStroke;
 import org.eclipse.jface.dialogs.PopupDialog;
 import org.eclipse.jface.preference.JFacePreferences;
 import org.eclipse.jface.resource.JFaceResources;
+import org.eclipse.jface.util.Policy;
 import org.eclipse.jface.util.Util;
 import org.eclipse.jface.viewers.ILabelProvider;
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.SWTException;
 import org.eclipse.swt.events.FocusAdapter;
 import org.eclipse.swt.events.FocusEvent;
 import org.eclipse.swt.events.SelectionEvent;
@@ -34,6 +48,7 @@ import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.widgets.Combo;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Listener;
 import org.eclipse.swt.widgets.ScrollBar;
@@ -55,6 +70,10 @@ import org.eclipse.swt.widgets.Text;
  * <p>
  * This class provides some overridable methods to allow clients to manually
  * control the popup. However, most of the implementation remains private.
+ * <p>
+ * Since 3.15, proposals from an {@link IAsyncContentProposalProvider} are
+ * computed in a background thread and shown in the popup as they are reported,
+ * so that the field remains responsive while they are computed.
  *
  * @since 3.2
  */
@@ -883,6 +902,7 @@ public class ContentProposalAdapter {
 		 */
 		@Override
 		public boolean close() {
+			cancelProposalComputation();
 			popupCloser.removeListeners();
 			if (infoPopup != null) {
 				infoPopup.close();
@@ -898,45 +918,36 @@ public class ContentProposalAdapter {
 		 */
 		private void showProposalDescription() {
 			// If we do not already have a pending update, then
-			// create a thread now that will show the proposal description
+			// schedule one now that will show the proposal description
 			if (!pendingDescriptionUpdate) {
-				// Create a thread that will sleep for the specified delay
-				// before creating the popup. We do not use Jobs since this
-				// code must be able to run independently of the Eclipse
-				// runtime.
-				Runnable runnable = () -> {
-					pendingDescriptionUpdate = true;
-					try {
-						Thread.sleep(POPUP_DELAY);
-					} catch (InterruptedException e) {
-					}
+				// Wait for the specified delay before creating the popup. We
+				// do not use Jobs since this code must be able to run
+				// independently of the Eclipse runtime.
+				pendingDescriptionUpdate = true;
+				Display display = getShell().getDisplay();
+				getTimer().schedule(() -> asyncExec(display, () -> {
+					pendingDescriptionUpdate = false;
 					if (!isValid()) {
 						return;
 					}
-					getShell().getDisplay().syncExec(() -> {
-						// Query the current selection since we have
-						// been delayed
-						IContentProposal p = getSelectedProposal();
-						if (p != null) {
-							String description = p.getDescription();
-							if (description != null) {
-								if (infoPopup == null) {
-									infoPopup = new InfoPopupDialog(getShell());
-									infoPopup.open();
-									infoPopup.getShell()
-											.addDisposeListener(event -> infoPopup = null);
-								}
-								infoPopup.setContents(p.getDescription());
-							} else if (infoPopup != null) {
-								infoPopup.close();
+					// Query the current selection since we have
+					// been delayed
+					IContentProposal p = getSelectedProposal();
+					if (p != null) {
+						String description = p.getDescription();
+						if (description != null) {
+							if (infoPopup == null) {
+								infoPopup = new InfoPopupDialog(getShell());
+								infoPopup.open();
+								infoPopup.getShell()
+										.addDisposeListener(event -> infoPopup = null);
 							}
-							pendingDescriptionUpdate = false;
-
+							infoPopup.setContents(p.getDescription());
+						} else if (infoPopup != null) {
+							infoPopup.close();
 						}
-					});
-				};
-				Thread t = new Thread(runnable);
-				t.start();
+					}
+				}), POPUP_DELAY, TimeUnit.MILLISECONDS);
 			}
 		}
 
@@ -958,6 +969,11 @@ public class ContentProposalAdapter {
 		 * caches. Repopulate the popup if it is open.
 		 */
 		private void recomputeProposals(String filterText) {
+			if (proposalProvider instanceof IAsyncContentProposalProvider) {
+				// the filter text is applied as the proposals arrive
+				computeProposals(false, false);
+				return;
+			}
 			IContentProposal[] allProposals = getProposals();
 			if (allProposals == null)
 				 allProposals = getEmptyProposalArray();
@@ -973,6 +989,28 @@ public class ContentProposalAdapter {
 			}
 		}
 
+		/*
+		 * Show the proposals reported so far by an asynchronous provider,
+		 * keeping the current selection if it is still shown.
+		 */
+		private void proposalsComputed(IContentProposal[] allProposals, boolean done) {
+			if (allProposals.length == 0) {
+				// Close the popup if there is nothing to show, as when the
+				// proposals are computed synchronously.
+				if (done) {
+					proposals = allProposals;
+					close();
+				}
+				return;
+			}
+			IContentProposal selected = getSelectedProposal();
+			setProposals(filterProposals(allProposals, filterText));
+			int index = Arrays.asList(proposals).indexOf(selected);
+			if (index > 0) {
+				selectProposal(index);
+			}
+		}
+
 		/*
 		 * In an async block, request the proposals. This is used when clients
 		 * are in the middle of processing an event that affects the widget
@@ -1108,6 +1146,18 @@ public class ContentProposalAdapter {
 	 */
 	private static final String EMPTY = ""; //$NON-NLS-1$
 
+	/*
+	 * The thread used to delay the opening of popups, shared by all adapters
+	 * and created when first needed.
+	 */
+	private static ScheduledExecutorService timer;
+
+	/*
+	 * The threads used to compute proposals with asynchronous providers,
+	 * shared by all adapters and created when first needed.
+	 */
+	private static ExecutorService proposalExecutor;
+
 	/*
 	 * The object that provides content proposals.
 	 */
@@ -1221,6 +1271,24 @@ public class ContentProposalAdapter {
 	 */
 	private boolean watchModify = false;
 
+	/*
+	 * The pending autoactivation of the popup, if there is an autoactivation
+	 * delay.
+	 */
+	private Future<?> pendingActivation;
+
+	/*
+	 * The number of autoactivations so far. Used to see if an autoactivation
+	 * delay was interrupted by another autoactivation.
+	 */
+	private int activationCount;
+
+	/*
+	 * The computation of proposals with an asynchronous provider that is in
+	 * progress, if any.
+	 */
+	private ProposalComputation proposalComputation;
+
 	/**
 	 * Construct a content proposal adapter that can assist the user with
 	 * choosing content for the field.
@@ -1844,6 +1912,12 @@ public class ContentProposalAdapter {
 		control.addListener(SWT.KeyDown, controlListener);
 		control.addListener(SWT.Traverse, controlListener);
 		control.addListener(SWT.Modify, controlListener);
+		control.addDisposeListener(e -> {
+			if (pendingActivation != null) {
+				pendingActivation.cancel(false);
+			}
+			cancelProposalComputation();
+		});
 
 		if (DEBUG) {
 			System.out
@@ -1866,19 +1940,16 @@ public class ContentProposalAdapter {
 			if (popup == null) {
 				// Check whether there are any proposals to be shown.
 				recordCursorPosition(); // must be done before getting proposals
+				if (proposalProvider instanceof IAsyncContentProposalProvider) {
+					// the popup opens when the first proposals arrive
+					computeProposals(true, autoActivated);
+					return;
+				}
 				IContentProposal[] proposals = getProposals();
 				if (proposals == null)
 					return;
 				if (proposals.length > 0) {
-					if (DEBUG) {
-						System.out.println("POPUP OPENED BY PRECEDING EVENT"); //$NON-NLS-1$
-					}
-					recordCursorPosition();
-					popup = new ContentProposalPopup(null, proposals);
-					popup.open();
-					popup.getShell().addDisposeListener(event -> popup = null);
-					internalPopupOpened();
-					notifyPopupOpened();
+					openPopup(proposals);
 				} else if (!autoActivated) {
 					getControl().getDisplay().beep();
 				}
@@ -1886,6 +1957,21 @@ public class ContentProposalAdapter {
 		}
 	}
 
+	/*
+	 * Open the popup showing the specified proposals.
+	 */
+	private void openPopup(IContentProposal[] proposals) {
+		if (DEBUG) {
+			System.out.println("POPUP OPENED BY PRECEDING EVENT"); //$NON-NLS-1$
+		}
+		recordCursorPosition();
+		popup = new ContentProposalPopup(null, proposals);
+		popup.open();
+		popup.getShell().addDisposeListener(event -> popup = null);
+		internalPopupOpened();
+		notifyPopupOpened();
+	}
+
 	/**
 	 * Open the proposal popup and display the proposals provided by the
 	 * proposal provider. This method returns immediately. That is, it does not
@@ -2010,16 +2096,170 @@ public class ContentProposalAdapter {
 		if (DEBUG) {
 			System.out.println(">>> obtaining proposals from provider"); //$NON-NLS-1$
 		}
+		String contents = getControlContentAdapter().getControlContents(
+				getControl());
+		IContentProposal[] proposals = proposalProvider.getProposals(contents,
+				getProposalPosition());
+		return proposals;
+	}
+
+	/*
+	 * Get the cursor position for which proposals are requested.
+	 */
+	private int getProposalPosition() {
 		int position = insertionPos;
 		if (position == -1) {
 			position = getControlContentAdapter().getCursorPosition(
 					getControl());
 		}
+		return position;
+	}
+
+	/*
+	 * Start computing the proposals with the asynchronous proposal provider,
+	 * canceling any computation in progress. The proposals are shown as they
+	 * arrive, opening the popup if requested.
+	 */
+	private void computeProposals(boolean openPopup, boolean autoActivated) {
+		cancelProposalComputation();
+		if (!isValid()) {
+			return;
+		}
+		if (DEBUG) {
+			System.out.println(">>> computing proposals in the background"); //$NON-NLS-1$
+		}
 		String contents = getControlContentAdapter().getControlContents(
 				getControl());
-		IContentProposal[] proposals = proposalProvider.getProposals(contents,
-				position);
-		return proposals;
+		proposalComputation = new ProposalComputation(openPopup, autoActivated);
+		proposalComputation.start((IAsyncContentProposalProvider) proposalProvider,
+				contents, getProposalPosition());
+	}
+
+	/*
+	 * Cancel the computation of proposals in progress, if any.
+	 */
+	private void cancelProposalComputation() {
+		if (proposalComputation != null) {
+			proposalComputation.monitor.setCanceled(true);
+			proposalComputation = null;
+		}
+	}
+
+	/*
+	 * Some proposals have been computed by an asynchronous provider, or the
+	 * computation is done. Show them in the popup.
+	 */
+	private void proposalsComputed(ProposalComputation computation, boolean done) {
+		if (!isValid()) {
+			return;
+		}
+		IContentProposal[] proposals = computation.proposals
+				.toArray(new IContentProposal[computation.proposals.size()]);
+		if (popup != null) {
+			popup.proposalsComputed(proposals, done);
+		} else if (computation.openPopup) {
+			if (proposals.length > 0) {
+				openPopup(proposals);
+			} else if (done && !computation.autoActivated) {
+				getControl().getDisplay().beep();
+			}
+		}
+	}
+
+	/*
+	 * The computation of proposals with an asynchronous provider. The
+	 * proposals are reported in the UI thread as they arrive.
+	 */
+	private final class ProposalComputation {
+
+		final IProgressMonitor monitor = new NullProgressMonitor();
+
+		final List<IContentProposal> proposals = new ArrayList<>();
+
+		final boolean openPopup;
+
+		final boolean autoActivated;
+
+		ProposalComputation(boolean openPopup, boolean autoActivated) {
+			this.openPopup = openPopup;
+			this.autoActivated = autoActivated;
+		}
+
+		void start(IAsyncContentProposalProvider provider, String contents,
+				int position) {
+			Display display = getControl().getDisplay();
+			getProposalExecutor().execute(() -> {
+				try {
+					if (!monitor.isCanceled()) {
+						provider.computeProposals(contents, position, batch -> {
+							if (batch != null && batch.length > 0 && !monitor.isCanceled()) {
+								IContentProposal[] copy = batch.clone();
+								asyncExec(display, () -> add(copy));
+							}
+						}, monitor);
+					}
+				} catch (RuntimeException e) {
+					Policy.getLog().log(new Status(IStatus.ERROR, Policy.JFACE,
+							"Content proposals could not be computed", e)); //$NON-NLS-1$
+				} finally {
+					asyncExec(display, this::done);
+				}
+			});
+		}
+
+		private void add(IContentProposal[] batch) {
+			if (proposalComputation == this) {
+				proposals.addAll(Arrays.asList(batch));
+				proposalsComputed(this, false);
+			}
+		}
+
+		private void done() {
+			if (proposalComputation == this) {
+				proposalComputation = null;
+				proposalsComputed(this, true);
+			}
+		}
+	}
+
+	private static synchronized ScheduledExecutorService getTimer() {
+		if (timer == null) {
+			ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1,
+					runnable -> createDaemonThread(runnable, "Content Proposal Timer")); //$NON-NLS-1$
+			executor.setRemoveOnCancelPolicy(true);
+			executor.setKeepAliveTime(1, TimeUnit.MINUTES);
+			executor.allowCoreThreadTimeOut(true);
+			timer = executor;
+		}
+		return timer;
+	}
+
+	private static synchronized ExecutorService getProposalExecutor() {
+		if (proposalExecutor == null) {
+			proposalExecutor = Executors.newCachedThreadPool(
+					runnable -> createDaemonThread(runnable, "Content Proposal Computation")); //$NON-NLS-1$
+		}
+		return proposalExecutor;
+	}
+
+	private static Thread createDaemonThread(Runnable runnable, String name) {
+		Thread thread = new Thread(runnable, name);
+		thread.setDaemon(true);
+		return thread;
+	}
+
+	/*
+	 * Run the specified runnable in the UI thread, unless the display has been
+	 * disposed.
+	 */
+	private static void asyncExec(Display display, Runnable runnable) {
+		try {
+			if (!display.isDisposed()) {
+				display.asyncExec(runnable);
+			}
+		} catch (SWTException e) {
+			// the display has been disposed in the meantime
+		}
 	}
 
 	/**
@@ -2028,19 +2268,20 @@ public class ContentProposalAdapter {
 	 */
 	private void autoActivate() {
 		if (autoActivationDelay > 0) {
-			Runnable runnable = () -> {
-				receivedKeyDown = false;
-				try {
-					Thread.sleep(autoActivationDelay);
-				} catch (InterruptedException e) {
-				}
-				if (!isValid() || receivedKeyDown) {
+			// Only the last autoactivation within the delay opens the popup.
+			if (pendingActivation != null) {
+				pendingActivation.cancel(false);
+			}
+			receivedKeyDown = false;
+			int activation = ++activationCount;
+			Display display = getControl().getDisplay();
+			pendingActivation = getTimer().schedule(() -> asyncExec(display, () -> {
+				if (activation != activationCount || !isValid() || receivedKeyDown) {
 					return;
 				}
-				getControl().getDisplay().syncExec(() -> openProposalPopup(true));
-			};
-			Thread t = new Thread(runnable);
-			t.start();
+				pendingActivation = null;
+				openProposalPopup(true);
+			}), autoActivationDelay, TimeUnit.MILLISECONDS);
 		} else {
 			// Since we do not sleep, we must open the popup
 			// in an async exec. This is necessary because
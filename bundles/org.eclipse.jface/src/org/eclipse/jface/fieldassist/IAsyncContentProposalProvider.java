@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.fieldassist;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+/**
+ * IAsyncContentProposalProvider computes content proposals outside of the UI
+ * thread. It is intended for providers whose proposals take time to compute,
+ * such as providers backed by large catalogs or remote sources, which would
+ * otherwise block typing in the field.
+ * <p>
+ * {@link ContentProposalAdapter} calls
+ * {@link #computeProposals(String, int, Consumer, IProgressMonitor)} in a
+ * background thread, and shows the proposals in the popup as they are
+ * reported. The computation is canceled through the progress monitor when its
+ * proposals are no longer needed, for example because the user typed another
+ * character.
+ * </p>
+ *
+ * @since 3.15
+ *
+ * @see ContentProposalAdapter
+ */
+public interface IAsyncContentProposalProvider extends IContentProposalProvider {
+
+	/**
+	 * Computes the content proposals for a field, reporting them to the given
+	 * collector as they are found. This method is called in a background
+	 * thread, and the computation is complete when it returns.
+	 *
+	 * @param contents
+	 *            the contents of the text field when the proposals were
+	 *            requested
+	 * @param position
+	 *            the position of the cursor in the contents
+	 * @param collector
+	 *            the consumer of the proposals, which may be called any number
+	 *            of times and from any thread until this method returns
+	 * @param monitor
+	 *            the progress monitor that is canceled when the proposals are
+	 *            no longer needed. Implementations should check it regularly
+	 *            and return as soon as it is canceled.
+	 */
+	void computeProposals(String contents, int position,
+			Consumer<IContentProposal[]> collector, IProgressMonitor monitor);
+
+	/**
+	 * Returns all the proposals for a field by computing them in the calling
+	 * thread.
+	 *
+	 * @param contents
+	 *            the current contents of the text field
+	 * @param position
+	 *            the current position of the cursor in the contents
+	 *
+	 * @return the array of {@link IContentProposal} that represent valid
+	 *         proposals for the field.
+	 */
+	@Override
+	default IContentProposal[] getProposals(String contents, int position) {
+		List<IContentProposal> proposals = new ArrayList<>();
+		computeProposals(contents, position, batch -> {
+			synchronized (proposals) {
+				proposals.addAll(Arrays.asList(batch));
+			}
+		}, new NullProgressMonitor());
+		synchronized (proposals) {
+			return proposals.toArray(new IContentProposal[proposals.size()]);
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2017 IBM Corporation and others.
+ * Copyright (c) 2005, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,11 +12,16 @@
  *******************************************************************************/
 package org.eclipse.jface.fieldassist;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * SimpleContentProposalProvider is a class designed to map a static list of
  * Strings to content proposals.
+ * <p>
+ * When filtering is used, the proposals are indexed the first time they are
+ * filtered, so that large lists of proposals can be filtered as the user
+ * types. The index is rebuilt when the proposals are set again.
+ * </p>
  *
  * @see IContentProposalProvider
  * @since 3.2
@@ -30,16 +35,49 @@ public class SimpleContentProposalProvider implements IContentProposalProvider {
 	private String[] proposals;
 
 	/*
-	 * The proposals mapped to IContentProposal. Cached for speed in the case
-	 * where filtering is not used.
+	 * The proposals mapped to IContentProposal. Created as they are needed and
+	 * cached for speed.
 	 */
 	private IContentProposal[] contentProposals;
 
+	/*
+	 * Boolean that tracks whether all the content proposals were created.
+	 */
+	private boolean allContentProposals = false;
+
 	/*
 	 * Boolean that tracks whether filtering is used.
 	 */
 	private boolean filterProposals = false;
 
+	/*
+	 * Boolean that tracks whether proposals containing the contents anywhere
+	 * are shown when filtering.
+	 */
+	private boolean matchSubstrings = false;
+
+	/*
+	 * The proposals converted the way they are when comparing strings ignoring
+	 * case, in sorted order, and the indexes of the corresponding proposals.
+	 * Used to find the proposals starting with the field contents, and
+	 * created when first needed.
+	 */
+	private String[] sortedKeys;
+
+	private int[] sortedProposals;
+
+	/*
+	 * The number of lists of the trigram index.
+	 */
+	private static final int TRIGRAM_BUCKETS = 1 << 16;
+
+	/*
+	 * For each hash of a sequence of three characters, ignoring case, the
+	 * indexes of the proposals containing a sequence with that hash, in
+	 * increasing order. Created when first needed.
+	 */
+	private int[][] trigramIndex;
+
 	/**
 	 * Construct a SimpleContentProposalProvider whose content proposals are always
 	 * the specified array of Objects.
@@ -67,26 +105,241 @@ public class SimpleContentProposalProvider implements IContentProposalProvider {
 	@Override
 	public IContentProposal[] getProposals(String contents, int position) {
 		if (filterProposals) {
-			ArrayList<ContentProposal> list = new ArrayList<>();
-			for (String proposal : proposals) {
-				if (proposal.length() >= contents.length()
-						&& proposal.substring(0, contents.length())
-								.equalsIgnoreCase(contents)) {
-					list.add(new ContentProposal(proposal));
-				}
+			int[] matches = matchSubstrings ? findSubstringMatches(contents)
+					: findPrefixMatches(contents);
+			IContentProposal[] result = new IContentProposal[matches.length];
+			for (int i = 0; i < matches.length; i++) {
+				result[i] = getContentProposal(matches[i]);
 			}
-			return list.toArray(new IContentProposal[list
-					.size()]);
+			return result;
 		}
-		if (contentProposals == null) {
-			contentProposals = new IContentProposal[proposals.length];
+		if (!allContentProposals) {
 			for (int i = 0; i < proposals.length; i++) {
-				contentProposals[i] = new ContentProposal(proposals[i]);
+				getContentProposal(i);
 			}
+			allContentProposals = true;
+		}
+		return getContentProposals();
+	}
+
+	private IContentProposal[] getContentProposals() {
+		if (contentProposals == null) {
+			contentProposals = new IContentProposal[proposals.length];
 		}
 		return contentProposals;
 	}
 
+	/*
+	 * Return the content proposal for the proposal at the given index.
+	 */
+	private IContentProposal getContentProposal(int index) {
+		IContentProposal[] cache = getContentProposals();
+		IContentProposal proposal = cache[index];
+		if (proposal == null) {
+			proposal = new ContentProposal(proposals[index]);
+			cache[index] = proposal;
+		}
+		return proposal;
+	}
+
+	/*
+	 * Return the indexes of the proposals starting with the given contents,
+	 * ignoring case, in the order of the proposals.
+	 */
+	private int[] findPrefixMatches(String contents) {
+		if (contents.length() == 0) {
+			int[] matches = new int[proposals.length];
+			Arrays.setAll(matches, i -> i);
+			return matches;
+		}
+		if (sortedProposals == null) {
+			createSortedIndex();
+		}
+
+		// The proposals starting with the contents are all sorted between
+		// the first one not sorted before the contents and the first one
+		// sorted after them.
+		String key = fold(contents, 0, contents.length());
+		int start = searchSorted(key, false);
+		int end = searchSorted(key, true);
+		int[] matches = Arrays.copyOfRange(sortedProposals, start, end);
+		Arrays.sort(matches);
+		return matches;
+	}
+
+	private void createSortedIndex() {
+		SortKey[] keys = new SortKey[proposals.length];
+		for (int i = 0; i < proposals.length; i++) {
+			keys[i] = new SortKey(fold(proposals[i], 0, proposals[i].length()), i);
+		}
+		Arrays.sort(keys);
+		sortedKeys = new String[keys.length];
+		sortedProposals = new int[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			sortedKeys[i] = keys[i].key;
+			sortedProposals[i] = keys[i].index;
+		}
+	}
+
+	/*
+	 * A proposal converted the way it is when comparing strings ignoring case,
+	 * and its index.
+	 */
+	private static final class SortKey implements Comparable<SortKey> {
+		final String key;
+
+		final int index;
+
+		SortKey(String key, int index) {
+			this.key = key;
+			this.index = index;
+		}
+
+		@Override
+		public int compareTo(SortKey other) {
+			return key.compareTo(other.key);
+		}
+	}
+
+	/*
+	 * Return the position of the first sorted key whose beginning is sorted
+	 * after the given key, or not before it.
+	 */
+	private int searchSorted(String key, boolean after) {
+		int low = 0;
+		int high = sortedKeys.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			int comparison = comparePrefix(sortedKeys[middle], key);
+			if (comparison < 0 || (after && comparison == 0)) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/*
+	 * Compare the beginning of the given key, as long as the given prefix,
+	 * with the prefix.
+	 */
+	private static int comparePrefix(String key, String prefix) {
+		int length = Math.min(key.length(), prefix.length());
+		for (int i = 0; i < length; i++) {
+			int comparison = key.charAt(i) - prefix.charAt(i);
+			if (comparison != 0) {
+				return comparison;
+			}
+		}
+		return length - prefix.length();
+	}
+
+	/*
+	 * Return the indexes of the proposals containing the given contents,
+	 * ignoring case, in the order of the proposals.
+	 */
+	private int[] findSubstringMatches(String contents) {
+		int[] candidates = null;
+		if (contents.length() >= 3) {
+			if (trigramIndex == null) {
+				trigramIndex = createTrigramIndex(proposals);
+			}
+			// Only the proposals containing the least common sequence of
+			// three characters of the contents may contain them.
+			for (int i = 0; i + 3 <= contents.length(); i++) {
+				int[] indexes = trigramIndex[trigramBucket(contents, i)];
+				if (candidates == null || indexes.length < candidates.length) {
+					candidates = indexes;
+				}
+			}
+		}
+
+		int candidateCount = candidates == null ? proposals.length : candidates.length;
+		int[] matches = new int[candidateCount];
+		int count = 0;
+		for (int i = 0; i < candidateCount; i++) {
+			int index = candidates == null ? i : candidates[i];
+			if (containsIgnoreCase(proposals[index], contents)) {
+				matches[count++] = index;
+			}
+		}
+		return Arrays.copyOf(matches, count);
+	}
+
+	private static int[][] createTrigramIndex(String[] proposals) {
+		// Count the proposals in each list first, so that the lists are
+		// created at their final size.
+		int[] sizes = new int[TRIGRAM_BUCKETS];
+		int[] last = new int[TRIGRAM_BUCKETS];
+		Arrays.fill(last, -1);
+		for (int i = 0; i < proposals.length; i++) {
+			String proposal = proposals[i];
+			for (int j = 0; j + 3 <= proposal.length(); j++) {
+				int bucket = trigramBucket(proposal, j);
+				// the proposal may contain the sequence more than once
+				if (last[bucket] != i) {
+					last[bucket] = i;
+					sizes[bucket]++;
+				}
+			}
+		}
+		int[][] index = new int[TRIGRAM_BUCKETS][];
+		for (int bucket = 0; bucket < TRIGRAM_BUCKETS; bucket++) {
+			index[bucket] = new int[sizes[bucket]];
+			sizes[bucket] = 0;
+		}
+		Arrays.fill(last, -1);
+		for (int i = 0; i < proposals.length; i++) {
+			String proposal = proposals[i];
+			for (int j = 0; j + 3 <= proposal.length(); j++) {
+				int bucket = trigramBucket(proposal, j);
+				if (last[bucket] != i) {
+					last[bucket] = i;
+					index[bucket][sizes[bucket]++] = i;
+				}
+			}
+		}
+		return index;
+	}
+
+	/*
+	 * Return the list of the trigram index for the three characters of the
+	 * given string at the given position, ignoring case. Different sequences
+	 * may share a list, the proposals found through it are only candidates.
+	 */
+	private static int trigramBucket(String string, int start) {
+		int hash = (fold(string.charAt(start)) * 31 + fold(string.charAt(start + 1))) * 31
+				+ fold(string.charAt(start + 2));
+		hash *= 0x9E3779B9;
+		return hash >>> 16;
+	}
+
+	/*
+	 * Return the characters of the given string between the given positions,
+	 * converted the way they are when comparing strings ignoring case.
+	 */
+	private static String fold(String string, int start, int end) {
+		char[] chars = new char[end - start];
+		for (int i = start; i < end; i++) {
+			chars[i - start] = fold(string.charAt(i));
+		}
+		return new String(chars);
+	}
+
+	private static char fold(char c) {
+		return Character.toLowerCase(Character.toUpperCase(c));
+	}
+
+	private static boolean containsIgnoreCase(String string, String part) {
+		for (int i = 0; i + part.length() <= string.length(); i++) {
+			if (string.regionMatches(true, i, part, 0, part.length())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Set the Strings to be used as content proposals.
 	 *
@@ -96,6 +349,10 @@ public class SimpleContentProposalProvider implements IContentProposalProvider {
 	public void setProposals(String... items) {
 		this.proposals = items;
 		contentProposals = null;
+		allContentProposals = false;
+		sortedKeys = null;
+		sortedProposals = null;
+		trigramIndex = null;
 	}
 
 	/**
@@ -111,7 +368,20 @@ public class SimpleContentProposalProvider implements IContentProposalProvider {
 	 */
 	public void setFiltering(boolean filterProposals) {
 		this.filterProposals = filterProposals;
-		// Clear any cached proposals.
-		contentProposals = null;
+	}
+
+	/**
+	 * Set the boolean that controls whether filtering shows the proposals
+	 * containing the current field content anywhere, rather than only the
+	 * proposals starting with it. Has no effect unless filtering is used.
+	 *
+	 * @param matchSubstrings
+	 *            <code>true</code> if the proposals containing the field
+	 *            content should be shown, and <code>false</code> if only the
+	 *            proposals starting with the field content should be shown.
+	 * @since 3.15
+	 */
+	public void setSubstringMatching(boolean matchSubstrings) {
+		this.matchSubstrings = matchSubstrings;
 	}
 }
@@ -99,6 +99,20 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 	 */
 	private boolean isExpandableCheckFilters = false;
 
+	/**
+	 * Indicates if refreshing the structure only applies the differences
+	 * between the last children and the new ones.
+	 *
+	 * @see #setIncrementalRefresh(boolean)
+	 */
+	private boolean incrementalRefresh = false;
+
+	/**
+	 * Key under which the last sorted and filtered children of an expanded
+	 * item (or of the control) are kept in incremental refresh mode.
+	 */
+	private static final String LAST_CHILDREN_KEY = "org.eclipse.jface.viewers.AbstractTreeViewer.lastChildren"; //$NON-NLS-1$
+
 	/**
 	 * Safe runnable used to update an item.
 	 */
@@ -2619,6 +2633,9 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 		if (widget instanceof Item) {
 			Item ti = (Item) widget;
 			if (!getExpanded(ti)) {
+				if (incrementalRefresh) {
+					ti.setData(LAST_CHILDREN_KEY, null);
+				}
 				if (optionallyPruneChildren(ti, parent)) {
 					// children were pruned, nothing left to do
 					return;
@@ -2670,6 +2687,15 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 
 		Item[] items = getChildren(widget);
 
+		if (incrementalRefresh) {
+			Object[] lastChildren = (Object[]) widget.getData(LAST_CHILDREN_KEY);
+			widget.setData(LAST_CHILDREN_KEY, elementChildren);
+			if (lastChildren != null
+					&& updateChildrenIncrementally(widget, items, lastChildren, elementChildren, updateLabels)) {
+				return;
+			}
+		}
+
 		// save the expanded elements
 		CustomHashtable expanded = newHashtable(CustomHashtable.DEFAULT_CAPACITY); // assume
 																					// num
@@ -2816,6 +2842,105 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 		}
 	}
 
+	/**
+	 * Applies the differences between the last children of the given widget
+	 * and the new ones to its items, when the new children only differ by
+	 * insertions and removals: the items of the remaining children are left
+	 * untouched, apart from their labels when <code>updateLabels</code> is
+	 * <code>true</code>.
+	 *
+	 * @return <code>false</code> if nothing was changed because the items no
+	 *         longer match the last children, or because the order of the
+	 *         remaining children changed
+	 */
+	private boolean updateChildrenIncrementally(Widget widget, Item[] items, Object[] lastChildren,
+			Object[] elementChildren, boolean updateLabels) {
+		if (items.length != lastChildren.length || items.length == 0) {
+			return false;
+		}
+		for (int i = 0; i < items.length; i++) {
+			if (items[i].getData() != lastChildren[i]) {
+				return false;
+			}
+		}
+
+		// skip the common head and tail
+		int oldEnd = lastChildren.length;
+		int newEnd = elementChildren.length;
+		int start = 0;
+		while (start < oldEnd && start < newEnd && equals(lastChildren[start], elementChildren[start])) {
+			start++;
+		}
+		while (oldEnd > start && newEnd > start && equals(lastChildren[oldEnd - 1], elementChildren[newEnd - 1])) {
+			oldEnd--;
+			newEnd--;
+		}
+
+		// the remaining old children must keep their relative order
+		CustomHashtable newMiddle = newHashtable((newEnd - start) * 2 + 1);
+		for (int i = start; i < newEnd; i++) {
+			newMiddle.put(elementChildren[i], elementChildren[i]);
+		}
+		int kept = start;
+		for (int i = start; i < newEnd && kept < oldEnd; i++) {
+			while (kept < oldEnd && !newMiddle.containsKey(lastChildren[kept])) {
+				kept++;
+			}
+			if (kept < oldEnd && equals(lastChildren[kept], elementChildren[i])) {
+				kept++;
+			}
+		}
+		while (kept < oldEnd && !newMiddle.containsKey(lastChildren[kept])) {
+			kept++;
+		}
+		if (kept < oldEnd) {
+			return false;
+		}
+
+		for (int i = start; i < oldEnd; i++) {
+			if (!newMiddle.containsKey(lastChildren[i])) {
+				disassociate(items[i]);
+				items[i].dispose();
+				items[i] = null;
+			}
+		}
+		int index = start;
+		int old = start;
+		for (int i = start; i < newEnd; i++) {
+			while (old < oldEnd && items[old] == null) {
+				old++;
+			}
+			if (old < oldEnd && equals(lastChildren[old], elementChildren[i])) {
+				updateRemainingItem(items[old], elementChildren[i], updateLabels);
+				old++;
+			} else {
+				createTreeItem(widget, elementChildren[i], index);
+			}
+			index++;
+		}
+
+		for (int i = 0; i < start; i++) {
+			updateRemainingItem(items[i], elementChildren[i], updateLabels);
+		}
+		int shift = newEnd - oldEnd;
+		for (int i = oldEnd; i < lastChildren.length; i++) {
+			updateRemainingItem(items[i], elementChildren[i + shift], updateLabels);
+		}
+		return true;
+	}
+
+	private void updateRemainingItem(Item item, Object newElement, boolean updateLabels) {
+		if (item.getData() != newElement) {
+			// equal but not identical, same as updateChildren
+			unmapElement(item.getData(), item);
+			item.setData(newElement);
+			mapElement(newElement, item);
+		}
+		if (updateLabels) {
+			updateItem(item, newElement);
+		}
+	}
+
 	/** Returns true if children were pruned */
 	/*package*/ boolean optionallyPruneChildren(Item item, Object element) {
 		// need a dummy node if element is expandable;
@@ -3234,4 +3359,40 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 		}
 	}
 
+	/**
+	 * Instructs the viewer to refresh the structure incrementally.
+	 * <p>
+	 * In this mode, the viewer remembers the sorted and filtered children of
+	 * each expanded node. When a node is refreshed and its new children only
+	 * differ from the remembered ones by insertions and removals, items are
+	 * only created for the inserted children and disposed for the removed
+	 * ones, while the items of the other children are kept along with their
+	 * expansion state, and are only updated if labels are to be updated.
+	 * Other changes, such as a different order, are applied as usual.
+	 * </p>
+	 * <p>
+	 * This considerably speeds up refreshing nodes with many children after
+	 * few of them changed, at the price of keeping a reference to the
+	 * children of every expanded node.
+	 * </p>
+	 *
+	 * @param incremental
+	 *            <code>true</code> to refresh incrementally
+	 * @since 3.15
+	 */
+	public void setIncrementalRefresh(boolean incremental) {
+		incrementalRefresh = incremental;
+	}
+
+	/**
+	 * Returns whether the structure is refreshed incrementally.
+	 *
+	 * @return <code>true</code> if the structure is refreshed incrementally
+	 * @see #setIncrementalRefresh(boolean)
+	 * @since 3.15
+	 */
+	public boolean isIncrementalRefresh() {
+		return incrementalRefresh;
+	}
+
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,7 +14,9 @@ package org.eclipse.ui.forms.widgets;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.Hashtable;
+import java.util.Map;
 
 import org.eclipse.core.runtime.ListenerList;
 import org.eclipse.swt.SWT;
@@ -217,6 +219,12 @@ public class FormText extends Canvas {
 	private static final String CONTROL_KEY = "__segment__"; //$NON-NLS-1$
 
 	private class FormTextLayout extends Layout implements ILayoutExtension {
+		/*
+		 * The sizes of the text computed for width hints, until the text or
+		 * the resources it is rendered with change.
+		 */
+		private Map<Integer, Point> textSizes = new HashMap<>();
+
 		public FormTextLayout() {
 		}
 
@@ -227,7 +235,11 @@ public class FormText extends Canvas {
 
 		@Override
 		public int computeMinimumWidth(Composite parent, boolean changed) {
-			return computeSize(parent, 5, SWT.DEFAULT, true).x;
+			return computeSize(parent, 5, SWT.DEFAULT, changed).x;
+		}
+
+		void flushCache() {
+			textSizes.clear();
 		}
 
 		@Override
@@ -240,7 +252,9 @@ public class FormText extends Canvas {
 			int innerWidth = wHint;
 			if (innerWidth != SWT.DEFAULT)
 				innerWidth -= marginWidth * 2;
-			Point textSize = computeTextSize(innerWidth);
+			if (changed || textSizes.size() > 8)
+				textSizes.clear();
+			Point textSize = textSizes.computeIfAbsent(Integer.valueOf(innerWidth), w -> computeTextSize(w.intValue()));
 			int textWidth = textSize.x + 2 * marginWidth;
 			int textHeight = textSize.y + 2 * marginHeight;
 			Point result = new Point(textWidth, textHeight);
@@ -308,6 +322,11 @@ public class FormText extends Canvas {
 				start = System.currentTimeMillis();
 			}
 			selData = null;
+			if (flushCache) {
+				flushCache();
+				// only the sizes of the controls may have changed unnoticed
+				model.invalidateLayout(false);
+			}
 			Rectangle carea = composite.getClientArea();
 			if (DEBUG_TEXTSIZE) {
 				System.out.println("FormText layout ("+model.getAccessibleText()+"), carea="+carea); //$NON-NLS-1$ //$NON-NLS-2$
@@ -334,7 +353,7 @@ public class FormText extends Canvas {
 				loc.indent = p.getIndent();
 				loc.resetCaret();
 				loc.rowHeight = 0;
-				p.layout(gc, carea.width, loc, lineHeight, resourceTable,
+				p.layoutIfChanged(gc, carea.width, loc, lineHeight, resourceTable,
 						selectedLink);
 			}
 			gc.dispose();
@@ -526,6 +545,7 @@ public class FormText extends Canvas {
 	 */
 	public void setParagraphsSeparated(boolean value) {
 		paragraphsSeparated = value;
+		flushLayoutCache();
 	}
 
 	/**
@@ -553,6 +573,8 @@ public class FormText extends Canvas {
 	 */
 	public void setImage(String key, Image image) {
 		resourceTable.put("i." + key, image); //$NON-NLS-1$
+		model.invalidateLayout(true);
+		flushLayoutCache();
 	}
 
 	/**
@@ -598,6 +620,7 @@ public class FormText extends Canvas {
 		else
 			resourceTable.put(fullKey, font);
 		model.clearCache(fullKey);
+		flushLayoutCache();
 	}
 
 	/**
@@ -622,6 +645,8 @@ public class FormText extends Canvas {
 			resourceTable.remove(fullKey);
 		else
 			resourceTable.put(fullKey, control);
+		model.invalidateLayout(true);
+		flushLayoutCache();
 	}
 
 	/**
@@ -636,6 +661,7 @@ public class FormText extends Canvas {
 	public void setFont(Font font) {
 		super.setFont(font);
 		model.clearCache(null);
+		flushLayoutCache();
 		Font boldFont = (Font) resourceTable.get(FormTextModel.BOLD_FONT_ID);
 		if (boldFont != null) {
 			FormFonts.getInstance().markFinished(boldFont, getDisplay());
@@ -665,6 +691,7 @@ public class FormText extends Canvas {
 			model.parseTaggedText(text, expandURLs);
 		else
 			model.parseRegularText(text, expandURLs);
+		flushLayoutCache();
 		hookControlSegmentFocus();
 		layout();
 		redraw();
@@ -685,11 +712,18 @@ public class FormText extends Canvas {
 		entered = null;
 		disposeResourceTable(false);
 		model.parseInputStream(is, expandURLs);
+		flushLayoutCache();
 		hookControlSegmentFocus();
 		layout();
 		redraw();
 	}
 
+	private void flushLayoutCache() {
+		Layout layout = getLayout();
+		if (layout instanceof FormTextLayout)
+			((FormTextLayout) layout).flushCache();
+	}
+
 	private void hookControlSegmentFocus() {
 		Paragraph[] paragraphs = model.getParagraphs();
 		if (paragraphs == null)
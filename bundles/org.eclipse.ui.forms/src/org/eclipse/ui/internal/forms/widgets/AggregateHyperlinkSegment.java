@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -157,6 +157,16 @@ public class AggregateHyperlinkSegment extends ParagraphSegment implements
 		}
 	}
 
+	@Override
+	public boolean usesFont(String fontId) {
+		for (int i = 0; i < segments.size(); i++) {
+			ParagraphSegment segment = segments.get(i);
+			if (segment.usesFont(fontId))
+				return true;
+		}
+		return false;
+	}
+
 	@Override
 	public String getTooltipText() {
 		if (segments.size() > 0)
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,45 +16,86 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Vector;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.ui.forms.HyperlinkSettings;
-import org.w3c.dom.Document;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.ErrorHandler;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
-import org.xml.sax.SAXParseException;
 
 public class FormTextModel {
 
 	/*
-	 * This class prevents parse errors from being written to standard output
+	 * A node of the parsed text: an element with its attributes and children,
+	 * a text, or another node such as a CDATA section, which is not rendered.
+	 * Like in a DOM, the text around comments is a single node.
 	 */
-	public static class ParseErrorHandler implements ErrorHandler {
+	private static class Node {
+		static final int ELEMENT = 1;
 
-		@Override
-		public void error(SAXParseException arg0) throws SAXException {
+		static final int TEXT = 2;
+
+		static final int OTHER = 3;
+
+		final int type;
+
+		final String name;
+
+		String value;
+
+		Map<String, String> attributes;
+
+		List<Node> children;
+
+		Node previousSibling;
+
+		Node nextSibling;
+
+		Node(int type, String name, String value) {
+			this.type = type;
+			this.name = name;
+			this.value = value;
+		}
+
+		String getAttribute(String attributeName) {
+			return attributes == null ? null : attributes.get(attributeName);
 		}
 
-		@Override
-		public void fatalError(SAXParseException arg0) throws SAXException {
+		List<Node> getChildren() {
+			if (children == null)
+				return new ArrayList<>(0);
+			return children;
+		}
+
+		void add(Node child) {
+			if (children == null)
+				children = new ArrayList<>();
+			if (!children.isEmpty()) {
+				child.previousSibling = children.get(children.size() - 1);
+				child.previousSibling.nextSibling = child;
+			}
+			children.add(child);
 		}
 
-		@Override
-		public void warning(SAXParseException arg0) throws SAXException {
+		void addText(String text) {
+			Node last = children == null || children.isEmpty() ? null : children.get(children.size() - 1);
+			if (last != null && last.type == TEXT)
+				last.value += text;
+			else
+				add(new Node(TEXT, null, text));
 		}
 	}
 
-	private static final DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory
-			.newInstance();
+	private static final String REPORT_CDATA = "http://java.sun.com/xml/stream/properties/report-cdata-event"; //$NON-NLS-1$
+
+	private static XMLInputFactory inputFactory;
 
 	private boolean whitespaceNormalized = true;
 
@@ -116,37 +157,96 @@ public class FormTextModel {
 	}
 
 	public void parseInputStream(InputStream is, boolean expandURLs) {
-
-		documentBuilderFactory.setNamespaceAware(true);
-		documentBuilderFactory.setIgnoringComments(true);
-
 		reset();
 		try {
-			DocumentBuilder parser = documentBuilderFactory
-					.newDocumentBuilder();
-			parser.setErrorHandler(new ParseErrorHandler());
-			InputSource source = new InputSource(is);
-			Document doc = parser.parse(source);
-			processDocument(doc, expandURLs);
-		} catch (ParserConfigurationException e) {
-			SWT.error(SWT.ERROR_INVALID_ARGUMENT, e, " " + e.getMessage()); //$NON-NLS-1$
-		} catch (SAXException e) {
+			XMLStreamReader reader = createStreamReader(is);
+			try {
+				Node root = readDocument(reader);
+				processDocument(root, expandURLs);
+			} finally {
+				reader.close();
+			}
+		} catch (XMLStreamException e) {
+			if (e.getNestedException() instanceof IOException)
+				SWT.error(SWT.ERROR_IO, e.getNestedException());
 			SWT.error(SWT.ERROR_INVALID_ARGUMENT, e, " " + e.getMessage()); //$NON-NLS-1$
-		} catch (IOException e) {
-			SWT.error(SWT.ERROR_IO, e);
 		}
 	}
 
-	private void processDocument(Document doc, boolean expandURLs) {
-		Node root = doc.getDocumentElement();
-		NodeList children = root.getChildNodes();
-		processSubnodes(paragraphs, children, expandURLs);
+	private static XMLStreamReader createStreamReader(InputStream is) throws XMLStreamException {
+		synchronized (FormTextModel.class) {
+			if (inputFactory == null) {
+				inputFactory = XMLInputFactory.newInstance();
+				inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+				// CDATA sections are not rendered, tell them apart from text
+				if (inputFactory.isPropertySupported(REPORT_CDATA))
+					inputFactory.setProperty(REPORT_CDATA, Boolean.TRUE);
+			}
+			return inputFactory.createXMLStreamReader(is);
+		}
 	}
 
-	private void processSubnodes(Vector<Paragraph> plist, NodeList children, boolean expandURLs) {
-		for (int i = 0; i < children.getLength(); i++) {
-			Node child = children.item(i);
-			if (child.getNodeType() == Node.TEXT_NODE) {
+	/*
+	 * Reads the document into a tree of the nodes the model is built from, and
+	 * returns its root element.
+	 */
+	private static Node readDocument(XMLStreamReader reader) throws XMLStreamException {
+		Node root = null;
+		List<Node> open = new ArrayList<>();
+		while (reader.hasNext()) {
+			int event = reader.next();
+			Node parent = open.isEmpty() ? null : open.get(open.size() - 1);
+			switch (event) {
+			case XMLStreamConstants.START_ELEMENT:
+				Node element = new Node(Node.ELEMENT, getName(reader.getPrefix(), reader.getLocalName()), null);
+				int count = reader.getAttributeCount();
+				if (count > 0) {
+					element.attributes = new HashMap<>();
+					for (int i = 0; i < count; i++) {
+						element.attributes.put(getName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)),
+								reader.getAttributeValue(i));
+					}
+				}
+				if (parent == null)
+					root = element;
+				else
+					parent.add(element);
+				open.add(element);
+				break;
+			case XMLStreamConstants.END_ELEMENT:
+				open.remove(open.size() - 1);
+				break;
+			case XMLStreamConstants.CHARACTERS:
+			case XMLStreamConstants.SPACE:
+				if (parent != null)
+					parent.addText(reader.getText());
+				break;
+			case XMLStreamConstants.CDATA:
+			case XMLStreamConstants.PROCESSING_INSTRUCTION:
+			case XMLStreamConstants.ENTITY_REFERENCE:
+				if (parent != null)
+					parent.add(new Node(Node.OTHER, null, null));
+				break;
+			default:
+				break;
+			}
+		}
+		return root;
+	}
+
+	private static String getName(String prefix, String localName) {
+		if (prefix == null || prefix.length() == 0)
+			return localName;
+		return prefix + ':' + localName;
+	}
+
+	private void processDocument(Node root, boolean expandURLs) {
+		processSubnodes(paragraphs, root.getChildren(), expandURLs);
+	}
+
+	private void processSubnodes(Vector<Paragraph> plist, List<Node> children, boolean expandURLs) {
+		for (Node child : children) {
+			if (child.type == Node.TEXT) {
 				// Make an implicit paragraph
 				String text = getSingleNodeText(child);
 				if (text != null && !isIgnorableWhiteSpace(text, true)) {
@@ -155,8 +255,8 @@ public class FormTextModel {
 							getHyperlinkSettings(), null);
 					plist.add(p);
 				}
-			} else if (child.getNodeType() == Node.ELEMENT_NODE) {
-				String tag = child.getNodeName().toLowerCase();
+			} else if (child.type == Node.ELEMENT) {
+				String tag = child.name.toLowerCase();
 				if (tag.equals("p")) { //$NON-NLS-1$
 					Paragraph p = processParagraph(child, expandURLs);
 					if (p != null)
@@ -171,17 +271,15 @@ public class FormTextModel {
 	}
 
 	private Paragraph processParagraph(Node paragraph, boolean expandURLs) {
-		NodeList children = paragraph.getChildNodes();
-		NamedNodeMap atts = paragraph.getAttributes();
-		Node addSpaceAtt = atts.getNamedItem("addVerticalSpace"); //$NON-NLS-1$
+		List<Node> children = paragraph.getChildren();
+		String addSpaceAtt = paragraph.getAttribute("addVerticalSpace"); //$NON-NLS-1$
 		boolean addSpace = true;
 
 		if (addSpaceAtt == null)
-			addSpaceAtt = atts.getNamedItem("vspace"); //$NON-NLS-1$
+			addSpaceAtt = paragraph.getAttribute("vspace"); //$NON-NLS-1$
 
 		if (addSpaceAtt != null) {
-			String value = addSpaceAtt.getNodeValue();
-			addSpace = value.equalsIgnoreCase("true"); //$NON-NLS-1$
+			addSpace = addSpaceAtt.equalsIgnoreCase("true"); //$NON-NLS-1$
 		}
 		Paragraph p = new Paragraph(addSpace);
 
@@ -190,13 +288,12 @@ public class FormTextModel {
 	}
 
 	private Paragraph processListItem(Node listItem, boolean expandURLs) {
-		NodeList children = listItem.getChildNodes();
-		NamedNodeMap atts = listItem.getAttributes();
-		Node addSpaceAtt = atts.getNamedItem("addVerticalSpace");//$NON-NLS-1$
-		Node styleAtt = atts.getNamedItem("style");//$NON-NLS-1$
-		Node valueAtt = atts.getNamedItem("value");//$NON-NLS-1$
-		Node indentAtt = atts.getNamedItem("indent");//$NON-NLS-1$
-		Node bindentAtt = atts.getNamedItem("bindent");//$NON-NLS-1$
+		List<Node> children = listItem.getChildren();
+		String addSpaceAtt = listItem.getAttribute("addVerticalSpace");//$NON-NLS-1$
+		String styleAtt = listItem.getAttribute("style");//$NON-NLS-1$
+		String valueAtt = listItem.getAttribute("value");//$NON-NLS-1$
+		String indentAtt = listItem.getAttribute("indent");//$NON-NLS-1$
+		String bindentAtt = listItem.getAttribute("bindent");//$NON-NLS-1$
 		int style = BulletParagraph.CIRCLE;
 		int indent = -1;
 		int bindent = -1;
@@ -204,11 +301,10 @@ public class FormTextModel {
 		boolean addSpace = true;
 
 		if (addSpaceAtt != null) {
-			String value = addSpaceAtt.getNodeValue();
-			addSpace = value.equalsIgnoreCase("true"); //$NON-NLS-1$
+			addSpace = addSpaceAtt.equalsIgnoreCase("true"); //$NON-NLS-1$
 		}
 		if (styleAtt != null) {
-			String value = styleAtt.getNodeValue();
+			String value = styleAtt;
 			if (value.equalsIgnoreCase("text")) { //$NON-NLS-1$
 				style = BulletParagraph.TEXT;
 			} else if (value.equalsIgnoreCase("image")) { //$NON-NLS-1$
@@ -218,19 +314,19 @@ public class FormTextModel {
 			}
 		}
 		if (valueAtt != null) {
-			text = valueAtt.getNodeValue();
+			text = valueAtt;
 			if (style == BulletParagraph.IMAGE)
 				text = "i." + text; //$NON-NLS-1$
 		}
 		if (indentAtt != null) {
-			String value = indentAtt.getNodeValue();
+			String value = indentAtt;
 			try {
 				indent = Integer.parseInt(value);
 			} catch (NumberFormatException e) {
 			}
 		}
 		if (bindentAtt != null) {
-			String value = bindentAtt.getNodeValue();
+			String value = bindentAtt;
 			try {
 				bindent = Integer.parseInt(value);
 			} catch (NumberFormatException e) {
@@ -247,21 +343,20 @@ public class FormTextModel {
 		return p;
 	}
 
-	private void processSegments(Paragraph p, NodeList children,
+	private void processSegments(Paragraph p, List<Node> children,
 			boolean expandURLs) {
-		for (int i = 0; i < children.getLength(); i++) {
-			Node child = children.item(i);
+		for (Node child : children) {
 			ParagraphSegment segment = null;
 
-			if (child.getNodeType() == Node.TEXT_NODE) {
+			if (child.type == Node.TEXT) {
 				String value = getSingleNodeText(child);
 
 				if (value != null && !isIgnorableWhiteSpace(value, false)) {
 					p.parseRegularText(value, expandURLs, true,
 							getHyperlinkSettings(), null);
 				}
-			} else if (child.getNodeType() == Node.ELEMENT_NODE) {
-				String name = child.getNodeName();
+			} else if (child.type == Node.ELEMENT) {
+				String name = child.name;
 				if (name.equalsIgnoreCase("img")) { //$NON-NLS-1$
 					segment = processImageSegment(child);
 				} else if (name.equalsIgnoreCase("a")) { //$NON-NLS-1$
@@ -307,23 +402,20 @@ public class FormTextModel {
 	private ControlSegment processControlSegment(Node control) {
 		ControlSegment segment = new ControlSegment();
 		processObjectSegment(segment, control, "o."); //$NON-NLS-1$
-		Node fill = control.getAttributes().getNamedItem("fill"); //$NON-NLS-1$
+		String fill = control.getAttribute("fill"); //$NON-NLS-1$
 		if (fill!=null) {
-			String value = fill.getNodeValue();
-			boolean doFill = value.equalsIgnoreCase("true"); //$NON-NLS-1$
+			boolean doFill = fill.equalsIgnoreCase("true"); //$NON-NLS-1$
 			segment.setFill(doFill);
 		}
 		try {
-			Node width = control.getAttributes().getNamedItem("width"); //$NON-NLS-1$
+			String width = control.getAttribute("width"); //$NON-NLS-1$
 			if (width!=null) {
-				String value = width.getNodeValue();
-				int doWidth = Integer.parseInt(value);
+				int doWidth = Integer.parseInt(width);
 				segment.setWidth(doWidth);
 			}
-			Node height = control.getAttributes().getNamedItem("height"); //$NON-NLS-1$
+			String height = control.getAttribute("height"); //$NON-NLS-1$
 			if (height!=null) {
-				String value = height.getNodeValue();
-				int doHeight = Integer.parseInt(value);
+				int doHeight = Integer.parseInt(height);
 				segment.setHeight(doHeight);
 			}
 		}
@@ -334,15 +426,13 @@ public class FormTextModel {
 	}
 
 	private void processObjectSegment(ObjectSegment segment, Node object, String prefix) {
-		NamedNodeMap atts = object.getAttributes();
-		Node id = atts.getNamedItem("href"); //$NON-NLS-1$
-		Node align = atts.getNamedItem("align"); //$NON-NLS-1$
+		String id = object.getAttribute("href"); //$NON-NLS-1$
+		String align = object.getAttribute("align"); //$NON-NLS-1$
 		if (id != null) {
-			String value = id.getNodeValue();
-			segment.setObjectId(prefix + value);
+			segment.setObjectId(prefix + id);
 		}
 		if (align != null) {
-			String value = align.getNodeValue().toLowerCase();
+			String value = align.toLowerCase();
 			if (value.equals("top")) //$NON-NLS-1$
 				segment.setVerticalAlignment(ObjectSegment.TOP);
 			else if (value.equals("middle")) //$NON-NLS-1$
@@ -388,26 +478,24 @@ public class FormTextModel {
 	}
 
 	private String getSingleNodeText(Node node) {
-		String text = getNormalizedText(node.getNodeValue());
+		String text = getNormalizedText(node.value);
 		if (!whitespaceNormalized)
 			return text;
-		if (text.length() > 0 && node.getPreviousSibling() == null && isIgnorableWhiteSpace(text.substring(0, 1), true))
+		if (text.length() > 0 && node.previousSibling == null && isIgnorableWhiteSpace(text.substring(0, 1), true))
 			return text.substring(1);
-		if (text.length() > 1 && node.getNextSibling() == null
+		if (text.length() > 1 && node.nextSibling == null
 				&& isIgnorableWhiteSpace(text.substring(text.length() - 1), true))
 			return text.substring(0, text.length() - 1);
 		return text;
 	}
 
 	private String getNodeText(Node node) {
-		NodeList children = node.getChildNodes();
 		StringBuilder buf = new StringBuilder();
 		int[] spaceCounter = new int[1];
 
-		for (int i = 0; i < children.getLength(); i++) {
-			Node child = children.item(i);
-			if (child.getNodeType() == Node.TEXT_NODE) {
-				String value = child.getNodeValue();
+		for (Node child : node.getChildren()) {
+			if (child.type == Node.TEXT) {
+				String value = child.value;
 				appendText(value, buf, spaceCounter);
 			}
 		}
@@ -419,37 +507,29 @@ public class FormTextModel {
 
 	private ParagraphSegment processHyperlinkSegment(Node link,
 			HyperlinkSettings settings) {
-		NamedNodeMap atts = link.getAttributes();
-		String href = null;
+		String href = link.getAttribute("href"); //$NON-NLS-1$
 		boolean wrapAllowed = true;
 		String boldFontId = null;
 
-		Node hrefAtt = atts.getNamedItem("href"); //$NON-NLS-1$
-		if (hrefAtt != null) {
-			href = hrefAtt.getNodeValue();
-		}
-		Node boldAtt = atts.getNamedItem("bold"); //$NON-NLS-1$
+		String boldAtt = link.getAttribute("bold"); //$NON-NLS-1$
 		if (boldAtt != null) {
 			boldFontId = BOLD_FONT_ID;
 		}
-		Node nowrap = atts.getNamedItem("nowrap"); //$NON-NLS-1$
-		if (nowrap != null) {
-			String value = nowrap.getNodeValue();
-			if (value != null && value.equalsIgnoreCase("true")) //$NON-NLS-1$
-				wrapAllowed = false;
-		}
+		String nowrap = link.getAttribute("nowrap"); //$NON-NLS-1$
+		if (nowrap != null && nowrap.equalsIgnoreCase("true")) //$NON-NLS-1$
+			wrapAllowed = false;
 		Object status = checkChildren(link);
 		if (status instanceof Node) {
 			Node child = (Node)status;
 			ImageHyperlinkSegment segment = new ImageHyperlinkSegment();
 			segment.setHref(href);
 			segment.setWordWrapAllowed(wrapAllowed);
-			Node alt = child.getAttributes().getNamedItem("alt"); //$NON-NLS-1$
+			String alt = child.getAttribute("alt"); //$NON-NLS-1$
 			if (alt!=null)
-				segment.setTooltipText(alt.getNodeValue());
-			Node text = child.getAttributes().getNamedItem("text"); //$NON-NLS-1$
+				segment.setTooltipText(alt);
+			String text = child.getAttribute("text"); //$NON-NLS-1$
 			if (text!=null)
-				segment.setText(text.getNodeValue());
+				segment.setText(text);
 			processObjectSegment(segment, child, "i."); //$NON-NLS-1$
 			return segment;
 		}  else if (status instanceof String) {
@@ -458,34 +538,32 @@ public class FormTextModel {
 					settings, null);
 			segment.setHref(href);
 			segment.setFontId(boldFontId);
-			Node alt = atts.getNamedItem("alt"); //$NON-NLS-1$
+			String alt = link.getAttribute("alt"); //$NON-NLS-1$
 			if (alt!=null)
-				segment.setTooltipText(alt.getNodeValue());
+				segment.setTooltipText(alt);
 			segment.setWordWrapAllowed(wrapAllowed);
 			return segment;
 		} else {
 			AggregateHyperlinkSegment parent = new AggregateHyperlinkSegment();
 			parent.setHref(href);
-			NodeList children = link.getChildNodes();
-			for (int i = 0; i < children.getLength(); i++) {
-				Node child = children.item(i);
-				if (child.getNodeType() == Node.TEXT_NODE) {
-					String value = child.getNodeValue();
+			for (Node child : link.getChildren()) {
+				if (child.type == Node.TEXT) {
+					String value = child.value;
 					TextHyperlinkSegment ts = new TextHyperlinkSegment(
 							getNormalizedText(value), settings, null);
-					Node alt = atts.getNamedItem("alt"); //$NON-NLS-1$
+					String alt = link.getAttribute("alt"); //$NON-NLS-1$
 					if (alt!=null)
-						ts.setTooltipText(alt.getNodeValue());
+						ts.setTooltipText(alt);
 					ts.setWordWrapAllowed(wrapAllowed);
 					parent.add(ts);
-				} else if (child.getNodeType() == Node.ELEMENT_NODE) {
-					String name = child.getNodeName();
+				} else if (child.type == Node.ELEMENT) {
+					String name = child.name;
 					if (name.equalsIgnoreCase("img")) { //$NON-NLS-1$
 						ImageHyperlinkSegment is = new ImageHyperlinkSegment();
 						processObjectSegment(is, child, "i."); //$NON-NLS-1$
-						Node alt = child.getAttributes().getNamedItem("alt"); //$NON-NLS-1$
+						String alt = child.getAttribute("alt"); //$NON-NLS-1$
 						if (alt!=null)
-							is.setTooltipText(alt.getNodeValue());
+							is.setTooltipText(alt);
 						parent.add(is);
 						is.setWordWrapAllowed(wrapAllowed);
 					}
@@ -500,13 +578,11 @@ public class FormTextModel {
 		Node imgNode = null;
 		//int status = 0;
 
-		NodeList children = node.getChildNodes();
-		for (int i = 0; i < children.getLength(); i++) {
-			Node child = children.item(i);
-			if (child.getNodeType() == Node.TEXT_NODE)
+		for (Node child : node.getChildren()) {
+			if (child.type == Node.TEXT)
 				text = true;
-			else if (child.getNodeType() == Node.ELEMENT_NODE
-					&& child.getNodeName().equalsIgnoreCase("img")) { //$NON-NLS-1$
+			else if (child.type == Node.ELEMENT
+					&& child.name.equalsIgnoreCase("img")) { //$NON-NLS-1$
 				imgNode = child;
 			}
 		}
@@ -521,23 +597,19 @@ public class FormTextModel {
 			Node textNode) {
 		String text = getNodeText(textNode);
 
-		NamedNodeMap atts = textNode.getAttributes();
-		Node font = atts.getNamedItem("font"); //$NON-NLS-1$
-		Node color = atts.getNamedItem("color"); //$NON-NLS-1$
+		String font = textNode.getAttribute("font"); //$NON-NLS-1$
+		String color = textNode.getAttribute("color"); //$NON-NLS-1$
 		boolean wrapAllowed=true;
-		Node nowrap = atts.getNamedItem("nowrap"); //$NON-NLS-1$
-		if (nowrap != null) {
-			String value = nowrap.getNodeValue();
-			if (value != null && value.equalsIgnoreCase("true")) //$NON-NLS-1$
-				wrapAllowed = false;
-		}
+		String nowrap = textNode.getAttribute("nowrap"); //$NON-NLS-1$
+		if (nowrap != null && nowrap.equalsIgnoreCase("true")) //$NON-NLS-1$
+			wrapAllowed = false;
 		String fontId = null;
 		String colorId = null;
 		if (font != null) {
-			fontId = "f." + font.getNodeValue(); //$NON-NLS-1$
+			fontId = "f." + font; //$NON-NLS-1$
 		}
 		if (color != null) {
-			colorId = "c." + color.getNodeValue(); //$NON-NLS-1$
+			colorId = "c." + color; //$NON-NLS-1$
 		}
 		p.parseRegularText(text, expandURLs, wrapAllowed, getHyperlinkSettings(), fontId,
 				colorId);
@@ -669,6 +741,30 @@ public class FormTextModel {
 		}
 	}
 
+	/**
+	 * Forces the paragraphs to be laid out again.
+	 *
+	 * @param all
+	 *            <code>true</code> to lay out all the paragraphs,
+	 *            <code>false</code> to only lay out the paragraphs showing
+	 *            controls, whose size may change without the model knowing
+	 */
+	public void invalidateLayout(boolean all) {
+		for (int i = 0; i < paragraphs.size(); i++) {
+			Paragraph p = paragraphs.get(i);
+			if (all) {
+				p.invalidateLayout();
+				continue;
+			}
+			for (ParagraphSegment segment : p.getSegments()) {
+				if (segment instanceof ControlSegment) {
+					p.invalidateLayout();
+					break;
+				}
+			}
+		}
+	}
+
 	public IFocusSelectable getSelectedSegment() {
 		if (selectableSegments==null || selectedSegmentIndex == -1)
 			return null;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -33,6 +33,18 @@ public class Paragraph {
 
 	private boolean addVerticalSpace = true;
 
+	/*
+	 * The width, margin and top of the last layout of this paragraph, and the
+	 * bottom it ended at, or a negative width if it has to be laid out again.
+	 */
+	private int layoutWidth = -1;
+
+	private int layoutMargin;
+
+	private int layoutTop;
+
+	private int layoutBottom;
+
 	public Paragraph(boolean addVerticalSpace) {
 		this.addVerticalSpace = addVerticalSpace;
 	}
@@ -56,6 +68,7 @@ public class Paragraph {
 		if (segments == null)
 			segments = new Vector<>();
 		segments.add(segment);
+		invalidateLayout();
 	}
 
 	public void parseRegularText(String text, boolean expandURLs, boolean wrapAllowed,
@@ -171,6 +184,38 @@ public class Paragraph {
 		}
 	}
 
+	/**
+	 * Lays out this paragraph like {@link #layout}, unless its last layout was
+	 * at the same width and position and it has not changed since. The
+	 * locator is then only moved past the paragraph, whose segments keep
+	 * their bounds.
+	 *
+	 * @return <code>true</code> if the paragraph was laid out,
+	 *         <code>false</code> if its last layout was kept
+	 */
+	public boolean layoutIfChanged(GC gc, int width, Locator loc, int lineHeight,
+			Hashtable<String, Object> resourceTable, IHyperlinkSegment selectedLink) {
+		if (layoutWidth == width && layoutMargin == loc.marginWidth && layoutTop == loc.y) {
+			loc.y = layoutBottom;
+			return false;
+		}
+		int top = loc.y;
+		layout(gc, width, loc, lineHeight, resourceTable, selectedLink);
+		layoutWidth = width;
+		layoutMargin = loc.marginWidth;
+		layoutTop = top;
+		layoutBottom = loc.y;
+		return true;
+	}
+
+	/**
+	 * Forces the next {@link #layoutIfChanged} to lay out this paragraph
+	 * again.
+	 */
+	public void invalidateLayout() {
+		layoutWidth = -1;
+	}
+
 	public void paint(GC gc, Rectangle repaintRegion,
 			Hashtable<String, Object> resourceTable, IHyperlinkSegment selectedLink,
 			SelectionData selData) {
@@ -224,9 +269,14 @@ public class Paragraph {
 		return null;
 	}
 	public void clearCache(String fontId) {
+		// the default font is also the font of the bullets and the empty lines
+		if (fontId == null)
+			invalidateLayout();
 		if (segments != null) {
 			for (int i = 0; i < segments.size(); i++) {
 				ParagraphSegment segment = segments.get(i);
+				if (segment.usesFont(fontId))
+					invalidateLayout();
 				segment.clearCache(fontId);
 			}
 		}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -86,4 +86,13 @@ public abstract class ParagraphSegment {
 	 */
 	public void clearCache(String fontId) {
 	}
+	/**
+	 * Tests if the text of this segment is measured with the provided font.
+	 * @param fontId the id of the font, or <code>null</code> for the default font.
+	 * @return <code>true</code> if the layout of this segment depends on the font,
+	 * <code>false</code> otherwise.
+	 */
+	public boolean usesFont(String fontId) {
+		return false;
+	}
 }
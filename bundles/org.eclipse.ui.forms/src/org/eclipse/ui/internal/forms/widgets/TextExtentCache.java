@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.forms.widgets;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Point;
+
+/**
+ * Caches the extents of the words and lines measured with a font, so that form
+ * texts measure them once rather than on every layout and paint. The cache of
+ * a font is shared by all the segments and form texts using the font.
+ * <p>
+ * Fonts are told apart by their device and font data rather than by the
+ * <code>Font</code> objects, which may be created for every call to
+ * {@link GC#getFont()} and whose handles may be reused once they are disposed.
+ * The caches are only used in the UI thread.
+ * </p>
+ */
+public class TextExtentCache {
+	private static final int MAX_FONTS = 32;
+
+	private static final int MAX_EXTENTS = 2048;
+
+	private static final Map<List<Object>, TextExtentCache> caches = new LinkedHashMap<List<Object>, TextExtentCache>(
+			16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<List<Object>, TextExtentCache> eldest) {
+			return size() > MAX_FONTS;
+		}
+	};
+
+	private final Map<String, Point> extents = new LinkedHashMap<String, Point>(64, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Point> eldest) {
+			return size() > MAX_EXTENTS;
+		}
+	};
+
+	private TextExtentCache() {
+	}
+
+	/**
+	 * Returns the cache of the extents measured with the current font of the
+	 * graphics context.
+	 *
+	 * @param gc
+	 *            the graphics context
+	 * @return the cache of the current font
+	 */
+	public static TextExtentCache getCache(GC gc) {
+		List<Object> key = new ArrayList<>();
+		key.add(gc.getDevice());
+		key.addAll(Arrays.asList(gc.getFont().getFontData()));
+		return caches.computeIfAbsent(key, k -> new TextExtentCache());
+	}
+
+	/**
+	 * Returns the extent of the text drawn with the current font of the
+	 * graphics context, which must be the font of this cache.
+	 *
+	 * @param gc
+	 *            the graphics context
+	 * @param text
+	 *            the text to measure
+	 * @return the extent of the text
+	 * @see GC#textExtent(String)
+	 */
+	public Point textExtent(GC gc, String text) {
+		Point extent = extents.get(text);
+		if (extent == null) {
+			extent = gc.textExtent(text);
+			extents.put(text, extent);
+		}
+		return new Point(extent.x, extent.y);
+	}
+}
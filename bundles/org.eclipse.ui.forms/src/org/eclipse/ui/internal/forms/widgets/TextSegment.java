@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -236,7 +236,7 @@ public class TextSegment extends ParagraphSegment {
 		boolean newLine = false;
 
 		if (wHint == SWT.DEFAULT || !wrapAllowed) {
-			Point extent = gc.textExtent(text);
+			Point extent = TextExtentCache.getCache(gc).textExtent(gc, text);
 			int totalExtent = locator.x+extent.x;
 			if (isSelectable())
 				totalExtent+=1;
@@ -310,7 +310,7 @@ public class TextSegment extends ParagraphSegment {
 
 	private void layoutWithoutWrapping(GC gc, int width, Locator locator,
 			boolean selected, FontMetrics fm, int lineHeight, int descent) {
-		Point extent = gc.textExtent(text);
+		Point extent = TextExtentCache.getCache(gc).textExtent(gc, text);
 		int ewidth = extent.x;
 		if (isSelectable())
 			ewidth += 1;
@@ -398,16 +398,17 @@ public class TextSegment extends ParagraphSegment {
 		FontMetrics fm = gc.getFontMetrics();
 		int lineHeight = fm.getHeight();
 		int descent = fm.getDescent();
+		TextExtentCache extents = TextExtentCache.getCache(gc);
 
 		// paint area rectangles of the segment
 		for (int i = 0; i < areaRectangles.size(); i++) {
 			AreaRectangle areaRectangle = areaRectangles.get(i);
 			Rectangle rect = areaRectangle.rect;
 			String text = areaRectangle.getText();
-			Point extent = gc.textExtent(text);
+			Point extent = extents.textExtent(gc, text);
 			int textX = rect.x + (isSelectable()?1:0);
 			int lineY = rect.y + lineHeight - descent + 1;
-			paintString(gc, text, extent.x, textX, rect.y, lineY, selData,
+			paintString(gc, extents, text, extent.x, textX, rect.y, lineY, selData,
 					rect, hover, rollover, repaintRegion);
 			if (selected) {
 				int fx = rect.x;
@@ -448,11 +449,12 @@ public class TextSegment extends ParagraphSegment {
 				gc.setFont(newFont);
 		}
 
+		TextExtentCache extents = TextExtentCache.getCache(gc);
 		for (int i = 0; i < areaRectangles.size(); i++) {
 			AreaRectangle areaRectangle = areaRectangles.get(i);
 			Rectangle rect = areaRectangle.rect;
 			String text = areaRectangle.getText();
-			Point extent = gc.textExtent(text);
+			Point extent = extents.textExtent(gc, text);
 			computeSelection(gc, text, extent.x, selData,
 					rect);
 		}
@@ -462,7 +464,7 @@ public class TextSegment extends ParagraphSegment {
 		}
 	}
 
-	private void paintString(GC gc, String s, int swidth, int x, int y,
+	private void paintString(GC gc, TextExtentCache extents, String s, int swidth, int x, int y,
 			int lineY, SelectionData selData, Rectangle bounds, boolean hover,
 			boolean rolloverMode, Rectangle repaintRegion) {
 		// repaints one area rectangle
@@ -483,7 +485,7 @@ public class TextSegment extends ParagraphSegment {
 
 			if ((firstRow && x + swidth < leftOffset)
 					|| (lastRow && x > rightOffset)) {
-				paintStringSegment(gc, s, gc.textExtent(s).x, x, y, lineY,
+				paintStringSegment(gc, s, extents.textExtent(gc, s).x, x, y, lineY,
 						hover, rolloverMode, repaintRegion);
 				return;
 			}
@@ -499,7 +501,7 @@ public class TextSegment extends ParagraphSegment {
 
 			if (firstRow && sstart != -1) {
 				String left = s.substring(0, sstart);
-				int width = gc.textExtent(left).x;
+				int width = extents.textExtent(gc, left).x;
 				paintStringSegment(gc, left, width, x, y, lineY, hover,
 						rolloverMode, repaintRegion);
 				x += width;
@@ -508,7 +510,7 @@ public class TextSegment extends ParagraphSegment {
 				int lindex = sstart != -1 ? sstart : 0;
 				int rindex = sstop != -1 ? sstop : s.length();
 				String mid = s.substring(lindex, rindex);
-				Point extent = gc.textExtent(mid);
+				Point extent = extents.textExtent(gc, mid);
 				gc.setForeground(selData.fg);
 				gc.setBackground(selData.bg);
 				gc.fillRectangle(x, y, extent.x, extent.y);
@@ -518,16 +520,16 @@ public class TextSegment extends ParagraphSegment {
 				gc.setForeground(savedFg);
 				gc.setBackground(savedBg);
 			} else {
-				paintStringSegment(gc, s, gc.textExtent(s).x, x, y, lineY,
+				paintStringSegment(gc, s, extents.textExtent(gc, s).x, x, y, lineY,
 						hover, rolloverMode, repaintRegion);
 			}
 			if (lastRow && sstop != -1) {
 				String right = s.substring(sstop);
-				paintStringSegment(gc, right, gc.textExtent(right).x, x, y,
+				paintStringSegment(gc, right, extents.textExtent(gc, right).x, x, y,
 						lineY, hover, rolloverMode, repaintRegion);
 			}
 		} else {
-			paintStringSegment(gc, s, gc.textExtent(s).x, x, y, lineY, hover,
+			paintStringSegment(gc, s, extents.textExtent(gc, s).x, x, y, lineY, hover,
 					rolloverMode, repaintRegion);
 		}
 	}
@@ -686,12 +688,13 @@ public class TextSegment extends ParagraphSegment {
 		ArrayList<TextFragment> list = new ArrayList<>();
 		BreakIterator wb = BreakIterator.getLineInstance();
 		wb.setText(getText());
+		TextExtentCache extents = TextExtentCache.getCache(gc);
 		int cursor = 0;
 		for (int loc = wb.first(); loc != BreakIterator.DONE; loc = wb.next()) {
 			if (loc == 0)
 				continue;
 			String word = text.substring(cursor, loc);
-			Point extent = gc.textExtent(word);
+			Point extent = extents.textExtent(gc, word);
 			list.add(new TextFragment((short) loc, (short) extent.x));
 			cursor = loc;
 		}
@@ -701,9 +704,14 @@ public class TextSegment extends ParagraphSegment {
 
 	@Override
 	public void clearCache(String fontId) {
-		if (fontId==null && (this.fontId==null||this.fontId.equals(FormTextModel.BOLD_FONT_ID)))
-			textFragments = null;
-		else if (fontId!=null && this.fontId!=null && fontId.equals(this.fontId))
+		if (usesFont(fontId))
 			textFragments = null;
 	}
+
+	@Override
+	public boolean usesFont(String fontId) {
+		if (fontId==null)
+			return this.fontId==null||this.fontId.equals(FormTextModel.BOLD_FONT_ID);
+		return this.fontId!=null && fontId.equals(this.fontId);
+	}
 }
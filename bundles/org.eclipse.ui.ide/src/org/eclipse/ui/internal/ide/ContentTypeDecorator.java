@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2015 IBM Corporation and others.
+ * Copyright (c) 2005, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,16 +10,20 @@
  *******************************************************************************/
 package org.eclipse.ui.internal.ide;
 
+import java.util.Objects;
+
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.content.IContentDescription;
 import org.eclipse.core.runtime.content.IContentType;
+import org.eclipse.core.runtime.content.IContentTypeMatcher;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.jface.viewers.IDecoration;
 import org.eclipse.jface.viewers.ILabelProviderListener;
 import org.eclipse.jface.viewers.ILightweightLabelDecorator;
 import org.eclipse.ui.IEditorDescriptor;
+import org.eclipse.ui.IEditorRegistry;
 import org.eclipse.ui.IWorkbench;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.ide.IDE;
@@ -53,22 +57,28 @@ public class ContentTypeDecorator implements ILightweightLabelDecorator {
 			if (d != null)
 				image = d.getImageDescriptor();
 		} else {
-			IContentDescription contentDescription= null;
-			try {
-				Job.getJobManager().beginRule(file, null);
-				contentDescription= file.getContentDescription();
-			} catch (CoreException e) {
-				// We already have some kind of icon for this file so it's OK to not
-				// find a better icon.
-			} finally {
-				Job.getJobManager().endRule(file);
+			IContentType contentType= null;
+			if (!isImageContentTypeDependent(file, workbench.getEditorRegistry())) {
+				// the contents of the file can't change the image, don't read them
+				contentType= IDE.guessContentType(file);
+			} else {
+				IContentDescription contentDescription= null;
+				try {
+					Job.getJobManager().beginRule(file, null);
+					contentDescription= file.getContentDescription();
+				} catch (CoreException e) {
+					// We already have some kind of icon for this file so it's OK to not
+					// find a better icon.
+				} finally {
+					Job.getJobManager().endRule(file);
+				}
+				if (contentDescription != null) {
+					contentType= contentDescription.getContentType();
+				}
 			}
 
-			if (contentDescription != null) {
-				IContentType contentType = contentDescription.getContentType();
-				if (contentType != null) {
-					image= workbench.getEditorRegistry().getImageDescriptor(file.getName(), contentType);
-				}
+			if (contentType != null) {
+				image= workbench.getEditorRegistry().getImageDescriptor(file.getName(), contentType);
 			}
 		}
 
@@ -101,6 +111,33 @@ public class ContentTypeDecorator implements ILightweightLabelDecorator {
 	public void removeListener(ILabelProviderListener listener) {
 	}
 
+	/**
+	 * Returns whether the image of the file may depend on the content type
+	 * found from its contents. The candidate content types are found with the
+	 * matcher of the project, like {@link IDE#guessContentType(IFile)} and
+	 * {@link IFile#getContentDescription()} do, so that project specific
+	 * content type settings are honored.
+	 */
+	private static boolean isImageContentTypeDependent(IFile file, IEditorRegistry registry) {
+		IContentType[] contentTypes;
+		try {
+			IContentTypeMatcher matcher= file.getProject().getContentTypeMatcher();
+			contentTypes= matcher.findContentTypesFor(file.getName());
+		} catch (CoreException e) {
+			return true;
+		}
+		if (contentTypes.length == 0) {
+			return true;
+		}
+		ImageDescriptor image= registry.getImageDescriptor(file.getName(), contentTypes[0]);
+		for (int i= 1; i < contentTypes.length; i++) {
+			if (!Objects.equals(registry.getImageDescriptor(file.getName(), contentTypes[i]), image)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	private boolean hasEditorAssociationOverrides() {
 		if (!fHasEditorAssociationOverridesComputed) {
 			fHasEditorAssociationOverrides = EditorAssociationOverrideDescriptor.getContributedEditorAssociationOverrides().length > 0;
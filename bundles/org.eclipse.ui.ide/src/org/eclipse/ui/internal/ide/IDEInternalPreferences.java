@@ -105,6 +105,12 @@ public interface IDEInternalPreferences {
     // Always show this import window
 	String IMPORT_FILES_AND_FOLDERS_SHOW_DIALOG = "IMPORT_FILES_AND_FOLDERS_SHOW_DIALOG"; //$NON-NLS-1$
 
+	/**
+	 * Comma separated names of the folders not searched for projects by the
+	 * project import wizards, for instance <code>.git,node_modules</code>.
+	 */
+	String IMPORT_PROJECTS_IGNORED_FOLDERS = "IMPORT_PROJECTS_IGNORED_FOLDERS"; //$NON-NLS-1$
+
     /**
      * Workspace name, will be displayed in the window title.
      */
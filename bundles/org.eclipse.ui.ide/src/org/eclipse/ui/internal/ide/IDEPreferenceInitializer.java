@@ -81,6 +81,7 @@ public class IDEPreferenceInitializer extends AbstractPreferenceInitializer {
 
 		node.put(IDEInternalPreferences.IMPORT_FILES_AND_FOLDERS_MODE, IDEInternalPreferences.IMPORT_FILES_AND_FOLDERS_MODE_PROMPT);
 		node.put(IDEInternalPreferences.IMPORT_FILES_AND_FOLDERS_VIRTUAL_FOLDER_MODE, IDEInternalPreferences.IMPORT_FILES_AND_FOLDERS_MODE_PROMPT);
+		node.put(IDEInternalPreferences.IMPORT_PROJECTS_IGNORED_FOLDERS, ".git,node_modules,target"); //$NON-NLS-1$
 
 		node.put(IDEInternalPreferences.WORKBENCH_SYSTEM_EXPLORER, getShowInSystemExplorerCommand());
 
@@ -142,6 +142,7 @@ public class DataTransferMessages extends NLS {
 	public static String ZipExport_cannotClose;
 	public static String ZipExport_selectDestinationTitle;
 	public static String ZipExport_destinationEmpty;
+	public static String ZipExport_compressing;
 
 	public static String ArchiveExport_description;
 	public static String ArchiveExport_destinationLabel;
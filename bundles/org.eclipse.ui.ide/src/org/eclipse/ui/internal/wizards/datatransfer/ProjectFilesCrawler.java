@@ -0,0 +1,237 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.wizards.datatransfer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import org.eclipse.core.resources.IProjectDescription;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.ui.internal.ide.IDEInternalPreferences;
+import org.eclipse.ui.internal.ide.IDEWorkbenchPlugin;
+import org.eclipse.ui.internal.ide.StatusUtil;
+import org.eclipse.ui.statushandlers.StatusManager;
+
+/**
+ * Looks for the project description files under a directory. The directories
+ * are listed in parallel by a work-stealing pool, so that deep trees and slow
+ * file systems are searched by several threads at once.
+ * <p>
+ * Folders named like one of the ignored folder names, such as
+ * <code>.git</code> or <code>node_modules</code>, are not searched. Each
+ * description file is handed to a listener as soon as it is found, on the
+ * thread which found it.
+ * </p>
+ *
+ * @since 3.14
+ */
+final class ProjectFilesCrawler {
+
+	private static final int PARALLELISM = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+	private final boolean nestedProjects;
+
+	private final Set<String> ignoredFolderNames;
+
+	private final Consumer<File> listener;
+
+	private final Set<String> directoriesVisited = ConcurrentHashMap.newKeySet();
+
+	private final Collection<File> projectFiles = new ConcurrentLinkedQueue<>();
+
+	private volatile boolean canceled;
+
+	private volatile Path currentDirectory;
+
+	/**
+	 * @param nestedProjects
+	 *            whether to look for projects nested in other projects
+	 * @param ignoredFolderNames
+	 *            the names of the folders not to search
+	 * @param listener
+	 *            told about every project description file found, may be
+	 *            <code>null</code>
+	 */
+	ProjectFilesCrawler(boolean nestedProjects, Set<String> ignoredFolderNames, Consumer<File> listener) {
+		this.nestedProjects = nestedProjects;
+		this.ignoredFolderNames = ignoredFolderNames;
+		this.listener = listener;
+	}
+
+	/**
+	 * @return the folder names configured in the preferences to be ignored
+	 *         when looking for projects
+	 */
+	static Set<String> getIgnoredFolderNames() {
+		Set<String> names = new HashSet<>();
+		names.add(WizardProjectsImportPage.METADATA_FOLDER);
+		String preference = IDEWorkbenchPlugin.getDefault().getPreferenceStore()
+				.getString(IDEInternalPreferences.IMPORT_PROJECTS_IGNORED_FOLDERS);
+		for (String name : preference.split(",")) { //$NON-NLS-1$
+			name = name.trim();
+			if (!name.isEmpty()) {
+				names.add(name);
+			}
+		}
+		return names;
+	}
+
+	/**
+	 * Searches the given directory. Progress is reported, and cancellation
+	 * checked, on the calling thread only.
+	 *
+	 * @param directory
+	 *            the directory to search
+	 * @param visited
+	 *            canonical paths of the directories not to search again, or
+	 *            <code>null</code>; the searched directories are added to it
+	 * @param monitor
+	 *            the monitor to report to
+	 * @return <code>true</code> if the search was completed
+	 */
+	boolean crawl(File directory, Set<String> visited, IProgressMonitor monitor) {
+		if (monitor.isCanceled()) {
+			return false;
+		}
+		if (!directory.isDirectory()) {
+			return false;
+		}
+		if (visited != null) {
+			directoriesVisited.addAll(visited);
+		}
+		directoriesVisited.add(getCanonicalPath(directory.toPath()));
+
+		ForkJoinPool pool = new ForkJoinPool(PARALLELISM);
+		try {
+			ForkJoinTask<Void> root = pool.submit(new DirectoryTask(directory.toPath()));
+			while (true) {
+				try {
+					root.get(100, TimeUnit.MILLISECONDS);
+					break;
+				} catch (TimeoutException e) {
+					// still searching
+				} catch (InterruptedException | ExecutionException e) {
+					canceled = true;
+					break;
+				}
+				if (monitor.isCanceled()) {
+					canceled = true;
+				}
+				Path current = currentDirectory;
+				if (current != null) {
+					monitor.subTask(NLS.bind(DataTransferMessages.WizardProjectsImportPage_CheckingMessage,
+							current.toString()));
+				}
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		if (visited != null) {
+			visited.addAll(directoriesVisited);
+		}
+		return !canceled && !monitor.isCanceled();
+	}
+
+	/**
+	 * @return the project description files found, sorted by path
+	 */
+	List<File> getProjectFiles() {
+		List<File> files = new ArrayList<>(projectFiles);
+		Collections.sort(files);
+		return files;
+	}
+
+	private static String getCanonicalPath(Path directory) {
+		try {
+			return directory.toFile().getCanonicalPath();
+		} catch (IOException exception) {
+			StatusManager.getManager().handle(
+					StatusUtil.newStatus(IStatus.ERROR, exception.getLocalizedMessage(), exception));
+			return directory.toAbsolutePath().toString();
+		}
+	}
+
+	private final class DirectoryTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Path directory;
+
+		DirectoryTask(Path directory) {
+			this.directory = directory;
+		}
+
+		@Override
+		protected void compute() {
+			if (canceled) {
+				return;
+			}
+			currentDirectory = directory;
+			List<Path> directories = new ArrayList<>();
+			try (DirectoryStream<Path> contents = Files.newDirectoryStream(directory)) {
+				for (Path file : contents) {
+					if (Files.isDirectory(file)) {
+						directories.add(file);
+					} else if (file.getFileName().toString().equals(IProjectDescription.DESCRIPTION_FILE_NAME)
+							&& Files.isRegularFile(file)) {
+						File projectFile = file.toFile();
+						projectFiles.add(projectFile);
+						if (listener != null) {
+							listener.accept(projectFile);
+						}
+						if (!nestedProjects) {
+							// don't search sub-directories since we can't have
+							// nested projects
+							return;
+						}
+					}
+				}
+			} catch (IOException | DirectoryIteratorException e) {
+				// not readable, nothing to find here
+				return;
+			}
+
+			List<DirectoryTask> tasks = new ArrayList<>(directories.size());
+			for (Path dir : directories) {
+				if (ignoredFolderNames.contains(dir.getFileName().toString())) {
+					continue;
+				}
+				if (!directoriesVisited.add(getCanonicalPath(dir))) {
+					// already been here --> do not recurse
+					continue;
+				}
+				tasks.add(new DirectoryTask(dir));
+			}
+			invokeAll(tasks);
+		}
+	}
+}
@@ -16,6 +16,8 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
 import java.util.Enumeration;
 import java.util.zip.GZIPInputStream;
 
@@ -24,6 +26,13 @@ import java.util.zip.GZIPInputStream;
  * Reads a .tar or .tar.gz archive file, providing an index enumeration
  * and allows for accessing an InputStream for arbitrary files in the
  * archive.
+ * <p>
+ * Entries of a compressed archive are best read in archive order. The first
+ * time an entry before the current position is asked for, the archive is
+ * decompressed once into a temporary file, so that this and any later entry
+ * can be reached by seeking instead of decompressing the archive from its
+ * start again.
+ * </p>
  *
  * @since 3.1
  */
@@ -35,6 +44,10 @@ public class TarFile {
 
 	private InputStream internalEntryStream;
 
+	private boolean compressed;
+
+	private File uncompressedFile;
+
 	/**
 	 * Create a new TarFile for the given file.
 	 *
@@ -49,6 +62,7 @@ public class TarFile {
 		// First, check if it's a GZIPInputStream.
 		try {
 			in = new GZIPInputStream(in);
+			compressed = true;
 		} catch(IOException e) {
 			//If it is not compressed we close
 			//the old one and recreate
@@ -74,6 +88,10 @@ public class TarFile {
 			entryEnumerationStream.close();
 		if (internalEntryStream != null)
 			internalEntryStream.close();
+		if (uncompressedFile != null) {
+			Files.deleteIfExists(uncompressedFile.toPath());
+			uncompressedFile = null;
+		}
 	}
 
 	/**
@@ -127,15 +145,25 @@ public class TarFile {
 			if (internalEntryStream != null) {
 				internalEntryStream.close();
 			}
-			internalEntryStream = new FileInputStream(file);
-			// First, check if it's a GZIPInputStream.
-			try {
-				internalEntryStream = new GZIPInputStream(internalEntryStream);
-			} catch(IOException e) {
-				//If it is not compressed we close
-				//the old one and recreate
-				internalEntryStream.close();
+			if (compressed && entryStream != null && uncompressedFile == null) {
+				// Going back would decompress the archive from its start
+				// again, possibly for every entry of an import that does not
+				// follow the archive order.
+				uncompressedFile = decompress();
+			}
+			if (uncompressedFile != null) {
+				internalEntryStream = new FileInputStream(uncompressedFile);
+			} else {
 				internalEntryStream = new FileInputStream(file);
+				// First, check if it's a GZIPInputStream.
+				try {
+					internalEntryStream = new GZIPInputStream(internalEntryStream);
+				} catch(IOException e) {
+					//If it is not compressed we close
+					//the old one and recreate
+					internalEntryStream.close();
+					internalEntryStream = new FileInputStream(file);
+				}
 			}
 			entryStream = new TarInputStream(internalEntryStream, entry) {
 				@Override
@@ -147,6 +175,30 @@ public class TarFile {
 		return entryStream;
 	}
 
+	/**
+	 * Decompresses the archive into a temporary file, in which the entries can
+	 * be reached by seeking.
+	 *
+	 * @return the temporary file
+	 * @throws IOException
+	 */
+	private File decompress() throws IOException {
+		File tempFile = File.createTempFile("archive", ".tar"); //$NON-NLS-1$ //$NON-NLS-2$
+		tempFile.deleteOnExit();
+		try (InputStream in = new GZIPInputStream(new FileInputStream(file), 65536);
+				OutputStream out = Files.newOutputStream(tempFile.toPath())) {
+			byte[] buffer = new byte[65536];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				out.write(buffer, 0, read);
+			}
+		} catch (IOException e) {
+			Files.deleteIfExists(tempFile.toPath());
+			throw e;
+		}
+		return tempFile;
+	}
+
 	/**
 	 * Returns the path name of the file this archive represents.
 	 *
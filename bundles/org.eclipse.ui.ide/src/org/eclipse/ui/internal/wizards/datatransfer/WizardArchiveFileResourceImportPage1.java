@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -403,6 +403,7 @@ public class WizardArchiveFileResourceImportPage1 extends
 	protected void initializeOperation(ImportOperation op) {
         op.setOverwriteResources(overwriteExistingResourcesCheckbox
                 .getSelection());
+        op.setBulkImport(true);
     }
 
     /**
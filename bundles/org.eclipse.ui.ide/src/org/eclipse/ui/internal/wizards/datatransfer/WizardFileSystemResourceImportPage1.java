@@ -897,6 +897,7 @@ public class WizardFileSystemResourceImportPage1 extends WizardResourceImportPag
         op.setCreateContainerStructure(false);
         op.setOverwriteResources(overwriteExistingResourcesCheckbox
                 .getSelection());
+        op.setBulkImport(true);
         if (createLinksInWorkspaceButton != null && createLinksInWorkspaceButton.getSelection()) {
         	op.setCreateLinks(true);
 	        op.setVirtualFolders(createVirtualFoldersButton
@@ -33,10 +33,13 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipException;
 import java.util.zip.ZipFile;
@@ -93,10 +96,8 @@ import org.eclipse.ui.dialogs.WizardDataTransferPage;
 import org.eclipse.ui.dialogs.WorkingSetGroup;
 import org.eclipse.ui.internal.WorkbenchPlugin;
 import org.eclipse.ui.internal.ide.IDEWorkbenchPlugin;
-import org.eclipse.ui.internal.ide.StatusUtil;
 import org.eclipse.ui.internal.registry.WorkingSetDescriptor;
 import org.eclipse.ui.internal.registry.WorkingSetRegistry;
-import org.eclipse.ui.statushandlers.StatusManager;
 import org.eclipse.ui.wizards.datatransfer.FileSystemStructureProvider;
 import org.eclipse.ui.wizards.datatransfer.ImportOperation;
 
@@ -365,6 +366,11 @@ public class WizardProjectsImportPage extends WizardDataTransferPage {
 	// The last selected path; to minimize searches
 	private String lastPath;
 
+	// The projects found so far by the running directory search
+	private volatile List<ProjectRecord> foundProjects;
+
+	private final AtomicBoolean foundProjectsShowPending = new AtomicBoolean();
+
 	// constant from WizardArchiveFileResourceImportPage1
 	private static final String[] FILE_IMPORT_MASK = {
 			"*.jar;*.zip;*.tar;*.tar.gz;*.tgz", "*.*" }; //$NON-NLS-1$ //$NON-NLS-2$
@@ -917,21 +923,35 @@ public class WizardProjectsImportPage extends WizardDataTransferPage {
 
 				else if (dirSelected && directory.isDirectory()) {
 
-					if (!collectProjectFilesFromDirectory(files, directory,
-							null, nestedProjects, monitor)) {
+					// Show the projects as they are found
+					final List<ProjectRecord> records = Collections.synchronizedList(new ArrayList<ProjectRecord>());
+					ProjectFilesCrawler crawler = new ProjectFilesCrawler(nestedProjects,
+							ProjectFilesCrawler.getIgnoredFolderNames(), file -> {
+								records.add(new ProjectRecord(file));
+								scheduleShowFoundProjects(records);
+							});
+					foundProjects = records;
+					if (!crawler.crawl(directory, null, monitor)) {
 						return;
 					}
-					Iterator filesIterator3 = files.iterator();
-					selectedProjects = new ProjectRecord[files.size()];
-					int index3 = 0;
 					monitor.worked(50);
 					monitor
 							.subTask(DataTransferMessages.WizardProjectsImportPage_ProcessingMessage);
-					while (filesIterator3.hasNext()) {
-						File file = (File) filesIterator3.next();
-						selectedProjects[index3] = new ProjectRecord(file);
-						index3++;
+					Map<File, ProjectRecord> recordsByFile = new HashMap<>();
+					synchronized (records) {
+						for (ProjectRecord record : records) {
+							recordsByFile.put(record.projectSystemFile, record);
+						}
+					}
+					List<File> projectFiles = crawler.getProjectFiles();
+					final ProjectRecord[] projects = new ProjectRecord[projectFiles.size()];
+					for (int index3 = 0; index3 < projects.length; index3++) {
+						projects[index3] = recordsByFile.get(projectFiles.get(index3));
 					}
+					// Stop showing the partial results, then publish the
+					// ordered ones on the UI thread which reads them
+					foundProjects = null;
+					getShell().getDisplay().syncExec(() -> selectedProjects = projects);
 				} else {
 					monitor.worked(60);
 				}
@@ -941,12 +961,38 @@ public class WizardProjectsImportPage extends WizardDataTransferPage {
 			IDEWorkbenchPlugin.log(e.getMessage(), e);
 		} catch (InterruptedException e) {
 			// Nothing to do if the user interrupts.
+		} finally {
+			foundProjects = null;
 		}
 
 		lastPath = path;
 		updateProjectsStatus();
 	}
 
+	/**
+	 * Shows the projects found so far while the search goes on, at most once
+	 * per pending UI update.
+	 *
+	 * @param records
+	 *            the projects found so far by the current search
+	 */
+	private void scheduleShowFoundProjects(final List<ProjectRecord> records) {
+		if (foundProjectsShowPending.getAndSet(true)) {
+			return;
+		}
+		getShell().getDisplay().asyncExec(() -> {
+			foundProjectsShowPending.set(false);
+			// ignore the updates of a search which has finished
+			if (records != foundProjects || projectsList.getControl().isDisposed()) {
+				return;
+			}
+			synchronized (records) {
+				selectedProjects = records.toArray(new ProjectRecord[records.size()]);
+			}
+			updateProjectsStatus();
+		});
+	}
+
 	private void updateProjectsStatus() {
 		projectsList.refresh(true);
 		ProjectRecord[] projects = getProjectRecords();
@@ -1025,6 +1071,8 @@ public class WizardProjectsImportPage extends WizardDataTransferPage {
 
 	/**
 	 * Collect the list of .project files that are under directory into files.
+	 * The directories are searched in parallel, skipping the folders ignored
+	 * in the preferences.
 	 *
 	 * @param files
 	 * @param directory
@@ -1038,66 +1086,11 @@ public class WizardProjectsImportPage extends WizardDataTransferPage {
 	 */
 	static boolean collectProjectFilesFromDirectory(Collection<File> files, File directory,
 			Set<String> directoriesVisited, boolean nestedProjects, IProgressMonitor monitor) {
-
-		if (monitor.isCanceled()) {
-			return false;
-		}
-		monitor.subTask(NLS.bind(
-				DataTransferMessages.WizardProjectsImportPage_CheckingMessage,
-				directory.getPath()));
-		File[] contents = directory.listFiles();
-		if (contents == null) {
-			return false;
-		}
-
-		// Initialize recursion guard for recursive symbolic links
-		if (directoriesVisited == null) {
-			directoriesVisited = new HashSet<>();
-			try {
-				directoriesVisited.add(directory.getCanonicalPath());
-			} catch (IOException exception) {
-				StatusManager.getManager().handle(
-						StatusUtil.newStatus(IStatus.ERROR, exception
-								.getLocalizedMessage(), exception));
-			}
-		}
-
-		// first look for project description files
-		final String dotProject = IProjectDescription.DESCRIPTION_FILE_NAME;
-		List<File> directories = new ArrayList<>();
-		for (File file : contents) {
-			if(file.isDirectory()){
-				directories.add(file);
-			} else if (file.getName().equals(dotProject) && file.isFile()) {
-				files.add(file);
-				if (!nestedProjects) {
-					// don't search sub-directories since we can't have nested
-					// projects
-					return true;
-				}
-			}
-		}
-		// no project description found or search for nested projects enabled,
-		// so recurse into sub-directories
-		for (File dir : directories) {
-			if (!dir.getName().equals(METADATA_FOLDER)) {
-				try {
-					String canonicalPath = dir.getCanonicalPath();
-					if (!directoriesVisited.add(canonicalPath)) {
-						// already been here --> do not recurse
-						continue;
-					}
-				} catch (IOException exception) {
-					StatusManager.getManager().handle(
-							StatusUtil.newStatus(IStatus.ERROR, exception
-									.getLocalizedMessage(), exception));
-
-				}
-				collectProjectFilesFromDirectory(files, dir,
-						directoriesVisited, nestedProjects, monitor);
-			}
-		}
-		return true;
+		ProjectFilesCrawler crawler = new ProjectFilesCrawler(nestedProjects,
+				ProjectFilesCrawler.getIgnoredFolderNames(), null);
+		boolean completed = crawler.crawl(directory, directoriesVisited, monitor);
+		files.addAll(crawler.getProjectFiles());
+		return completed;
 	}
 
 	/**
@@ -0,0 +1,261 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.wizards.datatransfer;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+
+/**
+ * Writes zip archives whose entries have already been compressed, so that the
+ * compression can happen elsewhere, for instance in parallel. Unlike
+ * {@link java.util.zip.ZipOutputStream}, the checksum and the sizes of each
+ * entry must be known before the entry is written.
+ * <p>
+ * The Zip64 extensions are used when the archive has too many entries, or an
+ * entry or the archive is too large, for the original format.
+ * </p>
+ *
+ * @since 3.14
+ */
+class ZipArchiveWriter {
+
+	private static final int LOCAL_HEADER = 0x04034b50;
+	private static final int CENTRAL_HEADER = 0x02014b50;
+	private static final int ZIP64_END = 0x06064b50;
+	private static final int ZIP64_LOCATOR = 0x07064b50;
+	private static final int END = 0x06054b50;
+
+	private static final int ZIP64_EXTRA = 0x0001;
+	private static final int UTF8_NAMES = 0x0800;
+	private static final long MAX_32 = 0xFFFFFFFFL;
+	private static final int MAX_16 = 0xFFFF;
+
+	private static final class CentralEntry {
+		byte[] name;
+		int method;
+		int dosTime;
+		long crc;
+		long size;
+		long compressedSize;
+		long offset;
+	}
+
+	private final OutputStream out;
+
+	private final List<CentralEntry> entries = new ArrayList<>();
+
+	private final byte[] buffer = new byte[8192];
+
+	private long written;
+
+	/**
+	 * @param out
+	 *            the stream to write the archive to
+	 */
+	ZipArchiveWriter(OutputStream out) {
+		this.out = new BufferedOutputStream(out, 65536);
+	}
+
+	/**
+	 * Writes an entry whose data has already been compressed.
+	 *
+	 * @param name
+	 *            the name of the entry
+	 * @param time
+	 *            the modification time of the entry
+	 * @param method
+	 *            {@link ZipEntry#DEFLATED} or {@link ZipEntry#STORED}
+	 * @param crc
+	 *            the CRC-32 of the uncompressed data
+	 * @param size
+	 *            the size of the uncompressed data
+	 * @param data
+	 *            the compressed data, or <code>null</code> for an empty entry
+	 * @param compressedSize
+	 *            the number of bytes to copy from <code>data</code>
+	 * @throws IOException
+	 */
+	void writeEntry(String name, long time, int method, long crc, long size, InputStream data, long compressedSize)
+			throws IOException {
+		CentralEntry entry = new CentralEntry();
+		entry.name = name.getBytes(StandardCharsets.UTF_8);
+		entry.method = method;
+		entry.dosTime = toDosTime(time);
+		entry.crc = crc;
+		entry.size = size;
+		entry.compressedSize = compressedSize;
+		entry.offset = written;
+
+		boolean zip64 = size >= MAX_32 || compressedSize >= MAX_32;
+		writeInt(LOCAL_HEADER);
+		writeShort(zip64 ? 45 : 20);
+		writeShort(UTF8_NAMES);
+		writeShort(method);
+		writeInt(entry.dosTime);
+		writeInt(crc);
+		writeInt(zip64 ? MAX_32 : compressedSize);
+		writeInt(zip64 ? MAX_32 : size);
+		writeShort(entry.name.length);
+		writeShort(zip64 ? 20 : 0);
+		writeBytes(entry.name, 0, entry.name.length);
+		if (zip64) {
+			writeShort(ZIP64_EXTRA);
+			writeShort(16);
+			writeLong(size);
+			writeLong(compressedSize);
+		}
+
+		long remaining = compressedSize;
+		while (remaining > 0) {
+			int n = data.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+			if (n < 0) {
+				throw new IOException("early end of stream"); //$NON-NLS-1$
+			}
+			writeBytes(buffer, 0, n);
+			remaining -= n;
+		}
+		entries.add(entry);
+	}
+
+	/**
+	 * Writes the central directory and closes the archive.
+	 *
+	 * @throws IOException
+	 */
+	void close() throws IOException {
+		try {
+			long centralOffset = written;
+			for (CentralEntry entry : entries) {
+				writeCentralEntry(entry);
+			}
+			long centralSize = written - centralOffset;
+
+			if (entries.size() >= MAX_16 || centralOffset >= MAX_32 || centralSize >= MAX_32) {
+				long zip64EndOffset = written;
+				writeInt(ZIP64_END);
+				writeLong(44);
+				writeShort(45);
+				writeShort(45);
+				writeInt(0);
+				writeInt(0);
+				writeLong(entries.size());
+				writeLong(entries.size());
+				writeLong(centralSize);
+				writeLong(centralOffset);
+
+				writeInt(ZIP64_LOCATOR);
+				writeInt(0);
+				writeLong(zip64EndOffset);
+				writeInt(1);
+
+				writeEnd(MAX_16, MAX_32, MAX_32);
+			} else {
+				writeEnd(entries.size(), centralSize, centralOffset);
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	private void writeCentralEntry(CentralEntry entry) throws IOException {
+		boolean largeSize = entry.size >= MAX_32;
+		boolean largeCompressedSize = entry.compressedSize >= MAX_32;
+		boolean largeOffset = entry.offset >= MAX_32;
+		int extraLength = (largeSize ? 8 : 0) + (largeCompressedSize ? 8 : 0) + (largeOffset ? 8 : 0);
+		boolean zip64 = extraLength > 0;
+
+		writeInt(CENTRAL_HEADER);
+		writeShort(zip64 ? 45 : 20);
+		writeShort(zip64 ? 45 : 20);
+		writeShort(UTF8_NAMES);
+		writeShort(entry.method);
+		writeInt(entry.dosTime);
+		writeInt(entry.crc);
+		writeInt(largeCompressedSize ? MAX_32 : entry.compressedSize);
+		writeInt(largeSize ? MAX_32 : entry.size);
+		writeShort(entry.name.length);
+		writeShort(zip64 ? extraLength + 4 : 0);
+		writeShort(0);
+		writeShort(0);
+		writeShort(0);
+		writeInt(0);
+		writeInt(largeOffset ? MAX_32 : entry.offset);
+		writeBytes(entry.name, 0, entry.name.length);
+		if (zip64) {
+			writeShort(ZIP64_EXTRA);
+			writeShort(extraLength);
+			if (largeSize) {
+				writeLong(entry.size);
+			}
+			if (largeCompressedSize) {
+				writeLong(entry.compressedSize);
+			}
+			if (largeOffset) {
+				writeLong(entry.offset);
+			}
+		}
+	}
+
+	private void writeEnd(int entryCount, long centralSize, long centralOffset) throws IOException {
+		writeInt(END);
+		writeShort(0);
+		writeShort(0);
+		writeShort(entryCount);
+		writeShort(entryCount);
+		writeInt(centralSize);
+		writeInt(centralOffset);
+		writeShort(0);
+	}
+
+	/*
+	 * Converts a Java time to the MS-DOS date and time format used by zip,
+	 * which counts years from 1980 and seconds in units of two.
+	 */
+	private static int toDosTime(long time) {
+		LocalDateTime date = LocalDateTime.ofInstant(Instant.ofEpochMilli(time), ZoneId.systemDefault());
+		int year = date.getYear();
+		if (year < 1980) {
+			return (1 << 21) | (1 << 16);
+		}
+		return (year - 1980) << 25 | date.getMonthValue() << 21 | date.getDayOfMonth() << 16
+				| date.getHour() << 11 | date.getMinute() << 5 | date.getSecond() >> 1;
+	}
+
+	private void writeShort(int value) throws IOException {
+		out.write(value & 0xff);
+		out.write((value >>> 8) & 0xff);
+		written += 2;
+	}
+
+	private void writeInt(long value) throws IOException {
+		writeShort((int) (value & 0xffff));
+		writeShort((int) ((value >>> 16) & 0xffff));
+	}
+
+	private void writeLong(long value) throws IOException {
+		writeInt(value & MAX_32);
+		writeInt(value >>> 32);
+	}
+
+	private void writeBytes(byte[] bytes, int offset, int length) throws IOException {
+		out.write(bytes, offset, length);
+		written += length;
+	}
+}
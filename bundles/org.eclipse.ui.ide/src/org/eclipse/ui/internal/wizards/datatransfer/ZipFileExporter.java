@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,135 +10,326 @@
  *******************************************************************************/
 package org.eclipse.ui.internal.wizards.datatransfer;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
+import java.util.zip.ZipException;
 
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobGroup;
 
 
 /**
  *	Exports resources to a .zip file
+ *	<p>
+ *	The contents of each file are read once by the caller, and checksummed
+ *	and compressed by jobs running in parallel. The compressed entries are
+ *	appended to the archive in the order in which they were written, so the
+ *	archive does not depend on the number of processors. Small files are
+ *	buffered in memory, a bounded number at a time; large files are
+ *	compressed by the caller into a temporary file.
+ *	</p>
  */
 public class ZipFileExporter implements IFileExporter {
-    private ZipOutputStream outputStream;
-
-    private boolean useCompression = true;
-
-    private boolean resolveLinks;
-
-    /**
-     * Create an instance of this class.
-     *
-     * @param filename
-     *            java.lang.String
-     * @param compress
-     *            boolean
-     * @param resolveLinks
-     *            boolean
-     * @exception java.io.IOException
-     */
-    public ZipFileExporter(String filename, boolean compress, boolean resolveLinks) throws IOException {
-        this.resolveLinks = resolveLinks;
-        outputStream = new ZipOutputStream(new FileOutputStream(filename));
-        useCompression = compress;
-    }
-
-    /**
-     *	Do all required cleanup now that we're finished with the
-     *	currently-open .zip
-     *
-     *	@exception java.io.IOException
-     */
-    @Override
+	/**
+	 * Files up to this size are compressed in memory by the jobs.
+	 */
+	private static final int MAX_BUFFERED_SIZE = 1024 * 1024;
+
+	private static final int PARALLELISM = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+	/**
+	 * How many entries may be waiting to be appended to the archive.
+	 */
+	private static final int MAX_PENDING_ENTRIES = PARALLELISM * 2;
+
+	private ZipArchiveWriter outputStream;
+
+	private boolean useCompression = true;
+
+	private boolean resolveLinks;
+
+	private final JobGroup compressionGroup = new JobGroup(DataTransferMessages.ZipExport_compressing, PARALLELISM, 0);
+
+	private final Deque<PendingEntry> pendingEntries = new ArrayDeque<>();
+
+	private final Set<String> entryNames = new HashSet<>();
+
+	/**
+	 * An entry waiting to be appended to the archive, whose data is either
+	 * compressed in memory or spilled to a temporary file.
+	 */
+	private static final class PendingEntry {
+		final String name;
+		final long time;
+		final int method;
+		final CountDownLatch compressed = new CountDownLatch(1);
+		long crc;
+		long size;
+		ByteArrayOutputStream buffer;
+		File spillFile;
+		Throwable failure;
+
+		PendingEntry(String name, long time, int method) {
+			this.name = name;
+			this.time = time;
+			this.method = method;
+		}
+
+		/**
+		 * Checksums and compresses the given data into the given stream.
+		 */
+		void compress(InputStream in, OutputStream sink) throws IOException {
+			CRC32 checksumCalculator = new CRC32();
+			Deflater deflater = null;
+			OutputStream out = sink;
+			if (method == ZipEntry.DEFLATED) {
+				deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+				out = new DeflaterOutputStream(sink, deflater, 8192);
+			}
+			try {
+				byte[] readBuffer = new byte[8192];
+				long length = 0;
+				int n;
+				while ((n = in.read(readBuffer)) > 0) {
+					checksumCalculator.update(readBuffer, 0, n);
+					out.write(readBuffer, 0, n);
+					length += n;
+				}
+				if (deflater != null) {
+					((DeflaterOutputStream) out).finish();
+				}
+				crc = checksumCalculator.getValue();
+				size = length;
+			} finally {
+				if (deflater != null) {
+					deflater.end();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Create an instance of this class.
+	 *
+	 * @param filename
+	 *            java.lang.String
+	 * @param compress
+	 *            boolean
+	 * @param resolveLinks
+	 *            boolean
+	 * @exception java.io.IOException
+	 */
+	public ZipFileExporter(String filename, boolean compress, boolean resolveLinks) throws IOException {
+		this.resolveLinks = resolveLinks;
+		outputStream = new ZipArchiveWriter(new FileOutputStream(filename));
+		useCompression = compress;
+	}
+
+	/**
+	 *	Do all required cleanup now that we're finished with the
+	 *	currently-open .zip
+	 *
+	 *	@exception java.io.IOException
+	 */
+	@Override
 	public void finished() throws IOException {
-        outputStream.close();
-    }
-
-    /**
-     *	Write the contents of the file to the tar archive.
-     *
-     *	@param entry
-     *	@param contents
-     *  @exception java.io.IOException
-     *  @exception org.eclipse.core.runtime.CoreException
-     */
-    private void write(ZipEntry entry, IFile contents) throws IOException, CoreException {
-        byte[] readBuffer = new byte[4096];
-
-        // If the contents are being compressed then we get the below for free.
-        if (!useCompression) {
-            entry.setMethod(ZipEntry.STORED);
-        	InputStream contentStream = contents.getContents(false);
-        	int length = 0;
-            CRC32 checksumCalculator = new CRC32();
-            try {
-                int n;
-                while ((n = contentStream.read(readBuffer)) > 0) {
-                    checksumCalculator.update(readBuffer, 0, n);
-                    length += n;
-                }
-            } finally {
-                if (contentStream != null) {
-					contentStream.close();
+		try {
+			appendPendingEntries(0);
+		} finally {
+			for (PendingEntry entry : pendingEntries) {
+				discard(entry);
+			}
+			pendingEntries.clear();
+			outputStream.close();
+		}
+	}
+
+	/**
+	 *	Write the contents of the file to the zip archive.
+	 *
+	 *	@param name
+	 *	@param contents
+	 *  @exception java.io.IOException
+	 *  @exception org.eclipse.core.runtime.CoreException
+	 */
+	private void write(String name, IFile contents) throws IOException, CoreException {
+		// set the timestamp
+		long localTimeStamp = contents.getLocalTimeStamp();
+		final PendingEntry entry = new PendingEntry(name,
+				localTimeStamp != IResource.NULL_STAMP ? localTimeStamp : System.currentTimeMillis(),
+				useCompression ? ZipEntry.DEFLATED : ZipEntry.STORED);
+
+		// Read the file here, so that failures are reported for this file.
+		InputStream contentStream = contents.getContents(false);
+		try {
+			byte[] readBuffer = new byte[8192];
+			ByteArrayOutputStream data = new ByteArrayOutputStream();
+			int n;
+			while (data.size() <= MAX_BUFFERED_SIZE && (n = contentStream.read(readBuffer)) > 0) {
+				data.write(readBuffer, 0, n);
+			}
+			if (data.size() > MAX_BUFFERED_SIZE) {
+				// Too large to be held in memory, compress it right away.
+				appendPendingEntries(0);
+				entry.spillFile = File.createTempFile("export", ".zip"); //$NON-NLS-1$ //$NON-NLS-2$
+				try (OutputStream spill = Files.newOutputStream(entry.spillFile.toPath())) {
+					entry.compress(new SequenceInputStream(new ByteArrayInputStream(data.toByteArray()), contentStream),
+							spill);
+				} catch (IOException e) {
+					discard(entry);
+					throw e;
 				}
-            }
-
-            entry.setSize(length);
-            entry.setCrc(checksumCalculator.getValue());
-        }
-
-        // set the timestamp
-        long localTimeStamp = contents.getLocalTimeStamp();
-        if(localTimeStamp != IResource.NULL_STAMP)
-        	entry.setTime(localTimeStamp);
-
-        outputStream.putNextEntry(entry);
-    	InputStream contentStream = contents.getContents(false);
-        try {
-            int n;
-            while ((n = contentStream.read(readBuffer)) > 0) {
-                outputStream.write(readBuffer, 0, n);
-            }
-        } finally {
-            if (contentStream != null) {
+				entry.compressed.countDown();
+				pendingEntries.add(entry);
+				appendPendingEntries(0);
+				return;
+			}
+			scheduleCompression(entry, data);
+		} finally {
+			if (contentStream != null) {
 				contentStream.close();
 			}
-        }
-        outputStream.closeEntry();
-    }
+		}
+		pendingEntries.add(entry);
+		appendPendingEntries(MAX_PENDING_ENTRIES);
+	}
 
-    @Override
+	private void scheduleCompression(final PendingEntry entry, final ByteArrayOutputStream data) {
+		if (PARALLELISM == 1) {
+			// Nothing to gain from a job on a single processor.
+			compressInMemory(entry, data);
+			return;
+		}
+		Job job = new Job(DataTransferMessages.ZipExport_compressing) {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				compressInMemory(entry, data);
+				return Status.OK_STATUS;
+			}
+		};
+		job.setSystem(true);
+		job.setJobGroup(compressionGroup);
+		job.schedule();
+	}
+
+	private static void compressInMemory(PendingEntry entry, ByteArrayOutputStream data) {
+		try {
+			entry.buffer = new ByteArrayOutputStream(data.size() / 2 + 64);
+			entry.compress(new ByteArrayInputStream(data.toByteArray()), entry.buffer);
+		} catch (Throwable t) {
+			entry.failure = t;
+		} finally {
+			entry.compressed.countDown();
+		}
+	}
+
+	/**
+	 * Appends the pending entries to the archive, in order, until no more than
+	 * the given number of entries remain pending. Entries which are already
+	 * compressed are appended in any case.
+	 */
+	private void appendPendingEntries(int maxPending) throws IOException {
+		while (!pendingEntries.isEmpty()) {
+			PendingEntry entry = pendingEntries.peek();
+			if (pendingEntries.size() <= maxPending && entry.compressed.getCount() > 0) {
+				return;
+			}
+			try {
+				entry.compressed.await();
+			} catch (InterruptedException e) {
+				throw new InterruptedIOException();
+			}
+			pendingEntries.remove();
+			try {
+				append(entry);
+			} finally {
+				discard(entry);
+			}
+		}
+	}
+
+	private void append(PendingEntry entry) throws IOException {
+		if (entry.failure != null) {
+			throw new IOException(entry.name, entry.failure);
+		}
+		if (entry.spillFile != null) {
+			try (InputStream in = Files.newInputStream(entry.spillFile.toPath())) {
+				outputStream.writeEntry(entry.name, entry.time, entry.method, entry.crc, entry.size, in,
+						entry.spillFile.length());
+			}
+		} else {
+			outputStream.writeEntry(entry.name, entry.time, entry.method, entry.crc, entry.size,
+					new ByteArrayInputStream(entry.buffer.toByteArray()), entry.buffer.size());
+		}
+	}
+
+	private void discard(PendingEntry entry) throws IOException {
+		entry.buffer = null;
+		if (entry.spillFile != null) {
+			Files.deleteIfExists(entry.spillFile.toPath());
+			entry.spillFile = null;
+		}
+	}
+
+	private void checkUnique(String name) throws ZipException {
+		if (!entryNames.add(name)) {
+			throw new ZipException("duplicate entry: " + name); //$NON-NLS-1$
+		}
+	}
+
+	@Override
 	public void write(IContainer container, String destinationPath)
-            throws IOException {
-        if (!resolveLinks && container.isLinked(IResource.DEPTH_INFINITE)) {
-            return;
-        }
-        ZipEntry newEntry = new ZipEntry(destinationPath);
-        outputStream.putNextEntry(newEntry);
-    }
-
-    /**
-     *  Write the passed resource to the current archive.
-     *
-     *  @param resource org.eclipse.core.resources.IFile
-     *  @param destinationPath java.lang.String
-     *  @exception java.io.IOException
-     *  @exception org.eclipse.core.runtime.CoreException
-     */
-    @Override
+			throws IOException {
+		if (!resolveLinks && container.isLinked(IResource.DEPTH_INFINITE)) {
+			return;
+		}
+		checkUnique(destinationPath);
+		PendingEntry entry = new PendingEntry(destinationPath, System.currentTimeMillis(), ZipEntry.STORED);
+		entry.buffer = new ByteArrayOutputStream(0);
+		entry.compressed.countDown();
+		pendingEntries.add(entry);
+		appendPendingEntries(MAX_PENDING_ENTRIES);
+	}
+
+	/**
+	 *  Write the passed resource to the current archive.
+	 *
+	 *  @param resource org.eclipse.core.resources.IFile
+	 *  @param destinationPath java.lang.String
+	 *  @exception java.io.IOException
+	 *  @exception org.eclipse.core.runtime.CoreException
+	 */
+	@Override
 	public void write(IFile resource, String destinationPath)
-            throws IOException, CoreException {
-        if (!resolveLinks && resource.isLinked(IResource.DEPTH_INFINITE)) {
-            return;
-        }
-        ZipEntry newEntry = new ZipEntry(destinationPath);
-        write(newEntry, resource);
-    }
+			throws IOException, CoreException {
+		if (!resolveLinks && resource.isLinked(IResource.DEPTH_INFINITE)) {
+			return;
+		}
+		checkUnique(destinationPath);
+		write(destinationPath, resource);
+	}
 }
@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.eclipse.ui.monitoring.EventLatencyMetrics;
+
+/**
+ * Histogram of event durations with log-linear buckets: each power of two is split into
+ * {@link #SUB_BUCKET_COUNT} buckets of equal width, so that the value reported for a bucket is
+ * within about 3% of the recorded values. Values are recorded by the UI thread without allocating
+ * or locking, and are read and reset by the monitoring thread.
+ */
+public class EventLatencyHistogram {
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	/** Longer durations are recorded as this one, in microseconds. */
+	static final long MAX_VALUE = 3600L * 1000 * 1000; // 1 hour
+
+	private final AtomicLongArray counts = new AtomicLongArray(getBucketIndex(MAX_VALUE) + 1);
+	private final AtomicLong maxValue = new AtomicLong();
+
+	/**
+	 * Records an event duration. Called on the UI thread.
+	 *
+	 * @param value the duration in microseconds
+	 */
+	public void recordValue(long value) {
+		if (value < 0) {
+			value = 0;
+		} else if (value > MAX_VALUE) {
+			value = MAX_VALUE;
+		}
+		counts.incrementAndGet(getBucketIndex(value));
+		long max;
+		while (value > (max = maxValue.get()) && !maxValue.compareAndSet(max, value)) {
+			// Retry.
+		}
+	}
+
+	/**
+	 * Returns the metrics of the values recorded since the previous call and resets the histogram.
+	 *
+	 * @param startTime start of the interval in milliseconds since January 1, 1970 UTC
+	 * @param endTime end of the interval in milliseconds since January 1, 1970 UTC
+	 */
+	public EventLatencyMetrics takeMetrics(long startTime, long endTime) {
+		long[] snapshot = new long[counts.length()];
+		long total = 0;
+		for (int i = 0; i < snapshot.length; i++) {
+			snapshot[i] = counts.getAndSet(i, 0);
+			total += snapshot[i];
+		}
+		long max = maxValue.getAndSet(0);
+		return new EventLatencyMetrics(startTime, endTime, total,
+				getPercentile(snapshot, total, max, 50), getPercentile(snapshot, total, max, 90),
+				getPercentile(snapshot, total, max, 99), max);
+	}
+
+	private static long getPercentile(long[] snapshot, long total, long max, int percentile) {
+		long rank = (total * percentile + 99) / 100;
+		long count = 0;
+		for (int i = 0; i < snapshot.length; i++) {
+			count += snapshot[i];
+			if (count >= rank && count > 0) {
+				return Math.min(getHighestEquivalentValue(i), max);
+			}
+		}
+		return 0;
+	}
+
+	private static int getBucketIndex(long value) {
+		int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+		return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+	}
+
+	private static long getHighestEquivalentValue(int index) {
+		if (index < 2 * SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int shift = (index >> SUB_BUCKET_BITS) - 1;
+		long subBucket = index - (shift << SUB_BUCKET_BITS);
+		return ((subBucket + 1) << shift) - 1;
+	}
+}
@@ -0,0 +1,31 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+/**
+ * Management interface exposing the event latency metrics of the last complete interval.
+ * All durations are in microseconds.
+ */
+public interface EventLatencyMXBean {
+	long getStartTimestamp();
+
+	long getEndTimestamp();
+
+	long getEventCount();
+
+	long getPercentile50();
+
+	long getPercentile90();
+
+	long getPercentile99();
+
+	long getMaxDuration();
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (C) 2014, 2015 Google Inc and others.
+ * Copyright (C) 2014, 2018 Google Inc and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -23,6 +23,8 @@ import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
+import javax.management.JMException;
+
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IConfigurationElement;
@@ -34,6 +36,8 @@ import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Listener;
 import org.eclipse.ui.IWorkbench;
+import org.eclipse.ui.monitoring.EventLatencyMetrics;
+import org.eclipse.ui.monitoring.IEventLatencyExporter;
 import org.eclipse.ui.monitoring.IUiFreezeEventLogger;
 import org.eclipse.ui.monitoring.PreferenceConstants;
 import org.eclipse.ui.monitoring.StackSample;
@@ -42,11 +46,14 @@ import org.eclipse.ui.monitoring.UiFreezeEvent;
 /**
  * Event loop monitoring thread. Detects events that take long time to process, collects stack
  * traces of the UI thread during processing of those events, and logs the long events to the error
- * log.
+ * log. Optionally records the duration of all events and exports the per-minute latency metrics.
  */
 public class EventLoopMonitorThread extends Thread {
 	private static final int EVENT_HISTORY_SIZE = 100;
 	private static final String EXTENSION_ID = "org.eclipse.ui.monitoring.logger"; //$NON-NLS-1$
+	private static final String EXPORTER_EXTENSION_ID = "org.eclipse.ui.monitoring.exporter"; //$NON-NLS-1$
+	private static final String LATENCY_FILE_NAME = "event_latency.csv"; //$NON-NLS-1$
+	private static final long LATENCY_EXPORT_INTERVAL = 60 * 1000; // 1 minute
 	private static final String NEW_LINE_AND_BULLET = "\n* "; //$NON-NLS-1$
 	private static final String TRACE_EVENT_MONITOR = "/debug/event_monitor"; //$NON-NLS-1$
 	private static final String TRACE_PREFIX = "Event Loop Monitor"; //$NON-NLS-1$
@@ -77,6 +84,10 @@ public class EventLoopMonitorThread extends Thread {
 		public String uiThreadFilter;
 		/** @see org.eclipse.ui.monitoring.PreferenceConstants#NONINTERESTING_THREAD_FILTER */
 		public String noninterestingThreadFilter;
+		/** @see org.eclipse.ui.monitoring.PreferenceConstants#EXPORT_LATENCY_TO_FILE */
+		public boolean exportLatencyToFile;
+		/** @see org.eclipse.ui.monitoring.PreferenceConstants#EXPORT_LATENCY_TO_JMX */
+		public boolean exportLatencyToJmx;
 
 		/**
 		 * Checks if the values of parameters for UI responsiveness monitoring are valid.
@@ -320,6 +331,11 @@ public class EventLoopMonitorThread extends Thread {
 
 	// Accessed only by the UI thread. */
 	private final EventLoopState eventLoopState = new EventLoopState();
+	/*
+	 * Same as eventStartOrResumeTime, but with the precision of System.nanoTime(). Only maintained
+	 * while the latency of events is recorded.
+	 */
+	private long eventStartOrResumeNanos;
 
 	/*
 	 * Tracks when the current event was started, or if the event has nested {@link Event#sendEvent}
@@ -338,11 +354,19 @@ public class EventLoopMonitorThread extends Thread {
 	private final AtomicBoolean cancelled = new AtomicBoolean(false);
 	private final AtomicReference<LongEventInfo> eventToPublish =
 			new AtomicReference<LongEventInfo>(null);
+	/*
+	 * Durations of the events, or null if no exporter is configured. Updated by the UI thread and
+	 * read by the monitoring thread once per LATENCY_EXPORT_INTERVAL.
+	 */
+	private volatile EventLatencyHistogram latencyHistogram;
 
 	// Accessed only by the monitoring thread.
 	private final List<IUiFreezeEventLogger> externalLoggers =
 			new ArrayList<IUiFreezeEventLogger>();
 	private DefaultUiFreezeEventLogger defaultLogger;
+	private final List<IEventLatencyExporter> latencyExporters =
+			new ArrayList<IEventLatencyExporter>();
+	private long latencyIntervalStart;
 	private final Display display;
 	private final FilterHandler uiThreadFilter;
 	private final FilterHandler noninterestingThreadFilter;
@@ -355,6 +379,8 @@ public class EventLoopMonitorThread extends Thread {
 	private final long uiThreadId;
 	private final Object sleepMonitor;
 	private final boolean logToErrorLog;
+	private final boolean exportLatencyToFile;
+	private final boolean exportLatencyToJmx;
 	private EventHistory eventHistory;
 	private ThreadMXBean threadMXBean;
 	private boolean dumpLockedMonitors;
@@ -390,6 +416,8 @@ public class EventLoopMonitorThread extends Thread {
 		allThreadsSampleInterval = longEventErrorThreshold * 2 / 3;
 		deadlockThreshold = args.deadlockThreshold;
 		logToErrorLog = args.logToErrorLog;
+		exportLatencyToFile = args.exportLatencyToFile;
+		exportLatencyToJmx = args.exportLatencyToJmx;
 		uiThreadFilter = new FilterHandler(args.uiThreadFilter);
 		noninterestingThreadFilter = new FilterHandler(args.noninterestingThreadFilter);
 		sleepMonitor = new Object();
@@ -429,9 +457,14 @@ public class EventLoopMonitorThread extends Thread {
 		 * removed before logging.
 		 */
 		long currTime = getTimestamp();
+		EventLatencyHistogram histogram = latencyHistogram;
+		long currNanos = histogram != null ? System.nanoTime() : 0;
 		if (attemptToLogLongDelay) {
 			long startTime = eventStartOrResumeTime;
 			if (startTime != 0) {
+				if (histogram != null && eventStartOrResumeNanos != 0) {
+					histogram.recordValue((currNanos - eventStartOrResumeNanos) / 1000);
+				}
 				int duration = (int) (currTime - startTime);
 				if (duration >= longEventWarningThreshold) {
 					LongEventInfo info = new LongEventInfo(startTime, duration);
@@ -440,6 +473,7 @@ public class EventLoopMonitorThread extends Thread {
 				}
 			}
 		}
+		eventStartOrResumeNanos = startEventTimer ? currNanos : 0;
 		eventStartOrResumeTime = startEventTimer ? currTime : 0;
 	}
 
@@ -449,9 +483,10 @@ public class EventLoopMonitorThread extends Thread {
 			defaultLogger = new DefaultUiFreezeEventLogger(longEventErrorThreshold);
 		}
 
-		loadLoggerExtensions();
+		loadExtensions(EXTENSION_ID, IUiFreezeEventLogger.class, externalLoggers);
+		loadLatencyExporters();
 
-		if (!logToErrorLog && externalLoggers.isEmpty()) {
+		if (!logToErrorLog && externalLoggers.isEmpty() && latencyExporters.isEmpty()) {
 			MonitoringPlugin.logWarning(Messages.EventLoopMonitorThread_logging_disabled_error);
 		}
 
@@ -489,6 +524,7 @@ public class EventLoopMonitorThread extends Thread {
 		display.asyncExec(() -> registerDisplayListeners());
 
 		long currTime = getTimestamp();
+		latencyIntervalStart = currTime;
 
 		while (!cancelled.get()) {
 			long sleepFor;
@@ -639,6 +675,17 @@ public class EventLoopMonitorThread extends Thread {
 			}
 
 			lastEventStartOrResumeTime = currEventStartOrResumeTime;
+
+			if (latencyHistogram != null && currTime >= latencyIntervalStart + LATENCY_EXPORT_INTERVAL) {
+				exportLatencyMetrics(currTime);
+			}
+		}
+
+		if (latencyHistogram != null) {
+			exportLatencyMetrics(getTimestamp());
+		}
+		for (IEventLatencyExporter exporter : latencyExporters) {
+			exporter.dispose();
 		}
 	}
 
@@ -717,21 +764,20 @@ public class EventLoopMonitorThread extends Thread {
 		}
 	}
 
-	private void loadLoggerExtensions() {
+	private static <T> void loadExtensions(String extensionId, Class<T> type, List<T> result) {
 		IConfigurationElement[] configElements =
-				Platform.getExtensionRegistry().getConfigurationElementsFor(EXTENSION_ID);
+				Platform.getExtensionRegistry().getConfigurationElementsFor(extensionId);
 
 		for (IConfigurationElement element : configElements) {
 			try {
 				Object object = element.createExecutableExtension("class"); //$NON-NLS-1$
-				if (object instanceof IUiFreezeEventLogger) {
-					externalLoggers.add((IUiFreezeEventLogger) object);
+				if (type.isInstance(object)) {
+					result.add(type.cast(object));
 				} else {
 					MonitoringPlugin.logWarning(NLS.bind(
 							Messages.EventLoopMonitorThread_invalid_logger_type_error_4,
-							new Object[] { object.getClass().getName(),
-									IUiFreezeEventLogger.class.getClass().getSimpleName(),
-									EXTENSION_ID, element.getContributor().getName() }));
+							new Object[] { object.getClass().getName(), type.getSimpleName(),
+									extensionId, element.getContributor().getName() }));
 				}
 			} catch (CoreException e) {
 				MonitoringPlugin.logError(e.getMessage(), e);
@@ -739,6 +785,29 @@ public class EventLoopMonitorThread extends Thread {
 		}
 	}
 
+	/**
+	 * Creates the latency exporters enabled by the preferences and contributed by extensions,
+	 * and starts recording the latency of events if there is at least one.
+	 */
+	private void loadLatencyExporters() {
+		if (exportLatencyToFile) {
+			latencyExporters.add(new FileEventLatencyExporter(MonitoringPlugin.getDefault()
+					.getStateLocation().append(LATENCY_FILE_NAME).toFile()));
+		}
+		if (exportLatencyToJmx) {
+			try {
+				latencyExporters.add(new JmxEventLatencyExporter());
+			} catch (JMException e) {
+				MonitoringPlugin.logError(Messages.EventLoopMonitorThread_jmx_registration_error, e);
+			}
+		}
+		loadExtensions(EXPORTER_EXTENSION_ID, IEventLatencyExporter.class, latencyExporters);
+
+		if (!latencyExporters.isEmpty()) {
+			latencyHistogram = new EventLatencyHistogram();
+		}
+	}
+
 	private void registerDisplayListeners() {
 		display.addListener(SWT.PreEvent, eventLoopState);
 		display.addListener(SWT.PostEvent, eventLoopState);
@@ -768,6 +837,34 @@ public class EventLoopMonitorThread extends Thread {
 		}
 	}
 
+	/**
+	 * Passes the latency metrics of the elapsed interval to the exporters.
+	 */
+	private void exportLatencyMetrics(long currTime) {
+		EventLatencyMetrics metrics = latencyHistogram.takeMetrics(latencyIntervalStart, currTime);
+		latencyIntervalStart = currTime;
+		if (tracer != null) {
+			tracer.trace("Exporting " + metrics); //$NON-NLS-1$
+		}
+
+		for (int i = 0; i < latencyExporters.size(); i++) {
+			IEventLatencyExporter exporter = latencyExporters.get(i);
+			try {
+				exporter.export(metrics);
+			} catch (Throwable t) {
+				latencyExporters.remove(i);
+				i--;
+				MonitoringPlugin.logError(NLS.bind(
+						Messages.EventLoopMonitorThread_exporter_exception_error_1,
+						exporter.getClass().getName()), t);
+				exporter.dispose();
+			}
+		}
+		if (latencyExporters.isEmpty()) {
+			latencyHistogram = null; // Stop recording.
+		}
+	}
+
 	/**
 	 * Writes a UI freeze event to the log.
 	 */
@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.ui.monitoring.EventLatencyMetrics;
+import org.eclipse.ui.monitoring.IEventLatencyExporter;
+
+/**
+ * Appends the event latency metrics to a CSV file, one line per interval.
+ */
+public class FileEventLatencyExporter implements IEventLatencyExporter {
+	private static final String HEADER =
+			"start,end,events,p50_us,p90_us,p99_us,max_us\n"; //$NON-NLS-1$
+	private final File file;
+
+	public FileEventLatencyExporter(File file) {
+		this.file = file;
+	}
+
+	@Override
+	public void export(EventLatencyMetrics metrics) {
+		boolean writeHeader = !file.exists();
+		try (Writer writer = new OutputStreamWriter(new FileOutputStream(file, true),
+				StandardCharsets.UTF_8)) {
+			if (writeHeader) {
+				writer.write(HEADER);
+			}
+			writer.write(String.format("%d,%d,%d,%d,%d,%d,%d\n", //$NON-NLS-1$
+					metrics.getStartTimestamp(), metrics.getEndTimestamp(),
+					metrics.getEventCount(), metrics.getPercentile50(),
+					metrics.getPercentile90(), metrics.getPercentile99(),
+					metrics.getMaxDuration()));
+		} catch (IOException e) {
+			throw new IllegalStateException(
+					NLS.bind(Messages.FileEventLatencyExporter_write_error_1, file), e);
+		}
+	}
+}
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.eclipse.ui.monitoring.EventLatencyMetrics;
+import org.eclipse.ui.monitoring.IEventLatencyExporter;
+
+/**
+ * Publishes the event latency metrics of the last complete interval as a platform MBean.
+ */
+public class JmxEventLatencyExporter implements IEventLatencyExporter, EventLatencyMXBean {
+	private static final String OBJECT_NAME =
+			"org.eclipse.ui.monitoring:type=EventLatency"; //$NON-NLS-1$
+	/** The exporter whose MBean is registered. */
+	private static JmxEventLatencyExporter registeredExporter;
+	private final ObjectName objectName;
+	private volatile EventLatencyMetrics metrics = new EventLatencyMetrics(0, 0, 0, 0, 0, 0, 0);
+
+	/**
+	 * Registers the MBean, replacing the one of a previous monitoring thread if it is still
+	 * registered.
+	 *
+	 * @throws JMException if the MBean cannot be registered
+	 */
+	public JmxEventLatencyExporter() throws JMException {
+		objectName = new ObjectName(OBJECT_NAME);
+		synchronized (JmxEventLatencyExporter.class) {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			if (server.isRegistered(objectName)) {
+				server.unregisterMBean(objectName);
+			}
+			server.registerMBean(this, objectName);
+			registeredExporter = this;
+		}
+	}
+
+	@Override
+	public void export(EventLatencyMetrics newMetrics) {
+		metrics = newMetrics;
+	}
+
+	@Override
+	public void dispose() {
+		synchronized (JmxEventLatencyExporter.class) {
+			// The MBean may have been replaced by the one of a newer monitoring thread.
+			if (registeredExporter != this) {
+				return;
+			}
+			registeredExporter = null;
+			try {
+				ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+			} catch (JMException e) {
+				// Already unregistered.
+			}
+		}
+	}
+
+	@Override
+	public long getStartTimestamp() {
+		return metrics.getStartTimestamp();
+	}
+
+	@Override
+	public long getEndTimestamp() {
+		return metrics.getEndTimestamp();
+	}
+
+	@Override
+	public long getEventCount() {
+		return metrics.getEventCount();
+	}
+
+	@Override
+	public long getPercentile50() {
+		return metrics.getPercentile50();
+	}
+
+	@Override
+	public long getPercentile90() {
+		return metrics.getPercentile90();
+	}
+
+	@Override
+	public long getPercentile99() {
+		return metrics.getPercentile99();
+	}
+
+	@Override
+	public long getMaxDuration() {
+		return metrics.getMaxDuration();
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2015 Google, Inc and others.
+ * Copyright (c) 2014, 2018 Google, Inc and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -30,13 +30,16 @@ final class Messages extends NLS {
 	public static String EventLoopMonitorThread_deadlock_threshold_too_low_error_2;
 	public static String EventLoopMonitorThread_display_was_null;
 	public static String EventLoopMonitorThread_error_threshold_too_low_error_2;
+	public static String EventLoopMonitorThread_exporter_exception_error_1;
 	public static String EventLoopMonitorThread_external_exception_error_1;
 	public static String EventLoopMonitorThread_invalid_argument_error_1;
 	public static String EventLoopMonitorThread_invalid_logger_type_error_4;
+	public static String EventLoopMonitorThread_jmx_registration_error;
 	public static String EventLoopMonitorThread_logging_disabled_error;
 	public static String EventLoopMonitorThread_warning_threshold_error_1;
 	public static String EventLoopMonitorThread_max_event_loop_depth_exceeded_1;
 	public static String EventLoopMonitorThread_workbench_was_null;
+	public static String FileEventLatencyExporter_write_error_1;
 	public static String FilterHandler_missing_thread_error;
 	public static String MonitoringStartup_initialization_error;
 
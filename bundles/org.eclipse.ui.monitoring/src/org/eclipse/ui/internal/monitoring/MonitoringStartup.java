@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (C) 2014, 2015 Google Inc and others.
+ * Copyright (C) 2014, 2018 Google Inc and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -79,6 +79,10 @@ public class MonitoringStartup implements IStartup {
 		args.noninterestingThreadFilter =
 				preferences.getString(PreferenceConstants.NONINTERESTING_THREAD_FILTER);
 		args.logToErrorLog = preferences.getBoolean(PreferenceConstants.LOG_TO_ERROR_LOG);
+		args.exportLatencyToFile =
+				preferences.getBoolean(PreferenceConstants.EXPORT_LATENCY_TO_FILE);
+		args.exportLatencyToJmx =
+				preferences.getBoolean(PreferenceConstants.EXPORT_LATENCY_TO_JMX);
 
 		return args;
 	}
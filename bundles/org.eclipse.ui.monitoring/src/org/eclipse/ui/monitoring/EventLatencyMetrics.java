@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.monitoring;
+
+/**
+ * Distribution of the time the UI thread spent dispatching events during an interval of time.
+ * The percentiles are approximate: they are accurate to about 3% of the reported value.
+ *
+ * @noextend This class is not intended to be subclassed by clients.
+ * @since 1.2
+ */
+public class EventLatencyMetrics {
+	private final long startTimestamp;
+	private final long endTimestamp;
+	private final long eventCount;
+	private final long percentile50;
+	private final long percentile90;
+	private final long percentile99;
+	private final long maxDuration;
+
+	/**
+	 * Creates an EventLatencyMetrics.
+	 *
+	 * @param startTime start of the interval in milliseconds since January 1, 1970 UTC
+	 * @param endTime end of the interval in milliseconds since January 1, 1970 UTC
+	 * @param count number of events dispatched during the interval
+	 * @param p50 median event duration in microseconds
+	 * @param p90 90th percentile of the event durations in microseconds
+	 * @param p99 99th percentile of the event durations in microseconds
+	 * @param max longest event duration in microseconds
+	 */
+	public EventLatencyMetrics(long startTime, long endTime, long count, long p50, long p90,
+			long p99, long max) {
+		this.startTimestamp = startTime;
+		this.endTimestamp = endTime;
+		this.eventCount = count;
+		this.percentile50 = p50;
+		this.percentile90 = p90;
+		this.percentile99 = p99;
+		this.maxDuration = max;
+	}
+
+	/**
+	 * Returns the start of the interval, in milliseconds since January 1, 1970 UTC.
+	 */
+	public final long getStartTimestamp() {
+		return startTimestamp;
+	}
+
+	/**
+	 * Returns the end of the interval, in milliseconds since January 1, 1970 UTC.
+	 */
+	public final long getEndTimestamp() {
+		return endTimestamp;
+	}
+
+	/**
+	 * Returns the number of events dispatched during the interval.
+	 */
+	public final long getEventCount() {
+		return eventCount;
+	}
+
+	/**
+	 * Returns the median event duration in microseconds.
+	 */
+	public final long getPercentile50() {
+		return percentile50;
+	}
+
+	/**
+	 * Returns the 90th percentile of the event durations in microseconds.
+	 */
+	public final long getPercentile90() {
+		return percentile90;
+	}
+
+	/**
+	 * Returns the 99th percentile of the event durations in microseconds.
+	 */
+	public final long getPercentile99() {
+		return percentile99;
+	}
+
+	/**
+	 * Returns the longest event duration in microseconds.
+	 */
+	public final long getMaxDuration() {
+		return maxDuration;
+	}
+
+	/** For debugging only. */
+	@Override
+	public String toString() {
+		return String.format("%d events from %d to %d: p50=%dus p90=%dus p99=%dus max=%dus", //$NON-NLS-1$
+				eventCount, startTimestamp, endTimestamp, percentile50, percentile90,
+				percentile99, maxDuration);
+	}
+}
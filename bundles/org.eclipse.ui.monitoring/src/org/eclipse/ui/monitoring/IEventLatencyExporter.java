@@ -0,0 +1,34 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.monitoring;
+
+import org.eclipse.ui.internal.monitoring.EventLoopMonitorThread;
+
+/**
+ * All classes exporting {@link EventLatencyMetrics} have to implement this interface.
+ *
+ * @since 1.2
+ */
+public interface IEventLatencyExporter {
+	/**
+	 * Invoked from the {@link EventLoopMonitorThread} once per minute with the metrics of the
+	 * elapsed minute. Implementations of this function must end quickly or else it will impact
+	 * the detection of UI freezes.
+	 */
+	void export(EventLatencyMetrics metrics);
+
+	/**
+	 * Invoked from the {@link EventLoopMonitorThread} when it stops, after the last call to
+	 * {@link #export(EventLatencyMetrics)}.
+	 */
+	default void dispose() {
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (C) 2014 Google Inc and others.
+ * Copyright (C) 2014, 2018 Google Inc and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -55,6 +55,20 @@ public class PreferenceConstants {
 	 * message if all stack frames of the thread match the filter.
 	 */
 	public static final String NONINTERESTING_THREAD_FILTER = "noninteresting_thread_filter"; //$NON-NLS-1$
+	/**
+	 * If true, append the per-minute event latency metrics to the {@code event_latency.csv} file
+	 * in the state location of the plug-in.
+	 *
+	 * @since 1.2
+	 */
+	public static final String EXPORT_LATENCY_TO_FILE = "export_latency_to_file"; //$NON-NLS-1$
+	/**
+	 * If true, publish the event latency metrics of the last minute as an MBean named
+	 * {@code org.eclipse.ui.monitoring:type=EventLatency}.
+	 *
+	 * @since 1.2
+	 */
+	public static final String EXPORT_LATENCY_TO_JMX = "export_latency_to_jmx"; //$NON-NLS-1$
 
 	private PreferenceConstants() {}
 }
@@ -34,6 +34,9 @@ public class CommonNavigatorMessages extends NLS {
 	/** */
 	public static String Exception_Invoking_Extension;
 
+	/** */
+	public static String DeferredChildren_Fetching;
+
 	/** */
 	public static String NavigatorViewerDescriptor_Popup_Menu_Overridden;
 
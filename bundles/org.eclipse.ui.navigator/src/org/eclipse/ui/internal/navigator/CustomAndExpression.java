@@ -17,6 +17,7 @@ import org.eclipse.core.expressions.ElementHandler;
 import org.eclipse.core.expressions.EvaluationResult;
 import org.eclipse.core.expressions.Expression;
 import org.eclipse.core.expressions.ExpressionConverter;
+import org.eclipse.core.expressions.ExpressionInfo;
 import org.eclipse.core.expressions.IEvaluationContext;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IConfigurationElement;
@@ -79,4 +80,14 @@ public class CustomAndExpression extends Expression {
 		return result;
 	}
 
+	@Override
+	public void collectExpressionInfo(ExpressionInfo info) {
+		if (fExpressions == null) {
+			return;
+		}
+		for (Expression expression : fExpressions) {
+			expression.collectExpressionInfo(info);
+		}
+	}
+
 }
@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.navigator;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.SafeRunner;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.ui.internal.navigator.extensions.NavigatorContentExtension;
+import org.eclipse.ui.progress.PendingUpdateAdapter;
+
+/**
+ * The children of one parent element being fetched in the background for the
+ * asynchronous expansion mode of the
+ * {@link NavigatorContentServiceContentProvider}.
+ * <p>
+ * Each first class content extension is asked for its children by its own
+ * job, so that the extensions answer in parallel. Pipelining and the tracking
+ * of contributions are left to the content provider, which performs them on
+ * the UI thread in the usual order once every extension has answered.
+ * </p>
+ *
+ * @since 3.7.100
+ */
+class DeferredChildren {
+
+	private final Object parentElementOrPath;
+
+	private final PendingUpdateAdapter placeholder = new PendingUpdateAdapter();
+
+	private final Map<NavigatorContentExtension, Object[]> children = new HashMap<>();
+
+	private final Object family;
+
+	private final AtomicInteger remaining = new AtomicInteger();
+
+	private boolean done;
+
+	/**
+	 * @param aParentElementOrPath
+	 *            the element or tree path whose children are fetched
+	 * @param aFamily
+	 *            the family of the fetching jobs, for cancellation
+	 */
+	DeferredChildren(Object aParentElementOrPath, Object aFamily) {
+		parentElementOrPath = aParentElementOrPath;
+		family = aFamily;
+	}
+
+	/**
+	 * Starts fetching the children from the given extensions.
+	 *
+	 * @param theExtensions
+	 *            the first class extensions to ask for children
+	 * @param onFetched
+	 *            run on a worker thread once every extension has answered or
+	 *            failed
+	 */
+	void fetch(Collection<NavigatorContentExtension> theExtensions, final Runnable onFetched) {
+		remaining.set(theExtensions.size());
+		for (final NavigatorContentExtension extension : theExtensions) {
+			Job job = new Job(NLS.bind(CommonNavigatorMessages.DeferredChildren_Fetching, extension.getDescriptor().getName())) {
+				@Override
+				protected IStatus run(IProgressMonitor monitor) {
+					try {
+						if (!monitor.isCanceled()) {
+							fetch(extension);
+						}
+					} finally {
+						if (remaining.decrementAndGet() == 0 && !monitor.isCanceled()) {
+							onFetched.run();
+						}
+					}
+					return monitor.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
+				}
+
+				@Override
+				public boolean belongsTo(Object aFamily) {
+					return family == aFamily;
+				}
+			};
+			job.setSystem(true);
+			job.schedule();
+		}
+	}
+
+	private void fetch(final NavigatorContentExtension extension) {
+		SafeRunner.run(new NavigatorSafeRunnable() {
+			@Override
+			public void run() throws Exception {
+				Object[] contributedChildren = extension.internalGetContentProvider().getChildren(parentElementOrPath);
+				synchronized (children) {
+					children.put(extension, contributedChildren);
+				}
+			}
+
+			@Override
+			public void handleException(Throwable e) {
+				NavigatorPlugin.logError(0, NLS.bind(CommonNavigatorMessages.Exception_Invoking_Extension,
+						new Object[] { extension.getDescriptor().getId(), parentElementOrPath }), e);
+			}
+		});
+	}
+
+	/**
+	 * @return the node shown in place of the children until they are fetched
+	 */
+	PendingUpdateAdapter getPlaceholder() {
+		return placeholder;
+	}
+
+	/**
+	 * @return true once the fetched children have been handed to the viewer;
+	 *         only accessed on the UI thread
+	 */
+	boolean isDone() {
+		return done;
+	}
+
+	/**
+	 * Marks the fetched children as ready to be handed to the viewer; only
+	 * called on the UI thread.
+	 */
+	void setDone() {
+		done = true;
+	}
+
+	/**
+	 * @param extension
+	 *            a first class extension
+	 * @return true if the extension answered without failing
+	 */
+	boolean hasChildren(NavigatorContentExtension extension) {
+		synchronized (children) {
+			return children.containsKey(extension);
+		}
+	}
+
+	/**
+	 * @param extension
+	 *            a first class extension
+	 * @return the children contributed by the extension, may be
+	 *         <code>null</code>
+	 */
+	Object[] getChildren(NavigatorContentExtension extension) {
+		synchronized (children) {
+			return children.get(extension);
+		}
+	}
+}
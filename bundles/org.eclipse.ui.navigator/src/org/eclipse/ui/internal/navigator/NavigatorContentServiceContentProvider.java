@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2015 IBM Corporation and others.
+ * Copyright (c) 2003, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,18 +16,24 @@ package org.eclipse.ui.internal.navigator;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.core.runtime.SafeRunner;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jface.viewers.AbstractTreeViewer;
 import org.eclipse.jface.viewers.ITreeContentProvider;
 import org.eclipse.jface.viewers.ITreePathContentProvider;
 import org.eclipse.jface.viewers.TreePath;
 import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.osgi.util.NLS;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.internal.navigator.extensions.NavigatorContentDescriptor;
 import org.eclipse.ui.internal.navigator.extensions.NavigatorContentExtension;
 import org.eclipse.ui.internal.navigator.extensions.NavigatorViewerDescriptor;
@@ -37,6 +43,7 @@ import org.eclipse.ui.navigator.INavigatorContentDescriptor;
 import org.eclipse.ui.navigator.INavigatorViewerDescriptor;
 import org.eclipse.ui.navigator.IPipelinedTreeContentProvider;
 import org.eclipse.ui.navigator.OverridePolicy;
+import org.eclipse.ui.progress.PendingUpdateAdapter;
 
 /**
  * <p>
@@ -70,6 +77,11 @@ public class NavigatorContentServiceContentProvider implements ITreeContentProvi
 
 	private final boolean enforceHasChildren;
 
+	private final boolean asynchronousExpansion;
+
+	/* Children being fetched in the background; only accessed on the UI thread */
+	private final Map<Object, DeferredChildren> deferredChildren = new HashMap<>();
+
 	private Viewer viewer;
 
 	/**
@@ -102,10 +114,12 @@ public class NavigatorContentServiceContentProvider implements ITreeContentProvi
 		contentService = aContentService;
 		INavigatorViewerDescriptor vDesc = contentService.getViewerDescriptor();
 		enforceHasChildren = vDesc.getBooleanConfigProperty(NavigatorViewerDescriptor.PROP_ENFORCE_HAS_CHILDREN);
+		asynchronousExpansion = vDesc.getBooleanConfigProperty(NavigatorViewerDescriptor.PROP_ASYNCHRONOUS_EXPANSION);
 	}
 
 	@Override
 	public void inputChanged(Viewer aViewer, Object anOldInput, Object aNewInput) {
+		cancelDeferredChildren();
 		viewer = aViewer;
 		contentService.updateService(aViewer, anOldInput, aNewInput);
 	}
@@ -113,26 +127,97 @@ public class NavigatorContentServiceContentProvider implements ITreeContentProvi
 	@Override
 	public Object[] getElements(Object anInputElement) {
 		Set rootContentExtensions = contentService.findRootContentExtensions(anInputElement);
-		return internalGetChildren(anInputElement, anInputElement, rootContentExtensions, ELEMENTS);
+		return internalGetChildren(anInputElement, anInputElement, rootContentExtensions, ELEMENTS, null);
 	}
 
 	@Override
 	public Object[] getChildren(Object aParentElement) {
 		Set enabledExtensions = contentService.findContentExtensionsByTriggerPoint(aParentElement);
-		return internalGetChildren(aParentElement, aParentElement, enabledExtensions, !ELEMENTS);
+		if (isAsynchronous(enabledExtensions)) {
+			return deferredGetChildren(aParentElement, aParentElement, enabledExtensions);
+		}
+		return internalGetChildren(aParentElement, aParentElement, enabledExtensions, !ELEMENTS, null);
 	}
 
 	@Override
 	public Object[] getChildren(TreePath parentPath) {
 		Object aParentElement = internalAsElement(parentPath);
 		Set enabledExtensions = contentService.findContentExtensionsByTriggerPoint(aParentElement);
-		return internalGetChildren(aParentElement, parentPath, enabledExtensions, !ELEMENTS);
+		if (isAsynchronous(enabledExtensions)) {
+			return deferredGetChildren(aParentElement, parentPath, enabledExtensions);
+		}
+		return internalGetChildren(aParentElement, parentPath, enabledExtensions, !ELEMENTS, null);
 	}
 
 	private static final boolean ELEMENTS = true;
 
+	private boolean isAsynchronous(Set enabledExtensions) {
+		return asynchronousExpansion && enabledExtensions.size() > 0 && viewer instanceof AbstractTreeViewer
+				&& Display.getCurrent() != null;
+	}
+
+	/**
+	 * Returns a placeholder node while the children of the given parent are
+	 * fetched in the background, and the children themselves once the viewer
+	 * has been refreshed with them.
+	 */
+	private Object[] deferredGetChildren(final Object aParentElement, Object aParentElementOrPath,
+			Set enabledExtensions) {
+		DeferredChildren deferred = deferredChildren.get(aParentElementOrPath);
+		if (deferred != null) {
+			if (!deferred.isDone()) {
+				return new Object[] { deferred.getPlaceholder() };
+			}
+			deferredChildren.remove(aParentElementOrPath);
+			return internalGetChildren(aParentElement, aParentElementOrPath, enabledExtensions, !ELEMENTS, deferred);
+		}
+
+		List<NavigatorContentExtension> firstClassExtensions = new ArrayList<>();
+		for (Iterator itr = enabledExtensions.iterator(); itr.hasNext();) {
+			NavigatorContentExtension extension = (NavigatorContentExtension) itr.next();
+			if (!isOverridingExtensionInSet(extension.getDescriptor(), enabledExtensions)) {
+				firstClassExtensions.add(extension);
+			}
+		}
+		if (firstClassExtensions.isEmpty()) {
+			return internalGetChildren(aParentElement, aParentElementOrPath, enabledExtensions, !ELEMENTS, null);
+		}
+		final DeferredChildren newDeferred = new DeferredChildren(aParentElementOrPath, this);
+		final Object key = aParentElementOrPath;
+		final Display display = Display.getCurrent();
+		deferredChildren.put(key, newDeferred);
+		newDeferred.fetch(firstClassExtensions, () -> display.asyncExec(() -> {
+			Control control = viewer != null ? viewer.getControl() : null;
+			if (deferredChildren.get(key) != newDeferred || control == null || control.isDisposed()) {
+				return;
+			}
+			newDeferred.setDone();
+			// one refresh replaces the placeholder with all the children
+			try {
+				((AbstractTreeViewer) viewer).refresh(aParentElement);
+			} finally {
+				/*
+				 * If the parent was collapsed or is gone, the refresh did not
+				 * ask for the children; do not serve this snapshot later.
+				 */
+				if (deferredChildren.get(key) == newDeferred) {
+					deferredChildren.remove(key);
+				}
+			}
+		}));
+		return new Object[] { newDeferred.getPlaceholder() };
+	}
+
+	private void cancelDeferredChildren() {
+		if (!deferredChildren.isEmpty()) {
+			deferredChildren.clear();
+			Job.getJobManager().cancel(this);
+		}
+	}
+
 	private Object[] internalGetChildren(final Object aParentElement,
-			final Object aParentElementOrPath, final Set enabledExtensions, final boolean elements) {
+			final Object aParentElementOrPath, final Set enabledExtensions, final boolean elements,
+			final DeferredChildren fetchedChildren) {
 		if (enabledExtensions.size() == 0) {
 			return NO_CHILDREN;
 		}
@@ -149,7 +234,12 @@ public class NavigatorContentServiceContentProvider implements ITreeContentProvi
 				public void run() throws Exception {
 					if (!isOverridingExtensionInSet(foundExtension.getDescriptor(),
 							enabledExtensions)) {
-						if (elements)
+						if (fetchedChildren != null) {
+							// fetched in the background; skip the extension if it failed
+							if (!fetchedChildren.hasChildren(foundExtension))
+								return;
+							contributedChildren = fetchedChildren.getChildren(foundExtension);
+						} else if (elements)
 							contributedChildren = foundExtension.internalGetContentProvider()
 									.getElements(aParentElementOrPath);
 						else
@@ -383,6 +473,9 @@ public class NavigatorContentServiceContentProvider implements ITreeContentProvi
 	@Override
 	public boolean hasChildren(final Object anElementOrPath) {
 		final Object anElement = internalAsElement(anElementOrPath);
+		if (anElement instanceof PendingUpdateAdapter) {
+			return false;
+		}
 		final Set enabledExtensions = contentService.findContentExtensionsByTriggerPoint(anElement);
 		final boolean suggestedHasChildren[] = new boolean[1];
 
@@ -479,6 +572,7 @@ public class NavigatorContentServiceContentProvider implements ITreeContentProvi
 	 */
 	@Override
 	public void dispose() {
+		cancelDeferredChildren();
 		if (disposeContentService) {
 			contentService.dispose();
 		}
@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.navigator;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jface.viewers.ILazyTreePathContentProvider;
+import org.eclipse.jface.viewers.ITreeContentProvider;
+import org.eclipse.jface.viewers.TreePath;
+import org.eclipse.jface.viewers.TreePathViewerSorter;
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.jface.viewers.ViewerComparator;
+import org.eclipse.jface.viewers.ViewerFilter;
+
+/**
+ * Adapts a {@link NavigatorContentServiceContentProvider} to a tree viewer
+ * created with the <code>SWT.VIRTUAL</code> style, so that items, labels and
+ * decorations are only created for the rows which are shown.
+ * <p>
+ * Since a lazy viewer neither filters nor sorts by itself, the children of
+ * each parent are filtered and sorted here with the filters and comparator of
+ * the viewer, and remembered until the structure of the viewer changes, so
+ * that each row can be resolved by index.
+ * </p>
+ * <p>
+ * The adapter also implements {@link ITreeContentProvider} by delegation, for
+ * the clients of the viewer which query its content provider directly.
+ * </p>
+ *
+ * @since 3.7.100
+ */
+public class NavigatorLazyContentProvider implements ILazyTreePathContentProvider, ITreeContentProvider {
+
+	private final NavigatorContentServiceContentProvider delegate;
+
+	private final Map<TreePath, Object[]> sortedChildren = new HashMap<>();
+
+	private TreeViewer viewer;
+
+	/**
+	 * @param aDelegate
+	 *            the content provider to ask for the children
+	 */
+	public NavigatorLazyContentProvider(NavigatorContentServiceContentProvider aDelegate) {
+		delegate = aDelegate;
+	}
+
+	@Override
+	public void inputChanged(Viewer aViewer, Object anOldInput, Object aNewInput) {
+		viewer = (TreeViewer) aViewer;
+		sortedChildren.clear();
+		delegate.inputChanged(aViewer, anOldInput, aNewInput);
+	}
+
+	@Override
+	public void updateElement(TreePath parentPath, int index) {
+		Object[] children = sortedChildren.get(parentPath);
+		if (children == null) {
+			children = computeChildren(parentPath);
+		}
+		if (index >= children.length) {
+			return;
+		}
+		Object element = children[index];
+		viewer.replace(parentPath, index, element);
+		TreePath path = parentPath.createChildPath(element);
+		viewer.setHasChildren(path, delegate.hasChildren(path));
+	}
+
+	@Override
+	public void updateChildCount(TreePath treePath, int currentChildCount) {
+		// a new count is only asked for when the structure may have changed
+		int count = computeChildren(treePath).length;
+		if (count != currentChildCount) {
+			viewer.setChildCount(treePath, count);
+		}
+	}
+
+	@Override
+	public void updateHasChildren(TreePath path) {
+		viewer.setHasChildren(path, delegate.hasChildren(path));
+	}
+
+	@Override
+	public TreePath[] getParents(Object element) {
+		return delegate.getParents(element);
+	}
+
+	/**
+	 * Forgets all the children computed so far, for instance because elements
+	 * were added or removed.
+	 */
+	public void invalidate() {
+		sortedChildren.clear();
+	}
+
+	private Object[] computeChildren(TreePath parentPath) {
+		Object parentElementOrPath;
+		Object[] children;
+		if (parentPath.getSegmentCount() == 0) {
+			parentElementOrPath = viewer.getInput();
+			children = delegate.getElements(parentElementOrPath);
+		} else {
+			parentElementOrPath = parentPath;
+			children = delegate.getChildren(parentPath);
+		}
+		children = children.clone();
+		for (ViewerFilter filter : viewer.getFilters()) {
+			if (parentElementOrPath instanceof TreePath) {
+				children = filter.filter(viewer, (TreePath) parentElementOrPath, children);
+			} else {
+				children = filter.filter(viewer, parentElementOrPath, children);
+			}
+		}
+		ViewerComparator comparator = viewer.getComparator();
+		if (comparator instanceof TreePathViewerSorter && parentElementOrPath instanceof TreePath) {
+			((TreePathViewerSorter) comparator).sort(viewer, (TreePath) parentElementOrPath, children);
+		} else if (comparator != null) {
+			comparator.sort(viewer, children);
+		}
+		sortedChildren.put(parentPath, children);
+		return children;
+	}
+
+	@Override
+	public Object[] getElements(Object inputElement) {
+		return delegate.getElements(inputElement);
+	}
+
+	@Override
+	public Object[] getChildren(Object parentElement) {
+		return delegate.getChildren(parentElement);
+	}
+
+	@Override
+	public Object getParent(Object element) {
+		return delegate.getParent(element);
+	}
+
+	@Override
+	public boolean hasChildren(Object element) {
+		return delegate.hasChildren(element);
+	}
+
+	@Override
+	public void dispose() {
+		sortedChildren.clear();
+		delegate.dispose();
+	}
+}
@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.navigator.extensions;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.eclipse.core.expressions.EvaluationResult;
+import org.eclipse.core.expressions.Expression;
+import org.eclipse.core.expressions.ExpressionInfo;
+import org.eclipse.core.expressions.IEvaluationContext;
+import org.eclipse.core.runtime.IConfigurationElement;
+import org.eclipse.ui.internal.navigator.NavigatorPlugin;
+
+/**
+ * Evaluates an expression whose result only depends on the runtime class of
+ * the element it is evaluated against, and remembers the result per class.
+ * <p>
+ * An expression qualifies if its {@link ExpressionInfo} reports nothing but
+ * access to the default variable, and if it is only made of
+ * <code>&lt;instanceof/&gt;</code> tests combined with
+ * <code>&lt;and/&gt;</code>, <code>&lt;or/&gt;</code> and
+ * <code>&lt;not/&gt;</code>. Everything else (property testers, adapters,
+ * <code>&lt;equals/&gt;</code>, other variables...) may answer differently for
+ * two instances of the same class and is evaluated per element.
+ * </p>
+ *
+ * @since 3.7.100
+ */
+final class ClassBasedEvaluation {
+
+	private static final String[] CLASS_ONLY_ELEMENTS = { "instanceof", "and", "or", "not" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+
+	private final Expression expression;
+
+	private final Map<Class<?>, Boolean> results = Collections.synchronizedMap(new WeakHashMap<Class<?>, Boolean>());
+
+	private ClassBasedEvaluation(Expression expression) {
+		this.expression = expression;
+	}
+
+	/**
+	 * Returns a class based evaluation of the given expression, or
+	 * <code>null</code> if its result may depend on more than the class of the
+	 * element.
+	 *
+	 * @param anExpression
+	 *            the expression, may be <code>null</code>
+	 * @param anElement
+	 *            the configuration element the expression was created from;
+	 *            its children are the combined expressions
+	 * @return the class based evaluation or <code>null</code>
+	 */
+	static ClassBasedEvaluation create(Expression anExpression, IConfigurationElement anElement) {
+		if (anExpression == null || anElement == null) {
+			return null;
+		}
+		ExpressionInfo info = anExpression.computeExpressionInfo();
+		if (info.hasSystemPropertyAccess() || info.getAccessedVariableNames().length > 0
+				|| info.getMisbehavingExpressionTypes() != null) {
+			return null;
+		}
+		for (IConfigurationElement child : anElement.getChildren()) {
+			if (!isClassOnly(child)) {
+				return null;
+			}
+		}
+		return new ClassBasedEvaluation(anExpression);
+	}
+
+	private static boolean isClassOnly(IConfigurationElement anElement) {
+		String name = anElement.getName();
+		boolean known = false;
+		for (String classOnlyElement : CLASS_ONLY_ELEMENTS) {
+			if (classOnlyElement.equals(name)) {
+				known = true;
+				break;
+			}
+		}
+		if (!known) {
+			return false;
+		}
+		for (IConfigurationElement child : anElement.getChildren()) {
+			if (!isClassOnly(child)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param anElement
+	 *            a non-null element
+	 * @return true if the expression evaluates to true for the class of the
+	 *         given element
+	 */
+	boolean evaluate(Object anElement) {
+		Class<?> clazz = anElement.getClass();
+		Boolean result = results.get(clazz);
+		if (result == null) {
+			IEvaluationContext context = NavigatorPlugin.getEvalContext(anElement);
+			result = Boolean.valueOf(NavigatorPlugin.safeEvaluate(expression, context) == EvaluationResult.TRUE);
+			results.put(clazz, result);
+		}
+		return result.booleanValue();
+	}
+}
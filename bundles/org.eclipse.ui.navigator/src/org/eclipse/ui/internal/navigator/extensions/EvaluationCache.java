@@ -16,6 +16,7 @@ import java.lang.ref.Reference;
 import java.lang.ref.ReferenceQueue;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.WeakHashMap;
 
 import org.eclipse.ui.internal.navigator.VisibilityAssistant;
 import org.eclipse.ui.internal.navigator.VisibilityAssistant.VisibilityListener;
@@ -40,6 +41,11 @@ public class EvaluationCache implements VisibilityListener {
 	private final Map<EvaluationReference<Object>, EvaluationValueReference<NavigatorContentDescriptor[]>> evaluations = new HashMap<>();
 	private final Map<EvaluationReference<Object>, EvaluationValueReference<NavigatorContentDescriptor[]>> evaluationsWithOverrides = new HashMap<>();
 
+	// Results which only depend on the runtime class of the element; see
+	// ClassBasedEvaluation. Weak keys so that classes can still be unloaded.
+	private final Map<Class<?>, NavigatorContentDescriptor[]> evaluationsByClass = new WeakHashMap<>();
+	private final Map<Class<?>, NavigatorContentDescriptor[]> evaluationsByClassWithOverrides = new WeakHashMap<>();
+
 	private final ReferenceQueue<Object> evaluationsQueue = new ReferenceQueue<>();
 	private final ReferenceQueue<Object> evaluationsWithOverridesQueue = new ReferenceQueue<>();
 
@@ -170,6 +176,42 @@ public class EvaluationCache implements VisibilityListener {
 		}
 	}
 
+	/**
+	 * Finds the cached descriptors for elements of the given class, or returns
+	 * {@code null} if not currently in the cache. Only valid when the
+	 * evaluation does not depend on anything but the class of the element.
+	 *
+	 * @param aClass
+	 *            the runtime class of the element
+	 * @param toComputeOverrides
+	 *            whether overrides are to be considered
+	 * @return the cached descriptors for the given class, or {@code null} if
+	 *         not currently in the cache
+	 */
+	public final NavigatorContentDescriptor[] getDescriptorsForClass(Class<?> aClass, boolean toComputeOverrides) {
+		return toComputeOverrides ? evaluationsByClassWithOverrides.get(aClass) : evaluationsByClass.get(aClass);
+	}
+
+	/**
+	 * Caches the given descriptors for all elements of the given class.
+	 *
+	 * @param aClass
+	 *            the runtime class of the element
+	 * @param theDescriptors
+	 *            the descriptors to cache against the given class
+	 * @param toComputeOverrides
+	 *            whether overrides were considered in the computation of the
+	 *            given descriptors
+	 */
+	public final void setDescriptorsForClass(Class<?> aClass, NavigatorContentDescriptor[] theDescriptors,
+			boolean toComputeOverrides) {
+		if (toComputeOverrides) {
+			evaluationsByClassWithOverrides.put(aClass, theDescriptors);
+		} else {
+			evaluationsByClass.put(aClass, theDescriptors);
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 *
@@ -200,5 +242,7 @@ public class EvaluationCache implements VisibilityListener {
 		}
 		evaluations.clear();
 		evaluationsWithOverrides.clear();
+		evaluationsByClass.clear();
+		evaluationsByClassWithOverrides.clear();
 	}
 }
\ No newline at end of file
@@ -74,6 +74,10 @@ public final class NavigatorContentDescriptor implements
 
 	private Expression initialActivation;
 
+	private ClassBasedEvaluation enablementByClass;
+
+	private ClassBasedEvaluation possibleChildrenByClass;
+
 	private String icon;
 
 	private boolean activeByDefault;
@@ -253,6 +257,7 @@ public final class NavigatorContentDescriptor implements
 			children = configElement.getChildren(TAG_TRIGGER_POINTS);
 			if (children.length == 1) {
 				enablement = new CustomAndExpression(children[0]);
+				enablementByClass = ClassBasedEvaluation.create(enablement, children[0]);
 			} else {
 				throw new WorkbenchException(NLS.bind(
 						CommonNavigatorMessages.Attribute_Missing_Warning,
@@ -266,6 +271,7 @@ public final class NavigatorContentDescriptor implements
 			children = configElement.getChildren(TAG_POSSIBLE_CHILDREN);
 			if (children.length == 1) {
 				possibleChildren = new CustomAndExpression(children[0]);
+				possibleChildrenByClass = ClassBasedEvaluation.create(possibleChildren, children[0]);
 			} else if(children.length > 1){
 				throw new WorkbenchException(NLS.bind(
 						CommonNavigatorMessages.Attribute_Missing_Warning,
@@ -279,6 +285,7 @@ public final class NavigatorContentDescriptor implements
 			try {
 				enablement = ElementHandler.getDefault().create(
 						ExpressionConverter.getDefault(), children[0]);
+				enablementByClass = ClassBasedEvaluation.create(enablement, children[0]);
 			} catch (CoreException e) {
 				NavigatorPlugin.log(IStatus.ERROR, 0, e.getMessage(), e);
 			}
@@ -409,6 +416,9 @@ public final class NavigatorContentDescriptor implements
 		if (enablement == null || anElement == null) {
 			return false;
 		}
+		if (enablementByClass != null) {
+			return enablementByClass.evaluate(anElement);
+		}
 
 		IEvaluationContext context = NavigatorPlugin.getEvalContext(anElement);
 		return NavigatorPlugin.safeEvaluate(enablement, context) == EvaluationResult.TRUE;
@@ -438,6 +448,11 @@ public final class NavigatorContentDescriptor implements
 			return arePossibleChildren((IStructuredSelection) anElement);
 		}
 
+		ClassBasedEvaluation byClass = possibleChildren != null ? possibleChildrenByClass : enablementByClass;
+		if (byClass != null) {
+			return byClass.evaluate(anElement);
+		}
+
 		IEvaluationContext context = NavigatorPlugin.getEvalContext(anElement);
 		if (possibleChildren != null) {
 			return NavigatorPlugin.safeEvaluate(possibleChildren, context) == EvaluationResult.TRUE;
@@ -447,6 +462,25 @@ public final class NavigatorContentDescriptor implements
 		return false;
 	}
 
+	/**
+	 * @return True if {@link #isTriggerPoint(Object)} only depends on the
+	 *         runtime class of the element.
+	 */
+	public boolean isTriggerPointClassBased() {
+		return enablement == null || enablementByClass != null;
+	}
+
+	/**
+	 * @return True if {@link #isPossibleChild(Object)} only depends on the
+	 *         runtime class of the element (selections excluded).
+	 */
+	public boolean isPossibleChildClassBased() {
+		if (possibleChildren != null) {
+			return possibleChildrenByClass != null;
+		}
+		return isTriggerPointClassBased();
+	}
+
 	/**
 	 * A convenience method to check all elements in a selection.
 	 *
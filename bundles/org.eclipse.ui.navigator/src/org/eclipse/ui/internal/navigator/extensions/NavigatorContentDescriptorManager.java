@@ -28,6 +28,7 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.jface.resource.ImageRegistry;
+import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.ui.internal.navigator.NavigatorPlugin;
 import org.eclipse.ui.internal.navigator.NavigatorSafeRunnable;
@@ -62,6 +63,10 @@ public class NavigatorContentDescriptorManager {
 
 	private final Set<NavigatorContentDescriptor> firstClassDescriptorsSet = new HashSet<>();
 
+	private boolean triggerPointsClassBased;
+
+	private boolean possibleChildrenClassBased;
+
 	/**
 	 * @return the singleton instance of the manager
 	 */
@@ -71,6 +76,12 @@ public class NavigatorContentDescriptorManager {
 
 	private NavigatorContentDescriptorManager() {
 		new NavigatorContentDescriptorRegistry().readRegistry();
+		triggerPointsClassBased = true;
+		possibleChildrenClassBased = true;
+		for (NavigatorContentDescriptor descriptor : allDescriptors.values()) {
+			triggerPointsClassBased &= descriptor.isTriggerPointClassBased();
+			possibleChildrenClassBased &= descriptor.isPossibleChildClassBased();
+		}
 	}
 
 	/**
@@ -155,12 +166,21 @@ public class NavigatorContentDescriptorManager {
 		EvaluationCache cache = getEvaluationCache(cachedEvaluations, aVisibilityAssistant);
 		Set<NavigatorContentDescriptor> descriptors = new TreeSet<NavigatorContentDescriptor>(ExtensionSequenceNumberComparator.INSTANCE);
 
+		/*
+		 * When every expression involved only depends on the runtime class of
+		 * the element, the result is the same for all instances of that class.
+		 */
+		boolean byClass = anElement != null && (possibleChild
+				? possibleChildrenClassBased && !(anElement instanceof IStructuredSelection)
+				: triggerPointsClassBased);
+
 		NavigatorContentDescriptor[] cachedDescriptors = null;
-		if ((cachedDescriptors = cache.getDescriptors(anElement, considerOverrides)) != null) {
+		if ((cachedDescriptors = byClass ? cache.getDescriptorsForClass(anElement.getClass(), considerOverrides)
+				: cache.getDescriptors(anElement, considerOverrides)) != null) {
 			descriptors.addAll(Arrays.asList(cachedDescriptors));
 			if (Policy.DEBUG_RESOLUTION) {
 				System.out.println("Find descriptors for : " + Policy.getObjectString(anElement) + //$NON-NLS-1$
-						(considerOverrides ? " (with overrides)" : "") + " (cached): " + descriptors); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+						(considerOverrides ? " (with overrides)" : "") + (byClass ? " (cached by class): " : " (cached): ") + descriptors); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
 			}
 			return descriptors;
 		}
@@ -181,7 +201,12 @@ public class NavigatorContentDescriptorManager {
 			System.out.println("Find descriptors for: " + Policy.getObjectString(anElement) + //$NON-NLS-1$
 					(considerOverrides ? " (with overrides)" : "") + ": " + descriptors); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 		}
-		cache.setDescriptors(anElement, descriptors.toArray(new NavigatorContentDescriptor[descriptors.size()]), considerOverrides);
+		NavigatorContentDescriptor[] foundDescriptors = descriptors.toArray(new NavigatorContentDescriptor[descriptors.size()]);
+		if (byClass) {
+			cache.setDescriptorsForClass(anElement.getClass(), foundDescriptors, considerOverrides);
+		} else {
+			cache.setDescriptors(anElement, foundDescriptors, considerOverrides);
+		}
 
 		return descriptors;
 	}
@@ -40,6 +40,21 @@ public final class NavigatorViewerDescriptor implements
 	 */
 	public static final String PROP_ENFORCE_HAS_CHILDREN = "org.eclipse.ui.navigator.enforceHasChildren"; //$NON-NLS-1$
 
+	/**
+	 * {@value} (boolean): True indicates that expanding a node shows a
+	 * placeholder while the content extensions compute its children on
+	 * worker threads, in which case their content providers must be thread
+	 * safe (<b>false</b>).
+	 */
+	public static final String PROP_ASYNCHRONOUS_EXPANSION = "org.eclipse.ui.navigator.asynchronousExpansion"; //$NON-NLS-1$
+
+	/**
+	 * {@value} (boolean): True indicates that the tree of the viewer is
+	 * created with the <code>SWT.VIRTUAL</code> style, so that only the
+	 * visible rows are created and labeled (<b>false</b>).
+	 */
+	public static final String PROP_VIRTUAL = "org.eclipse.ui.navigator.virtual"; //$NON-NLS-1$
+
 	static final String TAG_INCLUDES = "includes"; //$NON-NLS-1$
 
 	static final String TAG_EXCLUDES = "excludes"; //$NON-NLS-1$
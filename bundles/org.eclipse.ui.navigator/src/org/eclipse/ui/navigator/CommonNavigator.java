@@ -43,6 +43,8 @@ import org.eclipse.ui.internal.navigator.CommonNavigatorActionGroup;
 import org.eclipse.ui.internal.navigator.NavigatorContentService;
 import org.eclipse.ui.internal.navigator.NavigatorPlugin;
 import org.eclipse.ui.internal.navigator.NavigatorSafeRunnable;
+import org.eclipse.ui.internal.navigator.extensions.NavigatorViewerDescriptor;
+import org.eclipse.ui.internal.navigator.extensions.NavigatorViewerDescriptorManager;
 import org.eclipse.ui.part.ISetSelectionTarget;
 import org.eclipse.ui.part.IShowInSource;
 import org.eclipse.ui.part.IShowInTarget;
@@ -509,8 +511,12 @@ public class CommonNavigator extends ViewPart implements ISetSelectionTarget, IS
 	 * @since 3.4
 	 */
 	protected CommonViewer createCommonViewerObject(Composite aParent) {
-		return new CommonViewer(getViewSite().getId(), aParent,
-				SWT.MULTI | SWT.H_SCROLL | SWT.V_SCROLL);
+		int style = SWT.MULTI | SWT.H_SCROLL | SWT.V_SCROLL;
+		if (NavigatorViewerDescriptorManager.getInstance().getNavigatorViewerDescriptor(getViewSite().getId())
+				.getBooleanConfigProperty(NavigatorViewerDescriptor.PROP_VIRTUAL)) {
+			style |= SWT.VIRTUAL;
+		}
+		return new CommonViewer(getViewSite().getId(), aParent, style);
 	}
 
 	/**
@@ -23,6 +23,7 @@ import org.eclipse.jface.viewers.LabelProviderChangedEvent;
 import org.eclipse.jface.viewers.StructuredSelection;
 import org.eclipse.jface.viewers.TreeViewer;
 import org.eclipse.jface.viewers.ViewerSorter;
+import org.eclipse.swt.SWT;
 import org.eclipse.swt.dnd.DND;
 import org.eclipse.swt.events.DisposeEvent;
 import org.eclipse.swt.events.MouseAdapter;
@@ -35,7 +36,9 @@ import org.eclipse.swt.widgets.Widget;
 import org.eclipse.ui.internal.navigator.CommonNavigatorFrameSource;
 import org.eclipse.ui.internal.navigator.ContributorTrackingSet;
 import org.eclipse.ui.internal.navigator.NavigatorContentService;
+import org.eclipse.ui.internal.navigator.NavigatorContentServiceContentProvider;
 import org.eclipse.ui.internal.navigator.NavigatorDecoratingLabelProvider;
+import org.eclipse.ui.internal.navigator.NavigatorLazyContentProvider;
 import org.eclipse.ui.internal.navigator.NavigatorPipelineService;
 import org.eclipse.ui.internal.navigator.dnd.NavigatorDnDService;
 import org.eclipse.ui.internal.navigator.extensions.NavigatorContentDescriptorManager;
@@ -58,6 +61,12 @@ import org.eclipse.ui.internal.navigator.framelist.FrameList;
  * Clients must not set the selection of the viewer's tree control directly.
  * </p>
  *
+ * <p>
+ * When the tree is created with the <code>SWT.VIRTUAL</code> style, items and
+ * labels are only created for the visible rows. The filters and the sorter of
+ * the viewer are then applied by its content provider instead of the tree.
+ * </p>
+ *
  * @since 3.2
  */
 public class CommonViewer extends TreeViewer {
@@ -107,7 +116,12 @@ public class CommonViewer extends TreeViewer {
 	 */
 	protected void init() {
 		setUseHashlookup(true);
-		setContentProvider(contentService.createCommonContentProvider());
+		if ((getTree().getStyle() & SWT.VIRTUAL) != 0) {
+			setContentProvider(new NavigatorLazyContentProvider(
+					(NavigatorContentServiceContentProvider) contentService.createCommonContentProvider()));
+		} else {
+			setContentProvider(contentService.createCommonContentProvider());
+		}
 		setLabelProvider(new NavigatorDecoratingLabelProvider(contentService.createCommonLabelProvider()));
 		initDragAndDrop();
 	}
@@ -145,9 +159,21 @@ public class CommonViewer extends TreeViewer {
 	}
 
 	protected void removeWithoutRefresh(Object[] elements) {
+		invalidateLazyChildren();
 		super.remove(elements);
 	}
 
+	/**
+	 * With the <code>SWT.VIRTUAL</code> style, the children are resolved by
+	 * index from a sorted snapshot which must be dropped whenever the
+	 * structure changes.
+	 */
+	private void invalidateLazyChildren() {
+		if (getContentProvider() instanceof NavigatorLazyContentProvider) {
+			((NavigatorLazyContentProvider) getContentProvider()).invalidate();
+		}
+	}
+
 	/**
 	 * <p>
 	 * Adds DND support to the Navigator. Uses hooks into the extensible
@@ -299,6 +325,7 @@ public class CommonViewer extends TreeViewer {
 		Object parent = (parentElement == getInput()) ? getInput()
 				: modification.getParent();
 
+		invalidateLazyChildren();
 		super.add(parent, modification.getChildren().toArray());
 	}
 
@@ -320,6 +347,7 @@ public class CommonViewer extends TreeViewer {
 
 		pipeDream.interceptRemove(modification);
 
+		invalidateLazyChildren();
 		super.remove(modification.getChildren().toArray());
 	}
 
@@ -328,6 +356,7 @@ public class CommonViewer extends TreeViewer {
 		// Invalidate caches in NavigatorContentDescriptorManager (see
 		// https://bugs.eclipse.org/436645).
 		NavigatorContentDescriptorManager.getInstance().clearCache();
+		invalidateLazyChildren();
 
 		if (element != getInput()) {
 			INavigatorPipelineService pipeDream = contentService.getPipelineService();
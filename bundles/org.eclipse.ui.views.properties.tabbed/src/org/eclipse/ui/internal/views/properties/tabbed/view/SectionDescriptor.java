@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2001, 2016 IBM Corporation and others.
+ * Copyright (c) 2001, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -149,6 +149,17 @@ public class SectionDescriptor extends AbstractSectionDescriptor {
 		return filter;
 	}
 
+	/**
+	 * Returns whether the section declares a filter, in which case whether it
+	 * applies to a selection depends on the selected objects and not only on
+	 * their types.
+	 *
+	 * @return <code>true</code> if the section declares a filter.
+	 */
+	boolean hasFilter() {
+		return getConfigurationElement().getAttribute(ATT_SECTION_FILTER) != null;
+	}
+
 	/**
 	 * Retrieves the value for section enablement which is a precise number of
 	 * items selected. For example: enablesFor=" 4" enables the action only when
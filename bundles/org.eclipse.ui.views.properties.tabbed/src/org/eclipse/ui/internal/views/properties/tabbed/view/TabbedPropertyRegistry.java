@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2001, 2016 IBM Corporation and others.
+ * Copyright (c) 2001, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,10 +12,15 @@
 package org.eclipse.ui.internal.views.properties.tabbed.view;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IConfigurationElement;
@@ -26,6 +31,7 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.jface.viewers.ILabelProvider;
 import org.eclipse.jface.viewers.ISelection;
 import org.eclipse.jface.viewers.IStructuredContentProvider;
+import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.ui.IWorkbenchPart;
 import org.eclipse.ui.internal.views.properties.tabbed.TabbedPropertyViewStatusCodes;
 import org.eclipse.ui.internal.views.properties.tabbed.l10n.TabbedPropertyMessages;
@@ -86,6 +92,8 @@ public class TabbedPropertyRegistry {
 
 	private static final String TOP = "top"; //$NON-NLS-1$
 
+	private static final int MAX_CACHED_SELECTIONS = 64;
+
 	protected String contributorId;
 
 	protected IConfigurationElement contributorConfigurationElement;
@@ -108,6 +116,20 @@ public class TabbedPropertyRegistry {
 
 	protected boolean overridableTabListContentProvider = false;
 
+	/**
+	 * The tabs of the selections of a given size and effective types, with the
+	 * sections that may apply to them, by the size and types of the selection.
+	 */
+	private final Map<List<Object>, FilteredTab[]> filteredTabs = new LinkedHashMap<List<Object>, FilteredTab[]>(
+			16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<List<Object>, FilteredTab[]> eldest) {
+			return size() > MAX_CACHED_SELECTIONS;
+		}
+	};
+
 	/**
 	 * There is one details registry for each contributor type.
 	 */
@@ -276,6 +298,11 @@ public class TabbedPropertyRegistry {
 		ITabDescriptor[] allDescriptors = null;
 		if (tabDescriptorProvider == null) {
 			allDescriptors = getAllTabDescriptors();
+			if (sectionDescriptorProvider == null
+					&& selection instanceof IStructuredSelection) {
+				return getFilteredTabDescriptors(allDescriptors, part,
+						(IStructuredSelection) selection);
+			}
 		} else {
 			allDescriptors = tabDescriptorProvider.getTabDescriptors(part,
 					selection);
@@ -308,6 +335,109 @@ public class TabbedPropertyRegistry {
 				.size()]);
 	}
 
+	/**
+	 * Filters out the tab descriptors that do not have any sections for the
+	 * given selection, like {@link #filterTabDescriptors}, but only asks the
+	 * sections that declare a filter whether they apply to it. The other
+	 * sections apply to all the selections with the same size and effective
+	 * types, and their answers are cached.
+	 */
+	private ITabDescriptor[] getFilteredTabDescriptors(
+			ITabDescriptor[] descriptors, IWorkbenchPart part,
+			IStructuredSelection selection) {
+		Set<Class<?>> types = new HashSet<>();
+		for (Iterator i = selection.iterator(); i.hasNext();) {
+			Object object = i.next();
+			types.add(typeMapper == null ? object.getClass() : typeMapper
+					.mapType(object));
+		}
+		List<Object> key = Arrays.asList(Integer.valueOf(selection.size()),
+				types);
+		FilteredTab[] tabs = filteredTabs.get(key);
+		if (tabs == null) {
+			tabs = new FilteredTab[descriptors.length];
+			for (int i = 0; i < descriptors.length; i++) {
+				tabs[i] = new FilteredTab((AbstractTabDescriptor) descriptors[i],
+						part, selection);
+			}
+			filteredTabs.put(key, tabs);
+		}
+
+		List<ITabDescriptor> result = new ArrayList<>();
+		for (FilteredTab tab : tabs) {
+			ITabDescriptor filteredDescriptor = tab.adapt(part, selection);
+			if (filteredDescriptor != null) {
+				result.add(filteredDescriptor);
+			}
+		}
+		if (result.isEmpty()) {
+			return EMPTY_DESCRIPTOR_ARRAY;
+		}
+		return result.toArray(new ITabDescriptor[result.size()]);
+	}
+
+	/**
+	 * A tab with the sections that may apply to the selections of a given size
+	 * and effective types: the sections found to apply to them, and the
+	 * sections with a filter, which are asked for each selection.
+	 */
+	private static final class FilteredTab {
+
+		private final AbstractTabDescriptor descriptor;
+
+		private final List<ISectionDescriptor> sections = new ArrayList<>();
+
+		private final Set<ISectionDescriptor> filteredSections = new HashSet<>();
+
+		/**
+		 * The last filtered descriptor, returned again as long as the same
+		 * sections apply so that the tab contents are kept.
+		 */
+		private AbstractTabDescriptor adapted;
+
+		FilteredTab(AbstractTabDescriptor descriptor, IWorkbenchPart part,
+				IStructuredSelection selection) {
+			this.descriptor = descriptor;
+			for (Iterator i = descriptor.getSectionDescriptors().iterator(); i
+					.hasNext();) {
+				ISectionDescriptor section = (ISectionDescriptor) i.next();
+				if (!(section instanceof SectionDescriptor)
+						|| ((SectionDescriptor) section).hasFilter()) {
+					sections.add(section);
+					filteredSections.add(section);
+				} else if (section.appliesTo(part, selection)) {
+					sections.add(section);
+				}
+			}
+		}
+
+		/**
+		 * Returns the tab descriptor with the sections that apply to the
+		 * selection, or <code>null</code> if none applies.
+		 */
+		ITabDescriptor adapt(IWorkbenchPart part, IStructuredSelection selection) {
+			List<ISectionDescriptor> applying = sections;
+			if (!filteredSections.isEmpty()) {
+				applying = new ArrayList<>(sections.size());
+				for (ISectionDescriptor section : sections) {
+					if (!filteredSections.contains(section)
+							|| section.appliesTo(part, selection)) {
+						applying.add(section);
+					}
+				}
+			}
+			if (applying.isEmpty()) {
+				return null;
+			}
+			if (adapted == null
+					|| !adapted.getSectionDescriptors().equals(applying)) {
+				adapted = (AbstractTabDescriptor) descriptor.clone();
+				adapted.setSectionDescriptors(new ArrayList<>(applying));
+			}
+			return adapted;
+		}
+	}
+
 	/**
 	 * Given a property tab descriptor remove all its section descriptors that
 	 * do not apply to the given input object.
@@ -537,6 +667,7 @@ public class TabbedPropertyRegistry {
 	 * @since 3.7
 	 */
 	public void dispose() {
+		filteredTabs.clear();
 		if (labelProvider != null) {
 			labelProvider.dispose();
 			labelProvider = null;
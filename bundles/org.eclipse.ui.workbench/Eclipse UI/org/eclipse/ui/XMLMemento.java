@@ -45,6 +45,36 @@ import org.xml.sax.SAXParseException;
  * @see IMemento
  */
 public final class XMLMemento implements IMemento {
+
+	/*
+	 * Looking up the parser implementation is costly, so the factory is
+	 * created once and used by all the mementos.
+	 */
+	private static DocumentBuilderFactory builderFactory;
+
+	private static final ErrorHandler ERROR_HANDLER = new ErrorHandler() {
+		/**
+		 * @throws SAXException
+		 */
+		@Override
+		public void warning(SAXParseException exception) throws SAXException {
+			// ignore
+		}
+
+		/**
+		 * @throws SAXException
+		 */
+		@Override
+		public void error(SAXParseException exception) throws SAXException {
+			// ignore
+		}
+
+		@Override
+		public void fatalError(SAXParseException exception) throws SAXException {
+			throw exception;
+		}
+	};
+
     private Document factory;
 
     private Element element;
@@ -84,35 +114,13 @@ public final class XMLMemento implements IMemento {
         Exception exception = null;
 
         try {
-			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder parser = factory.newDocumentBuilder();
+            DocumentBuilder parser = newDocumentBuilder();
             InputSource source = new InputSource(reader);
             if (baseDir != null) {
 				source.setSystemId(baseDir);
 			}
 
-			parser.setErrorHandler(new ErrorHandler() {
-				/**
-				 * @throws SAXException
-				 */
-				@Override
-				public void warning(SAXParseException exception) throws SAXException {
-					// ignore
-				}
-
-				/**
-				 * @throws SAXException
-				 */
-				@Override
-				public void error(SAXParseException exception) throws SAXException {
-					// ignore
-				}
-
-				@Override
-				public void fatalError(SAXParseException exception) throws SAXException {
-					throw exception;
-				}
-			});
+			parser.setErrorHandler(ERROR_HANDLER);
 
             Document document = parser.parse(source);
             NodeList list = document.getChildNodes();
@@ -155,8 +163,7 @@ public final class XMLMemento implements IMemento {
 	public static XMLMemento createWriteRoot(String type) throws DOMException {
         Document document;
         try {
-            document = DocumentBuilderFactory.newInstance()
-                    .newDocumentBuilder().newDocument();
+            document = newDocumentBuilder().newDocument();
             Element element = document.createElement(type);
             document.appendChild(element);
             return new XMLMemento(document, element);
@@ -166,6 +173,17 @@ public final class XMLMemento implements IMemento {
         }
     }
 
+	private static DocumentBuilder newDocumentBuilder() throws ParserConfigurationException {
+		synchronized (XMLMemento.class) {
+			if (builderFactory == null) {
+				builderFactory = DocumentBuilderFactory.newInstance();
+			}
+			// the factory isn't thread safe, the builders it creates are
+			// used by one thread each
+			return builderFactory.newDocumentBuilder();
+		}
+	}
+
     /**
      * Creates a memento for the specified document and element.
      * <p>
@@ -78,6 +78,7 @@ import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.di.InjectionException;
 import org.eclipse.e4.core.services.events.IEventBroker;
 import org.eclipse.e4.ui.internal.workbench.E4Workbench;
+import org.eclipse.e4.ui.internal.workbench.ModelJournal;
 import org.eclipse.e4.ui.internal.workbench.renderers.swt.IUpdateService;
 import org.eclipse.e4.ui.internal.workbench.swt.E4Application;
 import org.eclipse.e4.ui.internal.workbench.swt.IEventLoopAdvisor;
@@ -98,7 +99,9 @@ import org.eclipse.e4.ui.model.application.ui.basic.MTrimmedWindow;
 import org.eclipse.e4.ui.model.application.ui.basic.MWindow;
 import org.eclipse.e4.ui.model.application.ui.basic.impl.BasicFactoryImpl;
 import org.eclipse.e4.ui.model.application.ui.menu.MMenu;
+import org.eclipse.e4.ui.model.application.ui.menu.MMenuContribution;
 import org.eclipse.e4.ui.model.application.ui.menu.MToolBar;
+import org.eclipse.e4.ui.model.application.ui.menu.MToolBarContribution;
 import org.eclipse.e4.ui.model.application.ui.menu.MTrimContribution;
 import org.eclipse.e4.ui.services.EContextService;
 import org.eclipse.e4.ui.workbench.IModelResourceHandler;
@@ -108,6 +111,7 @@ import org.eclipse.e4.ui.workbench.modeling.EModelService;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.xmi.XMLResource;
 import org.eclipse.equinox.app.IApplication;
 import org.eclipse.equinox.app.IApplicationContext;
 import org.eclipse.jface.action.ActionContributionItem;
@@ -1283,26 +1287,40 @@ public final class Workbench extends EventManager implements IWorkbench,
 
 	/**
 	 * Copy the model, clean it up and write it out to workbench.xmi. Called as
-	 * part of persist(false) during auto-save.
+	 * part of persist(false) during auto-save. When the model changes are
+	 * journaled, only the changes are written most of the time.
 	 */
 	private void persistWorkbenchModel() {
 		if (Job.getJobManager().find(WORKBENCH_AUTO_SAVE_JOB).length > 0) {
 			return;
 		}
-		final MApplication appCopy = (MApplication) EcoreUtil.copy((EObject) application);
-		if (detectWorkbenchCorruption(appCopy)) {
+		final ModelJournal journal = e4Context.get(ModelJournal.class);
+		if (journal != null && !journal.needsCompaction()) {
+			journalWorkbenchModel(journal);
 			return;
 		}
+		if (detectWorkbenchCorruption(application)) {
+			return;
+		}
+		final ModelJournal.Compaction compaction = journal == null ? null : journal.startCompaction(application);
+		final MApplication appCopy = compaction == null ? (MApplication) EcoreUtil.copy((EObject) application)
+				: compaction.getApplication();
 		final IModelResourceHandler handler = e4Context.get(IModelResourceHandler.class);
 
 		Job cleanAndSaveJob = new Job(WORKBENCH_AUTO_SAVE_BACKGROUND_JOB) {
 			@Override
 			protected IStatus run(IProgressMonitor monitor) {
 				final Resource res = handler.createResourceWithApp(appCopy);
+				if (compaction != null && res instanceof XMLResource) {
+					compaction.applyIds((XMLResource) res);
+				}
 				cleanUpCopy(appCopy, e4Context);
 				try {
 					if (!detectWorkbenchCorruption((MApplication) res.getContents().get(0))) {
 						res.save(null);
+						if (compaction != null) {
+							journal.compacted(compaction.getToken());
+						}
 					}
 				} catch (IOException e) {
 					// Just auto-save, we don't really care
@@ -1324,6 +1342,65 @@ public final class Workbench extends EventManager implements IWorkbench,
 		cleanAndSaveJob.schedule();
 	}
 
+	/**
+	 * Appends the changes made to the model since the last auto-save to the
+	 * journal. Only the changed elements are written, the model is saved in
+	 * full from time to time by {@link #persistWorkbenchModel()}.
+	 */
+	private void journalWorkbenchModel(final ModelJournal journal) {
+		if (detectWorkbenchCorruption(application)) {
+			return;
+		}
+		final byte[] snapshot = journal.takeSnapshot();
+		if (snapshot == null) {
+			return;
+		}
+
+		Job journalJob = new Job(WORKBENCH_AUTO_SAVE_BACKGROUND_JOB) {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				try {
+					journal.append(snapshot);
+				} catch (IOException e) {
+					// Just auto-save, the next one saves the whole model
+				}
+				return Status.OK_STATUS;
+			}
+
+			@Override
+			public boolean belongsTo(Object family) {
+				return WORKBENCH_AUTO_SAVE_JOB.equals(family);
+			}
+		};
+		journalJob.setPriority(Job.SHORT);
+		journalJob.setSystem(true);
+		journalJob.schedule();
+	}
+
+	/**
+	 * Tells whether an element is kept by
+	 * {@link #cleanUpCopy(MApplication, IEclipseContext)}, so that the model
+	 * journal leaves out the same elements as the saved model.
+	 */
+	private static boolean isPersisted(EObject element) {
+		EObject container = element.eContainer();
+		if (container instanceof MApplication) {
+			return !(element instanceof MMenuContribution || element instanceof MToolBarContribution
+					|| element instanceof MTrimContribution);
+		}
+		if (container instanceof MTrimmedWindow) {
+			return ((MTrimmedWindow) container).getMainMenu() != element;
+		}
+		if (container instanceof MTrimBar) {
+			return !((MTrimBar) container).getPendingCleanup().contains(element);
+		}
+		if (container instanceof MMenu || container instanceof MToolBar) {
+			// the menus and the tool bar of the parts are saved empty
+			return !(container.eContainer() instanceof MPart);
+		}
+		return true;
+	}
+
 	private static void cleanUpCopy(MApplication appCopy, IEclipseContext context) {
 		// clean up all trim bars that come from trim bar contributions
 		// the trim elements that need to be removed are stored in the trimBar.
@@ -1972,6 +2049,11 @@ public final class Workbench extends EventManager implements IWorkbench,
 			applicationModelChanged = true;
 		});
 
+		ModelJournal journal = e4Context.get(ModelJournal.class);
+		if (journal != null) {
+			journal.setFilter(Workbench::isPersisted);
+		}
+
 		boolean found = false;
 		List<MPartDescriptor> currentDescriptors = application.getDescriptors();
 		for (MPartDescriptor desc : currentDescriptors) {
@@ -0,0 +1,220 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.ui.internal.activities;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Finds the activities whose pattern bindings match an identifier, looking at
+ * all the bindings at once rather than activity by activity.
+ * <p>
+ * Equality patterns are looked up in a hash table. Regular expressions are
+ * indexed in a trie by the literal text they start with, so that only the
+ * expressions whose prefix the identifier starts with are evaluated. An
+ * expression bound to several activities is evaluated once, and not at all
+ * when all of its activities have already matched.
+ * </p>
+ * <p>
+ * Instances are immutable, a new matcher is built whenever the pattern
+ * bindings change.
+ * </p>
+ *
+ * @since 3.111
+ */
+final class ActivityPatternMatcher {
+
+	private static final String REGEX_META_CHARACTERS = "[](){}.*+?^$|"; //$NON-NLS-1$
+
+	private static final String REGEX_QUANTIFIERS = "*?{"; //$NON-NLS-1$
+
+	private static final class PatternEntry {
+		final Pattern pattern;
+
+		final List<String> activityIds = new ArrayList<>(1);
+
+		PatternEntry(Pattern pattern) {
+			this.pattern = pattern;
+		}
+	}
+
+	private static final class PrefixNode {
+		Map<Character, PrefixNode> children;
+
+		List<PatternEntry> patterns;
+	}
+
+	private final Map<String, Set<String>> activityIdsByString = new HashMap<>();
+
+	private final PrefixNode root = new PrefixNode();
+
+	private final Map<String, PatternEntry> patternEntriesByRegex = new HashMap<>();
+
+	/**
+	 * Builds a matcher for the given bindings.
+	 *
+	 * @param activityPatternBindingsByActivityId
+	 *            the sets of {@link ActivityPatternBinding} of the defined
+	 *            activities, by activity id
+	 */
+	ActivityPatternMatcher(Map activityPatternBindingsByActivityId) {
+		for (Iterator iterator = activityPatternBindingsByActivityId.values().iterator(); iterator.hasNext();) {
+			Collection activityPatternBindings = (Collection) iterator.next();
+			for (Iterator iterator2 = activityPatternBindings.iterator(); iterator2.hasNext();) {
+				ActivityPatternBinding activityPatternBinding = (ActivityPatternBinding) iterator2.next();
+				String activityId = activityPatternBinding.getActivityId();
+
+				if (activityPatternBinding.isEqualityPattern()) {
+					activityIdsByString.computeIfAbsent(activityPatternBinding.getString(), s -> new HashSet<>(2))
+							.add(activityId);
+				} else {
+					getPatternEntry(activityPatternBinding.getPattern()).activityIds.add(activityId);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the ids of the activities with a pattern binding matching the
+	 * given identifier.
+	 *
+	 * @param identifierId
+	 *            the identifier to match
+	 * @return the matching activity ids, never <code>null</code>
+	 */
+	Set<String> getMatchingActivityIds(String identifierId) {
+		Set<String> activityIds = null;
+		Set<String> equalActivityIds = activityIdsByString.get(identifierId);
+		if (equalActivityIds != null) {
+			activityIds = new HashSet<>(equalActivityIds);
+		}
+
+		PrefixNode node = root;
+		int index = 0;
+		while (node != null) {
+			if (node.patterns != null) {
+				for (PatternEntry entry : node.patterns) {
+					if ((activityIds == null || !activityIds.containsAll(entry.activityIds))
+							&& entry.pattern.matcher(identifierId).matches()) {
+						if (activityIds == null) {
+							activityIds = new HashSet<>();
+						}
+						activityIds.addAll(entry.activityIds);
+					}
+				}
+			}
+			if (node.children == null || index == identifierId.length()) {
+				break;
+			}
+			node = node.children.get(Character.valueOf(identifierId.charAt(index++)));
+		}
+
+		if (activityIds == null) {
+			return Collections.emptySet();
+		}
+		return activityIds;
+	}
+
+	/*
+	 * Returns the entry of the given expression, which is shared by all the
+	 * activities bound to the same expression so that it is evaluated once.
+	 */
+	private PatternEntry getPatternEntry(Pattern pattern) {
+		String key = pattern.flags() + ":" + pattern.pattern(); //$NON-NLS-1$
+		PatternEntry entry = patternEntriesByRegex.get(key);
+		if (entry == null) {
+			entry = new PatternEntry(pattern);
+			patternEntriesByRegex.put(key, entry);
+			PrefixNode node = getNode(getLiteralPrefix(pattern));
+			if (node.patterns == null) {
+				node.patterns = new ArrayList<>(2);
+			}
+			node.patterns.add(entry);
+		}
+		return entry;
+	}
+
+	private PrefixNode getNode(String prefix) {
+		PrefixNode node = root;
+		for (int i = 0; i < prefix.length(); i++) {
+			if (node.children == null) {
+				node.children = new HashMap<>(4);
+			}
+			node = node.children.computeIfAbsent(Character.valueOf(prefix.charAt(i)), c -> new PrefixNode());
+		}
+		return node;
+	}
+
+	/**
+	 * Returns the literal text that every string matched by the given
+	 * expression starts with. The empty string is returned when it can't be
+	 * told, which makes the expression a candidate for every identifier.
+	 *
+	 * @param pattern
+	 *            the compiled expression
+	 * @return the literal prefix of the expression
+	 */
+	static String getLiteralPrefix(Pattern pattern) {
+		String regex = pattern.pattern();
+		// flags, such as case insensitivity, and alternatives could make the
+		// expression match strings not starting with its first characters
+		if (pattern.flags() != 0 || regex.indexOf('|') >= 0) {
+			return ""; //$NON-NLS-1$
+		}
+
+		StringBuilder prefix = new StringBuilder();
+		int index = 0;
+		int length = regex.length();
+		while (index < length) {
+			char c = regex.charAt(index);
+			if (c == '\\') {
+				if (index + 1 == length) {
+					break;
+				}
+				char escaped = regex.charAt(index + 1);
+				if (escaped == 'Q') {
+					int end = regex.indexOf("\\E", index + 2); //$NON-NLS-1$
+					if (end < 0) {
+						end = length;
+					}
+					prefix.append(regex, index + 2, end);
+					index = end + 2;
+				} else if (Character.isLetterOrDigit(escaped)) {
+					// a character class, a back reference or a boundary
+					break;
+				} else {
+					prefix.append(escaped);
+					index += 2;
+				}
+			} else if (REGEX_META_CHARACTERS.indexOf(c) >= 0) {
+				break;
+			} else {
+				prefix.append(c);
+				index++;
+			}
+		}
+
+		// a quantifier can make the last character optional
+		if (index < length && prefix.length() > 0 && REGEX_QUANTIFIERS.indexOf(regex.charAt(index)) >= 0) {
+			prefix.setLength(prefix.length() - 1);
+		}
+		return prefix.toString();
+	}
+}
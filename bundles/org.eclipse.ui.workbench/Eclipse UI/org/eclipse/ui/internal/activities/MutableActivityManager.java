@@ -65,6 +65,15 @@ public final class MutableActivityManager extends AbstractActivityManager
 
     private Map activityPatternBindingsByActivityId = new HashMap();
 
+	private volatile ActivityPatternMatcher activityPatternMatcher = new ActivityPatternMatcher(
+			Collections.EMPTY_MAP);
+
+	/**
+	 * Whether an activity has been created for each defined activity id.
+	 * Matching identifiers used to create them as a side effect.
+	 */
+	private boolean definedActivitiesCreated = false;
+
     private IActivityRegistry activityRegistry;
 
     private Map categoriesById = new HashMap();
@@ -424,6 +433,8 @@ public final class MutableActivityManager extends AbstractActivityManager
         this.activityRequirementBindingsByActivityId = activityRequirementBindingsByActivityId;
         this.activityDefinitionsById = activityDefinitionsById;
         this.activityPatternBindingsByActivityId = activityPatternBindingsByActivityId;
+		this.activityPatternMatcher = new ActivityPatternMatcher(activityPatternBindingsByActivityId);
+		this.definedActivitiesCreated = false;
         this.categoryActivityBindingsByCategoryId = categoryActivityBindingsByCategoryId;
         this.categoryDefinitionsById = categoryDefinitionsById;
         boolean definedActivityIdsChanged = false;
@@ -818,19 +829,22 @@ public final class MutableActivityManager extends AbstractActivityManager
                         enabledChanged);
 			}
         } else {
-            Set activityIdsToUpdate = new HashSet(changedActivityIds);
-            if (identifier.getActivityIds() != null) {
-                activityIdsToUpdate.addAll(identifier.getActivityIds());
-            }
-            for (Iterator iterator = activityIdsToUpdate.iterator(); iterator
-                    .hasNext();) {
-                String activityId = (String) iterator.next();
-                Activity activity = (Activity) getActivity(activityId);
+			if (!definedActivitiesCreated) {
+				for (Iterator iterator = definedActivityIds.iterator(); iterator.hasNext();) {
+					getActivity((String) iterator.next());
+				}
+				definedActivitiesCreated = true;
+			}
 
-                if (activity.isMatch(id)) {
-                    activityIds.add(activityId);
-               }
-            }
+			// only the changed activities, and those which matched before,
+			// need updating
+			Set previousActivityIds = identifier.getActivityIds();
+			for (String activityId : activityPatternMatcher.getMatchingActivityIds(id)) {
+				if (changedActivityIds.contains(activityId)
+						|| (previousActivityIds != null && previousActivityIds.contains(activityId))) {
+					activityIds.add(activityId);
+				}
+			}
 
             activityIdsChanged = identifier.setActivityIds(activityIds);
 
@@ -901,15 +915,7 @@ public final class MutableActivityManager extends AbstractActivityManager
 
 				while (!deferredIdentifiers.isEmpty()) {
 					Identifier identifier = (Identifier) deferredIdentifiers.remove(0);
-					Set activityIds = new HashSet();
-					for (Iterator iterator = definedActivityIds.iterator(); iterator.hasNext();) {
-						String activityId = (String) iterator.next();
-						Activity activity = (Activity) getActivity(activityId);
-
-						if (activity.isMatch(identifier.getId())) {
-							activityIds.add(activityId);
-						}
-					}
+					Set activityIds = new HashSet(activityPatternMatcher.getMatchingActivityIds(identifier.getId()));
 
 					boolean activityIdsChanged = identifier.setActivityIds(activityIds);
 					if (activityIdsChanged) {
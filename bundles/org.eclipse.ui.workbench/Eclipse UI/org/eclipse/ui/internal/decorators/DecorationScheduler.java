@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -26,6 +26,7 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.e4.ui.services.EUIScheduler;
 import org.eclipse.jface.resource.ResourceManager;
 import org.eclipse.jface.viewers.DecorationContext;
 import org.eclipse.jface.viewers.IDecorationContext;
@@ -443,6 +444,8 @@ public class DecorationScheduler {
 	private WorkbenchJob getUpdateJob() {
 		WorkbenchJob job = new WorkbenchJob(WorkbenchMessages.DecorationScheduler_UpdateJobName) {
 
+			final EUIScheduler scheduler = PlatformUI.getWorkbench().getService(EUIScheduler.class);
+
 			int currentIndex = NEEDS_INIT;
 
 			LabelProviderChangedEvent labelProviderChangedEvent;
@@ -486,9 +489,10 @@ public class DecorationScheduler {
 								labelProviderChangedEvent, listener);
 					}
 
-					// If it is taking long enough for the user to notice then
-					// cancel the updates.
-					if ((System.currentTimeMillis() - startTime) >= UPDATE_DELAY / 2) {
+					// If it is taking long enough for the user to notice, or if
+					// more urgent work is waiting, then cancel the updates.
+					if ((System.currentTimeMillis() - startTime) >= UPDATE_DELAY / 2
+							|| (scheduler != null && scheduler.shouldYield())) {
 						break;
 					}
 				}
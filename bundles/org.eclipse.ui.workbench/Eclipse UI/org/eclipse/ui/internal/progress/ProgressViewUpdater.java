@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2015 IBM Corporation and others.
+ * Copyright (c) 2003, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,6 +16,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import org.eclipse.e4.ui.services.EUIScheduler;
 import org.eclipse.jface.util.Throttler;
 import org.eclipse.ui.IWorkbenchPreferenceConstants;
 import org.eclipse.ui.PlatformUI;
@@ -34,8 +35,10 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
 
     boolean debug;
 
+	private final EUIScheduler scheduler = PlatformUI.getWorkbench().getService(EUIScheduler.class);
+
 	Throttler throttledUpdate = new Throttler(PlatformUI.getWorkbench().getDisplay(), Duration.ofMillis(100),
-			this::update);
+			this::scheduleUpdate);
 
     /**
      * The UpdatesInfo is a private class for keeping track of the updates
@@ -206,6 +209,16 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
     }
 
 	/** Running in UI thread by throttledUpdate */
+	private void scheduleUpdate() {
+		if (scheduler == null) {
+			update();
+		} else {
+			// let the more urgent work run first, the pending updates are
+			// collected in currentInfo until then
+			scheduler.schedule(EUIScheduler.Priority.RENDER, this, this::update);
+		}
+	}
+
 	private void update() {
 		// Abort the update if there isn't anything
 		if (collectors.isEmpty()) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -32,6 +32,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -134,6 +135,29 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 	 */
 	private Map<Object, ImageDescriptor> extensionImages = new HashMap<>();
 
+	private static final int MAX_RELATED_EDITORS = 1024;
+
+	/**
+	 * Cached editors related to the files, keyed by the key of the mapping for
+	 * the file name or extension and the id of the content type. The cache is
+	 * cleared whenever the mappings, the bindings of the content types or the
+	 * enabled activities change. Access to the cache is synchronized on it as
+	 * label decorators ask for the editors outside of the UI thread.
+	 *
+	 * @see #getRelatedEditors(IContentType, String)
+	 */
+	private final Map<List<String>, IEditorDescriptor[]> relatedEditors = new LinkedHashMap<List<String>, IEditorDescriptor[]>(
+			64, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<List<String>, IEditorDescriptor[]> eldest) {
+			return size() > MAX_RELATED_EDITORS;
+		}
+	};
+
+	private boolean activityListenerAdded;
+
     /**
      * Vector of EditorDescriptor - all the editors loaded from plugin files.
      * The list is kept in order to be able to show in the editor selection
@@ -183,6 +207,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
         tracker.registerHandler(this, ExtensionTracker.createExtensionPointFilter(getExtensionPointFilter()));
 		relatedRegistry = new RelatedRegistry();
 		contentTypeManager.addContentTypeChangeListener(event -> {
+			clearRelatedEditors();
 			if (contentTypeManager.getContentType(event.getContentType().getId()) == null) {
 				contentTypeToEditorMappingsFromUser.remove(event.getContentType());
 				saveAssociations();
@@ -271,6 +296,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 
         // Update editor map.
         mapIDtoEditor.put(editor.getId(), editor);
+        clearRelatedEditors();
     }
 
 	public void addContentTypeBindingFromPlugin(IContentType contentType, IEditorDescriptor editor, boolean bDefault) {
@@ -291,6 +317,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 			}
 			contentTypeToEditorMappingsFromPlugins.put(contentType, newArray);
 		}
+		clearRelatedEditors();
 	}
 
     /**
@@ -1079,6 +1106,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
             typeEditorMappings.put(mappingKeyFor(mapping), mapping);
         }
         extensionImages = new HashMap<>();
+        clearRelatedEditors();
         rebuildEditorMap();
         firePropertyChange(PROP_CONTENTS);
     }
@@ -1097,6 +1125,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 		if (mapping[1] != null) {
 			mapping[1].setDefaultEditor(desc);
 		}
+		clearRelatedEditors();
     }
 
     /**
@@ -1276,6 +1305,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
             }
 
         }
+        clearRelatedEditors();
     }
 
     /**
@@ -1360,7 +1390,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 	private IEditorDescriptor getEditorForContentType(String filename,
 			IContentType contentType) {
 		IEditorDescriptor desc = null;
-		Object[] contentTypeResults = findRelatedObjects(contentType, filename, relatedRegistry);
+		Object[] contentTypeResults = getRelatedEditors(contentType, filename);
 		if (contentTypeResults != null && contentTypeResults.length > 0) {
 			desc = (IEditorDescriptor) contentTypeResults[0];
 		}
@@ -1369,7 +1399,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 
 	@Override
 	public IEditorDescriptor[] getEditors(String fileName, IContentType contentType) {
-		return findRelatedObjects(contentType, fileName, relatedRegistry);
+		return getRelatedEditors(contentType, fileName).clone();
 	}
 
 	@Override
@@ -1428,6 +1458,60 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 
 	}
 
+	/**
+	 * Returns the editors related to the file and the content type, in the
+	 * order of {@link #findRelatedObjects(IContentType, String, RelatedRegistry)}.
+	 * The returned array is shared and must not be modified.
+	 *
+	 * @param type
+	 *            the content type, or <code>null</code>
+	 * @param fileName
+	 *            the file name, or <code>null</code>
+	 * @return the related editors
+	 */
+	private IEditorDescriptor[] getRelatedEditors(IContentType type, String fileName) {
+		List<String> key = Arrays.asList(relatedEditorsKeyFor(fileName), type == null ? null : type.getId());
+		synchronized (relatedEditors) {
+			IEditorDescriptor[] editors = relatedEditors.get(key);
+			if (editors != null) {
+				return editors;
+			}
+			editors = findRelatedObjects(type, fileName, relatedRegistry);
+			if (!activityListenerAdded) {
+				activityListenerAdded = true;
+				PlatformUI.getWorkbench().getActivitySupport().getActivityManager()
+						.addActivityManagerListener(event -> {
+							if (event.haveEnabledActivityIdsChanged()) {
+								clearRelatedEditors();
+							}
+						});
+			}
+			relatedEditors.put(key, editors);
+			return editors;
+		}
+	}
+
+	/**
+	 * Returns the key of the editors related to the file. The files without a
+	 * mapping for their name share the editors of their extension.
+	 */
+	private String relatedEditorsKeyFor(String fileName) {
+		if (fileName == null) {
+			return null;
+		}
+		if (getMappingFor(fileName) != null) {
+			return mappingKeyFor(fileName);
+		}
+		int index = fileName.lastIndexOf('.');
+		return index > -1 ? mappingKeyFor("*" + fileName.substring(index)) : ""; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private void clearRelatedEditors() {
+		synchronized (relatedEditors) {
+			relatedEditors.clear();
+		}
+	}
+
     /**
 	 * Find objects related to the content type.
 	 *
@@ -1639,6 +1723,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 		if (this.contentTypeToEditorMappingsFromUser.containsKey(contentType)) {
 			this.contentTypeToEditorMappingsFromUser.get(contentType).remove(editor);
 		}
+		clearRelatedEditors();
 		saveAssociations();
 	}
 
@@ -1654,6 +1739,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 			mapIDtoEditor.put(selectedEditor.getId(), selectedEditor);
 		}
 		this.contentTypeToEditorMappingsFromUser.get(contentType).add(selectedEditor);
+		clearRelatedEditors();
 		saveAssociations();
 	}
 
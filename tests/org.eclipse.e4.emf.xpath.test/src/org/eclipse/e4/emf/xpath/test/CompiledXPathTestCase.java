@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.e4.emf.xpath.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.commons.jxpath.JXPathNotFoundException;
+import org.eclipse.e4.emf.xpath.CompiledXPath;
+import org.eclipse.e4.emf.xpath.EcoreXPathContextFactory;
+import org.eclipse.e4.emf.xpath.XPathContext;
+import org.eclipse.e4.emf.xpath.XPathContextFactory;
+import org.eclipse.e4.emf.xpath.test.model.xpathtest.Node;
+import org.eclipse.e4.emf.xpath.test.model.xpathtest.XpathtestPackage;
+import org.eclipse.e4.emf.xpath.test.model.xpathtest.impl.ExtendedNodeImpl;
+import org.eclipse.e4.emf.xpath.test.model.xpathtest.impl.MenuImpl;
+import org.eclipse.e4.emf.xpath.test.model.xpathtest.impl.NodeImpl;
+import org.eclipse.e4.emf.xpath.test.model.xpathtest.impl.RootImpl;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceFactoryImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CompiledXPathTestCase {
+	private ResourceSet resourceSet;
+	private XPathContextFactory<EObject> factory;
+	private XPathContext xpathContext;
+	private Resource resource;
+
+	@Test
+	public void testSimpleQuery() {
+		assertSame(RootImpl.class, compile("/").getValue(xpathContext).getClass());
+		assertSame(RootImpl.class, compile(".").getValue(xpathContext).getClass());
+		assertSame(RootImpl.class, compile(".[@id='root']").getValue(xpathContext).getClass());
+		assertEquals("element1", compile("nodes[1]/@id").getValue(xpathContext));
+		assertEquals(NodeImpl.class, compile("//.[@id='element2.2']").getValue(xpathContext).getClass());
+		assertEquals(ExtendedNodeImpl.class,
+				compile("//.[ecore:eClassName(.)='ExtendedNode']").getValue(xpathContext).getClass());
+		assertEquals("element1", compile("nodes[1]/@id").getValue(xpathContext, String.class));
+	}
+
+	@Test
+	public void testNotFound() {
+		try {
+			compile(".[@id='nixda']").getValue(xpathContext);
+			fail("This query should fail with JXPathNotFoundException");
+		} catch (JXPathNotFoundException e) {
+		}
+		assertFalse(compile("//*[@id='nixda']").iterate(xpathContext).hasNext());
+	}
+
+	@Test
+	public void testMenuQuery() {
+		Iterator<Object> i = compile("//.[@id='menu.1']").iterate(xpathContext);
+		assertSame(NodeImpl.class, i.next().getClass());
+		assertSame(MenuImpl.class, i.next().getClass());
+		// each object is found once, although the model has a loop in it
+		assertFalse(i.hasNext());
+	}
+
+	@Test
+	public void testPredicates() {
+		assertEquals(ids("element2.1", "element2.3"),
+				ids(compile("/nodes[@id='element2']/children[@value='val2.1' or @value='val2.3']")));
+		assertEquals(ids("element1.1"), ids(compile("//*[@id='element1.1' and @cat='cat1.1']")));
+		assertEquals(ids("element2"), ids(compile("//*[ 'cat2' = @cat ]")));
+		assertEquals(ids("element2.3"), ids(compile("//*[ecore:eClassName(.)=\"ExtendedNode\"]")));
+	}
+
+	@Test
+	public void testContainmentOrder() {
+		assertEquals(ids("element2.1", "element2.1.1", "element2.2", "element2.3"),
+				ids(compile(
+						"nodes[@id='element2']//children[ecore:eClassName(.)='Node' or ecore:eClassName(.)='ExtendedNode']")));
+	}
+
+	@Test
+	public void testSameResultsAsContext() {
+		String[] xpaths = { "//.[@id='element2.2']", "//*[@cat='cat1.1']",
+				"//.[@id='menuContainer.1']/menus[@id='menu.1']", "nodes[@id='element1']/children[last()]" };
+		// the elements JXPath finds several times are found once
+		for (String xpath : xpaths) {
+			List<Object> expected = new ArrayList<>();
+			for (Iterator<Object> i = xpathContext.iterate(xpath); i.hasNext();) {
+				Object object = i.next();
+				if (!expected.contains(object)) {
+					expected.add(object);
+				}
+			}
+			List<Object> actual = new ArrayList<>();
+			compile(xpath).iterate(xpathContext).forEachRemaining(actual::add);
+			assertEquals(xpath, expected, actual);
+		}
+
+		// the values of a feature are those of JXPath, including the equal ones
+		String[] featureXPaths = { "//.[@id='menuContainer.1']/menus", "nodes[2]/children", "nodes/id",
+				"nodes/children/root" };
+		for (String xpath : featureXPaths) {
+			List<Object> expected = new ArrayList<>();
+			xpathContext.iterate(xpath).forEachRemaining(expected::add);
+			List<Object> actual = new ArrayList<>();
+			compile(xpath).iterate(xpathContext).forEachRemaining(actual::add);
+			assertEquals(xpath, expected, actual);
+		}
+		List<Object> roots = new ArrayList<>();
+		compile("nodes/children/root").iterate(xpathContext).forEachRemaining(roots::add);
+		assertEquals(Collections.nCopies(5, resource.getContents().get(0)), roots);
+	}
+
+	@Test
+	public void testCompileCache() {
+		assertSame(factory.compile("//*[@id='element1']"), factory.compile("//*[@id='element1']"));
+	}
+
+	private CompiledXPath compile(String xpath) {
+		return factory.compile(xpath);
+	}
+
+	private static List<String> ids(String... ids) {
+		List<String> list = new ArrayList<>();
+		for (String id : ids) {
+			list.add(id);
+		}
+		return list;
+	}
+
+	private List<String> ids(CompiledXPath xpath) {
+		List<String> ids = new ArrayList<>();
+		for (Iterator<Object> i = xpath.iterate(xpathContext); i.hasNext();) {
+			ids.add(((Node) i.next()).getId());
+		}
+		return ids;
+	}
+
+	@Before
+	public void setUp() {
+		resourceSet = new ResourceSetImpl();
+		resourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap()
+				.put(Resource.Factory.Registry.DEFAULT_EXTENSION, new XMIResourceFactoryImpl());
+
+		// Register the package to ensure it is available during loading.
+		resourceSet.getPackageRegistry().put(XpathtestPackage.eNS_URI, XpathtestPackage.eINSTANCE);
+		URI uri = URI.createPlatformPluginURI("/org.eclipse.e4.emf.xpath.test/model/Test.xmi", true);
+		resource = resourceSet.getResource(uri, true);
+		factory = EcoreXPathContextFactory.newInstance();
+		xpathContext = factory.newContext(resource.getContents().get(0));
+	}
+
+	@After
+	public void tearDown() {
+		xpathContext = null;
+		resource.unload();
+		resourceSet.getResources().remove(resource);
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014  Thibault Le Ouay and others.
+ * Copyright (c) 2014, 2018  Thibault Le Ouay and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,7 +16,7 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
-@SuiteClasses(ExampleQueriesTestCase.class)
+@SuiteClasses({ ExampleQueriesTestCase.class, CompiledXPathTestCase.class })
 public class EMFTestSuite {
 
 }
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.tests.css.core.parser;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.e4.ui.css.core.dom.ExtendedCSSRule;
+import org.eclipse.e4.ui.css.core.impl.dom.CSSStyleSheetSerializer;
+import org.eclipse.e4.ui.css.core.impl.engine.AbstractCSSEngine;
+import org.eclipse.e4.ui.css.core.impl.engine.CSSEngineImpl;
+import org.eclipse.e4.ui.css.core.impl.engine.CSSStyleSheetCache;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSSelectorFactoryImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.ExtendedSelector;
+import org.eclipse.e4.ui.tests.css.core.util.ParserTestUtil;
+import org.junit.Test;
+import org.w3c.css.sac.InputSource;
+import org.w3c.dom.css.CSSImportRule;
+import org.w3c.dom.css.CSSRuleList;
+import org.w3c.dom.css.CSSStyleSheet;
+
+public class StyleSheetSerializerTest {
+
+	private static final String CSS = "@import url(\"other.css\");\n"
+			+ "CTabFolder.MPartStack, .MPart > Label#title:selected { font-size: 9px; color: #FF8000; }\n"
+			+ "Shell[style~='SWT.RADIO'] Button { swt-corner-radius: 2; background: rgb(1, 2, 3) red 100% 50%; }\n"
+			+ "Label { font-family: 'Segoe UI', sans; color: inherit !important; }";
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		CSSStyleSheet styleSheet = ParserTestUtil.parseCss(CSS);
+		byte[] data = CSSStyleSheetSerializer.serialize(styleSheet);
+		CSSStyleSheet restored = CSSStyleSheetSerializer.deserialize(data, CSSSelectorFactoryImpl.INSTANCE,
+				CSSEngineImpl.CONDITIONFACTORY_INSTANCE);
+
+		CSSRuleList rules = styleSheet.getCssRules();
+		CSSRuleList restoredRules = restored.getCssRules();
+		assertEquals(rules.getLength(), restoredRules.getLength());
+		assertEquals(((CSSImportRule) rules.item(0)).getHref(), ((CSSImportRule) restoredRules.item(0)).getHref());
+		for (int i = 1; i < rules.getLength(); i++) {
+			assertEquals(rules.item(i).getCssText(), restoredRules.item(i).getCssText());
+			ExtendedCSSRule rule = (ExtendedCSSRule) rules.item(i);
+			ExtendedCSSRule restoredRule = (ExtendedCSSRule) restoredRules.item(i);
+			assertEquals(rule.getSelectorList().getLength(), restoredRule.getSelectorList().getLength());
+			for (int j = 0; j < rule.getSelectorList().getLength(); j++) {
+				ExtendedSelector selector = (ExtendedSelector) rule.getSelectorList().item(j);
+				ExtendedSelector restoredSelector = (ExtendedSelector) restoredRule.getSelectorList().item(j);
+				assertEquals(selector.toString(), restoredSelector.toString());
+				assertEquals(selector.getSpecificity(), restoredSelector.getSpecificity());
+			}
+		}
+	}
+
+	@Test
+	public void testCacheSharedBetweenEngines() throws Exception {
+		CSSStyleSheetCache cache = new CSSStyleSheetCache();
+		byte[] content = "Label { color: #FF0000 }".getBytes(StandardCharsets.UTF_8);
+		AbstractCSSEngine first = (AbstractCSSEngine) ParserTestUtil.createEngine();
+		first.setStyleSheetCache(cache);
+		first.parseStyleSheet(createSource(content));
+
+		byte[] data = cache.get("platform:/plugin/test/test.css", content);
+		assertArrayEquals(CSSStyleSheetSerializer.serialize(ParserTestUtil.parseCss(new String(content,
+				StandardCharsets.UTF_8))), data);
+		assertNull(cache.get("platform:/plugin/test/test.css", "Label { color: blue }".getBytes(StandardCharsets.UTF_8)));
+
+		AbstractCSSEngine second = (AbstractCSSEngine) ParserTestUtil.createEngine();
+		second.setStyleSheetCache(cache);
+		CSSStyleSheet styleSheet = (CSSStyleSheet) second.parseStyleSheet(createSource(content));
+		assertEquals("Label { color: rgb(255, 0, 0); }", styleSheet.getCssRules().item(0).getCssText());
+	}
+
+	private static InputSource createSource(byte[] content) {
+		InputSource source = new InputSource();
+		source.setURI("platform:/plugin/test/test.css");
+		source.setByteStream(new ByteArrayInputStream(content));
+		return source;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2016 IBM Corporation and others.
+ * Copyright (c) 2009, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -17,12 +17,15 @@ import org.eclipse.e4.ui.tests.application.Bug308220Test;
 import org.eclipse.e4.ui.tests.application.Bug320857Test;
 import org.eclipse.e4.ui.tests.application.E4ResourceTest;
 import org.eclipse.e4.ui.tests.application.ModelElementTest;
+import org.eclipse.e4.ui.tests.application.ModelIndexTest;
+import org.eclipse.e4.ui.tests.application.ModelJournalTest;
 import org.eclipse.e4.ui.tests.application.ModelRobustnessTest;
 import org.eclipse.e4.ui.tests.application.ResourceHandlerTest;
 import org.eclipse.e4.ui.tests.application.StartupTestSuite;
 import org.eclipse.e4.ui.tests.application.UIEventTypesTest;
 import org.eclipse.e4.ui.tests.workbench.Bug308317Test;
 import org.eclipse.e4.ui.tests.workbench.ContextTest;
+import org.eclipse.e4.ui.tests.workbench.ContributionsAnalyzerTest;
 import org.eclipse.e4.ui.tests.workbench.ExtensionsSortTests;
 import org.eclipse.e4.ui.tests.workbench.HandlerActivationTest;
 import org.eclipse.e4.ui.tests.workbench.HandlerTest;
@@ -41,9 +44,12 @@ import org.eclipse.e4.ui.tests.workbench.PartOnTopManagerTest;
 import org.eclipse.e4.ui.tests.workbench.PartRenderingEngineTests;
 import org.eclipse.e4.ui.tests.workbench.SashRendererTest;
 import org.eclipse.e4.ui.tests.workbench.TopoSortTests;
+import org.eclipse.e4.ui.tests.workbench.UISchedulerTest;
+import org.eclipse.e4.ui.workbench.renderers.swt.CTabRenderingTest;
 import org.eclipse.e4.ui.workbench.renderers.swt.StackRendererTest;
 import org.eclipse.e4.ui.workbench.renderers.swt.TabStateHandlerTest;
 import org.eclipse.e4.ui.workbench.renderers.swt.ThemeDefinitionChangedHandlerTest;
+import org.eclipse.e4.ui.workbench.renderers.swt.ToolItemUpdaterTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
@@ -80,13 +86,17 @@ import org.junit.runners.Suite;
 		// PartFocusTest.class,
 		ModelElementTest.class,
 		StackRendererTest.class,
+		CTabRenderingTest.class,
 		TabStateHandlerTest.class,
 		ThemeDefinitionChangedHandlerTest.class,
 		TopoSortTests.class,
 		ExtensionsSortTests.class,
 		HandlerActivationTest.class,
 		ModelAssemblerTests.class,
-		ModelAssemblerFragmentOrderingTests.class, E4ResourceTest.class
+		ModelAssemblerFragmentOrderingTests.class, E4ResourceTest.class, ModelJournalTest.class, ModelIndexTest.class,
+		UISchedulerTest.class,
+		ContributionsAnalyzerTest.class,
+		ToolItemUpdaterTest.class
 		// SWTPartRendererTest.class,
 })
 public class UIAllTests {
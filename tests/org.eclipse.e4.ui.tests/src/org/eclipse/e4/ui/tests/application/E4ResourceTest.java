@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017 IBM Corporation and others.
+ * Copyright (c) 2017, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,6 +11,11 @@
 
 package org.eclipse.e4.ui.tests.application;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.stream.Collectors;
@@ -18,7 +23,10 @@ import org.eclipse.e4.ui.internal.workbench.E4XMIResource;
 import org.eclipse.e4.ui.model.application.MApplication;
 import org.eclipse.e4.ui.model.application.MApplicationFactory;
 import org.eclipse.e4.ui.model.application.ui.basic.MBasicFactory;
+import org.eclipse.e4.ui.model.application.ui.basic.MPart;
+import org.eclipse.e4.ui.model.application.ui.basic.MPartStack;
 import org.eclipse.e4.ui.model.application.ui.basic.MTrimmedWindow;
+import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EObject;
 import org.junit.Assert;
 import org.junit.Test;
@@ -55,6 +63,50 @@ public class E4ResourceTest {
 		assertEquals(r.getIDToEObjectMap(), r.getEObjectToIDMap());
 	}
 
+	@Test
+	public void testBinaryFormatKeepsIds() throws IOException {
+		E4XMIResource r = new E4XMIResource(URI.createURI("workbench.xmi"));
+
+		MApplication a = MApplicationFactory.INSTANCE.createApplication();
+		MTrimmedWindow w = MBasicFactory.INSTANCE.createTrimmedWindow();
+		w.getPersistedState().put("key", "value");
+		a.getChildren().add(w);
+		MPartStack stack = MBasicFactory.INSTANCE.createPartStack();
+		w.getChildren().add(stack);
+		MPart part = MBasicFactory.INSTANCE.createPart();
+		part.setElementId("part.id");
+		stack.getChildren().add(part);
+		stack.setSelectedElement(part);
+		r.getContents().add((EObject) a);
+
+		ByteArrayOutputStream binary = new ByteArrayOutputStream();
+		r.save(binary, Collections.singletonMap(E4XMIResource.OPTION_BINARY_FORMAT, Boolean.TRUE));
+
+		E4XMIResource loaded = new E4XMIResource(URI.createURI("workbench.xmi"));
+		loaded.load(new ByteArrayInputStream(binary.toByteArray()),
+				Collections.singletonMap(E4XMIResource.OPTION_BINARY_FORMAT, Boolean.TRUE));
+
+		MApplication loadedApplication = (MApplication) loaded.getContents().get(0);
+		MTrimmedWindow loadedWindow = (MTrimmedWindow) loadedApplication.getChildren().get(0);
+		MPartStack loadedStack = (MPartStack) loadedWindow.getChildren().get(0);
+		MPart loadedPart = (MPart) loadedStack.getChildren().get(0);
+		Assert.assertEquals(r.getID((EObject) a), loaded.getID((EObject) loadedApplication));
+		Assert.assertEquals(r.getID((EObject) w), loaded.getID((EObject) loadedWindow));
+		Assert.assertEquals(r.getID((EObject) part), loaded.getID((EObject) loadedPart));
+		Assert.assertEquals("value", loadedWindow.getPersistedState().get("key"));
+		Assert.assertEquals("part.id", loadedPart.getElementId());
+		Assert.assertSame(loadedPart, loadedStack.getSelectedElement());
+
+		// saved as XMI again, the loaded model is the same as the original one
+		Assert.assertEquals(saveAsXMI(r), saveAsXMI(loaded));
+	}
+
+	private static String saveAsXMI(E4XMIResource resource) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		resource.save(out, null);
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+
 	private void assertEquals(Map<String, EObject> idToObject, Map<EObject, String> objectToId) {
 		Assert.assertEquals(idToObject.size(), objectToId.size());
 		Map<String, EObject> checkMap = objectToId.entrySet().stream()
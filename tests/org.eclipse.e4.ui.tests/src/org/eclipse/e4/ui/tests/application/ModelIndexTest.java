@@ -0,0 +1,232 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.tests.application;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.eclipse.e4.core.contexts.IEclipseContext;
+import org.eclipse.e4.ui.internal.workbench.swt.E4Application;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.ui.MUIElement;
+import org.eclipse.e4.ui.model.application.ui.advanced.MArea;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPerspective;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPerspectiveStack;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPlaceholder;
+import org.eclipse.e4.ui.model.application.ui.basic.MPart;
+import org.eclipse.e4.ui.model.application.ui.basic.MPartStack;
+import org.eclipse.e4.ui.model.application.ui.basic.MTrimBar;
+import org.eclipse.e4.ui.model.application.ui.basic.MTrimmedWindow;
+import org.eclipse.e4.ui.model.application.ui.menu.MMenu;
+import org.eclipse.e4.ui.model.application.ui.menu.MToolBar;
+import org.eclipse.e4.ui.workbench.modeling.EModelService;
+import org.eclipse.e4.ui.workbench.modeling.ElementMatcher;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that the searches of the model service narrowed down by its element
+ * index find the same elements as searches through the whole model.
+ */
+public class ModelIndexTest {
+
+	private static final int[] SEARCH_FLAGS = { EModelService.ANYWHERE, EModelService.PRESENTATION,
+			EModelService.GLOBAL, EModelService.IN_ACTIVE_PERSPECTIVE, EModelService.IN_ANY_PERSPECTIVE,
+			EModelService.IN_SHARED_AREA, EModelService.OUTSIDE_PERSPECTIVE,
+			EModelService.ANYWHERE | EModelService.IN_TRIM | EModelService.IN_MAIN_MENU | EModelService.IN_PART };
+
+	private IEclipseContext applicationContext;
+
+	private EModelService modelService;
+
+	private MApplication application;
+
+	private MTrimmedWindow window;
+
+	private MPerspectiveStack perspectiveStack;
+
+	private MArea area;
+
+	@Before
+	public void setUp() {
+		applicationContext = E4Application.createDefaultContext();
+		modelService = applicationContext.get(EModelService.class);
+
+		application = modelService.createModelElement(MApplication.class);
+		application.setContext(applicationContext);
+		applicationContext.set(MApplication.class, application);
+
+		window = modelService.createModelElement(MTrimmedWindow.class);
+		window.setElementId("window");
+		application.getChildren().add(window);
+
+		MMenu mainMenu = modelService.createModelElement(MMenu.class);
+		mainMenu.setElementId("menu");
+		mainMenu.getTags().add("common");
+		window.setMainMenu(mainMenu);
+
+		MTrimBar trimBar = modelService.createModelElement(MTrimBar.class);
+		MToolBar toolBar = modelService.createModelElement(MToolBar.class);
+		toolBar.setElementId("toolBar");
+		toolBar.getTags().add("common");
+		trimBar.getChildren().add(toolBar);
+		window.getTrimBars().add(trimBar);
+
+		area = modelService.createModelElement(MArea.class);
+		area.setElementId("area");
+		MPartStack areaStack = modelService.createModelElement(MPartStack.class);
+		areaStack.getChildren().add(createPart("editor", "common"));
+		areaStack.getChildren().add(createPart("editor2"));
+		area.getChildren().add(areaStack);
+		window.getSharedElements().add(area);
+		MPart sharedPart = createPart("shared", "common");
+		window.getSharedElements().add(sharedPart);
+
+		perspectiveStack = modelService.createModelElement(MPerspectiveStack.class);
+		window.getChildren().add(perspectiveStack);
+		for (int i = 0; i < 3; i++) {
+			MPerspective perspective = modelService.createModelElement(MPerspective.class);
+			perspective.setElementId("perspective" + i);
+			MPartStack stack = modelService.createModelElement(MPartStack.class);
+			stack.setElementId("stack");
+			stack.getChildren().add(createPart("part" + i, "common"));
+			stack.getChildren().add(createPart("part", "tag" + i));
+			stack.getChildren().add(createPlaceholder(sharedPart));
+			perspective.getChildren().add(stack);
+			perspective.getChildren().add(createPlaceholder(area));
+			perspectiveStack.getChildren().add(perspective);
+		}
+		perspectiveStack.setSelectedElement(perspectiveStack.getChildren().get(1));
+		window.getChildren().add(createPart("outside", "common"));
+	}
+
+	@After
+	public void tearDown() {
+		applicationContext.dispose();
+	}
+
+	private MPart createPart(String id, String... tags) {
+		MPart part = modelService.createModelElement(MPart.class);
+		part.setElementId(id);
+		part.getTags().addAll(Arrays.asList(tags));
+		MMenu menu = modelService.createModelElement(MMenu.class);
+		menu.setElementId(id + ".menu");
+		part.getMenus().add(menu);
+		return part;
+	}
+
+	private MPlaceholder createPlaceholder(MUIElement ref) {
+		MPlaceholder placeholder = modelService.createModelElement(MPlaceholder.class);
+		placeholder.setElementId(ref.getElementId());
+		placeholder.setRef(ref);
+		return placeholder;
+	}
+
+	@Test
+	public void testSameResultsAsFullSearch() {
+		assertSameResults();
+	}
+
+	@Test
+	public void testIdChanged() {
+		assertSameResults();
+		modelService.find("part1", application).setElementId("part");
+		modelService.find("editor2", application).setElementId("part");
+		assertSameResults();
+	}
+
+	@Test
+	public void testTagsChanged() {
+		assertSameResults();
+		MUIElement part = modelService.find("part0", application);
+		part.getTags().add("tag1");
+		part.getTags().add("common");
+		part.getTags().remove("common");
+		assertSameResults();
+		part.getTags().remove("common");
+		part.getTags().set(0, "tag2");
+		modelService.find("editor2", application).getTags().addAll(Arrays.asList("tag0", "tag1"));
+		assertSameResults();
+		modelService.find("editor2", application).getTags().clear();
+		assertSameResults();
+	}
+
+	@Test
+	public void testElementsMoved() {
+		assertSameResults();
+		MPart part = (MPart) modelService.find("part2", application);
+		MPartStack stack = (MPartStack) (MUIElement) modelService.find("editor", application).getParent();
+		stack.getChildren().add(part);
+		window.getChildren().add(createPart("added", "tag0"));
+		perspectiveStack.getChildren().remove(0);
+		assertSameResults();
+	}
+
+	@Test
+	public void testPlaceholderRefChanged() {
+		assertSameResults();
+		List<MPlaceholder> placeholders = modelService.findElements(application, "shared", MPlaceholder.class,
+				null);
+		MPart detached = createPart("detached", "common");
+		placeholders.get(0).setRef(detached);
+		assertSameResults();
+		window.getSharedElements().add(detached);
+		assertSameResults();
+		placeholders.get(1).setRef(null);
+		window.getSharedElements().remove(detached);
+		assertSameResults();
+	}
+
+	@Test
+	public void testSearchRootOutsideApplication() {
+		MPartStack stack = modelService.createModelElement(MPartStack.class);
+		MPart part = createPart("part", "common");
+		stack.getChildren().add(part);
+		assertSame(part, modelService.find("part", stack));
+		assertEquals(Collections.singletonList(part),
+				modelService.findElements(stack, null, MPart.class, Arrays.asList("common")));
+	}
+
+	private void assertSameResults() {
+		List<MUIElement> roots = Arrays.asList(application, window, perspectiveStack,
+				perspectiveStack.getChildren().get(0), area);
+		List<String> ids = Arrays.asList(null, "part", "part1", "editor", "shared", "stack", "area", "menu",
+				"toolBar", "part2.menu", "detached", "added", "missing");
+		List<List<String>> tags = Arrays.asList(null, Arrays.asList("common"), Arrays.asList("tag1"),
+				Arrays.asList("common", "tag0"), Arrays.asList("missing"));
+		List<Class<? extends MUIElement>> classes = Arrays.asList(null, MUIElement.class, MPart.class,
+				MPlaceholder.class, MMenu.class, MArea.class);
+		for (MUIElement root : roots) {
+			for (int flags : SEARCH_FLAGS) {
+				for (String id : ids) {
+					for (List<String> tagsToMatch : tags) {
+						for (Class<? extends MUIElement> clazz : classes) {
+							assertSameResult(root, id, clazz, tagsToMatch, flags);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private <T> void assertSameResult(MUIElement root, String id, Class<T> clazz, List<String> tagsToMatch,
+			int flags) {
+		List<T> expected = modelService.findElements(root, clazz, flags,
+				new ElementMatcher(id, clazz, tagsToMatch));
+		assertEquals(root.getElementId() + ", " + id + ", " + tagsToMatch + ", " + clazz + ", " + flags, expected,
+				modelService.findElements(root, id, clazz, tagsToMatch, flags));
+	}
+}
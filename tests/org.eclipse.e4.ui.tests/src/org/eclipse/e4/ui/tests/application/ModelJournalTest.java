@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.tests.application;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import org.eclipse.e4.ui.internal.workbench.E4XMIResource;
+import org.eclipse.e4.ui.internal.workbench.ModelJournal;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.MApplicationFactory;
+import org.eclipse.e4.ui.model.application.ui.basic.MBasicFactory;
+import org.eclipse.e4.ui.model.application.ui.basic.MPart;
+import org.eclipse.e4.ui.model.application.ui.basic.MPartStack;
+import org.eclipse.e4.ui.model.application.ui.basic.MTrimmedWindow;
+import org.eclipse.e4.ui.model.application.ui.menu.MMenuFactory;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ModelJournalTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private E4XMIResource resource;
+
+	private MApplication application;
+
+	private MTrimmedWindow window;
+
+	private MPartStack stack;
+
+	private File journalFile;
+
+	private ModelJournal journal;
+
+	private byte[] savedModel;
+
+	@Before
+	public void setUp() throws IOException {
+		resource = new E4XMIResource(URI.createURI("workbench.xmi"));
+		application = MApplicationFactory.INSTANCE.createApplication();
+		window = MBasicFactory.INSTANCE.createTrimmedWindow();
+		application.getChildren().add(window);
+		stack = MBasicFactory.INSTANCE.createPartStack();
+		window.getChildren().add(stack);
+		for (int i = 0; i < 3; i++) {
+			MPart part = MBasicFactory.INSTANCE.createPart();
+			part.setElementId("part" + i);
+			part.setLabel("Part " + i);
+			stack.getChildren().add(part);
+		}
+		resource.getContents().add((EObject) application);
+
+		journalFile = new File(folder.getRoot(), "workbench.journal");
+		journal = new ModelJournal(resource, journalFile);
+		((EObject) application).eAdapters().add(new EContentAdapter() {
+			@Override
+			public void notifyChanged(Notification notification) {
+				super.notifyChanged(notification);
+				journal.notifyChanged(notification);
+			}
+		});
+		compact();
+	}
+
+	@Test
+	public void testReplayRestoresChanges() throws IOException {
+		MPart first = (MPart) stack.getChildren().get(0);
+		first.setLabel("Renamed");
+		first.getPersistedState().put("key", "value");
+		first.getTags().add("tag");
+		journal.append(journal.takeSnapshot());
+
+		MPartStack newStack = MBasicFactory.INSTANCE.createPartStack();
+		MPart newPart = MBasicFactory.INSTANCE.createPart();
+		newPart.setElementId("newPart");
+		newPart.getPersistedState().put("state", "new");
+		newStack.getChildren().add(newPart);
+		window.getChildren().add(newStack);
+		newStack.getChildren().add(stack.getChildren().get(2));
+		newStack.setSelectedElement(newPart);
+		stack.getChildren().remove(1);
+		first.getPersistedState().put("key", "changed");
+		journal.append(journal.takeSnapshot());
+
+		Assert.assertNull(journal.takeSnapshot());
+		Assert.assertEquals(saveAsXMI(resource), saveAsXMI(restore()));
+	}
+
+	@Test
+	public void testCompactionStartsNewJournal() throws IOException {
+		((MPart) stack.getChildren().get(0)).setLabel("Before compaction");
+		journal.append(journal.takeSnapshot());
+		compact();
+
+		((MPart) stack.getChildren().get(1)).setLabel("After compaction");
+		journal.append(journal.takeSnapshot());
+
+		E4XMIResource restored = restore();
+		Assert.assertEquals(saveAsXMI(resource), saveAsXMI(restored));
+	}
+
+	@Test
+	public void testJournalOfOtherModelIgnored() throws IOException {
+		byte[] model = savedModel;
+		compact();
+		((MPart) stack.getChildren().get(0)).setLabel("Changed");
+		journal.append(journal.takeSnapshot());
+
+		savedModel = model;
+		E4XMIResource restored = restore();
+		MPart part = (MPart) ((MPartStack) ((MTrimmedWindow) ((MApplication) restored.getContents().get(0))
+				.getChildren().get(0)).getChildren().get(0)).getChildren().get(0);
+		Assert.assertEquals("Part 0", part.getLabel());
+	}
+
+	@Test
+	public void testIncompleteSnapshotIgnored() throws IOException {
+		((MPart) stack.getChildren().get(0)).setLabel("Complete");
+		journal.append(journal.takeSnapshot());
+		String expected = saveAsXMI(resource);
+		((MPart) stack.getChildren().get(1)).setLabel("Incomplete");
+		journal.append(journal.takeSnapshot());
+
+		try (RandomAccessFile file = new RandomAccessFile(journalFile, "rw")) {
+			file.setLength(file.length() - 10);
+		}
+		Assert.assertEquals(expected, saveAsXMI(restore()));
+	}
+
+	@Test
+	public void testFilteredElementsLeftOut() throws IOException {
+		journal.setFilter(element -> element != window.getMainMenu());
+		window.setMainMenu(MMenuFactory.INSTANCE.createMenu());
+		window.getMainMenu().getChildren().add(MMenuFactory.INSTANCE.createDirectMenuItem());
+		window.setLabel("Window");
+		journal.append(journal.takeSnapshot());
+
+		MTrimmedWindow restoredWindow = (MTrimmedWindow) ((MApplication) restore().getContents().get(0))
+				.getChildren().get(0);
+		Assert.assertEquals("Window", restoredWindow.getLabel());
+		Assert.assertNull(restoredWindow.getMainMenu());
+	}
+
+	/*
+	 * Saves the model in full, like the auto-save does from time to time.
+	 */
+	private void compact() throws IOException {
+		ModelJournal.Compaction compaction = journal.startCompaction(application);
+		E4XMIResource copyResource = new E4XMIResource(URI.createURI("workbench.xmi"));
+		copyResource.getContents().add((EObject) compaction.getApplication());
+		compaction.applyIds(copyResource);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		copyResource.save(out, null);
+		savedModel = out.toByteArray();
+		journal.compacted(compaction.getToken());
+	}
+
+	/*
+	 * Loads the model saved in full and replays the journal, like after a
+	 * crash.
+	 */
+	private E4XMIResource restore() throws IOException {
+		E4XMIResource restored = new E4XMIResource(URI.createURI("workbench.xmi"));
+		restored.load(new ByteArrayInputStream(savedModel), null);
+		String token = ModelJournal.removeBaseline((MApplication) restored.getContents().get(0));
+		ModelJournal.replay(restored, journalFile, token);
+		return restored;
+	}
+
+	private static String saveAsXMI(E4XMIResource resource) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		resource.save(out, null);
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+}
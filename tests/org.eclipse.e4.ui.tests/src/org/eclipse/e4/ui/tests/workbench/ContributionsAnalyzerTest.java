@@ -0,0 +1,385 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.tests.workbench;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import org.eclipse.core.expressions.EvaluationResult;
+import org.eclipse.core.expressions.Expression;
+import org.eclipse.core.expressions.ExpressionInfo;
+import org.eclipse.core.expressions.IEvaluationContext;
+import org.eclipse.core.internal.registry.ExtensionRegistry;
+import org.eclipse.core.runtime.ContributorFactoryOSGi;
+import org.eclipse.core.runtime.IContributor;
+import org.eclipse.core.runtime.IExtension;
+import org.eclipse.core.runtime.RegistryFactory;
+import org.eclipse.e4.core.commands.ExpressionContext;
+import org.eclipse.e4.core.contexts.EclipseContextFactory;
+import org.eclipse.e4.core.contexts.IEclipseContext;
+import org.eclipse.e4.ui.internal.workbench.ContributionsAnalyzer;
+import org.eclipse.e4.ui.model.application.ui.MCoreExpression;
+import org.eclipse.e4.ui.model.application.ui.impl.UiFactoryImpl;
+import org.eclipse.e4.ui.services.IServiceConstants;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.FrameworkUtil;
+
+/**
+ * Tests the reuse of the visibility results of core expressions by
+ * {@link ContributionsAnalyzer#isVisible(org.eclipse.e4.ui.model.application.ui.MExpression, ExpressionContext)}.
+ */
+public class ContributionsAnalyzerTest {
+
+	private static final String CACHED_VISIBILITY = "ContributionsAnalyzer.cachedVisibility";
+
+	private static final String DEFINITION_ID = "org.eclipse.e4.ui.tests.cacheTest.definition";
+
+	private IEclipseContext context;
+
+	private ExpressionContext eContext;
+
+	@Before
+	public void setUp() {
+		context = EclipseContextFactory.create("ContributionsAnalyzerTest");
+		eContext = new ExpressionContext(context);
+		ContributionsAnalyzer.traceVisibilityCache(null);
+	}
+
+	@After
+	public void tearDown() {
+		context.dispose();
+	}
+
+	private static MCoreExpression createCoreExpression(Expression expression) {
+		MCoreExpression coreExpression = UiFactoryImpl.eINSTANCE.createCoreExpression();
+		coreExpression.setCoreExpression(expression);
+		return coreExpression;
+	}
+
+	private boolean isVisible(MCoreExpression coreExpression) {
+		return ContributionsAnalyzer.isVisible(coreExpression, eContext);
+	}
+
+	@Test
+	public void testReusedWhileVariablesUnchanged() {
+		CountingExpression expression = new CountingExpression("cacheTest.a");
+		MCoreExpression coreExpression = createCoreExpression(expression);
+		context.set("cacheTest.a", "a");
+		context.set("cacheTest.other", "other");
+
+		assertTrue(isVisible(coreExpression));
+		assertTrue(isVisible(coreExpression));
+		// a variable the expression does not access
+		context.set("cacheTest.other", "changed");
+		assertTrue(isVisible(coreExpression));
+		assertEquals(1, expression.evaluations);
+
+		context.set("cacheTest.a", "b");
+		assertTrue(isVisible(coreExpression));
+		assertEquals(2, expression.evaluations);
+
+		// the reused result is the last one computed
+		expression.result = EvaluationResult.FALSE;
+		context.set("cacheTest.a", "c");
+		assertFalse(isVisible(coreExpression));
+		assertFalse(isVisible(coreExpression));
+		assertEquals(3, expression.evaluations);
+	}
+
+	@Test
+	public void testActiveContextsChangedInPlace() {
+		CountingExpression expression = new CountingExpression(IServiceConstants.ACTIVE_CONTEXTS);
+		MCoreExpression coreExpression = createCoreExpression(expression);
+		Set<String> activeContexts = new HashSet<>();
+		activeContexts.add("org.eclipse.ui.contexts.window");
+		context.set(IServiceConstants.ACTIVE_CONTEXTS, activeContexts);
+
+		isVisible(coreExpression);
+		isVisible(coreExpression);
+		assertEquals(1, expression.evaluations);
+
+		activeContexts.add("org.eclipse.ui.textEditorScope");
+		isVisible(coreExpression);
+		assertEquals(2, expression.evaluations);
+
+		activeContexts.remove("org.eclipse.ui.textEditorScope");
+		isVisible(coreExpression);
+		assertEquals(3, expression.evaluations);
+
+		// an equal set rebuilt by the context service
+		context.set(IServiceConstants.ACTIVE_CONTEXTS, new HashSet<>(activeContexts));
+		isVisible(coreExpression);
+		assertEquals(3, expression.evaluations);
+	}
+
+	@Test
+	public void testSelectionChanged() {
+		CountingExpression expression = new CountingExpression();
+		expression.defaultVariable = true;
+		MCoreExpression coreExpression = createCoreExpression(expression);
+		context.set(IServiceConstants.ACTIVE_SELECTION, "selection");
+
+		isVisible(coreExpression);
+		isVisible(coreExpression);
+		assertEquals(1, expression.evaluations);
+
+		context.set(IServiceConstants.ACTIVE_SELECTION, "another selection");
+		isVisible(coreExpression);
+		assertEquals(2, expression.evaluations);
+
+		// no selection
+		context.remove(IServiceConstants.ACTIVE_SELECTION);
+		isVisible(coreExpression);
+		isVisible(coreExpression);
+		assertEquals(3, expression.evaluations);
+	}
+
+	@Test
+	public void testActivePartChanged() {
+		CountingExpression expression = new CountingExpression(IServiceConstants.ACTIVE_PART);
+		MCoreExpression coreExpression = createCoreExpression(expression);
+		Object part = new Object();
+		context.set(IServiceConstants.ACTIVE_PART, part);
+
+		isVisible(coreExpression);
+		isVisible(coreExpression);
+		assertEquals(1, expression.evaluations);
+
+		context.set(IServiceConstants.ACTIVE_PART, new Object());
+		isVisible(coreExpression);
+		assertEquals(2, expression.evaluations);
+
+		context.set(IServiceConstants.ACTIVE_PART, part);
+		isVisible(coreExpression);
+		assertEquals(3, expression.evaluations);
+	}
+
+	@Test
+	public void testPropertyTestNotCached() {
+		CountingExpression expression = new CountingExpression("cacheTest.a");
+		expression.property = true;
+		MCoreExpression coreExpression = createCoreExpression(expression);
+		context.set("cacheTest.a", "a");
+
+		for (int i = 1; i <= 3; i++) {
+			isVisible(coreExpression);
+			assertEquals(i, expression.evaluations);
+		}
+	}
+
+	@Test
+	public void testSystemTestNotCached() {
+		CountingExpression expression = new CountingExpression("cacheTest.a");
+		expression.systemProperty = true;
+		MCoreExpression coreExpression = createCoreExpression(expression);
+		context.set("cacheTest.a", "a");
+
+		for (int i = 1; i <= 3; i++) {
+			isVisible(coreExpression);
+			assertEquals(i, expression.evaluations);
+		}
+	}
+
+	@Test
+	public void testMisbehavingExpressionNotCached() {
+		Expression expression = new Expression() {
+			int evaluations;
+
+			@Override
+			public EvaluationResult evaluate(IEvaluationContext evaluationContext) {
+				return evaluations++ == 0 ? EvaluationResult.TRUE : EvaluationResult.FALSE;
+			}
+		};
+		MCoreExpression coreExpression = createCoreExpression(expression);
+
+		assertTrue(isVisible(coreExpression));
+		assertFalse(isVisible(coreExpression));
+	}
+
+	@Test
+	public void testNotLoadedNotCached() {
+		CountingExpression expression = new CountingExpression("cacheTest.a");
+		expression.result = EvaluationResult.NOT_LOADED;
+		MCoreExpression coreExpression = createCoreExpression(expression);
+		context.set("cacheTest.a", "a");
+
+		// NOT_LOADED shows the element
+		assertTrue(isVisible(coreExpression));
+		assertTrue(isVisible(coreExpression));
+		assertEquals(2, expression.evaluations);
+
+		// once the bundle is loaded
+		expression.result = EvaluationResult.FALSE;
+		assertFalse(isVisible(coreExpression));
+		assertFalse(isVisible(coreExpression));
+		assertEquals(3, expression.evaluations);
+	}
+
+	@Test
+	public void testExceptionNotCached() {
+		CountingExpression expression = new CountingExpression("cacheTest.a");
+		expression.exception = new IllegalStateException("expected by the test");
+		MCoreExpression coreExpression = createCoreExpression(expression);
+		context.set("cacheTest.a", "a");
+
+		assertFalse(isVisible(coreExpression));
+		assertFalse(coreExpression.getTransientData().containsKey(CACHED_VISIBILITY));
+		assertFalse(isVisible(coreExpression));
+		assertEquals(2, expression.evaluations);
+
+		expression.exception = null;
+		assertTrue(isVisible(coreExpression));
+		assertTrue(isVisible(coreExpression));
+		assertEquals(3, expression.evaluations);
+	}
+
+	@Test
+	public void testTraceResetsCounts() throws Exception {
+		CountingExpression expression = new CountingExpression("cacheTest.a");
+		MCoreExpression coreExpression = createCoreExpression(expression);
+		context.set("cacheTest.a", "a");
+		CountingExpression propertyExpression = new CountingExpression("cacheTest.a");
+		propertyExpression.property = true;
+		MCoreExpression propertyCoreExpression = createCoreExpression(propertyExpression);
+
+		isVisible(coreExpression);
+		isVisible(coreExpression);
+		isVisible(coreExpression);
+		// expressions which are never cached are not counted
+		isVisible(propertyCoreExpression);
+		assertEquals(2, getCount("visibilityCacheHits"));
+		assertEquals(1, getCount("visibilityCacheMisses"));
+
+		ContributionsAnalyzer.traceVisibilityCache(null);
+		assertEquals(0, getCount("visibilityCacheHits"));
+		assertEquals(0, getCount("visibilityCacheMisses"));
+
+		isVisible(coreExpression);
+		assertEquals(1, getCount("visibilityCacheHits"));
+		assertEquals(0, getCount("visibilityCacheMisses"));
+	}
+
+	private static int getCount(String name) throws Exception {
+		Field field = ContributionsAnalyzer.class.getDeclaredField(name);
+		field.setAccessible(true);
+		return field.getInt(null);
+	}
+
+	@Test
+	public void testDefinitionChanged() throws Exception {
+		ExtensionRegistry registry = (ExtensionRegistry) RegistryFactory.getRegistry();
+		IContributor contributor = ContributorFactoryOSGi.createContributor(FrameworkUtil.getBundle(getClass()));
+		IExtension extension = addDefinition(registry, contributor, "cacheTest.a");
+		MCoreExpression coreExpression = UiFactoryImpl.eINSTANCE.createCoreExpression();
+		coreExpression.setCoreExpressionId(DEFINITION_ID);
+		context.set("cacheTest.a", Boolean.TRUE);
+		context.set("cacheTest.b", Boolean.FALSE);
+		try {
+			assertTrue(isVisible(coreExpression));
+			assertTrue(isVisible(coreExpression));
+
+			registry.removeExtension(extension, registry.getTemporaryUserToken());
+			extension = addDefinition(registry, contributor, "cacheTest.b");
+			// the registry reports the change asynchronously
+			waitFor(() -> !isVisible(coreExpression));
+
+			// the variables of the new definition are the ones compared
+			context.set("cacheTest.b", Boolean.TRUE);
+			assertTrue(isVisible(coreExpression));
+			context.set("cacheTest.a", Boolean.FALSE);
+			assertTrue(isVisible(coreExpression));
+		} finally {
+			registry.removeExtension(extension, registry.getTemporaryUserToken());
+		}
+	}
+
+	private static IExtension addDefinition(ExtensionRegistry registry, IContributor contributor, String variable) {
+		String definition = "<plugin><extension id=\"cacheTestDefinition\" point=\"org.eclipse.core.expressions.definitions\">"
+				+ "<definition id=\"" + DEFINITION_ID + "\">" + "<with variable=\"" + variable + "\">"
+				+ "<equals value=\"true\"/>" + "</with></definition></extension></plugin>";
+		ByteArrayInputStream is = new ByteArrayInputStream(definition.getBytes(StandardCharsets.UTF_8));
+		if (!registry.addContribution(is, contributor, false, null, null, registry.getTemporaryUserToken())) {
+			fail("Could not add the definition");
+		}
+		return registry.getExtension(contributor.getName() + ".cacheTestDefinition");
+	}
+
+	private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+		long endTime = System.currentTimeMillis() + 20000;
+		while (!condition.getAsBoolean()) {
+			if (System.currentTimeMillis() > endTime) {
+				fail("Timed out");
+			}
+			Thread.sleep(50);
+		}
+	}
+
+	/**
+	 * Reports the variables given to the expression info, and counts its
+	 * evaluations.
+	 */
+	private static class CountingExpression extends Expression {
+
+		private final String[] variables;
+
+		boolean defaultVariable;
+
+		boolean property;
+
+		boolean systemProperty;
+
+		EvaluationResult result = EvaluationResult.TRUE;
+
+		RuntimeException exception;
+
+		int evaluations;
+
+		CountingExpression(String... variables) {
+			this.variables = variables;
+		}
+
+		@Override
+		public EvaluationResult evaluate(IEvaluationContext evaluationContext) {
+			evaluations++;
+			if (exception != null) {
+				throw exception;
+			}
+			return result;
+		}
+
+		@Override
+		public void collectExpressionInfo(ExpressionInfo info) {
+			for (String variable : variables) {
+				info.addVariableNameAccess(variable);
+			}
+			if (defaultVariable) {
+				info.markDefaultVariableAccessed();
+			}
+			if (property) {
+				info.addAccessedPropertyName("cacheTest.property");
+			}
+			if (systemProperty) {
+				info.markSystemPropertyAccessed();
+			}
+		}
+	}
+}
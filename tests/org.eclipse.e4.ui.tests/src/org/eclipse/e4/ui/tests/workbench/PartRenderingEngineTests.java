@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2017 IBM Corporation and others.
+ * Copyright (c) 2009, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -17,8 +17,10 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import org.eclipse.core.databinding.observable.Realm;
 import org.eclipse.e4.core.contexts.ContextInjectionFactory;
@@ -31,6 +33,7 @@ import org.eclipse.e4.ui.internal.workbench.swt.IEventLoopAdvisor;
 import org.eclipse.e4.ui.internal.workbench.swt.PartRenderingEngine;
 import org.eclipse.e4.ui.model.application.MApplication;
 import org.eclipse.e4.ui.model.application.descriptor.basic.MPartDescriptor;
+import org.eclipse.e4.ui.model.application.ui.MUIElement;
 import org.eclipse.e4.ui.model.application.ui.advanced.MArea;
 import org.eclipse.e4.ui.model.application.ui.advanced.MPerspective;
 import org.eclipse.e4.ui.model.application.ui.advanced.MPerspectiveStack;
@@ -46,6 +49,8 @@ import org.eclipse.e4.ui.model.application.ui.menu.MToolControl;
 import org.eclipse.e4.ui.workbench.IPresentationEngine;
 import org.eclipse.e4.ui.workbench.IWorkbench;
 import org.eclipse.e4.ui.workbench.addons.cleanupaddon.CleanupAddon;
+import org.eclipse.e4.ui.workbench.addons.minmax.TrimStack;
+import org.eclipse.e4.ui.workbench.addons.minmax.TrimStackIdHelper;
 import org.eclipse.e4.ui.workbench.modeling.EModelService;
 import org.eclipse.e4.ui.workbench.modeling.EPartService;
 import org.eclipse.e4.ui.workbench.modeling.EPartService.PartState;
@@ -3501,4 +3506,131 @@ public class PartRenderingEngineTests {
 		modelService.removePerspectiveModel(perspectiveB, window);
 		assertNull(part.getCurSharedRef());
 	}
+
+	/**
+	 * Adds a sash holding a visible stack and a hidden stack to the given
+	 * window, and puts the window in an application rendered with deferred
+	 * rendering.
+	 *
+	 * @return the hidden stack, whose selected element is a part
+	 */
+	private MPartStack createDeferredRenderingModel(MWindow window) {
+		MApplication application = ems.createModelElement(MApplication.class);
+		application.getChildren().add(window);
+		application.setSelectedElement(window);
+
+		MPartSashContainer sash = ems.createModelElement(MPartSashContainer.class);
+		window.getChildren().add(sash);
+
+		MPartStack stack = ems.createModelElement(MPartStack.class);
+		sash.getChildren().add(stack);
+
+		MPartStack hiddenStack = ems.createModelElement(MPartStack.class);
+		hiddenStack.setElementId("hiddenStack");
+		hiddenStack.setVisible(false);
+		sash.getChildren().add(hiddenStack);
+
+		MPart part = ems.createModelElement(MPart.class);
+		part.setContributionURI("bundleclass://org.eclipse.e4.ui.tests/org.eclipse.e4.ui.tests.workbench.SampleView");
+		hiddenStack.getChildren().add(part);
+		hiddenStack.setSelectedElement(part);
+
+		application.setContext(appContext);
+		appContext.set(MApplication.class, application);
+		appContext.set(PartRenderingEngine.DEFERRED_RENDERING, Boolean.TRUE);
+		return hiddenStack;
+	}
+
+	private void createAndRunDeferredUI(MWindow window) {
+		wb = new E4Workbench(appContext.get(MApplication.class), appContext);
+		wb.createAndRunUI(window);
+	}
+
+	@Test
+	public void testDeferredRendering() {
+		MWindow window = ems.createModelElement(MWindow.class);
+		MPartStack hiddenStack = createDeferredRenderingModel(window);
+		MUIElement stack = hiddenStack.getParent().getChildren().get(0);
+		createAndRunDeferredUI(window);
+
+		assertNotNull(stack.getWidget());
+		assertNull("The hidden stack should have been deferred", hiddenStack.getWidget());
+
+		spinEventLoop();
+
+		assertNotNull("The hidden stack should have been rendered when idle", hiddenStack.getWidget());
+		Shell limboShell = (Shell) appContext.get("limbo");
+		assertEquals(limboShell, ((Control) hiddenStack.getWidget()).getShell());
+	}
+
+	@Test
+	public void testDeferredRenderingOnShow() {
+		MWindow window = ems.createModelElement(MWindow.class);
+		MPartStack hiddenStack = createDeferredRenderingModel(window);
+		createAndRunDeferredUI(window);
+
+		assertNull("The hidden stack should have been deferred", hiddenStack.getWidget());
+
+		hiddenStack.setVisible(true);
+		assertNotNull("The stack should be rendered once shown", hiddenStack.getWidget());
+		assertEquals(hiddenStack.getParent().getWidget(), ((Control) hiddenStack.getWidget()).getParent());
+	}
+
+	@Test
+	public void testDeferredRenderingTrimStackShow() {
+		MTrimmedWindow window = ems.createModelElement(MTrimmedWindow.class);
+		MPartStack hiddenStack = createDeferredRenderingModel(window);
+		hiddenStack.getTags().add(IPresentationEngine.MINIMIZED);
+
+		MTrimBar trimBar = ems.createModelElement(MTrimBar.class);
+		window.getTrimBars().add(trimBar);
+		MToolControl toolControl = ems.createModelElement(MToolControl.class);
+		toolControl.setElementId(TrimStackIdHelper.createTrimStackId(hiddenStack, null, window));
+		toolControl.setContributionURI(TrimStack.CONTRIBUTION_URI);
+		trimBar.getChildren().add(toolControl);
+		createAndRunDeferredUI(window);
+
+		assertNull("The minimized stack should have been deferred", hiddenStack.getWidget());
+
+		TrimStack trimStack = (TrimStack) toolControl.getObject();
+		trimStack.showStack(true);
+		assertNotNull("The stack should be rendered when shown from the trim", hiddenStack.getWidget());
+		assertNotNull(((MPart) hiddenStack.getSelectedElement()).getWidget());
+
+		trimStack.showStack(false);
+		Object widget = hiddenStack.getWidget();
+		spinEventLoop();
+		assertSame("The idle rendering should skip the rendered stack", widget, hiddenStack.getWidget());
+	}
+
+	@Test
+	public void testDeferredRenderingShowPart() {
+		checkDeferredRenderingPartActivation(
+				(partService, part) -> partService.showPart(part, PartState.ACTIVATE));
+	}
+
+	@Test
+	public void testDeferredRenderingActivatePart() {
+		checkDeferredRenderingPartActivation(EPartService::activate);
+	}
+
+	private void checkDeferredRenderingPartActivation(BiConsumer<EPartService, MPart> activation) {
+		MWindow window = ems.createModelElement(MWindow.class);
+		MPartStack hiddenStack = createDeferredRenderingModel(window);
+		MPart part = (MPart) hiddenStack.getSelectedElement();
+		createAndRunDeferredUI(window);
+
+		assertNull("The hidden stack should have been deferred", hiddenStack.getWidget());
+
+		// before the idle queue is drained
+		EPartService partService = window.getContext().get(EPartService.class);
+		activation.accept(partService, part);
+		assertNotNull("The stack should be rendered for its part", hiddenStack.getWidget());
+		assertNotNull("The part should be rendered", part.getWidget());
+		assertEquals(part, partService.getActivePart());
+
+		Object widget = hiddenStack.getWidget();
+		spinEventLoop();
+		assertSame("The idle rendering should skip the rendered stack", widget, hiddenStack.getWidget());
+	}
 }
@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.tests.workbench;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.eclipse.e4.ui.di.UISynchronize;
+import org.eclipse.e4.ui.internal.services.UIScheduler;
+import org.eclipse.e4.ui.services.EUIScheduler.Priority;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link UIScheduler} class
+ */
+public class UISchedulerTest {
+
+	/** The frames posted by the scheduler */
+	private List<Runnable> frames;
+
+	private UIScheduler scheduler;
+
+	@Before
+	public void setUp() {
+		frames = new ArrayList<>();
+		scheduler = new UIScheduler(new UISynchronize() {
+			@Override
+			public void syncExec(Runnable runnable) {
+				runnable.run();
+			}
+
+			@Override
+			public void asyncExec(Runnable runnable) {
+				frames.add(runnable);
+			}
+		});
+	}
+
+	/**
+	 * Runs the posted frames and returns how many ran
+	 */
+	private int runFrames() {
+		int count = 0;
+		while (!frames.isEmpty()) {
+			frames.remove(0).run();
+			count++;
+		}
+		return count;
+	}
+
+	@Test
+	public void testPriorityOrder() {
+		List<String> ran = new ArrayList<>();
+		scheduler.schedule(Priority.BACKGROUND, () -> ran.add("background"));
+		scheduler.schedule(Priority.RENDER, () -> ran.add("render"));
+		scheduler.schedule(Priority.INPUT, () -> ran.add("input"));
+		assertEquals(1, frames.size());
+		assertEquals(1, scheduler.getQueueDepth(Priority.INPUT));
+
+		runFrames();
+		assertEquals(Arrays.asList("input", "render", "background"), ran);
+		assertEquals(0, scheduler.getQueueDepth(Priority.INPUT));
+	}
+
+	@Test
+	public void testCoalescing() {
+		List<String> ran = new ArrayList<>();
+		Object key = new Object();
+		scheduler.schedule(Priority.RENDER, key, () -> ran.add("first"));
+		scheduler.schedule(Priority.BACKGROUND, () -> ran.add("other"));
+		scheduler.schedule(Priority.RENDER, key, () -> ran.add("second"));
+		assertEquals(1, scheduler.getQueueDepth(Priority.RENDER));
+
+		runFrames();
+		assertEquals(Arrays.asList("second", "other"), ran);
+
+		// the key can be used again once its runnable ran
+		scheduler.schedule(Priority.INPUT, key, () -> ran.add("third"));
+		runFrames();
+		assertEquals(Arrays.asList("second", "other", "third"), ran);
+	}
+
+	@Test
+	public void testCoalescingWithAnotherPriority() {
+		List<String> ran = new ArrayList<>();
+		Object key = new Object();
+		scheduler.schedule(Priority.BACKGROUND, key, () -> ran.add("first"));
+		scheduler.schedule(Priority.RENDER, () -> ran.add("render"));
+		scheduler.schedule(Priority.INPUT, key, () -> ran.add("second"));
+		assertEquals(0, scheduler.getQueueDepth(Priority.BACKGROUND));
+
+		runFrames();
+		assertEquals(Arrays.asList("second", "render"), ran);
+	}
+
+	@Test
+	public void testShouldYield() {
+		boolean[] yield = new boolean[2];
+		scheduler.schedule(Priority.BACKGROUND, () -> {
+			yield[0] = scheduler.shouldYield();
+			scheduler.schedule(Priority.INPUT, () -> {
+			});
+			yield[1] = scheduler.shouldYield();
+		});
+		assertFalse(scheduler.shouldYield());
+
+		runFrames();
+		assertFalse(yield[0]);
+		assertTrue("Input work is waiting", yield[1]);
+	}
+
+	@Test
+	public void testFrameBudget() {
+		List<String> ran = new ArrayList<>();
+		scheduler.schedule(Priority.BACKGROUND, () -> {
+			ran.add("slow");
+			long end = System.nanoTime() + 20_000_000L;
+			while (System.nanoTime() < end) {
+				// spend the budget of the frame
+			}
+		});
+		scheduler.schedule(Priority.BACKGROUND, () -> ran.add("next"));
+
+		frames.remove(0).run();
+		assertEquals(Arrays.asList("slow"), ran);
+		assertEquals(1, scheduler.getQueueDepth(Priority.BACKGROUND));
+
+		assertEquals(1, runFrames());
+		assertEquals(Arrays.asList("slow", "next"), ran);
+	}
+
+	@Test
+	public void testLatency() throws InterruptedException {
+		scheduler.schedule(Priority.RENDER, () -> {
+		});
+		Thread.sleep(10);
+		runFrames();
+
+		assertTrue(scheduler.getMaxLatency(Priority.RENDER) >= 10);
+		assertTrue(scheduler.getAverageLatency(Priority.RENDER) >= 10);
+		assertEquals(0, scheduler.getMaxLatency(Priority.INPUT), 0);
+	}
+}
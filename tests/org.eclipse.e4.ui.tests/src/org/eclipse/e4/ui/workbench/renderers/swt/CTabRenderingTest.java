@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.workbench.renderers.swt;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.CTabFolder;
+import org.eclipse.swt.custom.CTabItem;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that the shapes cached by {@link CTabRendering} are the ones computed
+ * from scratch. The package-private members are accessed by reflection, since
+ * the test bundle does not share the package of the renderer at runtime.
+ */
+public class CTabRenderingTest {
+
+	private static final int[] RADII = { 0, 1, 2, 3, 5, 7, 10, 16, 25 };
+
+	private static final Rectangle[] BOUNDS = { new Rectangle(0, 0, 200, 100), new Rectangle(0, 0, 640, 480),
+			new Rectangle(5, 3, 64, 48), new Rectangle(0, 0, 200, 100) };
+
+	private Shell shell;
+
+	private CTabFolder folder;
+
+	private CTabRendering renderer;
+
+	private Method drawCircle;
+
+	private Object[] circleParts;
+
+	@Before
+	public void setUp() throws Exception {
+		shell = new Shell(Display.getDefault());
+		folder = new CTabFolder(shell, SWT.BORDER);
+		renderer = new CTabRendering(folder);
+		folder.setRenderer(renderer);
+		new CTabItem(folder, SWT.NONE).setText("Tab");
+		shell.setSize(400, 300);
+
+		Class<?> circlePart = Class.forName(CTabRendering.class.getName() + "$CirclePart");
+		circleParts = circlePart.getEnumConstants();
+		drawCircle = CTabRendering.class.getDeclaredMethod("drawCircle", int.class, int.class, int.class,
+				circlePart);
+		drawCircle.setAccessible(true);
+	}
+
+	@After
+	public void tearDown() {
+		shell.dispose();
+	}
+
+	@Test
+	public void testCircleArcs() throws Exception {
+		for (int r : RADII) {
+			for (Object part : circleParts) {
+				String partName = ((Enum<?>) part).name();
+				int[] expected = referenceCircle(17, -3, r, partName);
+				// the first call computes the arc, the next ones reuse it
+				for (int i = 0; i < 2; i++) {
+					assertArrayEquals(partName + " r=" + r, expected,
+							(int[]) drawCircle.invoke(null, 17, -3, r, part));
+				}
+				assertArrayEquals(partName + " r=" + r + " moved", referenceCircle(250, 90, r, partName),
+						(int[]) drawCircle.invoke(null, 250, 90, r, part));
+			}
+		}
+	}
+
+	@Test
+	public void testBodyShape() throws Exception {
+		checkBodyShapes(true);
+	}
+
+	@Test
+	public void testBodyShapeWithoutShadow() throws Exception {
+		checkBodyShapes(false);
+	}
+
+	private void checkBodyShapes(boolean shadow) throws Exception {
+		renderer.setShadowVisible(shadow);
+		Method drawTabBody = CTabRendering.class.getDeclaredMethod("drawTabBody", GC.class, Rectangle.class);
+		drawTabBody.setAccessible(true);
+		Field shape = CTabRendering.class.getDeclaredField("shape");
+		shape.setAccessible(true);
+
+		Image image = new Image(shell.getDisplay(), 700, 500);
+		GC gc = new GC(image);
+		try {
+			for (int r : RADII) {
+				renderer.setCornerRadius(r * 2);
+				for (Rectangle bounds : BOUNDS) {
+					int[] expected = referenceBodyShape(bounds, r, shadow);
+					// the second paint reuses the shape of the first one
+					for (int i = 0; i < 2; i++) {
+						drawTabBody.invoke(renderer, gc, bounds);
+						assertArrayEquals("r=" + r + " " + bounds + " shadow=" + shadow, expected,
+								(int[]) shape.get(renderer));
+					}
+				}
+			}
+		} finally {
+			gc.dispose();
+			image.dispose();
+		}
+	}
+
+	/*
+	 * The body shape as drawTabBody computed it before it was cached.
+	 */
+	private int[] referenceBodyShape(Rectangle bounds, int radius, boolean shadow) {
+		int delta = CTabRendering.INNER_KEYLINE + CTabRendering.OUTER_KEYLINE
+				+ 2 * (shadow ? CTabRendering.SIDE_DROP_WIDTH : 0) + 2 * folder.marginWidth;
+		int width = bounds.width - delta;
+		int height = Math.max(
+				folder.getTabHeight() + CTabRendering.INNER_KEYLINE + CTabRendering.OUTER_KEYLINE
+						+ (shadow ? CTabRendering.BOTTOM_DROP_WIDTH : 0),
+				bounds.height - CTabRendering.INNER_KEYLINE - CTabRendering.OUTER_KEYLINE - 2 * folder.marginHeight
+						- (shadow ? CTabRendering.BOTTOM_DROP_WIDTH : 0));
+		int circX = bounds.x + delta / 2 + radius;
+		int circY = bounds.y + radius;
+
+		int[] points = new int[0];
+		points = append(points, referenceCircle(circX, circY, radius, "LEFT_TOP"));
+		points = append(points, referenceCircle(circX, circY + height - (radius * 2), radius, "LEFT_BOTTOM"));
+		points = append(points, referenceCircle(circX + width - (radius * 2), circY + height - (radius * 2),
+				radius, "RIGHT_BOTTOM"));
+		points = append(points, referenceCircle(circX + width - (radius * 2), circY, radius, "RIGHT_TOP"));
+		return append(points, new int[] { circX, circY - radius });
+	}
+
+	private static int[] append(int[] points, int[] more) {
+		int[] result = Arrays.copyOf(points, points.length + more.length);
+		System.arraycopy(more, 0, result, points.length, more.length);
+		return result;
+	}
+
+	/*
+	 * The circle arc as drawCircle computed it before it was cached.
+	 */
+	private static int[] referenceCircle(int xC, int yC, int r, String circlePart) {
+		int x = 0, y = r, u = 1, v = 2 * r - 1, e = 0;
+		int[] points = new int[4 * r + 4];
+		int[] pointsMirror = new int[4 * r + 4];
+		int loop = 0;
+		int loopMirror = 0;
+		while (x < y) {
+			loop = referenceCirclePoint(loop, xC, yC, points, x, y, circlePart);
+			x++;
+			e += u;
+			u += 2;
+			if (v < 2 * e) {
+				y--;
+				e -= v;
+				v -= 2;
+			}
+			if (x > y)
+				break;
+			loopMirror = referenceCirclePoint(loopMirror, xC, yC, pointsMirror, y, x, circlePart);
+		}
+		int[] finalArray = new int[loop + loopMirror];
+		System.arraycopy(points, 0, finalArray, 0, loop);
+		for (int i = loopMirror - 1, j = loop; i > 0; i = i - 2, j = j + 2) {
+			finalArray[j] = pointsMirror[i - 1];
+			finalArray[j + 1] = pointsMirror[i];
+		}
+		return finalArray;
+	}
+
+	private static int referenceCirclePoint(int loop, int xC, int yC, int[] points, int x, int y,
+			String circlePart) {
+		switch (circlePart) {
+		case "RIGHT_BOTTOM":
+			points[loop++] = xC + x;
+			points[loop++] = yC + y;
+			break;
+		case "RIGHT_TOP":
+			points[loop++] = xC + y;
+			points[loop++] = yC - x;
+			break;
+		case "LEFT_TOP":
+			points[loop++] = xC - x;
+			points[loop++] = yC - y;
+			break;
+		case "LEFT_BOTTOM":
+			points[loop++] = xC - y;
+			points[loop++] = yC + x;
+			break;
+		default:
+			throw new IllegalArgumentException(circlePart);
+		}
+		return loop;
+	}
+}
@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.workbench.renderers.swt;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.e4.ui.di.UISynchronize;
+import org.eclipse.e4.ui.internal.services.UIScheduler;
+import org.eclipse.e4.ui.model.application.ui.menu.MDirectToolItem;
+import org.eclipse.e4.ui.model.application.ui.menu.MItem;
+import org.eclipse.e4.ui.model.application.ui.menu.MMenuFactory;
+import org.eclipse.e4.ui.model.application.ui.menu.MToolBar;
+import org.eclipse.e4.ui.services.EUIScheduler;
+import org.eclipse.e4.ui.workbench.Selector;
+import org.eclipse.swt.widgets.Event;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the merging of the updates requested from {@link ToolItemUpdater}
+ * until its scheduled update runs. The package-private members are accessed by
+ * reflection, since the test bundle does not share the package of the updater
+ * at runtime.
+ */
+public class ToolItemUpdaterTest {
+
+	/** The frames posted by the scheduler */
+	private List<Runnable> frames;
+
+	private ToolItemUpdater updater;
+
+	private MToolBar toolBar;
+
+	private CountingItem itemA;
+
+	private CountingItem itemB;
+
+	private CountingItem itemC;
+
+	@Before
+	public void setUp() throws Exception {
+		frames = new ArrayList<>();
+		UIScheduler scheduler = new UIScheduler(new UISynchronize() {
+			@Override
+			public void syncExec(Runnable runnable) {
+				runnable.run();
+			}
+
+			@Override
+			public void asyncExec(Runnable runnable) {
+				frames.add(runnable);
+			}
+		});
+
+		updater = new ToolItemUpdater();
+		setScheduler(scheduler);
+		toolBar = MMenuFactory.INSTANCE.createToolBar();
+		itemA = createItem("a");
+		itemB = createItem("b");
+		itemC = createItem("c");
+	}
+
+	private CountingItem createItem(String id) throws Exception {
+		MDirectToolItem model = MMenuFactory.INSTANCE.createDirectToolItem();
+		model.setElementId(id);
+		toolBar.getChildren().add(model);
+		CountingItem item = new CountingItem(model);
+		Method registerItem = ToolItemUpdater.class.getDeclaredMethod("registerItem",
+				AbstractContributionItem.class);
+		registerItem.setAccessible(true);
+		registerItem.invoke(updater, item);
+		return item;
+	}
+
+	private void setScheduler(EUIScheduler scheduler) throws Exception {
+		Method setScheduler = ToolItemUpdater.class.getDeclaredMethod("setScheduler", EUIScheduler.class);
+		setScheduler.setAccessible(true);
+		setScheduler.invoke(updater, scheduler);
+	}
+
+	private void scheduleUpdate(Selector selector, boolean all) throws Exception {
+		Method scheduleUpdate = ToolItemUpdater.class.getDeclaredMethod("scheduleUpdate", Selector.class,
+				boolean.class);
+		scheduleUpdate.setAccessible(true);
+		scheduleUpdate.invoke(updater, selector, all);
+	}
+
+	private static Selector selectId(String id) {
+		return element -> id.equals(element.getElementId());
+	}
+
+	private void runFrames() {
+		while (!frames.isEmpty()) {
+			frames.remove(0).run();
+		}
+	}
+
+	private void assertUpdates(int a, int b, int c) {
+		assertEquals("a", a, itemA.updates);
+		assertEquals("b", b, itemB.updates);
+		assertEquals("c", c, itemC.updates);
+	}
+
+	@Test
+	public void testSelectorsMerged() throws Exception {
+		scheduleUpdate(selectId("a"), false);
+		scheduleUpdate(selectId("b"), false);
+		assertUpdates(0, 0, 0);
+
+		runFrames();
+		assertUpdates(1, 1, 0);
+
+		// the next request starts from an empty selection
+		scheduleUpdate(selectId("c"), false);
+		runFrames();
+		assertUpdates(1, 1, 1);
+	}
+
+	@Test
+	public void testAllMerged() throws Exception {
+		scheduleUpdate(selectId("a"), false);
+		scheduleUpdate(element -> true, true);
+		// a narrower request does not narrow the pending update
+		scheduleUpdate(selectId("b"), false);
+		runFrames();
+		assertUpdates(1, 1, 1);
+
+		scheduleUpdate(selectId("a"), false);
+		runFrames();
+		assertUpdates(2, 1, 1);
+	}
+
+	@Test
+	public void testWithoutScheduler() throws Exception {
+		setScheduler(null);
+		scheduleUpdate(selectId("a"), false);
+		assertUpdates(1, 0, 0);
+		scheduleUpdate(element -> true, true);
+		assertUpdates(2, 1, 1);
+		assertEquals(0, frames.size());
+	}
+
+	/**
+	 * Counts its enablement updates.
+	 */
+	private static class CountingItem extends AbstractContributionItem {
+
+		private final MItem model;
+
+		int updates;
+
+		CountingItem(MItem model) {
+			this.model = model;
+		}
+
+		@Override
+		public MItem getModel() {
+			return model;
+		}
+
+		@Override
+		protected void updateItemEnablement() {
+			updates++;
+		}
+
+		@Override
+		protected void updateMenuItem() {
+		}
+
+		@Override
+		protected void updateToolItem() {
+		}
+
+		@Override
+		protected void executeItem(Event event) {
+		}
+
+		@Override
+		protected boolean canExecuteItem(Event event) {
+			return true;
+		}
+
+		@Override
+		protected void handleWidgetDispose(Event event) {
+		}
+	}
+}
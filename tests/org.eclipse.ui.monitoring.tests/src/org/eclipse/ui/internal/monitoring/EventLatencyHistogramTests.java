@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import static org.junit.Assert.assertEquals;
+
+import org.eclipse.ui.monitoring.EventLatencyMetrics;
+import org.junit.Test;
+
+/**
+ * Tests for {@link EventLatencyHistogram} class.
+ */
+public class EventLatencyHistogramTests {
+	/** The relative error of the reported percentiles. */
+	private static final double PRECISION = 1.0 / 32;
+
+	private static void assertApproximately(long expected, long actual) {
+		assertEquals(expected, actual, expected * PRECISION);
+	}
+
+	@Test
+	public void testPercentiles() {
+		EventLatencyHistogram histogram = new EventLatencyHistogram();
+		for (int i = 1; i <= 10000; i++) {
+			histogram.recordValue(i * 10);
+		}
+		EventLatencyMetrics metrics = histogram.takeMetrics(1, 2);
+		assertEquals(1, metrics.getStartTimestamp());
+		assertEquals(2, metrics.getEndTimestamp());
+		assertEquals(10000, metrics.getEventCount());
+		assertApproximately(50000, metrics.getPercentile50());
+		assertApproximately(90000, metrics.getPercentile90());
+		assertApproximately(99000, metrics.getPercentile99());
+		assertEquals(100000, metrics.getMaxDuration());
+	}
+
+	@Test
+	public void testSmallValuesAreExact() {
+		EventLatencyHistogram histogram = new EventLatencyHistogram();
+		for (int i = 0; i < 64; i++) {
+			histogram.recordValue(i);
+		}
+		EventLatencyMetrics metrics = histogram.takeMetrics(0, 0);
+		assertEquals(31, metrics.getPercentile50());
+		assertEquals(63, metrics.getMaxDuration());
+	}
+
+	@Test
+	public void testPercentilesDoNotExceedMax() {
+		EventLatencyHistogram histogram = new EventLatencyHistogram();
+		histogram.recordValue(1000);
+		EventLatencyMetrics metrics = histogram.takeMetrics(0, 0);
+		assertEquals(1000, metrics.getPercentile50());
+		assertEquals(1000, metrics.getPercentile99());
+	}
+
+	@Test
+	public void testOutOfRangeValues() {
+		EventLatencyHistogram histogram = new EventLatencyHistogram();
+		histogram.recordValue(-5);
+		histogram.recordValue(Long.MAX_VALUE);
+		EventLatencyMetrics metrics = histogram.takeMetrics(0, 0);
+		assertEquals(2, metrics.getEventCount());
+		assertEquals(0, metrics.getPercentile50());
+		assertEquals(EventLatencyHistogram.MAX_VALUE, metrics.getMaxDuration());
+		assertApproximately(EventLatencyHistogram.MAX_VALUE, metrics.getPercentile99());
+	}
+
+	@Test
+	public void testTakeMetricsResets() {
+		EventLatencyHistogram histogram = new EventLatencyHistogram();
+		histogram.recordValue(5000);
+		histogram.takeMetrics(0, 0);
+		EventLatencyMetrics metrics = histogram.takeMetrics(0, 0);
+		assertEquals(0, metrics.getEventCount());
+		assertEquals(0, metrics.getPercentile50());
+		assertEquals(0, metrics.getMaxDuration());
+
+		histogram.recordValue(7);
+		metrics = histogram.takeMetrics(0, 0);
+		assertEquals(1, metrics.getEventCount());
+		assertEquals(7, metrics.getPercentile99());
+	}
+}
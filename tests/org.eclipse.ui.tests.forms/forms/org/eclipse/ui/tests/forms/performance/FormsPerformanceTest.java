@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007,2017 IBM Corporation and others.
+ * Copyright (c) 2007, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -95,6 +95,54 @@ public class FormsPerformanceTest extends PerformanceTestCase {
 		assertPerformance();
 	}
 
+	@Test
+	public void test_resizeFormText() {
+		tagAsSummary("Resize FormText", Dimension.ELAPSED_PROCESS);
+
+		Display display = PlatformUI.getWorkbench().getDisplay();
+		FormToolkit toolkit = new FormToolkit(display);
+		Shell shell = new Shell(display);
+		shell.setSize(400, 600);
+		shell.setLayout(new FillLayout());
+		FormText text = toolkit.createFormText(shell, true);
+		StringBuilder buf = new StringBuilder("<form>");
+		for (int i = 0; i < 200; i++) {
+			buf.append("<p>Paragraph ").append(i).append(
+					" has <b>bold</b> words, a <a href=\"link\">hyperlink</a> and enough plain text to wrap over several lines when the form text gets narrow.</p>");
+		}
+		buf.append("</form>");
+		text.setText(buf.toString(), true, false);
+		shell.open();
+
+		// the first samples warm up
+		for (int samples = 0; samples < 55; samples++) {
+			if (samples >= 5) {
+				startMeasuring();
+			}
+			resize(shell);
+			if (samples >= 5) {
+				stopMeasuring();
+			}
+		}
+		shell.dispose();
+		toolkit.dispose();
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private static void resize(Shell shell) {
+		Display display = shell.getDisplay();
+		for (int width = 300; width <= 800; width += 50) {
+			shell.setSize(width, 600);
+			while (display.readAndDispatch()) {/* empty */}
+		}
+		// only the height changes, the paragraphs keep their layout
+		for (int height = 300; height <= 800; height += 50) {
+			shell.setSize(800, height);
+			while (display.readAndDispatch()) {/* empty */}
+		}
+	}
+
 	public void createPartControl(Composite parent, FormToolkit toolkit) {
 		//Label l = new Label(parent, SWT.NULL);
 		//l.setText ("a label");
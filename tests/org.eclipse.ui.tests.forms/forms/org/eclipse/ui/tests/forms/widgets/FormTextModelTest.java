@@ -11,8 +11,12 @@
 package org.eclipse.ui.tests.forms.widgets;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import org.eclipse.ui.internal.forms.widgets.FormTextModel;
+import org.eclipse.ui.internal.forms.widgets.Locator;
+import org.eclipse.ui.internal.forms.widgets.Paragraph;
 import org.junit.Test;
 
 /**
@@ -46,4 +50,51 @@ public class FormTextModelTest {
 				formTextModel.getAccessibleText());
 	}
 
+	@Test
+	public void testCommentsAndCDATA() {
+		FormTextModel formTextModel = new FormTextModel();
+		formTextModel.parseTaggedText("<form><p>Foo<!-- comment --> Bar<![CDATA[ Hidden]]> Baz</p></form>", false);
+		assertEquals("Foo Bar Baz" + System.lineSeparator(), formTextModel.getAccessibleText());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMalformedText() {
+		FormTextModel formTextModel = new FormTextModel();
+		formTextModel.parseTaggedText("<form><p>Foo</form>", false);
+	}
+
+	@Test
+	public void testParagraphLayoutReused() {
+		FormTextModel formTextModel = new FormTextModel();
+		formTextModel.parseTaggedText("<form><p></p><p></p></form>", false);
+		Paragraph[] paragraphs = formTextModel.getParagraphs();
+		assertEquals(2, paragraphs.length);
+
+		// empty paragraphs are one line high and need no graphics context
+		Locator loc = new Locator();
+		assertTrue(paragraphs[0].layoutIfChanged(null, 100, loc, 10, null, null));
+		assertTrue(paragraphs[1].layoutIfChanged(null, 100, loc, 10, null, null));
+		assertEquals(20, loc.y);
+
+		loc.y = 0;
+		assertFalse(paragraphs[0].layoutIfChanged(null, 100, loc, 10, null, null));
+		assertFalse(paragraphs[1].layoutIfChanged(null, 100, loc, 10, null, null));
+		assertEquals(20, loc.y);
+
+		loc.y = 5;
+		assertTrue(paragraphs[0].layoutIfChanged(null, 100, loc, 10, null, null));
+		loc.y = 0;
+		assertTrue(paragraphs[0].layoutIfChanged(null, 200, loc, 10, null, null));
+
+		formTextModel.clearCache("f.other");
+		loc.y = 0;
+		assertFalse(paragraphs[0].layoutIfChanged(null, 200, loc, 10, null, null));
+		formTextModel.clearCache(null);
+		loc.y = 0;
+		assertTrue(paragraphs[0].layoutIfChanged(null, 200, loc, 10, null, null));
+		formTextModel.invalidateLayout(true);
+		loc.y = 0;
+		assertTrue(paragraphs[0].layoutIfChanged(null, 200, loc, 10, null, null));
+	}
+
 }
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.navigator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.swt.widgets.TreeItem;
+import org.eclipse.ui.progress.PendingUpdateAdapter;
+import org.eclipse.ui.tests.harness.util.DisplayHelper;
+import org.junit.Test;
+
+/**
+ * Tests the asynchronous expansion mode of the common viewer.
+ */
+public class AsynchronousExpansionTest extends NavigatorTestBase {
+
+	public AsynchronousExpansionTest() {
+		_navigatorInstanceId = TEST_VIEWER_ASYNCHRONOUS;
+	}
+
+	@Test
+	public void testPlaceholderReplacedByChildren() throws Exception {
+		_viewer.expandToLevel(_project, 1);
+
+		TreeItem projectItem = (TreeItem) _viewer.testFindItem(_project);
+		assertPlaceholder(projectItem);
+		waitForChildren(projectItem);
+
+		assertChildren(projectItem);
+		assertTrue(projectItem.getExpanded());
+	}
+
+	@Test
+	public void testCollapsedBeforeFetchedIsFetchedAgain() throws Exception {
+		_viewer.expandToLevel(_project, 1);
+		TreeItem projectItem = (TreeItem) _viewer.testFindItem(_project);
+		assertPlaceholder(projectItem);
+		_viewer.collapseToLevel(_project, 1);
+
+		// let the fetch finish and its refresh run while collapsed
+		Job.getJobManager().join(_viewer.getContentProvider(), null);
+		DisplayHelper.runEventLoop(_viewer.getControl().getDisplay(), 100);
+		assertFalse(projectItem.getExpanded());
+
+		// the snapshot nobody asked for is not served; the children are fetched again
+		_viewer.expandToLevel(_project, 1);
+		assertPlaceholder(projectItem);
+		waitForChildren(projectItem);
+		assertChildren(projectItem);
+	}
+
+	private static void assertPlaceholder(TreeItem parentItem) {
+		TreeItem[] items = parentItem.getItems();
+		assertEquals(1, items.length);
+		assertTrue(items[0].getData() instanceof PendingUpdateAdapter);
+	}
+
+	private void waitForChildren(final TreeItem parentItem) {
+		boolean fetched = new DisplayHelper() {
+			@Override
+			protected boolean condition() {
+				TreeItem[] children = parentItem.getItems();
+				return children.length > 0 && !(children[0].getData() instanceof PendingUpdateAdapter);
+			}
+		}.waitForCondition(_viewer.getControl().getDisplay(), 5000);
+		assertTrue("Children were not fetched", fetched);
+	}
+
+	private void assertChildren(TreeItem projectItem) {
+		Set<Object> children = new HashSet<>();
+		for (TreeItem item : projectItem.getItems()) {
+			children.add(item.getData());
+		}
+		assertEquals(_expectedChildren, children);
+	}
+
+}
@@ -10,13 +10,18 @@
  ******************************************************************************/
 package org.eclipse.ui.tests.navigator;
 
+import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Map;
 
 import org.eclipse.ui.internal.navigator.VisibilityAssistant;
 import org.eclipse.ui.internal.navigator.extensions.EvaluationCache;
 import org.eclipse.ui.internal.navigator.extensions.NavigatorContentDescriptor;
+import org.eclipse.ui.internal.navigator.extensions.NavigatorContentDescriptorManager;
 import org.eclipse.ui.navigator.INavigatorActivationService;
 import org.eclipse.ui.navigator.INavigatorViewerDescriptor;
+import org.eclipse.ui.tests.navigator.extension.TestCountingPropertyTester;
+import org.eclipse.ui.tests.navigator.extension.TestExtensionTreeData;
 import org.eclipse.ui.tests.navigator.util.TestNavigatorActivationService;
 import org.eclipse.ui.tests.navigator.util.TestNavigatorViewerDescriptor;
 import org.junit.Assert;
@@ -124,6 +129,116 @@ public class EvaluationCacheTest extends NavigatorTestBase {
 		Assert.assertNull(cache.getDescriptors(key, true));
 	}
 
+	@Test
+	public void testClassKeySharedBetweenInstances() {
+		NavigatorContentDescriptor[] value = new NavigatorContentDescriptor[0];
+		cache.setDescriptorsForClass(ArrayList.class, value, false);
+		Assert.assertSame(value, cache.getDescriptorsForClass(new ArrayList<String>().getClass(), false));
+		// The other "half" of the cache should not have this.
+		Assert.assertNull(cache.getDescriptorsForClass(ArrayList.class, true));
+		// Nor should the per element cache.
+		Assert.assertNull(cache.getDescriptors(new ArrayList<String>(), false));
+	}
+
+	@Test
+	public void testOnVisibilityOrActivationChangeClearsClassCaches() {
+		NavigatorContentDescriptor[] value1 = new NavigatorContentDescriptor[0];
+		cache.setDescriptorsForClass(Object.class, value1, false);
+		NavigatorContentDescriptor[] value2 = new NavigatorContentDescriptor[0];
+		cache.setDescriptorsForClass(Object.class, value2, true);
+		Assert.assertSame(value1, cache.getDescriptorsForClass(Object.class, false));
+		Assert.assertSame(value2, cache.getDescriptorsForClass(Object.class, true));
+		cache.onVisibilityOrActivationChange();
+		Assert.assertNull(cache.getDescriptorsForClass(Object.class, false));
+		Assert.assertNull(cache.getDescriptorsForClass(Object.class, true));
+	}
+
+	private static NavigatorContentDescriptor getDescriptor(String id) {
+		NavigatorContentDescriptor descriptor = NavigatorContentDescriptorManager.getInstance()
+				.getContentDescriptor(id);
+		Assert.assertNotNull(id, descriptor);
+		return descriptor;
+	}
+
+	/*
+	 * The results a class based expression remembered, read by reflection
+	 * since ClassBasedEvaluation is internal to its package.
+	 */
+	@SuppressWarnings("unchecked")
+	private static Map<Class<?>, Boolean> getResultsByClass(NavigatorContentDescriptor descriptor, String field)
+			throws Exception {
+		Field evaluationField = NavigatorContentDescriptor.class.getDeclaredField(field);
+		evaluationField.setAccessible(true);
+		Object evaluation = evaluationField.get(descriptor);
+		Assert.assertNotNull(field, evaluation);
+		Field resultsField = evaluation.getClass().getDeclaredField("results");
+		resultsField.setAccessible(true);
+		return (Map<Class<?>, Boolean>) resultsField.get(evaluation);
+	}
+
+	@Test
+	public void testInstanceofOnlyIsClassBased() throws Exception {
+		NavigatorContentDescriptor descriptor = getDescriptor("org.eclipse.ui.tests.navigator.classBased.instanceof");
+		Assert.assertTrue(descriptor.isTriggerPointClassBased());
+		// Without possibleChildren the trigger points are used.
+		Assert.assertTrue(descriptor.isPossibleChildClassBased());
+
+		Assert.assertTrue(descriptor.isTriggerPoint("a"));
+		Assert.assertFalse(descriptor.isTriggerPoint(new StringBuilder()));
+		Assert.assertFalse(descriptor.isTriggerPoint(new Object()));
+		Assert.assertTrue(descriptor.isTriggerPoint(new TestExtensionTreeData(null, "a", null, null)));
+		Assert.assertTrue(descriptor.isPossibleChild("b"));
+
+		Map<Class<?>, Boolean> results = getResultsByClass(descriptor, "enablementByClass");
+		Assert.assertEquals(Boolean.TRUE, results.get(String.class));
+		Assert.assertEquals(Boolean.FALSE, results.get(StringBuilder.class));
+		Assert.assertEquals(Boolean.TRUE, results.get(TestExtensionTreeData.class));
+
+		// Another instance of a known class is answered from the cache.
+		results.put(String.class, Boolean.FALSE);
+		try {
+			Assert.assertFalse(descriptor.isTriggerPoint("c"));
+		} finally {
+			results.remove(String.class);
+		}
+		Assert.assertTrue(descriptor.isTriggerPoint("c"));
+	}
+
+	@Test
+	public void testAdaptIsNotClassBased() {
+		NavigatorContentDescriptor descriptor = getDescriptor("org.eclipse.ui.tests.navigator.classBased.adapt");
+		Assert.assertFalse(descriptor.isTriggerPointClassBased());
+		Assert.assertFalse(descriptor.isPossibleChildClassBased());
+		Assert.assertTrue(descriptor.isTriggerPoint("a"));
+		Assert.assertFalse(descriptor.isTriggerPoint(new Object()));
+	}
+
+	@Test
+	public void testPropertyTesterIsEvaluatedEveryTime() {
+		NavigatorContentDescriptor descriptor = getDescriptor("org.eclipse.ui.tests.navigator.classBased.test");
+		Assert.assertTrue(descriptor.isTriggerPointClassBased());
+		Assert.assertFalse(descriptor.isPossibleChildClassBased());
+
+		TestCountingPropertyTester.resetTest();
+		Assert.assertTrue(descriptor.isPossibleChild("a"));
+		Assert.assertTrue(descriptor.isPossibleChild("a"));
+		Assert.assertTrue(descriptor.isPossibleChild("b"));
+		Assert.assertEquals(3, TestCountingPropertyTester._count);
+		// The instanceof short-circuits the tester.
+		Assert.assertFalse(descriptor.isPossibleChild(new Object()));
+		Assert.assertEquals(3, TestCountingPropertyTester._count);
+	}
+
+	@Test
+	public void testEqualsIsNotClassBased() {
+		NavigatorContentDescriptor descriptor = getDescriptor("org.eclipse.ui.tests.navigator.classBased.equals");
+		Assert.assertFalse(descriptor.isTriggerPointClassBased());
+		// Two instances of the same class must not share a result.
+		Assert.assertTrue(descriptor.isTriggerPoint("match"));
+		Assert.assertFalse(descriptor.isTriggerPoint("other"));
+		Assert.assertTrue(descriptor.isTriggerPoint("match"));
+	}
+
 	// TODO Some way to reliably test the clearing of entries. Possibly using
 	// java.lang.ref.Reference#enqueue().
 }
@@ -70,6 +70,8 @@ public class NavigatorTestBase {
 	public static final String TEST_VIEWER_FILTER = "org.eclipse.ui.tests.navigator.FilterTestView";
 	public static final String TEST_VIEWER_INITIAL_ACTIVATION = "org.eclipse.ui.tests.navigator.InitialActivationView";
 	public static final String TEST_VIEWER_LINK_HELPER = "org.eclipse.ui.tests.navigator.TestLinkHelperView";
+	public static final String TEST_VIEWER_ASYNCHRONOUS = "org.eclipse.ui.tests.navigator.AsynchronousExpansionTestView";
+	public static final String TEST_VIEWER_VIRTUAL = "org.eclipse.ui.tests.navigator.VirtualTestView";
 
 	public static final String TEST_VIEW_NON_COMMONVIEWER = "org.eclipse.ui.tests.navigator.NonCommonViewerTestView";
 
@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.navigator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.jface.viewers.TreePath;
+import org.eclipse.jface.viewers.TreePathViewerSorter;
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.jface.viewers.ViewerFilter;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.TreeItem;
+import org.junit.Test;
+
+/**
+ * Tests the common viewer created with the <code>SWT.VIRTUAL</code> style.
+ */
+public class VirtualTreeTest extends NavigatorTestBase {
+
+	public VirtualTreeTest() {
+		_navigatorInstanceId = TEST_VIEWER_VIRTUAL;
+	}
+
+	private Object[] getChildren(TreeItem parentItem) {
+		TreeItem[] items = parentItem.getItems();
+		Object[] children = new Object[items.length];
+		for (int i = 0; i < items.length; i++) {
+			// asking for the text resolves the virtual item
+			items[i].getText();
+			children[i] = items[i].getData();
+		}
+		return children;
+	}
+
+	@Test
+	public void testChildrenSortedOnModelSide() throws Exception {
+		assertTrue((_viewer.getTree().getStyle() & SWT.VIRTUAL) != 0);
+
+		_viewer.expandToLevel(_project, 1);
+		TreeItem projectItem = (TreeItem) _viewer.testFindItem(_project);
+		assertEquals(_expectedChildren.size(), projectItem.getItemCount());
+
+		Object[] expected = _expectedChildren.toArray();
+		((TreePathViewerSorter) _viewer.getComparator()).sort(_viewer, new TreePath(new Object[] { _project }),
+				expected);
+		assertArrayEquals(expected, getChildren(projectItem));
+	}
+
+	@Test
+	public void testChildrenFilteredOnModelSide() throws Exception {
+		_viewer.addFilter(new ViewerFilter() {
+			@Override
+			public boolean select(Viewer viewer, Object parentElement, Object element) {
+				return !(element instanceof IFile);
+			}
+		});
+
+		_viewer.expandToLevel(_project, 1);
+		TreeItem projectItem = (TreeItem) _viewer.testFindItem(_project);
+		assertEquals(2, projectItem.getItemCount());
+		for (Object child : getChildren(projectItem)) {
+			assertTrue(_expectedChildren.contains(child));
+			assertTrue(!(child instanceof IFile));
+		}
+	}
+
+}
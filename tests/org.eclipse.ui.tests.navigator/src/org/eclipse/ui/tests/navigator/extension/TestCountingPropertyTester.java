@@ -0,0 +1,33 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.tests.navigator.extension;
+
+import org.eclipse.core.expressions.PropertyTester;
+
+/**
+ * Always passes, and counts how often it was asked.
+ */
+public class TestCountingPropertyTester extends PropertyTester {
+
+	public static int _count;
+
+	public static void resetTest() {
+		_count = 0;
+	}
+
+	@Override
+	public boolean test(Object receiver, String property, Object[] args, Object expectedValue) {
+		_count++;
+		return true;
+	}
+
+}
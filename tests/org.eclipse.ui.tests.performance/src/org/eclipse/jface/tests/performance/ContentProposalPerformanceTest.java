@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.tests.performance;
+
+import java.util.Random;
+
+import org.eclipse.jface.fieldassist.SimpleContentProposalProvider;
+import org.eclipse.ui.tests.performance.BasicPerformanceTest;
+
+/**
+ * Measures filtering a large list of content proposals as the user types in a
+ * field.
+ *
+ * @since 3.15
+ */
+public class ContentProposalPerformanceTest extends BasicPerformanceTest {
+
+	private static final int PROPOSAL_COUNT = 100000;
+
+	private static final String[] QUERIES = { "a", "ab", "abc", "ko", "kor", "zz", "qwe", "mnop", "x", "el" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$
+
+	/**
+	 * @param testName
+	 */
+	public ContentProposalPerformanceTest(String testName) {
+		super(testName);
+	}
+
+	/**
+	 * Filters the proposals starting with what the user typed.
+	 */
+	public void testPrefixFiltering() {
+		measureFiltering(false);
+	}
+
+	/**
+	 * Filters the proposals containing what the user typed.
+	 */
+	public void testSubstringFiltering() {
+		measureFiltering(true);
+	}
+
+	private void measureFiltering(boolean matchSubstrings) {
+		SimpleContentProposalProvider provider = new SimpleContentProposalProvider(createProposals());
+		provider.setFiltering(true);
+		provider.setSubstringMatching(matchSubstrings);
+		for (int i = 0; i < 20; i++) {
+			startMeasuring();
+			for (String query : QUERIES) {
+				provider.getProposals(query, query.length());
+			}
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private static String[] createProposals() {
+		Random random = new Random(42);
+		String[] proposals = new String[PROPOSAL_COUNT];
+		char[] chars = new char[16];
+		for (int i = 0; i < proposals.length; i++) {
+			int length = 4 + random.nextInt(chars.length - 4);
+			for (int j = 0; j < length; j++) {
+				chars[j] = (char) ((random.nextInt(5) == 0 ? 'A' : 'a') + random.nextInt(26));
+			}
+			proposals[i] = new String(chars, 0, length);
+		}
+		return proposals;
+	}
+}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.tests.performance;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import org.eclipse.jface.dialogs.DialogSettings;
+import org.eclipse.jface.dialogs.IDialogSettings;
+import org.eclipse.ui.XMLMemento;
+import org.eclipse.ui.tests.performance.BasicPerformanceTest;
+
+/**
+ * Measures reading and writing large settings files, as done for the dialog
+ * settings of many plug-ins and for the workbench state.
+ *
+ * @since 3.15
+ */
+public class DialogSettingsPerformanceTest extends BasicPerformanceTest {
+
+	private static final int SECTION_COUNT = 2000;
+
+	private static final int ITEM_COUNT = 50;
+
+	private static String settingsDocument;
+
+	/**
+	 * @param testName
+	 */
+	public DialogSettingsPerformanceTest(String testName) {
+		super(testName);
+	}
+
+	/**
+	 * Loads a settings document with many sections.
+	 */
+	public void testLoad() {
+		String document = getSettingsDocument();
+		for (int i = 0; i < 15; i++) {
+			DialogSettings settings = new DialogSettings("");
+			startMeasuring();
+			settings.load(new StringReader(document));
+			stopMeasuring();
+			assertEquals(SECTION_COUNT, settings.getSections().length);
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Saves settings with many sections.
+	 *
+	 * @throws IOException
+	 */
+	public void testSave() throws IOException {
+		DialogSettings settings = new DialogSettings("");
+		settings.load(new StringReader(getSettingsDocument()));
+		for (int i = 0; i < 15; i++) {
+			StringWriter writer = new StringWriter();
+			startMeasuring();
+			settings.save(writer);
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Reads the same document as a memento.
+	 *
+	 * @throws Exception
+	 */
+	public void testMementoReadRoot() throws Exception {
+		String document = getSettingsDocument();
+		for (int i = 0; i < 15; i++) {
+			startMeasuring();
+			XMLMemento memento = XMLMemento.createReadRoot(new StringReader(document));
+			stopMeasuring();
+			assertEquals(SECTION_COUNT, memento.getChildren("section").length);
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private static String getSettingsDocument() {
+		if (settingsDocument == null) {
+			DialogSettings settings = new DialogSettings("root");
+			for (int i = 0; i < SECTION_COUNT; i++) {
+				IDialogSettings section = settings.addNewSection("section" + i);
+				for (int j = 0; j < ITEM_COUNT; j++) {
+					section.put("key" + j, "value " + j + " of section " + i);
+				}
+				section.put("list", new String[] { "first", "second", "third" });
+			}
+			StringWriter writer = new StringWriter();
+			try {
+				settings.save(writer);
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+			settingsDocument = writer.toString();
+		}
+		return settingsDocument;
+	}
+}
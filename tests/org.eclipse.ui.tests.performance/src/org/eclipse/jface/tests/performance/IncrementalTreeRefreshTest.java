@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.jface.tests.performance;
+
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.ui.tests.performance.TestRunnable;
+
+/**
+ * IncrementalTreeRefreshTest measures how long it takes to refresh a folder
+ * with 10000 children after one child was added, with and without
+ * {@link org.eclipse.jface.viewers.AbstractTreeViewer#setIncrementalRefresh(boolean)}.
+ *
+ * @since 3.15
+ */
+public class IncrementalTreeRefreshTest extends TreeTest {
+
+	private static final int CHILD_COUNT = 10000;
+
+	private final boolean incremental;
+
+	/**
+	 * Create a new instance of the receiver.
+	 *
+	 * @param testName
+	 * @param incremental
+	 *            <code>true</code> to refresh incrementally
+	 */
+	public IncrementalTreeRefreshTest(String testName, boolean incremental) {
+		super(testName);
+		this.incremental = incremental;
+	}
+
+	public IncrementalTreeRefreshTest(String testName, boolean incremental, int tagging) {
+		super(testName, tagging);
+		this.incremental = incremental;
+	}
+
+	public void testRefreshOneAdded() {
+		tagIfNecessary("JFace - Refresh 10000 children after one was added"
+				+ (incremental ? " (incremental)" : ""), Dimension.ELAPSED_PROCESS);
+
+		openBrowser();
+		viewer.setIncrementalRefresh(incremental);
+
+		exercise(new TestRunnable() {
+			@Override
+			public void run() {
+				TestTreeElement input = new TestTreeElement(0, null);
+				TestTreeElement folder = new TestTreeElement(1, input);
+				input.children = new TestTreeElement[] { folder };
+				folder.createChildren(CHILD_COUNT);
+				viewer.setInput(input);
+				viewer.expandToLevel(folder, 1);
+				processEvents();
+
+				TestTreeElement[] children = new TestTreeElement[CHILD_COUNT + 1];
+				System.arraycopy(folder.children, 0, children, 0, CHILD_COUNT);
+				children[CHILD_COUNT] = new TestTreeElement(CHILD_COUNT, folder);
+				folder.children = children;
+
+				startMeasuring();
+				viewer.refresh(folder);
+				processEvents();
+				stopMeasuring();
+
+				assertEquals(CHILD_COUNT + 1, viewer.getTree().getItem(0).getItemCount());
+			}
+		}, MIN_ITERATIONS, ITERATIONS, JFacePerformanceSuite.MAX_TIME);
+
+		commitMeasurements();
+		assertPerformance();
+	}
+
+}
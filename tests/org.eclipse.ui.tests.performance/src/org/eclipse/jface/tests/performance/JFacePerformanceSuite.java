@@ -47,7 +47,14 @@ public class JFacePerformanceSuite extends FilteredTestSuite {
 		addTest(new TreeAddTest("testAddThousandPreSort", BasicPerformanceTest.GLOBAL));
 		addTest(new ProgressMonitorDialogPerformanceTest("testLongNames"));
 		addTest(new ShrinkingTreeTest("testTreeViewerRefresh"));
+		addTest(new IncrementalTreeRefreshTest("testRefreshOneAdded", false));
+		addTest(new IncrementalTreeRefreshTest("testRefreshOneAdded", true));
 		addTest(new CollatorPerformanceTest("testCollator"));
+		addTest(new DialogSettingsPerformanceTest("testLoad"));
+		addTest(new DialogSettingsPerformanceTest("testSave"));
+		addTest(new DialogSettingsPerformanceTest("testMementoReadRoot"));
+		addTest(new ContentProposalPerformanceTest("testPrefixFiltering"));
+		addTest(new ContentProposalPerformanceTest("testSubstringFiltering"));
 
 	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2006 IBM Corporation and others.
+ * Copyright (c) 2005, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -35,6 +35,7 @@ public class ActivitiesPerformanceSuite extends TestSuite {
     public ActivitiesPerformanceSuite() {
         super();
         addTest(new GenerateIdentifiersTest(10000));
+        addTest(new GenerateIdentifiersTest(20000, 500));
     }
 
 }
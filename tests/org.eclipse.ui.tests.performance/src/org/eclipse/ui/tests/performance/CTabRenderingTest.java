@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.ui.tests.performance;
+
+import org.eclipse.e4.ui.workbench.renderers.swt.CTabRendering;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.CTabFolder;
+import org.eclipse.swt.custom.CTabItem;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.layout.FillLayout;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+
+/**
+ * Measures the repainting of a tab folder drawn by {@link CTabRendering}, and
+ * reports the average time spent drawing a part of the tab chrome.
+ *
+ * @since 3.15
+ */
+public class CTabRenderingTest extends BasicPerformanceTest {
+
+	private static final int TAB_COUNT = 20;
+
+	private static final int PAINT_COUNT = 200;
+
+	private Shell shell;
+
+	private CTabFolder folder;
+
+	private CountingRendering renderer;
+
+	/**
+	 * Counts the parts drawn and the time spent drawing them. Parts drawn while
+	 * drawing another part, such as the background of the header, are not
+	 * counted separately.
+	 */
+	private static class CountingRendering extends CTabRendering {
+		long paintCount, paintTime;
+
+		private boolean drawing;
+
+		CountingRendering(CTabFolder parent) {
+			super(parent);
+		}
+
+		@Override
+		protected void draw(int part, int state, Rectangle bounds, GC gc) {
+			if (drawing) {
+				super.draw(part, state, bounds, gc);
+				return;
+			}
+			drawing = true;
+			long start = System.nanoTime();
+			try {
+				super.draw(part, state, bounds, gc);
+			} finally {
+				drawing = false;
+				paintTime += System.nanoTime() - start;
+				paintCount++;
+			}
+		}
+	}
+
+	/**
+	 * @param testName
+	 */
+	public CTabRenderingTest(String testName) {
+		super(testName);
+	}
+
+	@Override
+	protected void doSetUp() throws Exception {
+		super.doSetUp();
+		shell = new Shell(Display.getCurrent());
+		shell.setLayout(new FillLayout());
+		folder = new CTabFolder(shell, SWT.BORDER);
+		renderer = new CountingRendering(folder);
+		folder.setRenderer(renderer);
+		for (int i = 0; i < TAB_COUNT; i++) {
+			new CTabItem(folder, SWT.CLOSE).setText("Tab " + i);
+		}
+		folder.setSelection(0);
+		shell.setSize(800, 600);
+		shell.open();
+		processEvents();
+	}
+
+	@Override
+	protected void doTearDown() throws Exception {
+		shell.dispose();
+		super.doTearDown();
+	}
+
+	public void testPaintTabs() throws Throwable {
+		exercise(new TestRunnable() {
+			@Override
+			public void run() throws Exception {
+				renderer.paintCount = 0;
+				renderer.paintTime = 0;
+
+				startMeasuring();
+				for (int i = 0; i < PAINT_COUNT; i++) {
+					folder.setSelection(i % TAB_COUNT);
+					folder.redraw();
+					folder.update();
+				}
+				stopMeasuring();
+
+				long paintCount = renderer.paintCount;
+				assertTrue(paintCount > 0);
+				System.out.println(CTabRenderingTest.this + ": " + paintCount + " parts drawn, "
+						+ renderer.paintTime / paintCount + " ns per part");
+			}
+		});
+
+		commitMeasurements();
+		assertPerformance();
+	}
+}
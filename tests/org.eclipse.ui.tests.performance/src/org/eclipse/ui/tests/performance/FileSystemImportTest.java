@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.ui.tests.performance;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.ui.dialogs.IOverwriteQuery;
+import org.eclipse.ui.wizards.datatransfer.FileSystemStructureProvider;
+import org.eclipse.ui.wizards.datatransfer.ImportOperation;
+
+/**
+ * Measures the import of many small files from the file system, one by one or
+ * with {@link ImportOperation#setBulkImport(boolean)}, and reports the
+ * throughput of the import.
+ *
+ * @since 3.15
+ */
+public class FileSystemImportTest extends BasicPerformanceTest {
+
+	private static final int FOLDER_COUNT = 100;
+
+	private final int fileCount;
+
+	private final boolean bulk;
+
+	private File sourceDirectory;
+
+	/**
+	 * @param testName
+	 * @param fileCount
+	 *            the number of files to import
+	 * @param bulk
+	 *            <code>true</code> to import in bulk
+	 */
+	public FileSystemImportTest(String testName, int fileCount, boolean bulk) {
+		super(testName);
+		this.fileCount = fileCount;
+		this.bulk = bulk;
+	}
+
+	@Override
+	public String toString() {
+		return super.toString() + " [" + fileCount + " files" + (bulk ? ", bulk" : "") + "]";
+	}
+
+	@Override
+	protected void doSetUp() throws Exception {
+		super.doSetUp();
+		sourceDirectory = Files.createTempDirectory("FileSystemImportTest").toFile();
+		for (int i = 0; i < FOLDER_COUNT; i++) {
+			new File(sourceDirectory, "folder" + i).mkdir();
+		}
+		for (int i = 0; i < fileCount; i++) {
+			File file = new File(sourceDirectory, "folder" + (i % FOLDER_COUNT) + "/file" + i + ".txt");
+			Files.write(file.toPath(), ("content of file " + i).getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	@Override
+	protected void doTearDown() throws Exception {
+		try (Stream<Path> files = Files.walk(sourceDirectory.toPath())) {
+			files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+		super.doTearDown();
+	}
+
+	public void testImportFileSystem() throws Throwable {
+		final IFolder destination = getProject().getFolder("fileSystemImport");
+		exercise(new TestRunnable() {
+			@Override
+			public void run() throws Exception {
+				ImportOperation operation = new ImportOperation(destination.getFullPath(), sourceDirectory,
+						FileSystemStructureProvider.INSTANCE, pathString -> IOverwriteQuery.ALL);
+				operation.setCreateContainerStructure(false);
+				operation.setBulkImport(bulk);
+
+				startMeasuring();
+				long start = System.nanoTime();
+				operation.run(new NullProgressMonitor());
+				long elapsed = System.nanoTime() - start;
+				stopMeasuring();
+
+				assertTrue(operation.getStatus().isOK());
+				assertTrue(destination.getFile("folder0/file0.txt").exists());
+				System.out.println(FileSystemImportTest.this + ": "
+						+ (fileCount * 1000000000L / Math.max(1, elapsed)) + " files/s");
+				destination.delete(true, null);
+			}
+		}, 1, 5, 60000);
+
+		commitMeasurements();
+		assertPerformance();
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2007 IBM Corporation and others.
+ * Copyright (c) 2005, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,7 +11,17 @@
 
 package org.eclipse.ui.tests.performance;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
 import org.eclipse.ui.activities.IActivityManager;
+import org.eclipse.ui.activities.WorkbenchTriggerPointAdvisor;
+import org.eclipse.ui.internal.activities.AbstractActivityRegistry;
+import org.eclipse.ui.internal.activities.ActivityDefinition;
+import org.eclipse.ui.internal.activities.ActivityPatternBindingDefinition;
+import org.eclipse.ui.internal.activities.MutableActivityManager;
 
 /**
  * @since 3.1
@@ -21,13 +31,35 @@ public class GenerateIdentifiersTest extends BasicPerformanceTest {
 
     private int count;
 
+	private int activityCount;
+
     public GenerateIdentifiersTest(int numberOfIdentifiers) {
         super("Generate " + numberOfIdentifiers + " identifiers");
         this.count = numberOfIdentifiers;
     }
 
+	/**
+	 * Generates identifiers against a manager with the given number of
+	 * activities, each bound to a regular expression and an equality pattern,
+	 * then enables and disables all the activities so that every identifier is
+	 * matched again.
+	 *
+	 * @param numberOfIdentifiers
+	 * @param numberOfActivities
+	 * @since 3.15
+	 */
+	public GenerateIdentifiersTest(int numberOfIdentifiers, int numberOfActivities) {
+		super("Generate " + numberOfIdentifiers + " identifiers with " + numberOfActivities + " activities");
+		this.count = numberOfIdentifiers;
+		this.activityCount = numberOfActivities;
+	}
+
     @Override
 	protected void runTest() throws Throwable {
+		if (activityCount > 0) {
+			runGeneratedActivitiesTest();
+			return;
+		}
         final IActivityManager activityManager = fWorkbench.getActivitySupport().getActivityManager();
 
         exercise(new TestRunnable() {
@@ -50,4 +82,55 @@ public class GenerateIdentifiersTest extends BasicPerformanceTest {
         commitMeasurements();
         assertPerformance();
     }
+
+	private void runGeneratedActivitiesTest() throws Throwable {
+		final GeneratedActivityRegistry registry = new GeneratedActivityRegistry(activityCount);
+
+		exercise(new TestRunnable() {
+			@Override
+			public void run() throws Exception {
+				MutableActivityManager activityManager = new MutableActivityManager(
+						new WorkbenchTriggerPointAdvisor(), registry);
+				final String[] ids = new String[count];
+				for (int i = 0; i < ids.length; i++) {
+					long timestamp = System.currentTimeMillis();
+					ids[i] = "org.eclipse.plugin" + (i % activityCount) + "/" + i + timestamp;
+				}
+
+				startMeasuring();
+				for (int i = 0; i < ids.length; i++) {
+					activityManager.getIdentifier(ids[i]);
+				}
+				activityManager.setEnabledActivityIds(registry.activityIds);
+				activityManager.setEnabledActivityIds(Collections.EMPTY_SET);
+				stopMeasuring();
+
+				assertEquals(Collections.singleton("org.eclipse.activity0"),
+						activityManager.getIdentifier(ids[0]).getActivityIds());
+				activityManager.unhookRegistryListeners();
+			}
+		});
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private static class GeneratedActivityRegistry extends AbstractActivityRegistry {
+
+		final Set<String> activityIds = new HashSet<>();
+
+		GeneratedActivityRegistry(int activityCount) {
+			activityDefinitions = new ArrayList<>();
+			activityPatternBindingDefinitions = new ArrayList<>();
+			for (int i = 0; i < activityCount; i++) {
+				String activityId = "org.eclipse.activity" + i;
+				activityIds.add(activityId);
+				activityDefinitions.add(new ActivityDefinition(activityId, "Activity " + i, "org.eclipse.ui.tests",
+						null));
+				activityPatternBindingDefinitions.add(new ActivityPatternBindingDefinition(activityId,
+						"org\\.eclipse\\.plugin" + i + "/.*", "org.eclipse.ui.tests"));
+				activityPatternBindingDefinitions.add(new ActivityPatternBindingDefinition(activityId,
+						"org.eclipse.plugin" + i + ".views/view", "org.eclipse.ui.tests", true));
+			}
+		}
+	}
 }
@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.ui.tests.performance;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.MApplicationFactory;
+import org.eclipse.e4.ui.model.application.commands.MCommand;
+import org.eclipse.e4.ui.model.application.commands.MCommandsFactory;
+import org.eclipse.e4.ui.model.application.commands.MHandler;
+import org.eclipse.e4.ui.model.application.ui.basic.MBasicFactory;
+import org.eclipse.e4.ui.model.application.ui.basic.MPart;
+import org.eclipse.e4.ui.model.application.ui.basic.MPartStack;
+import org.eclipse.e4.ui.model.application.ui.basic.MTrimmedWindow;
+import org.eclipse.e4.ui.model.application.ui.menu.MHandledMenuItem;
+import org.eclipse.e4.ui.model.application.ui.menu.MMenu;
+import org.eclipse.e4.ui.model.application.ui.menu.MMenuFactory;
+import org.eclipse.e4.ui.model.fragment.MFragmentFactory;
+import org.eclipse.e4.ui.model.fragment.MStringModelFragment;
+
+/**
+ * Measures the merge of the model fragments contributed at startup, whose
+ * parents are selected with xpaths, into an application model.
+ *
+ * @since 3.15
+ */
+public class ModelFragmentMergeTest extends BasicPerformanceTest {
+
+	private static final int FRAGMENT_COUNT = 300;
+
+	private static final int MENU_COUNT = 20;
+
+	private static final int STACK_COUNT = 20;
+
+	private static final int PART_COUNT = 10;
+
+	/**
+	 * @param testName
+	 */
+	public ModelFragmentMergeTest(String testName) {
+		super(testName);
+	}
+
+	public void testMergeFragments() throws Throwable {
+		exercise(new TestRunnable() {
+			@Override
+			public void run() throws Exception {
+				MApplication application = createApplication();
+				List<MStringModelFragment> fragments = createFragments();
+
+				startMeasuring();
+				int merged = 0;
+				for (MStringModelFragment fragment : fragments) {
+					merged += fragment.merge(application).size();
+				}
+				stopMeasuring();
+
+				assertEquals(FRAGMENT_COUNT, merged);
+			}
+		});
+
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private static MApplication createApplication() {
+		MApplication application = MApplicationFactory.INSTANCE.createApplication();
+		application.setElementId("perf.application");
+		MTrimmedWindow window = MBasicFactory.INSTANCE.createTrimmedWindow();
+		window.setElementId("perf.window");
+		application.getChildren().add(window);
+		MMenu mainMenu = MMenuFactory.INSTANCE.createMenu();
+		mainMenu.setElementId("perf.menu");
+		window.setMainMenu(mainMenu);
+		for (int i = 0; i < MENU_COUNT; i++) {
+			MCommand command = MCommandsFactory.INSTANCE.createCommand();
+			command.setElementId("perf.command." + i);
+			application.getCommands().add(command);
+			MMenu menu = MMenuFactory.INSTANCE.createMenu();
+			menu.setElementId("perf.menu." + i);
+			mainMenu.getChildren().add(menu);
+			for (int j = 0; j < 10; j++) {
+				MHandledMenuItem item = MMenuFactory.INSTANCE.createHandledMenuItem();
+				item.setElementId("perf.menu." + i + ".item." + j);
+				item.setCommand(command);
+				menu.getChildren().add(item);
+			}
+		}
+		for (int i = 0; i < STACK_COUNT; i++) {
+			MPartStack stack = MBasicFactory.INSTANCE.createPartStack();
+			stack.setElementId("perf.stack." + i);
+			window.getChildren().add(stack);
+			for (int j = 0; j < PART_COUNT; j++) {
+				MPart part = MBasicFactory.INSTANCE.createPart();
+				part.setElementId("perf.stack." + i + ".part." + j);
+				stack.getChildren().add(part);
+			}
+		}
+		return application;
+	}
+
+	private static List<MStringModelFragment> createFragments() {
+		List<MStringModelFragment> fragments = new ArrayList<>();
+		for (int i = 0; i < FRAGMENT_COUNT; i++) {
+			MStringModelFragment fragment = MFragmentFactory.INSTANCE.createStringModelFragment();
+			switch (i % 3) {
+			case 0:
+				MHandledMenuItem item = MMenuFactory.INSTANCE.createHandledMenuItem();
+				item.setElementId("perf.fragment.item." + i);
+				fragment.getElements().add(item);
+				fragment.setFeaturename("children");
+				fragment.setParentElementId("xpath://*[@elementId='perf.menu." + i % MENU_COUNT + "']");
+				break;
+			case 1:
+				MPart part = MBasicFactory.INSTANCE.createPart();
+				part.setElementId("perf.fragment.part." + i);
+				fragment.getElements().add(part);
+				fragment.setFeaturename("children");
+				fragment.setParentElementId("xpath://children[@elementId='perf.stack." + i % STACK_COUNT
+						+ "' and ecore:eClassName(.)='PartStack']");
+				break;
+			default:
+				MHandler handler = MCommandsFactory.INSTANCE.createHandler();
+				handler.setElementId("perf.fragment.handler." + i);
+				fragment.getElements().add(handler);
+				fragment.setFeaturename("handlers");
+				fragment.setParentElementId("xpath:/");
+				break;
+			}
+			fragments.add(fragment);
+		}
+		return fragments;
+	}
+}
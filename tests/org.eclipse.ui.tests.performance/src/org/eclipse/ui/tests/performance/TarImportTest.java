@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.ui.tests.performance;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.ui.dialogs.IOverwriteQuery;
+import org.eclipse.ui.internal.wizards.datatransfer.TarEntry;
+import org.eclipse.ui.internal.wizards.datatransfer.TarFile;
+import org.eclipse.ui.internal.wizards.datatransfer.TarLeveledStructureProvider;
+import org.eclipse.ui.internal.wizards.datatransfer.TarOutputStream;
+import org.eclipse.ui.wizards.datatransfer.ImportOperation;
+
+/**
+ * Measures the import of a .tar.gz archive whose entries are not stored in the
+ * order in which the import visits them.
+ *
+ * @since 3.15
+ */
+public class TarImportTest extends BasicPerformanceTest {
+
+	private static final int FOLDER_COUNT = 100;
+
+	private final int entryCount;
+
+	private File archive;
+
+	/**
+	 * @param testName
+	 * @param entryCount
+	 *            the number of files in the archive
+	 */
+	public TarImportTest(String testName, int entryCount) {
+		super(testName);
+		this.entryCount = entryCount;
+	}
+
+	@Override
+	public String toString() {
+		return super.toString() + " [" + entryCount + " entries]";
+	}
+
+	@Override
+	protected void doSetUp() throws Exception {
+		super.doSetUp();
+		archive = File.createTempFile("TarImportTest", ".tar.gz");
+		try (TarOutputStream out = new TarOutputStream(
+				new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(archive))))) {
+			for (int i = 0; i < FOLDER_COUNT; i++) {
+				TarEntry folder = new TarEntry("folder" + i + "/");
+				folder.setFileType(TarEntry.DIRECTORY);
+				out.putNextEntry(folder);
+			}
+			// Spread consecutive entries over the folders, so that the import,
+			// which goes folder by folder, keeps going back in the archive.
+			for (int i = 0; i < entryCount; i++) {
+				byte[] content = ("content of file " + i).getBytes(StandardCharsets.UTF_8);
+				TarEntry entry = new TarEntry("folder" + (i % FOLDER_COUNT) + "/file" + i + ".txt");
+				entry.setSize(content.length);
+				out.putNextEntry(entry);
+				out.write(content);
+				out.closeEntry();
+			}
+		}
+	}
+
+	@Override
+	protected void doTearDown() throws Exception {
+		archive.delete();
+		super.doTearDown();
+	}
+
+	public void testImportTarGz() throws Throwable {
+		final IFolder destination = getProject().getFolder("tarImport");
+		exercise(new TestRunnable() {
+			@Override
+			public void run() throws Exception {
+				TarFile tarFile = new TarFile(archive);
+				TarLeveledStructureProvider provider = new TarLeveledStructureProvider(tarFile);
+				ImportOperation operation = new ImportOperation(destination.getFullPath(), provider.getRoot(),
+						provider, pathString -> IOverwriteQuery.ALL);
+
+				startMeasuring();
+				operation.run(new NullProgressMonitor());
+				stopMeasuring();
+
+				provider.closeArchive();
+				assertTrue(operation.getStatus().isOK());
+				assertTrue(destination.getFile("folder0/file0.txt").exists());
+				destination.delete(true, null);
+			}
+		}, 1, 5, 60000);
+
+		commitMeasurements();
+		assertPerformance();
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2017 IBM Corporation and others.
+ * Copyright (c) 2004, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -80,8 +80,29 @@ class WorkbenchPerformanceSuite extends TestSuite {
         addPerspectiveOpenCloseScenarios();
         addWindowOpenCloseScenarios();
         addContributionScenarios();
+        addDataTransferScenarios();
+        addTabRenderingScenarios();
+        addModelFragmentScenarios();
     }
 
+	private void addModelFragmentScenarios() {
+		addTest(new ModelFragmentMergeTest("testMergeFragments"));
+	}
+
+	private void addTabRenderingScenarios() {
+		addTest(new CTabRenderingTest("testPaintTabs"));
+	}
+
+	private void addDataTransferScenarios() {
+		int[] entryCounts = { 10000, 50000, 100000 };
+		for (int entryCount : entryCounts) {
+			addTest(new TarImportTest("testImportTarGz", entryCount));
+		}
+		addTest(new ZipExportTest("testExportZip", 50000));
+		addTest(new FileSystemImportTest("testImportFileSystem", 20000, false));
+		addTest(new FileSystemImportTest("testImportFileSystem", 20000, true));
+	}
+
     /**
 	 *
 	 */
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.ui.tests.performance;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.ui.internal.wizards.datatransfer.ArchiveFileExportOperation;
+
+/**
+ * Measures the export of many small files to a compressed zip archive, and
+ * reports the throughput and the peak heap usage of the export.
+ *
+ * @since 3.15
+ */
+public class ZipExportTest extends BasicPerformanceTest {
+
+	private static final int FOLDER_COUNT = 100;
+
+	private final int fileCount;
+
+	private IFolder source;
+
+	private File archive;
+
+	/**
+	 * @param testName
+	 * @param fileCount
+	 *            the number of files to export
+	 */
+	public ZipExportTest(String testName, int fileCount) {
+		super(testName);
+		this.fileCount = fileCount;
+	}
+
+	@Override
+	public String toString() {
+		return super.toString() + " [" + fileCount + " files]";
+	}
+
+	@Override
+	protected void doSetUp() throws Exception {
+		super.doSetUp();
+		source = getProject().getFolder("zipExport");
+		archive = File.createTempFile("ZipExportTest", ".zip");
+		ResourcesPlugin.getWorkspace().run((IWorkspaceRunnable) monitor -> {
+			source.create(true, true, null);
+			for (int i = 0; i < FOLDER_COUNT; i++) {
+				source.getFolder("folder" + i).create(true, true, null);
+			}
+			StringBuilder content = new StringBuilder();
+			for (int i = 0; i < fileCount; i++) {
+				content.setLength(0);
+				for (int line = 0; line < 50; line++) {
+					content.append("line ").append(line).append(" of file ").append(i).append('\n');
+				}
+				source.getFile("folder" + (i % FOLDER_COUNT) + "/file" + i + ".txt").create(
+						new ByteArrayInputStream(content.toString().getBytes(StandardCharsets.UTF_8)), true, null);
+			}
+		}, null);
+	}
+
+	@Override
+	protected void doTearDown() throws Exception {
+		archive.delete();
+		source.delete(true, null);
+		super.doTearDown();
+	}
+
+	public void testExportZip() throws Throwable {
+		exercise(new TestRunnable() {
+			@Override
+			public void run() throws Exception {
+				ArchiveFileExportOperation operation = new ArchiveFileExportOperation(source, archive.getPath());
+				operation.setUseCompression(true);
+				resetPeakHeapUsage();
+
+				startMeasuring();
+				long start = System.nanoTime();
+				operation.run(new NullProgressMonitor());
+				long elapsed = System.nanoTime() - start;
+				stopMeasuring();
+
+				assertTrue(operation.getStatus().isOK());
+				System.out.println(ZipExportTest.this + ": " + (fileCount * 1000000000L / Math.max(1, elapsed))
+						+ " files/s, peak heap " + getPeakHeapUsage() / (1024 * 1024) + " MB");
+			}
+		}, 1, 5, 60000);
+
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private static void resetPeakHeapUsage() {
+		System.gc();
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				pool.resetPeakUsage();
+			}
+		}
+	}
+
+	private static long getPeakHeapUsage() {
+		long peak = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				peak += pool.getPeakUsage().getUsed();
+			}
+		}
+		return peak;
+	}
+}
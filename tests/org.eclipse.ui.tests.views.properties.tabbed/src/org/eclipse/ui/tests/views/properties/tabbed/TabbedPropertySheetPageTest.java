@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2012 IBM Corporation and others.
+ * Copyright (c) 2006, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -183,6 +183,28 @@ public class TabbedPropertySheetPageTest
         assertEquals(InformationTwoSection.class, sections[1].getClass());
     }
 
+    /**
+     * When switching between Information nodes, the filtered sections are
+     * checked for every node and the tabs are kept while their sections stay
+     * the same. Tests the cache of the tabs for a selection type.
+     */
+    public void test_sectionFilterWithSameType() {
+        setSelection(new TreeNode[] {treeNodes[0]});
+        ITabDescriptor[] tabDescriptors = testsView.getTabbedPropertySheetPage().getActiveTabs();
+        assertEquals("Name", tabDescriptors[0].getLabel());//$NON-NLS-1$
+        TabContents tabContents = testsView.getTabbedPropertySheetPage().getCurrentTab();
+        assertEquals(1, tabContents.getSections().length);
+
+        setSelection(new TreeNode[] {treeNodes[1]});
+        assertEquals(2, testsView.getTabbedPropertySheetPage().getCurrentTab().getSections().length);
+
+        setSelection(new TreeNode[] {treeNodes[0]});
+        ITabDescriptor[] newTabDescriptors = testsView.getTabbedPropertySheetPage().getActiveTabs();
+        assertEquals(tabDescriptors.length, newTabDescriptors.length);
+        assertSame(tabDescriptors[1], newTabDescriptors[1]);
+        assertEquals(1, testsView.getTabbedPropertySheetPage().getCurrentTab().getSections().length);
+    }
+
     /**
      * When Information, Error and Warning Nodes are selected, only the Message
      * tab displays. Tests input attribute.
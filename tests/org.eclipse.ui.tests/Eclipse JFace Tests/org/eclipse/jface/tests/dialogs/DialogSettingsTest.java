@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,6 +16,7 @@ import java.io.IOException;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.util.Arrays;
 
 import org.eclipse.jface.dialogs.DialogSettings;
 import org.eclipse.jface.dialogs.IDialogSettings;
@@ -509,6 +510,31 @@ public class DialogSettingsTest extends TestCase {
 
 	}
 
+	public void testLoadDirectChildrenOnly() {
+		DialogSettings settings = new DialogSettings("");
+		settings.load(new StringReader("<?xml version=\"1.0\" encoding=\"UTF-8\"?><!-- comment -->"
+				+ "<section name=\"root\"><item key=\"a\" value=\"1\"/>"
+				+ "<other><item key=\"b\" value=\"2\"/></other>"
+				+ "<list key=\"l\"><item value=\"x\"/><other><item value=\"y\"/></other><item value=\"z\"/></list>"
+				+ "<section name=\"child\"><item key=\"c\" value=\"3\"/></section></section>"));
+
+		assertEquals("root", settings.getName());
+		assertEquals("1", settings.get("a"));
+		assertNull(settings.get("b"));
+		assertNull(settings.get("c"));
+		assertTrue(Arrays.equals(new String[] { "x", "z" }, settings.getArray("l")));
+		assertEquals("3", settings.getSection("child").get("c"));
+	}
+
+	public void testLoadMalformedDocument() {
+		DialogSettings settings = new DialogSettings("name");
+		settings.put("key", "value");
+		settings.load(new StringReader("<section name=\"other\"><item key=\"key\" value=\"changed\"/>"));
+
+		assertEquals("name", settings.getName());
+		assertEquals("value", settings.get("key"));
+	}
+
 	public void testSaveWithIOException() {
 		final DialogSettings settings = new DialogSettings("test");
 		try {
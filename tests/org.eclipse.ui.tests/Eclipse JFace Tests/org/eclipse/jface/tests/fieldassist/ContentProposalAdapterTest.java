@@ -10,7 +10,14 @@
 *******************************************************************************/
 package org.eclipse.jface.tests.fieldassist;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.eclipse.jface.fieldassist.ContentProposal;
 import org.eclipse.jface.fieldassist.ContentProposalAdapter;
+import org.eclipse.jface.fieldassist.IAsyncContentProposalProvider;
+import org.eclipse.jface.fieldassist.IContentProposal;
 import org.eclipse.jface.fieldassist.IContentProposalProvider;
 import org.eclipse.jface.fieldassist.SimpleContentProposalProvider;
 import org.eclipse.jface.fieldassist.TextContentAdapter;
@@ -103,6 +110,87 @@ public class ContentProposalAdapterTest extends TestCase {
 		assertOneShellUp();
 	}
 
+	/**
+	 * Tests whether the popup shows the proposals of an asynchronous provider
+	 * before the provider has computed all of them.
+	 */
+	public void testAsyncProposalsShownAsTheyArrive() throws Exception {
+		CountDownLatch moreProposals = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(1);
+		contentProposalAdapter.setAutoActivationDelay(0);
+		contentProposalAdapter.setContentProposalProvider(
+				(IAsyncContentProposalProvider) (contents, position, collector, monitor) -> {
+			collector.accept(new IContentProposal[] { new ContentProposal("one") });
+			try {
+				moreProposals.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				// end the computation
+			}
+			collector.accept(new IContentProposal[] { new ContentProposal("two") });
+			done.countDown();
+		});
+
+		sendKeyDownToControl('o');
+		spinEventLoopUntil(contentProposalAdapter::isProposalPopupOpen);
+		assertEquals(1, done.getCount());
+
+		moreProposals.countDown();
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		spinEventLoop();
+		assertTrue(contentProposalAdapter.isProposalPopupOpen());
+	}
+
+	/**
+	 * Tests whether the computation of an asynchronous provider is canceled
+	 * when the popup is closed.
+	 */
+	public void testAsyncComputationCanceledWhenPopupCloses() throws Exception {
+		CountDownLatch canceled = new CountDownLatch(1);
+		contentProposalAdapter.setAutoActivationDelay(0);
+		contentProposalAdapter.setContentProposalProvider(
+				(IAsyncContentProposalProvider) (contents, position, collector, monitor) -> {
+			collector.accept(new IContentProposal[] { new ContentProposal("one") });
+			long end = System.currentTimeMillis() + 5000;
+			while (!monitor.isCanceled() && System.currentTimeMillis() < end) {
+				try {
+					Thread.sleep(10);
+				} catch (InterruptedException e) {
+					return;
+				}
+			}
+			if (monitor.isCanceled()) {
+				canceled.countDown();
+			}
+		});
+
+		sendKeyDownToControl('o');
+		spinEventLoopUntil(contentProposalAdapter::isProposalPopupOpen);
+		sendKeyDownToControl(SWT.ESC);
+		assertFalse(contentProposalAdapter.isProposalPopupOpen());
+		assertTrue(canceled.await(5, TimeUnit.SECONDS));
+	}
+
+	/**
+	 * Tests whether only the last of several autoactivations within the
+	 * autoactivation delay opens the popup.
+	 */
+	public void testAutoActivationDelayRestartsOnTyping() throws Exception {
+		contentProposalAdapter.setAutoActivationDelay(500);
+		sendKeyDownToControl('o');
+		long start = System.currentTimeMillis();
+		while (System.currentTimeMillis() - start < 300) {
+			spinEventLoop();
+		}
+		sendKeyDownToControl('n');
+		start = System.currentTimeMillis();
+		while (System.currentTimeMillis() - start < 300) {
+			spinEventLoop();
+		}
+		assertFalse(contentProposalAdapter.isProposalPopupOpen());
+		ensurePopupIsUp();
+		assertTrue(contentProposalAdapter.isProposalPopupOpen());
+	}
+
 	// most of the following code is copied from AbstractFieldAssistTestCase
 
 	@Override
@@ -181,6 +269,20 @@ public class ContentProposalAdapterTest extends TestCase {
 		}
 	}
 
+	private void spinEventLoopUntil(BooleanSupplier condition) {
+		long end = System.currentTimeMillis() + 5000;
+		while (!condition.getAsBoolean() && System.currentTimeMillis() < end) {
+			if (!getDisplay().readAndDispatch()) {
+				try {
+					Thread.sleep(10);
+				} catch (InterruptedException e) {
+					// nothing to do
+				}
+			}
+		}
+		assertTrue("condition not met in time", condition.getAsBoolean());
+	}
+
 	private ContentProposalAdapter createContentProposalAdapter(Control control) {
 		ContentProposalAdapter contentProposalAdapter = new ContentProposalAdapter(control, new TextContentAdapter(),
 				createContentProposalProvider(), null, null);
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.tests.fieldassist;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.jface.fieldassist.IContentProposal;
+import org.eclipse.jface.fieldassist.SimpleContentProposalProvider;
+
+import junit.framework.TestCase;
+
+public class SimpleContentProposalProviderTest extends TestCase {
+
+	private static final String[] PROPOSALS = { "Beta", "alpha", "ALPHABET", "gamma", "Alphorn", "al", "delta",
+			"alpha", "Epsilon", "lambda" };
+
+	public void testUnfilteredProposals() {
+		SimpleContentProposalProvider provider = new SimpleContentProposalProvider(PROPOSALS);
+		assertEquals(PROPOSALS.length, provider.getProposals("alp", 3).length);
+		assertEquals(0, new SimpleContentProposalProvider().getProposals("", 0).length);
+	}
+
+	public void testPrefixFiltering() {
+		SimpleContentProposalProvider provider = new SimpleContentProposalProvider(PROPOSALS);
+		provider.setFiltering(true);
+		assertContents(provider.getProposals("alph", 4), "alpha", "ALPHABET", "Alphorn", "alpha");
+		assertContents(provider.getProposals("AL", 2), "alpha", "ALPHABET", "Alphorn", "al", "alpha");
+		assertContents(provider.getProposals("", 0), PROPOSALS);
+		assertContents(provider.getProposals("alphabets", 9));
+		assertContents(provider.getProposals("zeta", 4));
+	}
+
+	public void testSubstringFiltering() {
+		SimpleContentProposalProvider provider = new SimpleContentProposalProvider(PROPOSALS);
+		provider.setFiltering(true);
+		provider.setSubstringMatching(true);
+		assertContents(provider.getProposals("ph", 2), "alpha", "ALPHABET", "Alphorn", "alpha");
+		assertContents(provider.getProposals("LTA", 3), "delta");
+		assertContents(provider.getProposals("mbda", 4), "lambda");
+		assertContents(provider.getProposals("ambd", 4), "lambda");
+		assertContents(provider.getProposals("xyz", 3));
+	}
+
+	public void testProposalsReplaced() {
+		SimpleContentProposalProvider provider = new SimpleContentProposalProvider(PROPOSALS);
+		provider.setFiltering(true);
+		assertContents(provider.getProposals("ga", 2), "gamma");
+		provider.setProposals("game", "Galaxy", "gamma ray");
+		assertContents(provider.getProposals("ga", 2), "game", "Galaxy", "gamma ray");
+		provider.setSubstringMatching(true);
+		assertContents(provider.getProposals("ray", 3), "gamma ray");
+	}
+
+	public void testProposalsReused() {
+		SimpleContentProposalProvider provider = new SimpleContentProposalProvider(PROPOSALS);
+		provider.setFiltering(true);
+		IContentProposal first = provider.getProposals("gam", 3)[0];
+		assertSame(first, provider.getProposals("ga", 2)[0]);
+		provider.setFiltering(false);
+		assertSame(first, provider.getProposals("", 0)[3]);
+	}
+
+	public void testSameMatchesAsLinearSearch() {
+		Random random = new Random(42);
+		String[] proposals = new String[2000];
+		for (int i = 0; i < proposals.length; i++) {
+			proposals[i] = randomString(random, 1 + random.nextInt(8));
+		}
+		SimpleContentProposalProvider provider = new SimpleContentProposalProvider(proposals);
+		provider.setFiltering(true);
+		for (int i = 0; i < 500; i++) {
+			String contents = randomString(random, random.nextInt(5));
+			List<String> prefixMatches = new ArrayList<>();
+			List<String> substringMatches = new ArrayList<>();
+			for (String proposal : proposals) {
+				if (proposal.length() >= contents.length()
+						&& proposal.substring(0, contents.length()).equalsIgnoreCase(contents)) {
+					prefixMatches.add(proposal);
+				}
+				if (proposal.toLowerCase().contains(contents.toLowerCase())) {
+					substringMatches.add(proposal);
+				}
+			}
+			provider.setSubstringMatching(false);
+			assertContents(provider.getProposals(contents, contents.length()),
+					prefixMatches.toArray(new String[0]));
+			provider.setSubstringMatching(true);
+			assertContents(provider.getProposals(contents, contents.length()),
+					substringMatches.toArray(new String[0]));
+		}
+	}
+
+	private static String randomString(Random random, int length) {
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			char c = (char) ('a' + random.nextInt(4));
+			chars[i] = random.nextBoolean() ? Character.toUpperCase(c) : c;
+		}
+		return new String(chars);
+	}
+
+	private static void assertContents(IContentProposal[] proposals, String... expected) {
+		String[] contents = new String[proposals.length];
+		for (int i = 0; i < proposals.length; i++) {
+			contents[i] = proposals[i].getContent();
+		}
+		assertEquals(String.join(", ", expected), String.join(", ", contents));
+	}
+}
@@ -0,0 +1,327 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.tests.viewers;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.eclipse.jface.viewers.IElementComparer;
+import org.eclipse.jface.viewers.ITreeContentProvider;
+import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.jface.viewers.ViewerComparator;
+import org.eclipse.jface.viewers.ViewerFilter;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.layout.FillLayout;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.TreeItem;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests {@link TreeViewer#setIncrementalRefresh(boolean)}: after each refresh,
+ * the items of an incrementally refreshed viewer must be the ones of a viewer
+ * refreshed as usual.
+ */
+public class IncrementalRefreshTreeViewerTest extends TestCase {
+
+	private static final String ROOT = "root";
+
+	private final Map<Object, List<Object>> model = new HashMap<>();
+
+	private Shell shell;
+
+	private TreeViewer viewer;
+
+	private TreeViewer reference;
+
+	@Override
+	protected void setUp() throws Exception {
+		shell = new Shell();
+		shell.setLayout(new FillLayout());
+		setChildren(ROOT, "a", "b", "c", "d", "e");
+		setChildren("b", "b1", "b2");
+		setChildren("d", "d1", "d2", "d3");
+
+		viewer = createViewer();
+		viewer.setIncrementalRefresh(true);
+		reference = createViewer();
+		shell.open();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		shell.close();
+	}
+
+	private TreeViewer createViewer() {
+		TreeViewer treeViewer = new TreeViewer(shell, SWT.MULTI | SWT.H_SCROLL | SWT.V_SCROLL);
+		treeViewer.setUseHashlookup(true);
+		treeViewer.setContentProvider(new InternalContentProvider());
+		treeViewer.setLabelProvider(new LabelProvider());
+		treeViewer.setInput(ROOT);
+		return treeViewer;
+	}
+
+	private void setChildren(Object parent, Object... children) {
+		model.put(parent, Arrays.asList(children));
+	}
+
+	private void expand(Object element) {
+		viewer.setExpandedState(element, true);
+		reference.setExpandedState(element, true);
+	}
+
+	private void refresh() {
+		viewer.refresh();
+		reference.refresh();
+		assertSameItems();
+	}
+
+	private void assertSameItems() {
+		assertSameItems("", reference.getTree().getItems(), viewer.getTree().getItems());
+	}
+
+	private static void assertSameItems(String path, TreeItem[] expected, TreeItem[] actual) {
+		assertEquals(path + " item count", expected.length, actual.length);
+		for (int i = 0; i < expected.length; i++) {
+			String itemPath = path + "/" + expected[i].getText();
+			assertSame(itemPath, expected[i].getData(), actual[i].getData());
+			assertEquals(itemPath, expected[i].getText(), actual[i].getText());
+			assertEquals(itemPath + " expanded", expected[i].getExpanded(), actual[i].getExpanded());
+			assertSameItems(itemPath, expected[i].getItems(), actual[i].getItems());
+		}
+	}
+
+	private TreeItem findItem(Object element) {
+		return (TreeItem) viewer.testFindItem(element);
+	}
+
+	public void testInsert() {
+		TreeItem itemA = findItem("a");
+		TreeItem itemE = findItem("e");
+		setChildren(ROOT, "0", "a", "b", "b+", "c", "d", "e", "f");
+		refresh();
+		// the items of the unchanged children are kept
+		assertSame(itemA, findItem("a"));
+		assertSame(itemE, findItem("e"));
+	}
+
+	public void testRemove() {
+		TreeItem itemC = findItem("c");
+		setChildren(ROOT, "b", "c", "e");
+		refresh();
+		assertSame(itemC, findItem("c"));
+		assertNull(findItem("a"));
+		assertNull(findItem("d"));
+
+		setChildren(ROOT);
+		refresh();
+	}
+
+	public void testInsertAndRemove() {
+		TreeItem itemB = findItem("b");
+		setChildren(ROOT, "a", "x", "b", "d", "y");
+		refresh();
+		assertSame(itemB, findItem("b"));
+	}
+
+	public void testReorderFallsBack() {
+		setChildren(ROOT, "a", "d", "c", "b", "e");
+		refresh();
+		setChildren(ROOT, "e", "d", "c", "b", "a");
+		refresh();
+		setChildren(ROOT, "c", "x", "a");
+		refresh();
+	}
+
+	public void testFallbackWhenItemsChangedBehindTheDiff() {
+		refresh();
+		// add() changes the items without updating the remembered children
+		model.put(ROOT, Arrays.<Object> asList("a", "b", "c", "d", "e", "f"));
+		viewer.add(ROOT, "f");
+		reference.add(ROOT, "f");
+		setChildren(ROOT, "a", "c", "d", "e", "f", "g");
+		refresh();
+
+		// so does remove()
+		viewer.remove("c");
+		reference.remove("c");
+		setChildren(ROOT, "a", "d", "e", "f", "g");
+		refresh();
+	}
+
+	public void testFromAndToNoChildren() {
+		setChildren(ROOT);
+		refresh();
+		setChildren(ROOT, "a", "b");
+		refresh();
+		setChildren(ROOT, "a", "b", "c");
+		refresh();
+	}
+
+	public void testExpandedStateKept() {
+		expand("b");
+		expand("d");
+		assertSameItems();
+		TreeItem itemD = findItem("d");
+		TreeItem itemD2 = findItem("d2");
+
+		setChildren(ROOT, "a", "x", "b", "d", "e");
+		setChildren("d", "d1", "d2", "d3", "d4");
+		refresh();
+		assertTrue(findItem("b").getExpanded());
+		assertSame(itemD, findItem("d"));
+		assertTrue(itemD.getExpanded());
+		assertSame(itemD2, findItem("d2"));
+	}
+
+	public void testCollapsedChildrenRefreshed() {
+		expand("d");
+		viewer.setExpandedState("d", false);
+		reference.setExpandedState("d", false);
+		setChildren("d", "d0", "d1", "d3");
+		refresh();
+		expand("d");
+		assertSameItems();
+		setChildren("d", "d0", "d3");
+		refresh();
+	}
+
+	public void testRefreshElement() {
+		expand("d");
+		setChildren("d", "d1", "d1.5", "d2", "d3");
+		viewer.refresh("d");
+		reference.refresh("d");
+		assertSameItems();
+	}
+
+	public void testFilter() {
+		ViewerFilter filter = new ViewerFilter() {
+			@Override
+			public boolean select(Viewer aViewer, Object parentElement, Object element) {
+				return !element.toString().startsWith("x");
+			}
+		};
+		viewer.addFilter(filter);
+		reference.addFilter(filter);
+		assertSameItems();
+
+		setChildren(ROOT, "a", "x1", "b", "c", "x2", "d", "e", "f");
+		refresh();
+		setChildren(ROOT, "x0", "a", "c", "d", "x2", "f");
+		refresh();
+
+		viewer.removeFilter(filter);
+		reference.removeFilter(filter);
+		assertSameItems();
+	}
+
+	public void testSorter() {
+		viewer.setComparator(new ViewerComparator());
+		reference.setComparator(new ViewerComparator());
+		assertSameItems();
+
+		setChildren(ROOT, "e", "c", "a", "d", "b", "f", "0");
+		refresh();
+		setChildren(ROOT, "e", "a", "d", "bb", "f");
+		refresh();
+
+		// reversing the order falls back to the full update
+		ViewerComparator reverse = new ViewerComparator() {
+			@Override
+			public int compare(Viewer aViewer, Object e1, Object e2) {
+				return -super.compare(aViewer, e1, e2);
+			}
+		};
+		viewer.setComparator(reverse);
+		reference.setComparator(reverse);
+		assertSameItems();
+	}
+
+	public void testEqualButNotIdentical() {
+		expand("b");
+		TreeItem itemB = findItem("b");
+		Object b = new String("b");
+		Object c = new String("c");
+		setChildren(ROOT, "a", b, "x", c, "d", "e");
+		setChildren(b, "b1", "b2");
+		refresh();
+		// the kept items now hold the new instances
+		assertSame(itemB, findItem(b));
+		assertSame(b, itemB.getData());
+		assertTrue(itemB.getExpanded());
+		assertSame(c, findItem(c).getData());
+	}
+
+	public void testEqualWithComparer() {
+		IElementComparer comparer = new IElementComparer() {
+			@Override
+			public boolean equals(Object a, Object b) {
+				return a.toString().equalsIgnoreCase(b.toString());
+			}
+
+			@Override
+			public int hashCode(Object element) {
+				return element.toString().toLowerCase(Locale.ROOT).hashCode();
+			}
+		};
+		viewer.setComparer(comparer);
+		reference.setComparer(comparer);
+		expand("d");
+		TreeItem itemD = findItem("d");
+
+		setChildren(ROOT, "A", "b", "C", "x", "D", "e");
+		setChildren("D", "d1", "d2", "d3");
+		refresh();
+		assertSame(itemD, findItem("D"));
+		assertEquals("D", itemD.getData());
+		assertEquals("D", itemD.getText());
+		assertTrue(itemD.getExpanded());
+		assertEquals("A", findItem("a").getText());
+	}
+
+	private class InternalContentProvider implements ITreeContentProvider {
+
+		@Override
+		public Object[] getElements(Object inputElement) {
+			return getChildren(inputElement);
+		}
+
+		@Override
+		public Object[] getChildren(Object parentElement) {
+			List<Object> children = model.get(parentElement);
+			return children == null ? new Object[0] : children.toArray();
+		}
+
+		@Override
+		public Object getParent(Object element) {
+			return null;
+		}
+
+		@Override
+		public boolean hasChildren(Object element) {
+			return getChildren(element).length > 0;
+		}
+
+		@Override
+		public void dispose() {
+		}
+
+		@Override
+		public void inputChanged(Viewer aViewer, Object oldInput, Object newInput) {
+		}
+	}
+}
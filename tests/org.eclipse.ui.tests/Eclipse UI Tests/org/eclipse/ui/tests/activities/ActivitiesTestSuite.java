@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2015 IBM Corporation and others.
+ * Copyright (c) 2003, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -26,7 +26,8 @@ import org.junit.runners.Suite;
     PersistanceTest.class,
     ActivityPreferenceTest.class,
     MenusTest.class,
-    PatternUtilTest.class
+    PatternUtilTest.class,
+    ActivityPatternMatcherTest.class
 })
 public class ActivitiesTestSuite {
 
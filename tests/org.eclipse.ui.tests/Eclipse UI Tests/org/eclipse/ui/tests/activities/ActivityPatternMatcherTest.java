@@ -0,0 +1,222 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.tests.activities;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.eclipse.ui.internal.activities.ActivityPatternBinding;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the matcher used by the activity manager to find the activities bound
+ * to an identifier. The matcher is internal to its package, so it is accessed
+ * by reflection.
+ */
+public class ActivityPatternMatcherTest extends TestCase {
+
+	private static final String MATCHER_CLASS = "org.eclipse.ui.internal.activities.ActivityPatternMatcher";
+
+	private static Class<?> getMatcherClass() throws Exception {
+		return Class.forName(MATCHER_CLASS, true, ActivityPatternBinding.class.getClassLoader());
+	}
+
+	private static String getLiteralPrefix(Pattern pattern) throws Exception {
+		Method method = getMatcherClass().getDeclaredMethod("getLiteralPrefix", Pattern.class);
+		method.setAccessible(true);
+		return (String) method.invoke(null, pattern);
+	}
+
+	private static void assertPrefix(String expected, String regex) throws Exception {
+		assertEquals(regex, expected, getLiteralPrefix(Pattern.compile(regex)));
+	}
+
+	public void testPlainPrefix() throws Exception {
+		assertPrefix("", "");
+		assertPrefix("abc", "abc");
+		assertPrefix("org", "org.eclipse.ui");
+		assertPrefix("", ".*");
+		assertPrefix("", "^abc");
+		assertPrefix("abc", "abc$");
+	}
+
+	public void testEscapes() throws Exception {
+		assertPrefix("org.eclipse.ui.", "org\\.eclipse\\.ui\\..*");
+		assertPrefix("a$b", "a\\$b");
+		assertPrefix("a\\b", "a\\\\b");
+		assertPrefix("a(b)", "a\\(b\\)");
+		// character classes, boundaries and back references end the prefix
+		assertPrefix("ab", "ab\\d");
+		assertPrefix("ab", "ab\\bc");
+		assertPrefix("ab", "ab\\p{L}");
+		assertPrefix("a", "a(b)\\1");
+		assertPrefix("", "\\tab");
+	}
+
+	public void testQuotes() throws Exception {
+		assertPrefix("org.eclipse", "\\Qorg.eclipse\\E.*");
+		assertPrefix("org.eclipse", "\\Qorg.eclipse");
+		// any '|' is taken for an alternation
+		assertPrefix("", "\\Qa.b|c*d\\E");
+		assertPrefix("a.bc.d", "\\Qa.b\\Ec\\Q.d\\E");
+		assertPrefix("a.bx", "\\Qa.b\\Ex\\d");
+		assertPrefix("", "\\Q\\E.*");
+	}
+
+	public void testQuantifierAfterLastLiteral() throws Exception {
+		assertPrefix("ab", "abc?");
+		assertPrefix("ab", "abc*");
+		assertPrefix("ab", "abc{0,2}");
+		assertPrefix("ab", "abc{2}");
+		assertPrefix("ab", "abc??");
+		assertPrefix("ab", "abc*+");
+		// at least one occurrence keeps the character
+		assertPrefix("abc", "abc+");
+		assertPrefix("ab", "ab\\.?");
+		assertPrefix("a.", "\\Qa.b\\E?");
+		assertPrefix("", "a?");
+		assertPrefix("a", "a(bc)?");
+	}
+
+	public void testFlags() throws Exception {
+		assertEquals("", getLiteralPrefix(Pattern.compile("abc", Pattern.CASE_INSENSITIVE)));
+		assertEquals("", getLiteralPrefix(Pattern.compile("abc", Pattern.COMMENTS)));
+		assertEquals("", getLiteralPrefix(Pattern.compile("abc", Pattern.LITERAL)));
+		assertPrefix("", "(?i)abc");
+		assertPrefix("", "(?x)a b c");
+	}
+
+	public void testAlternation() throws Exception {
+		assertPrefix("", "abc|abd");
+		assertPrefix("", "a(b|c)");
+		assertPrefix("", "ab\\|c");
+	}
+
+	public void testCharacterClasses() throws Exception {
+		assertPrefix("", "[a-z]bc");
+		assertPrefix("ab", "ab[cd]");
+		assertPrefix("ab", "ab[^c]*");
+		assertPrefix("ab", "ab.");
+	}
+
+	/**
+	 * Every string matched by an expression must start with its prefix.
+	 */
+	public void testPrefixIsSound() throws Exception {
+		String[] regexes = { "abc?", "ab(?i)c", "\\Qa.b\\E?x", "a\\.b*", "ab{0,1}c", "a\\Q\\E*b" };
+		String[] strings = { "a", "ab", "abc", "abC", "a.x", "a.bx", "a.", "a.bbb", "ac", "abc", "b", "aaab" };
+		for (String regex : regexes) {
+			Pattern pattern = Pattern.compile(regex);
+			String prefix = getLiteralPrefix(pattern);
+			for (String string : strings) {
+				if (pattern.matcher(string).matches()) {
+					assertTrue(regex + " matches " + string + " but prefix is " + prefix, string.startsWith(prefix));
+				}
+			}
+		}
+	}
+
+	public void testMatchingActivityIds() throws Exception {
+		Map<String, Set<ActivityPatternBinding>> bindings = new HashMap<>();
+		addRegex(bindings, "a1", "org\\.eclipse\\.ui/.*");
+		addString(bindings, "a1", "org.eclipse.jdt/view");
+		addRegex(bindings, "a2", "org\\.eclipse\\..*");
+		addRegex(bindings, "a2", "(?i)ORG\\.ECLIPSE\\.PDE/.*");
+		addRegex(bindings, "a3", ".*/editor");
+		// shared with a1
+		addRegex(bindings, "a3", "org\\.eclipse\\.ui/.*");
+		addRegex(bindings, "a4", "org\\.eclipse\\.(jdt|pde)/.*");
+		addRegex(bindings, "a4", "com\\.example/\\Qa.b\\E.*");
+		addString(bindings, "a5", "org.eclipse.ui/view");
+		addString(bindings, "a5", "org.eclipse.ui/view");
+		addRegex(bindings, "a6", "org\\.eclipse\\.ui/views?");
+		addRegex(bindings, "a6", "org\\.eclipse\\.ui/v.*w");
+		add(bindings, new ActivityPatternBinding("a7", Pattern.compile("com\\.EXAMPLE/.*", Pattern.CASE_INSENSITIVE)));
+		addRegex(bindings, "a8", "");
+		addString(bindings, "a8", "");
+		addRegex(bindings, "a9", "org\\.eclipse\\.ui/view\\d*");
+		addRegex(bindings, "a9", "com\\.example/a.b.*");
+		addString(bindings, "a10", "org.eclipse.ui/view.*");
+		addRegex(bindings, "a11", "[oc].*");
+
+		Constructor<?> constructor = getMatcherClass().getDeclaredConstructor(Map.class);
+		constructor.setAccessible(true);
+		Object matcher = constructor.newInstance(bindings);
+		Method getMatchingActivityIds = getMatcherClass().getDeclaredMethod("getMatchingActivityIds", String.class);
+		getMatchingActivityIds.setAccessible(true);
+
+		List<String> identifiers = new ArrayList<>();
+		String[] fixed = { "", "org", "org.eclipse.ui/view", "org.eclipse.ui/views", "org.eclipse.ui/vw",
+				"org.eclipse.ui/view12", "org.eclipse.ui/view.*", "org.eclipse.jdt/view", "org.eclipse.pde/editor",
+				"ORG.ECLIPSE.PDE/x", "com.example/a.b.c", "com.example/axb", "COM.example/x", "net/editor",
+				"org.eclipse.uix/view", "org.eclipse.ui", "org.eclipse.ui/" };
+		for (String identifier : fixed) {
+			identifiers.add(identifier);
+		}
+		String[] tokens = { "org", ".", "eclipse", "ui", "/", "view", "s", "editor", "jdt", "pde", "com", "example",
+				"a.b", "ORG", "x", "1" };
+		Random random = new Random(0);
+		for (int i = 0; i < 2000; i++) {
+			StringBuilder identifier = new StringBuilder();
+			int count = random.nextInt(8);
+			for (int j = 0; j < count; j++) {
+				identifier.append(tokens[random.nextInt(tokens.length)]);
+			}
+			identifiers.add(identifier.toString());
+		}
+
+		for (String identifier : identifiers) {
+			assertEquals(identifier, getMatchingActivityIdsBruteForce(bindings, identifier),
+					getMatchingActivityIds.invoke(matcher, identifier));
+		}
+	}
+
+	/*
+	 * What Activity.isMatch answers, activity by activity.
+	 */
+	private static Set<String> getMatchingActivityIdsBruteForce(Map<String, Set<ActivityPatternBinding>> bindings,
+			String identifier) {
+		Set<String> activityIds = new HashSet<>();
+		for (Map.Entry<String, Set<ActivityPatternBinding>> entry : bindings.entrySet()) {
+			for (ActivityPatternBinding binding : entry.getValue()) {
+				if (binding.isMatch(identifier)) {
+					activityIds.add(entry.getKey());
+					break;
+				}
+			}
+		}
+		return activityIds;
+	}
+
+	private static void addRegex(Map<String, Set<ActivityPatternBinding>> bindings, String activityId,
+			String regex) {
+		add(bindings, new ActivityPatternBinding(activityId, regex, false));
+	}
+
+	private static void addString(Map<String, Set<ActivityPatternBinding>> bindings, String activityId,
+			String string) {
+		add(bindings, new ActivityPatternBinding(activityId, string, true));
+	}
+
+	private static void add(Map<String, Set<ActivityPatternBinding>> bindings, ActivityPatternBinding binding) {
+		bindings.computeIfAbsent(binding.getActivityId(), id -> new HashSet<>()).add(binding);
+	}
+}
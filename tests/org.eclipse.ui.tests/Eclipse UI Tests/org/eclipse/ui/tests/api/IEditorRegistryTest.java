@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -597,4 +597,12 @@ public class IEditorRegistryTest extends TestCase {
 		assertArrayEquals("No editor should be bound after contenttype removal", new IEditorDescriptor[0],
 				fReg.getEditors("blah.bug520239"));
 	}
+
+	public void testGetEditorsReturnsCopy() {
+		IEditorDescriptor[] editors = fReg.getEditors("foo.defaultedContentType");
+		assertEquals(4, editors.length);
+		editors[0] = null;
+		assertEquals("org.eclipse.ui.tests.defaultedContentTypeEditor",
+				fReg.getEditors("foo.defaultedContentType")[0].getId());
+	}
 }
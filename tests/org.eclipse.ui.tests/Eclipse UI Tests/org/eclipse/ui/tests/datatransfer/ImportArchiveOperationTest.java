@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,15 +10,22 @@
  *******************************************************************************/
 package org.eclipse.ui.tests.datatransfer;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Enumeration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
 
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IFile;
@@ -280,6 +287,136 @@ public class ImportArchiveOperationTest extends UITestCase implements IOverwrite
 
     }
 
+	public void testZipBulkImport() throws Exception {
+		setup(ARCHIVE_SOURCE_PROPERTY);
+		project = FileUtil.createProject("ImportZipBulk");
+		ZipFile zipFile = new ZipFile(zipFileURL.getPath());
+		ZipLeveledStructureProvider structureProvider = new ZipLeveledStructureProvider(zipFile);
+		ImportOperation operation = new ImportOperation(new Path(project.getName()), structureProvider.getRoot(),
+				structureProvider, this, getFileEntries(zipFile));
+		operation.setBulkImport(true);
+
+		openTestWindow().run(true, true, operation);
+		closeZipFile(zipFile);
+
+		assertTrue(operation.getStatus().isOK());
+		verifyFiles(directoryNames.length, false);
+	}
+
+	public void testTarBulkImport() throws Exception {
+		setup(ARCHIVE_SOURCE_PROPERTY);
+		project = FileUtil.createProject("ImportTarBulk");
+		TarFile tarFile = new TarFile(tarFileURL.getPath());
+		TarLeveledStructureProvider structureProvider = new TarLeveledStructureProvider(tarFile);
+
+		Enumeration<?> tarEntries = tarFile.entries();
+		List<Object> entries = new ArrayList<>();
+		while (tarEntries.hasMoreElements()) {
+			entries.add(tarEntries.nextElement());
+		}
+		ImportOperation operation = new ImportOperation(new Path(project.getName()), structureProvider.getRoot(),
+				structureProvider, this, entries);
+		operation.setBulkImport(true);
+
+		openTestWindow().run(true, true, operation);
+		operation.setOverwriteResources(true);
+		openTestWindow().run(true, true, operation);
+
+		assertTrue(operation.getStatus().isOK());
+		verifyFiles(directoryNames.length, false);
+	}
+
+	public void testTarBulkImportWithFileAtRoot() throws Exception {
+		setup(ARCHIVE_115800_PROPERTY);
+		project = FileUtil.createProject("ImportTarBulkWithFileAtRoot");
+		TarFile tarFile = new TarFile(tarFileURL.getPath());
+		TarLeveledStructureProvider structureProvider = new TarLeveledStructureProvider(tarFile);
+
+		Enumeration<?> tarEntries = tarFile.entries();
+		List<Object> entries = new ArrayList<>();
+		while (tarEntries.hasMoreElements()) {
+			entries.add(tarEntries.nextElement());
+		}
+		ImportOperation operation = new ImportOperation(new Path(project.getName()), structureProvider.getRoot(),
+				structureProvider, this, entries);
+		operation.setBulkImport(true);
+
+		openTestWindow().run(true, true, operation);
+
+		verifyFiles(directoryNames.length, true);
+	}
+
+	public void testZipBulkImportLargeEntries() throws Exception {
+		project = FileUtil.createProject("ImportZipBulkLargeEntries");
+		// just below and above the size read ahead by the bulk import
+		Map<String, byte[]> contents = new LinkedHashMap<>();
+		contents.put("big/small.txt", createContents(100));
+		contents.put("big/exact.bin", createContents(1024 * 1024));
+		contents.put("big/large.bin", createContents(1024 * 1024 + 1));
+		contents.put("big/nested/larger.bin", createContents(3 * 1024 * 1024 + 17));
+
+		File archive = File.createTempFile("ImportZipBulkLargeEntries", ".zip");
+		try {
+			try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(archive))) {
+				for (Map.Entry<String, byte[]> entry : contents.entrySet()) {
+					out.putNextEntry(new ZipEntry(entry.getKey()));
+					out.write(entry.getValue());
+					out.closeEntry();
+				}
+			}
+			ZipFile zipFile = new ZipFile(archive);
+			ZipLeveledStructureProvider structureProvider = new ZipLeveledStructureProvider(zipFile);
+			ImportOperation operation = new ImportOperation(new Path(project.getName()),
+					structureProvider.getRoot(), structureProvider, this, getFileEntries(zipFile));
+			operation.setBulkImport(true);
+
+			openTestWindow().run(true, true, operation);
+			closeZipFile(zipFile);
+
+			assertTrue(operation.getStatus().isOK());
+			for (Map.Entry<String, byte[]> entry : contents.entrySet()) {
+				IFile file = project.getFile(entry.getKey());
+				assertTrue("File not imported: " + entry.getKey(), file.exists());
+				assertTrue("Contents differ: " + entry.getKey(),
+						Arrays.equals(entry.getValue(), getContents(file)));
+			}
+		} finally {
+			archive.delete();
+		}
+	}
+
+	private static List<ZipEntry> getFileEntries(ZipFile zipFile) {
+		Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+		List<ZipEntry> entries = new ArrayList<>();
+		while (zipEntries.hasMoreElements()) {
+			ZipEntry entry = zipEntries.nextElement();
+			if (!entry.isDirectory()) {
+				entries.add(entry);
+			}
+		}
+		return entries;
+	}
+
+	private static byte[] createContents(int size) {
+		byte[] contents = new byte[size];
+		for (int i = 0; i < size; i++) {
+			contents[i] = (byte) (i * 31 + size);
+		}
+		return contents;
+	}
+
+	private static byte[] getContents(IFile file) throws CoreException, IOException {
+		try (InputStream in = file.getContents()) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int n;
+			while ((n = in.read(buffer)) != -1) {
+				out.write(buffer, 0, n);
+			}
+			return out.toByteArray();
+		}
+	}
+
     /**
      * Verifies that all files were imported.
      *
@@ -91,6 +91,7 @@ public class ImportExistingProjectsWizardTest extends UITestCase {
 		ts.addTest(new ImportExistingProjectsWizardTest("testFindSingleTar"));
 		ts.addTest(new ImportExistingProjectsWizardTest("testFindSingleDirectory"));
 		ts.addTest(new ImportExistingProjectsWizardTest("testDoNotShowProjectWithSameName"));
+		ts.addTest(new ImportExistingProjectsWizardTest("testFindDirectorySkipsIgnoredFolders"));
 		ts.addTest(new ImportExistingProjectsWizardTest("testImportSingleZip"));
 		ts.addTest(new ImportExistingProjectsWizardTest("testImportZipWithEmptyFolder"));
 		ts.addTest(new ImportExistingProjectsWizardTest("testImportSingleTar"));
@@ -286,6 +287,29 @@ public class ImportExistingProjectsWizardTest extends UITestCase {
 		}
 	}
 
+	public void testFindDirectorySkipsIgnoredFolders() throws Exception {
+		dataLocation = copyDataLocation(WS_DATA_LOCATION);
+		File ignoredFolder = new File(dataLocation, "node_modules");
+		assertTrue(ignoredFolder.mkdir());
+		assertTrue(new File(dataLocation, "HelloWorld").renameTo(new File(ignoredFolder, "HelloWorld")));
+		// A folder which is not ignored must still be searched
+		File otherFolder = new File(dataLocation, "modules");
+		assertTrue(otherFolder.mkdir());
+		assertTrue(new File(dataLocation, "WorldHello").renameTo(new File(otherFolder, "WorldHello")));
+
+		WizardProjectsImportPage wpip = getNewWizard();
+		// We're importing a directory
+		wpip.getProjectFromDirectoryRadio().setSelection((true));
+		wpip.updateProjectsList(dataLocation);
+
+		ProjectRecord[] selectedProjects = wpip.getProjectRecords();
+		assertEquals("Only the project outside of the ignored folder should be found", 1,
+				selectedProjects.length);
+		assertEquals("WorldHello", selectedProjects[0].getProjectName());
+		String label = selectedProjects[0].getProjectLabel();
+		assertTrue(label, label.contains("modules" + File.separator + "WorldHello"));
+	}
+
 	public void testImportSingleZip() {
 		try {
 			IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
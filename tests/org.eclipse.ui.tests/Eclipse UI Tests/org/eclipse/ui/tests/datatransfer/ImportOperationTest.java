@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,19 +10,26 @@
  *******************************************************************************/
 package org.eclipse.ui.tests.datatransfer;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
 
 import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.tests.harness.FileSystemHelper;
 import org.eclipse.ui.dialogs.IOverwriteQuery;
@@ -227,6 +234,265 @@ public class ImportOperationTest extends UITestCase implements IOverwriteQuery {
         openTestWindow().run(true, true, operation);
     }
 
+	public void testBulkImport() throws Exception {
+		project = FileUtil.createProject("ImportBulk");
+		fillFiles();
+		List<File> importElements = new ArrayList<>();
+		importElements.add(new File(localDirectory));
+		ImportOperation operation = new ImportOperation(project.getFullPath(),
+				FileSystemStructureProvider.INSTANCE, this, importElements);
+		operation.setBulkImport(true);
+		openTestWindow().run(true, true, operation);
+
+		assertTrue(operation.getStatus().isOK());
+		verifyFiles(directoryNames.length);
+		verifyContents((IContainer) project.findMember(new Path(localDirectory).makeRelative()));
+	}
+
+	public void testBulkImportWithoutContainerStructure() throws Exception {
+		project = FileUtil.createProject("ImportBulkWithoutContainerStructure");
+		fillFiles();
+		List<File> importElements = new ArrayList<>();
+		importElements.add(new File(localDirectory));
+		ImportOperation operation = new ImportOperation(project.getFullPath(),
+				FileSystemStructureProvider.INSTANCE, this, importElements);
+		operation.setCreateContainerStructure(false);
+		operation.setBulkImport(true);
+		openTestWindow().run(true, true, operation);
+
+		assertTrue(operation.getStatus().isOK());
+		IResource targetFolder = project.findMember(new Path(localDirectory).lastSegment());
+		assertTrue("Import failed", targetFolder instanceof IContainer);
+		verifyContents((IContainer) targetFolder);
+	}
+
+	public void testBulkImportNoToAll() throws Exception {
+		project = FileUtil.createProject("ImportBulkNoToAll");
+		fillFiles();
+		List<File> files = getSourceFiles();
+		importFiles(files, this);
+		setAllContents("changed");
+
+		int[] queries = { 0 };
+		ImportOperation operation = importFiles(files, path -> {
+			queries[0]++;
+			return IOverwriteQuery.NO_ALL;
+		});
+		assertEquals("NO_ALL must only be asked once", 1, queries[0]);
+		assertTrue(operation.getStatus().isOK());
+		assertAllContents("changed");
+	}
+
+	public void testBulkImportCancelInOverwriteQuery() throws Exception {
+		project = FileUtil.createProject("ImportBulkCancelInOverwriteQuery");
+		fillFiles();
+		List<File> files = getSourceFiles();
+		importFiles(files, this);
+		setAllContents("changed");
+
+		int[] queries = { 0 };
+		try {
+			importFiles(files, path -> ++queries[0] < 3 ? IOverwriteQuery.YES : IOverwriteQuery.CANCEL);
+			fail("Import was not canceled");
+		} catch (InterruptedException e) {
+			// expected
+		}
+		assertEquals(3, queries[0]);
+		// the files answered with YES are not written either
+		assertAllContents("changed");
+	}
+
+	public void testBulkImportLargeFiles() throws Exception {
+		project = FileUtil.createProject("ImportBulkLargeFiles");
+		fillFiles();
+		// just below and above the size read ahead by the bulk import
+		File dir = new File(localDirectory, directoryNames[0]);
+		writeFile(new File(dir, "exact.bin"), 1024 * 1024);
+		writeFile(new File(dir, "large.bin"), 1024 * 1024 + 1);
+		writeFile(new File(dir, "larger.bin"), 3 * 1024 * 1024 + 17);
+
+		ImportOperation operation = new ImportOperation(project.getFullPath(), new File(localDirectory),
+				FileSystemStructureProvider.INSTANCE, this);
+		operation.setCreateContainerStructure(false);
+		operation.setBulkImport(true);
+		openTestWindow().run(true, true, operation);
+
+		assertTrue(operation.getStatus().isOK());
+		verifyContents(project);
+	}
+
+	public void testBulkImportUnreadableFile() throws Exception {
+		project = FileUtil.createProject("ImportBulkUnreadableFile");
+		fillFiles();
+		File unreadable = new File(new File(localDirectory, directoryNames[1]), fileNames[0]);
+		if (!unreadable.setReadable(false) || unreadable.canRead()) {
+			// not supported, e.g. when running as root
+			return;
+		}
+		try {
+			ImportOperation operation = new ImportOperation(project.getFullPath(), new File(localDirectory),
+					FileSystemStructureProvider.INSTANCE, this);
+			operation.setCreateContainerStructure(false);
+			operation.setBulkImport(true);
+			openTestWindow().run(true, true, operation);
+
+			IStatus status = operation.getStatus();
+			assertEquals(IStatus.ERROR, status.getSeverity());
+			assertEquals(1, status.getChildren().length);
+			assertTrue(status.getChildren()[0].getMessage(),
+					status.getChildren()[0].getMessage().contains(unreadable.getPath()));
+			assertFalse(getTargetFile(unreadable).exists());
+			for (File file : getSourceFiles()) {
+				if (!file.equals(unreadable)) {
+					assertContents(file, getTargetFile(file));
+				}
+			}
+		} finally {
+			unreadable.setReadable(true);
+		}
+	}
+
+	public void testBulkImportCanceled() throws Exception {
+		project = FileUtil.createProject("ImportBulkCanceled");
+		File dir = new File(localDirectory, "many");
+		dir.mkdir();
+		int fileCount = 40;
+		for (int i = 0; i < fileCount; i++) {
+			writeFile(new File(dir, "file" + i + ".txt"), 10000 + i);
+		}
+		ImportOperation operation = new ImportOperation(project.getFullPath(), dir,
+				FileSystemStructureProvider.INSTANCE, this);
+		operation.setCreateContainerStructure(false);
+		operation.setBulkImport(true);
+		NullProgressMonitor monitor = new NullProgressMonitor() {
+			private int files;
+
+			@Override
+			public void subTask(String name) {
+				if (name.endsWith(".txt") && ++files == 10) {
+					setCanceled(true);
+				}
+			}
+		};
+		try {
+			operation.run(monitor);
+			fail("Import was not canceled");
+		} catch (InterruptedException e) {
+			// expected
+		}
+
+		IResource[] members = project.members();
+		int imported = 0;
+		for (IResource member : members) {
+			if (member.getName().endsWith(".txt")) {
+				// no partially written file is left behind
+				assertContents(new File(dir, member.getName()), (IFile) member);
+				imported++;
+			}
+		}
+		assertTrue("Import did not stop: " + imported, imported < fileCount);
+		assertTrue(project.isSynchronized(IResource.DEPTH_INFINITE));
+	}
+
+	/**
+	 * Gives every source file a distinct content.
+	 */
+	private void fillFiles() throws IOException {
+		for (File file : getSourceFiles()) {
+			Files.write(file.toPath(), file.getPath().getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	private List<File> getSourceFiles() {
+		List<File> files = new ArrayList<>();
+		for (String directoryName : directoryNames) {
+			for (String fileName : fileNames) {
+				files.add(new File(new File(localDirectory, directoryName), fileName));
+			}
+		}
+		return files;
+	}
+
+	private static void writeFile(File file, int size) throws IOException {
+		byte[] contents = new byte[size];
+		for (int i = 0; i < size; i++) {
+			contents[i] = (byte) (i * 31 + size);
+		}
+		Files.write(file.toPath(), contents);
+	}
+
+	/**
+	 * Imports the given source files in bulk into folders of the project named
+	 * after their parent directories.
+	 */
+	private ImportOperation importFiles(List<File> files, IOverwriteQuery query) throws Exception {
+		ImportOperation operation = new ImportOperation(project.getFullPath(), new File(localDirectory),
+				FileSystemStructureProvider.INSTANCE, query, files);
+		operation.setCreateContainerStructure(false);
+		operation.setBulkImport(true);
+		openTestWindow().run(true, true, operation);
+		return operation;
+	}
+
+	private IFile getTargetFile(File sourceFile) {
+		return project.getFolder(sourceFile.getParentFile().getName()).getFile(sourceFile.getName());
+	}
+
+	private void setAllContents(String contents) throws CoreException {
+		for (File file : getSourceFiles()) {
+			getTargetFile(file).setContents(new ByteArrayInputStream(contents.getBytes(StandardCharsets.UTF_8)),
+					true, false, null);
+		}
+	}
+
+	private void assertAllContents(String contents) throws Exception {
+		for (File file : getSourceFiles()) {
+			IFile target = getTargetFile(file);
+			assertEquals(target.getFullPath().toString(), contents,
+					new String(getContents(target), StandardCharsets.UTF_8));
+		}
+	}
+
+	/**
+	 * Verifies that every file below the given local directory was imported
+	 * with the same contents.
+	 */
+	private void verifyContents(IContainer target) throws Exception {
+		verifyContents(new File(localDirectory), target);
+	}
+
+	private void verifyContents(File source, IContainer target) throws Exception {
+		File[] children = source.listFiles();
+		assertNotNull(children);
+		for (File child : children) {
+			if (child.isDirectory()) {
+				IResource folder = target.findMember(child.getName());
+				assertTrue("Folder not imported: " + child, folder instanceof IContainer);
+				verifyContents(child, (IContainer) folder);
+			} else {
+				assertContents(child, target.getFile(new Path(child.getName())));
+			}
+		}
+	}
+
+	private static void assertContents(File source, IFile target) throws Exception {
+		assertTrue("File not imported: " + source, target.exists());
+		assertTrue("Contents differ: " + target.getFullPath(),
+				Arrays.equals(Files.readAllBytes(source.toPath()), getContents(target)));
+	}
+
+	private static byte[] getContents(IFile file) throws CoreException, IOException {
+		try (InputStream in = file.getContents()) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int n;
+			while ((n = in.read(buffer)) != -1) {
+				out.write(buffer, 0, n);
+			}
+			return out.toByteArray();
+		}
+	}
+
     /**
      * Verifies that all files were imported.
      *